@@ -0,0 +1,52 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.constants.EndPoints;
+import com.cims.api.gateway.util.PathPrefixTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled open endpoint matcher of {@link RouteValidator} with the previous linear
+ * {@code String.contains} scan over {@link EndPoints#OPEN_API_END_POINTS}.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouteValidatorBenchmark {
+
+    /**
+     * Paths typical of a page load: static assets, a page, an open API call and secured API calls.
+     */
+    @Param({
+            "/user/js/module/common.js",
+            "/user/libs/bootstrap/js/bootstrap.bundle.min.js",
+            "/user/file/imgDownloader/12/photo/jpg",
+            "/user/employee-employee/admin/eyJhbGciOiJIUzI1NiJ9",
+            "/employee/employee/getAll",
+            "/project/clientProject/getById/42"
+    })
+    private String path;
+
+    private final PathPrefixTrie openApiEndPoints = PathPrefixTrie.of(EndPoints.OPEN_API_END_POINTS);
+
+    @Benchmark
+    public boolean containsScan() {
+        return EndPoints.OPEN_API_END_POINTS
+                .stream()
+                .noneMatch(uri -> path.contains(uri));
+    }
+
+    @Benchmark
+    public boolean prefixTrie() {
+        return !openApiEndPoints.matches(path);
+    }
+}
@@ -1,15 +1,44 @@
 package com.cims.api.gateway.config;
 
+import com.cims.common.jwt.JsonWebKeySet;
+import com.cims.common.jwt.JwtKeySet;
+import com.cims.common.loadbalancer.LoadBalancerConfig;
+import com.cims.common.security.ServiceCredential;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
 
 /**
  * Configuration class that provides Spring beans for use throughout the application.
  */
 @Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, ResponseCacheProperties.class, RequestCoalescingProperties.class,
+        HedgingProperties.class, BatchProperties.class})
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.class)
 public class AppConfig {
 
+    private static final Duration KEY_SET_FETCH_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Returns the credential sent to the internal endpoints of the services.
+     *
+     * @param secret the secret shared by the services
+     * @return the service credential
+     */
+    @Bean
+    public ServiceCredential serviceCredential(@Value("${internal.secret}") String secret) {
+        return new ServiceCredential(secret);
+    }
+
     /**
      * Creates and returns a new instance of the {@link RestTemplate} class.
      *
@@ -19,4 +48,39 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    /**
+     * Returns the public keys that verify tokens, fetched from the key set endpoint of the auth service. The fetches
+     * run on the thread of the key set, which may block, as resolving the auth service through the load balancer
+     * may block the first time it is looked up.
+     *
+     * @param loadBalancerFunction   the filter that resolves the auth service through the load balancer
+     * @param keySetUri              the URI of the key set endpoint
+     * @param refreshInterval        how often the key set is fetched
+     * @param minimumRefreshInterval the minimum time between two fetches triggered by unknown keys
+     * @return the key set
+     */
+    @Bean(destroyMethod = "shutdown")
+    public JwtKeySet jwtKeySet(ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                               @Value("${jwt.key-set.uri:http://AUTH-SERVICE/auth/keySet}") String keySetUri,
+                               @Value("${jwt.key-set.refresh-interval:5m}") Duration refreshInterval,
+                               @Value("${jwt.key-set.minimum-refresh-interval:5s}") Duration minimumRefreshInterval) {
+        WebClient webClient = WebClient.builder().filter(loadBalancerFunction).build();
+        return new JwtKeySet(() -> webClient.get()
+                .uri(keySetUri)
+                .retrieve()
+                .bodyToMono(JsonWebKeySet.class)
+                .block(KEY_SET_FETCH_TIMEOUT), refreshInterval, minimumRefreshInterval);
+    }
+
+    /**
+     * Starts fetching the key set once the application is ready, when the auth service can be resolved.
+     *
+     * @param jwtKeySet the key set
+     * @return the listener that starts the key set
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> jwtKeySetStarter(JwtKeySet jwtKeySet) {
+        return event -> jwtKeySet.start();
+    }
 }
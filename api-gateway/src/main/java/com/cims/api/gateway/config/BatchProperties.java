@@ -0,0 +1,16 @@
+package com.cims.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the gateway batch endpoint, bound from the {@code batch} section of application.yml.
+ *
+ * @param maximumRequests the maximum number of sub-requests in one batch
+ * @param maximumBodySize the maximum size of the response body of one sub-request
+ */
+@ConfigurationProperties(prefix = "batch")
+public record BatchProperties(@DefaultValue("20") int maximumRequests,
+                              @DefaultValue("1MB") DataSize maximumBodySize) {
+}
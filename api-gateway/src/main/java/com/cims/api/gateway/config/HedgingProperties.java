@@ -0,0 +1,43 @@
+package com.cims.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the gateway request hedging, bound from the {@code hedging} section of application.yml.
+ *
+ * @param operationPrefixes the prefixes of the GET operations that are hedged, e.g. {@code getById}
+ * @param percentile        the percentile of recent latencies after which a hedged request is sent, e.g. 0.95
+ * @param minimumDelay      the minimum time to wait for the first instance before hedging
+ * @param minimumSamples    the number of latencies a route must have recorded before it is hedged
+ * @param budgetRatio       the number of hedged requests allowed per request, e.g. 0.1 for one in ten
+ */
+@ConfigurationProperties(prefix = "hedging")
+public record HedgingProperties(List<String> operationPrefixes,
+                                @DefaultValue("0.95") double percentile,
+                                @DefaultValue("10ms") Duration minimumDelay,
+                                @DefaultValue("100") int minimumSamples,
+                                @DefaultValue("0.1") double budgetRatio) {
+
+    public HedgingProperties {
+        operationPrefixes = operationPrefixes != null ? List.copyOf(operationPrefixes) : List.of();
+    }
+
+    /**
+     * Checks whether the requests of an operation may be hedged.
+     *
+     * @param operation the operation segment of the request path, e.g. {@code getByToken}
+     * @return true if the operation starts with one of the configured prefixes, false otherwise
+     */
+    public boolean isHedged(String operation) {
+        for (String prefix : operationPrefixes) {
+            if (operation.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.cims.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Configuration of the gateway rate limiter, bound from the {@code rate-limit} section of application.yml.
+ *
+ * @param idleTimeout    how long a bucket of an idle user or branch is kept before it is evicted
+ * @param maximumBuckets the maximum number of buckets kept in memory
+ * @param defaultLimit   the limit applied to routes without their own limit, or null for no limit
+ * @param routes         the limits per route id, e.g. {@code EMPLOYEE-SERVICE}
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(@DefaultValue("10m") Duration idleTimeout,
+                                  @DefaultValue("100000") long maximumBuckets,
+                                  Limit defaultLimit,
+                                  Map<String, Limit> routes) {
+
+    public RateLimitProperties {
+        //route ids are matched regardless of how the property keys were normalized
+        Map<String, Limit> routeLimits = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (routes != null) {
+            routeLimits.putAll(routes);
+        }
+        routes = routeLimits;
+    }
+
+    /**
+     * Returns the limit of a route, falling back to the default limit.
+     *
+     * @param routeId the id of the route
+     * @return the limit of the route, or null if the route is not limited
+     */
+    public Limit limitFor(String routeId) {
+        return routeId != null ? routes.getOrDefault(routeId, defaultLimit) : defaultLimit;
+    }
+
+    /**
+     * The limits of a route per authenticated user, per branch and per client address.
+     * Callers with a verified token that carries no identity are limited by token with the bandwidth of a user.
+     * Anonymous callers, e.g. of open endpoints and static UI assets, are limited by client address with their own
+     * bandwidth, as many users may share an address behind a proxy.
+     *
+     * @param user    the bandwidth of each user, or null for no per-user limit
+     * @param branch  the bandwidth of each branch, or null for no per-branch limit
+     * @param address the bandwidth of each client address of anonymous callers, or null for no per-address limit
+     */
+    public record Limit(Bandwidth user, Bandwidth branch, Bandwidth address) {
+    }
+
+    /**
+     * The size and refill rate of a token bucket.
+     *
+     * @param capacity        the number of requests allowed in a burst
+     * @param refillPerSecond the number of requests allowed per second once the burst is used
+     */
+    public record Bandwidth(long capacity, double refillPerSecond) {
+    }
+}
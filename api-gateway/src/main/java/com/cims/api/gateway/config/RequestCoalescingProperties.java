@@ -0,0 +1,34 @@
+package com.cims.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Configuration of the gateway request coalescing, bound from the {@code request-coalescing} section of application.yml.
+ *
+ * @param operationPrefixes the prefixes of the operations whose identical concurrent GET requests are collapsed into
+ *                          one downstream call, e.g. {@code getAll} for {@code /employee/employeeType/getAllActive}
+ */
+@ConfigurationProperties(prefix = "request-coalescing")
+public record RequestCoalescingProperties(List<String> operationPrefixes) {
+
+    public RequestCoalescingProperties {
+        operationPrefixes = operationPrefixes != null ? List.copyOf(operationPrefixes) : List.of();
+    }
+
+    /**
+     * Checks whether the requests of an operation may be coalesced.
+     *
+     * @param operation the operation segment of the request path, e.g. {@code getAllActive}
+     * @return true if the operation starts with one of the configured prefixes, false otherwise
+     */
+    public boolean isCoalesced(String operation) {
+        for (String prefix : operationPrefixes) {
+            if (operation.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cims.api.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuration of the gateway response cache, bound from the {@code response-cache} section of application.yml.
+ *
+ * @param ttl             how long a cached response is served before it is fetched again
+ * @param maximumSize     the maximum total size of the cached response bodies
+ * @param maximumBodySize the maximum size of a single response body that is cached
+ * @param resources       the cacheable resources, e.g. {@code /employee/employeeType}; GET requests below
+ *                        a resource are cached and any other request below it invalidates the cache
+ */
+@ConfigurationProperties(prefix = "response-cache")
+public record ResponseCacheProperties(@DefaultValue("5m") Duration ttl,
+                                      @DefaultValue("32MB") DataSize maximumSize,
+                                      @DefaultValue("1MB") DataSize maximumBodySize,
+                                      Set<String> resources) {
+
+    public ResponseCacheProperties {
+        resources = resources != null ? Set.copyOf(resources) : Set.of();
+    }
+}
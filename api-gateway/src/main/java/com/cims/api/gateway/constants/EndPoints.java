@@ -8,6 +8,11 @@ import java.util.List;
  */
 public class EndPoints {
 
+    /**
+     * The endpoint that executes a batch of sub-requests in one round-trip.
+     */
+    public static final String BATCH_END_POINT = "/batch";
+
     /**
      * A list of open API endpoints, which do not require authorization.
      */
@@ -28,7 +33,6 @@ public class EndPoints {
             "/admin/images/",
             "/admin/fonts/",
             "/admin/userAccount/getByUserName/",
-            "/admin/userAccount/saveToken",
             "/user/login",
             "/user/dashboard/",
             "/user/settings-user-role/",
@@ -56,7 +60,6 @@ public class EndPoints {
             "/user/images/",
             "/user/fonts/",
             "/user/userAccount/getByUserName/",
-            "/user/userAccount/saveToken",
             "/user/dataSync/postSystemAdminAndUserAccount",
             "/user/file/upload",
             "/user/file/imgDownloader/",
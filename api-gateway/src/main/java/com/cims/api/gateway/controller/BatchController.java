@@ -0,0 +1,53 @@
+package com.cims.api.gateway.controller;
+
+import com.cims.api.gateway.config.BatchProperties;
+import com.cims.api.gateway.constants.EndPoints;
+import com.cims.api.gateway.dto.BatchRequest;
+import com.cims.api.gateway.dto.BatchResponse;
+import com.cims.api.gateway.util.BatchRequestExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The BatchController class handles batches of sub-requests, so a page can load all of its data in one round-trip.
+ * The sub-requests are executed in parallel and each is authenticated and routed on its own, so the batch endpoint
+ * itself does not require authorization.
+ */
+@RestController
+public class BatchController {
+
+    @Autowired
+    private BatchRequestExecutor batchRequestExecutor;
+
+    @Autowired
+    private BatchProperties properties;
+
+    /**
+     * Executes a batch of sub-requests.
+     *
+     * @param batchRequest the sub-requests to execute
+     * @param exchange     the exchange of the batch request
+     * @return a ResponseEntity containing the responses of the sub-requests in their order,
+     * or 400 Bad Request if the batch is empty or too large
+     */
+    @PostMapping(EndPoints.BATCH_END_POINT)
+    public Mono<ResponseEntity<BatchResponse>> batch(@RequestBody BatchRequest batchRequest, ServerWebExchange exchange) {
+        List<BatchRequest.Item> items = batchRequest.requests() != null ? batchRequest.requests() : List.of();
+        if (items.isEmpty() || items.size() > properties.maximumRequests()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Flux.fromIterable(items)
+                .flatMapSequential(item -> batchRequestExecutor.execute(exchange.getRequest(), item,
+                        exchange.getResponse().bufferFactory()), items.size())
+                .collectList()
+                .map(responses -> ResponseEntity.ok(new BatchResponse(responses)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.cims.api.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of sub-requests sent to the gateway in a single round-trip.
+ *
+ * @param requests the sub-requests, executed in parallel
+ */
+public record BatchRequest(List<Item> requests) {
+
+    /**
+     * One sub-request of a batch. It is routed like a request sent to the gateway on its own, with the headers of
+     * the batch request, e.g. the Authorization header, unless it overrides them.
+     *
+     * @param id      the ID of the sub-request, returned with its response
+     * @param method  the HTTP method, GET if not given
+     * @param path    the path and query of the request, e.g. {@code /employee/financialYear/getAllActive}
+     * @param headers the headers of the sub-request, or null
+     * @param body    the JSON body of the sub-request, or null
+     */
+    public record Item(String id, String method, String path, Map<String, String> headers, JsonNode body) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.cims.api.gateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The combined responses of a batch, in the order of its sub-requests.
+ *
+ * @param responses the responses of the sub-requests
+ */
+public record BatchResponse(List<Item> responses) {
+
+    /**
+     * The response of one sub-request of a batch.
+     *
+     * @param id      the ID of the sub-request
+     * @param status  the HTTP status code of the response
+     * @param headers the headers of the response
+     * @param body    the JSON body of the response, a text node if the body is not JSON, or null if it is empty
+     */
+    public record Item(String id, int status, Map<String, List<String>> headers, JsonNode body) {
+    }
+}
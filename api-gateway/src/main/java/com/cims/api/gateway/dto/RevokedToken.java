@@ -0,0 +1,16 @@
+package com.cims.api.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+/**
+ * A token on the deny-list of the user service, rejected until it expires.
+ *
+ * @param tokenHash the hex encoded SHA-256 hash of the token
+ * @param expiresAt the expiry of the token
+ * @param revokedAt when the token was revoked, by the clock of the user service
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RevokedToken(String tokenHash, Instant expiresAt, Instant revokedAt) {
+}
@@ -1,25 +1,43 @@
 package com.cims.api.gateway.filter;
 
+import com.cims.api.gateway.util.IdentitySigner;
 import com.cims.api.gateway.util.JwtUtil;
+import com.cims.api.gateway.util.VerifiedToken;
+import com.cims.common.identity.IdentityHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
 /**
  * Gateway filter for authentication of requests.
  * Checks whether the request is secure and contains a valid JWT token in the Authorization header.
+ * Requests without a valid token are answered with 401 Unauthorized. For valid tokens the caller's
+ * identity is forwarded to the downstream services as signed {@link IdentityHeaders}.
  */
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
+    /**
+     * Exchange attribute holding the hash of a verified token that carries no identity claims,
+     * so later filters can still tell its callers apart.
+     */
+    public static final String TOKEN_HASH_ATTR = AuthenticationFilter.class.getName() + ".tokenHash";
+
     @Autowired
     private RouteValidator routeValidator;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private IdentitySigner identitySigner;
+
     /**
      * Constructor that sets up the filter and its configuration class.
      */
@@ -36,26 +54,75 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     @Override
     public GatewayFilter apply(Config config) {
         return (((exchange, chain) -> {
+            //identity headers are only ever set by the gateway itself
+            ServerHttpRequest.Builder requestBuilder = exchange.getRequest().mutate()
+                    .headers(headers -> IdentityHeaders.ALL.forEach(headers::remove));
             if (routeValidator.isSecured.test(exchange.getRequest())) {
                 //header contain token or not
-                if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                    throw new RuntimeException("missing authorization header");
+                String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                if (authHeader == null) {
+                    return onUnauthorized(exchange);
                 }
-                String authHeader = exchange.getRequest().getHeaders().get(HttpHeaders.AUTHORIZATION).get(0);
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                if (authHeader.startsWith("Bearer ")) {
                     authHeader = authHeader.substring(7);
                 }
-                try {
-                    //REST call to AUTH service
-                    jwtUtil.validateToken(authHeader);
-                } catch (Exception e) {
-                    throw new RuntimeException("unauthorized access to application");
-                }
+                String token = authHeader;
+                //local verification, cached per token until it expires
+                return jwtUtil.verifyToken(token)
+                        .map(verifiedToken -> {
+                            if (verifiedToken.hasIdentity()) {
+                                addIdentityHeaders(requestBuilder, token, verifiedToken);
+                            } else {
+                                exchange.getAttributes().put(TOKEN_HASH_ATTR, JwtUtil.hash(token));
+                            }
+                            return true;
+                        })
+                        .defaultIfEmpty(false)
+                        .flatMap(valid -> valid
+                                ? chain.filter(exchange.mutate().request(requestBuilder.build()).build())
+                                : onUnauthorized(exchange));
             }
-            return chain.filter(exchange);
+            return chain.filter(exchange.mutate().request(requestBuilder.build()).build());
         }));
     }
 
+    /**
+     * Adds the signed identity headers of a verified token to the request forwarded downstream.
+     *
+     * @param requestBuilder the builder of the forwarded request
+     * @param token          the bearer token of the request
+     * @param verifiedToken  the verified identity of the token
+     */
+    private void addIdentityHeaders(ServerHttpRequest.Builder requestBuilder, String token, VerifiedToken verifiedToken) {
+        requestBuilder.headers(headers -> {
+            headers.set(IdentityHeaders.USER_ID, verifiedToken.userId());
+            headers.set(IdentityHeaders.BRANCH, verifiedToken.branchCode());
+            if (verifiedToken.userName() != null) {
+                headers.set(IdentityHeaders.USER_NAME, verifiedToken.userName());
+            }
+            if (verifiedToken.roleId() != null) {
+                headers.set(IdentityHeaders.ROLE, verifiedToken.roleId());
+            }
+            if (verifiedToken.status() != null) {
+                headers.set(IdentityHeaders.STATUS, verifiedToken.status());
+            }
+            long expiresAt = identitySigner.expiresAt(verifiedToken);
+            headers.set(IdentityHeaders.EXPIRES, Long.toString(expiresAt));
+            headers.set(IdentityHeaders.SIGNATURE, identitySigner.sign(token, verifiedToken, expiresAt));
+        });
+    }
+
+    /**
+     * Completes the exchange with a 401 Unauthorized response without forwarding it downstream.
+     *
+     * @param exchange the current server exchange
+     * @return a Mono that completes when the response has been committed
+     */
+    private Mono<Void> onUnauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+
     /**
      * Configuration class for the AuthenticationFilter.
      * (Currently empty, as this filter doesn't require any additional configuration)
@@ -0,0 +1,94 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.common.deadline.DeadlineHeaders;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global filter that gives every routed request a deadline.
+ * The deadline is the response timeout of the route, taken from its {@code response-timeout} metadata or from
+ * {@code spring.cloud.gateway.httpclient.response-timeout}, and is stored in the {@link #DEADLINE_ATTR} exchange
+ * attribute. A {@link DeadlineHeaders#REMAINING_MILLIS} header sent by the client is removed; the
+ * {@link DeadlineHeaderFilter} and the filters that send requests themselves set it from the time left just before
+ * the request is forwarded, so the downstream services bound their own calls and queries by what is really left.
+ */
+@Component
+public class DeadlineFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The exchange attribute holding the deadline of the request, as a {@link System#nanoTime()} value.
+     */
+    public static final String DEADLINE_ATTR = DeadlineFilter.class.getName() + ".deadline";
+
+    private final HttpClientProperties httpClientProperties;
+
+    /**
+     * Constructor that sets up the filter.
+     *
+     * @param httpClientProperties the HTTP client configuration of the gateway, holding the default response timeout
+     */
+    public DeadlineFilter(HttpClientProperties httpClientProperties) {
+        this.httpClientProperties = httpClientProperties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Duration timeout = timeoutOf(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR));
+        if (timeout != null) {
+            exchange.getAttributes().put(DEADLINE_ATTR, System.nanoTime() + timeout.toNanos());
+        }
+        if (!exchange.getRequest().getHeaders().containsKey(DeadlineHeaders.REMAINING_MILLIS)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers -> headers.remove(DeadlineHeaders.REMAINING_MILLIS)))
+                .build());
+    }
+
+    /**
+     * Returns the time left until the deadline of a request.
+     *
+     * @param exchange the current server exchange
+     * @return the number of milliseconds left, never negative, or null if the request has no deadline
+     */
+    public static Long remainingMillis(ServerWebExchange exchange) {
+        Long deadline = exchange.getAttribute(DEADLINE_ATTR);
+        return deadline != null ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) : null;
+    }
+
+    /**
+     * Returns the response timeout of a route.
+     *
+     * @param route the matched route, or null
+     * @return the response timeout of the route, or null if the route has no timeout
+     */
+    private Duration timeoutOf(Route route) {
+        Object routeTimeout = route != null ? route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR) : null;
+        if (routeTimeout != null) {
+            long millis = routeTimeout instanceof Number number ? number.longValue() : Long.parseLong(routeTimeout.toString());
+            return millis >= 0 ? Duration.ofMillis(millis) : null;
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    /**
+     * Runs before the route filters, so every filter and the forwarded request see the deadline.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.common.deadline.DeadlineHeaders;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Global filter that forwards the time left until the deadline set by the {@link DeadlineFilter} in the
+ * {@link DeadlineHeaders#REMAINING_MILLIS} header. It runs just before the request is sent to the routed service,
+ * so the time spent in the gateway, e.g. waiting for the load balancer or a rate limit, is not counted twice.
+ */
+@Component
+public class DeadlineHeaderFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Long remainingMillis = DeadlineFilter.remainingMillis(exchange);
+        if (remainingMillis == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers ->
+                        headers.set(DeadlineHeaders.REMAINING_MILLIS, String.valueOf(remainingMillis))))
+                .build());
+    }
+
+    /**
+     * Runs after every other filter, right before the routing filter sends the request.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
@@ -0,0 +1,520 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.HedgingProperties;
+import com.cims.api.gateway.util.RequestPaths;
+import com.cims.common.deadline.DeadlineHeaders;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Gateway filter that hedges slow idempotent GET requests.
+ * The request goes through the rest of the filter chain as usual; if its instance has not answered within a
+ * percentile of the recent latencies of the route, the same request is also sent directly to a different instance,
+ * and whichever answers first is streamed to the client. Hedged requests are limited by a budget that grows with the
+ * number of requests, so hedging can never add more than a fixed share of load, even when every instance is slow.
+ * <p>
+ * Only GET operations configured under {@code hedging} in application.yml are hedged. The hedged copy skips the
+ * filters after this one, so it should be the last filter listed on a route. The copy carries the time left until
+ * the deadline set by the {@link DeadlineFilter}, and waits no longer than that for its response.
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.HOST, HttpHeaders.CONTENT_LENGTH, HttpHeaders.UPGRADE, "Keep-Alive", HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.PROXY_AUTHENTICATE);
+
+    private final HedgingProperties properties;
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+
+    private final WebClient webClient;
+
+    /**
+     * Constructor that sets up the filter, its configuration class and the client used for hedged requests.
+     *
+     * @param properties                the hedging configuration
+     * @param loadBalancerClientFactory the factory of the per-service load balancers
+     * @param httpClient                the HTTP client of the gateway
+     */
+    public HedgingFilter(HedgingProperties properties, LoadBalancerClientFactory loadBalancerClientFactory,
+                         HttpClient httpClient) {
+        super(Config.class);
+        this.properties = properties;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Creates and returns a new instance of a GatewayFilter that hedges requests.
+     * Each route gets its own latency history and hedging budget.
+     *
+     * @param config the configuration object for the filter (not used)
+     * @return a new GatewayFilter instance that hedges requests
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        LatencyHistory latencyHistory = new LatencyHistory();
+        HedgingBudget budget = new HedgingBudget(properties.budgetRatio());
+        return ((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String operation = RequestPaths.operationOf(request.getURI().getRawPath());
+            if (request.getMethod() != HttpMethod.GET || route == null || !"lb".equals(route.getUri().getScheme())
+                    || operation == null || !properties.isHedged(operation)) {
+                return chain.filter(exchange);
+            }
+            budget.deposit();
+            Duration percentileDelay = latencyHistory.percentile(properties.percentile(), properties.minimumSamples());
+            Duration hedgeDelay = percentileDelay == null || percentileDelay.compareTo(properties.minimumDelay()) > 0
+                    ? percentileDelay : properties.minimumDelay();
+            AtomicReference<Answer> answer = new AtomicReference<>();
+            PrimaryResponse primaryResponse = new PrimaryResponse(exchange.getResponse(), answer, latencyHistory);
+            Mono<Void> primary = chain.filter(exchange.mutate().response(primaryResponse).build())
+                    .doOnCancel(primaryResponse::recordLatency);
+            if (hedgeDelay == null) {
+                return primary;
+            }
+            //once the hedged request answers, a failure of the first one no longer reaches the client
+            return Mono.firstWithSignal(
+                    primary.onErrorResume(e -> answer.get() == Answer.HEDGE ? Mono.never() : Mono.error(e)),
+                    hedge(exchange, route.getUri().getHost(), hedgeDelay, answer, latencyHistory, budget));
+        });
+    }
+
+    /**
+     * Sends the request to a second instance once the delay has passed, if the budget allows it.
+     * A hedged request that fails before it answers, cannot be sent or answers second never completes, so it never
+     * hides the answer of the first request.
+     *
+     * @param exchange       the current server exchange
+     * @param serviceId      the id of the routed service
+     * @param hedgeDelay     how long to wait for the first instance before hedging
+     * @param answer         which request answered first
+     * @param latencyHistory the latency history of the route
+     * @param budget         the hedging budget of the route
+     * @return a Mono that completes when the response of the second instance has been written
+     */
+    private Mono<Void> hedge(ServerWebExchange exchange, String serviceId, Duration hedgeDelay,
+                             AtomicReference<Answer> answer, LatencyHistory latencyHistory, HedgingBudget budget) {
+        return Mono.delay(hedgeDelay)
+                .then(Mono.defer(() -> {
+                    ReactorServiceInstanceLoadBalancer loadBalancer = loadBalancerClientFactory
+                            .getInstance(serviceId, ReactorServiceInstanceLoadBalancer.class);
+                    Response<ServiceInstance> first = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+                    Long remainingMillis = DeadlineFilter.remainingMillis(exchange);
+                    if (loadBalancer == null || answer.get() != null || (remainingMillis != null && remainingMillis == 0)) {
+                        return Mono.empty();
+                    }
+                    return choose(loadBalancer, exchange, first != null ? first.getServer() : null);
+                }))
+                .filter(second -> budget.tryWithdraw())
+                .switchIfEmpty(Mono.never())
+                .flatMap(second -> send(exchange, serviceId, second, answer, latencyHistory))
+                .onErrorResume(e -> answer.get() == Answer.HEDGE ? Mono.error(e) : Mono.never());
+    }
+
+    /**
+     * Sends the hedged request to a chosen instance, reporting its progress to the load balancer lifecycle processors.
+     * The response is streamed to the client if it arrives before the response of the first request.
+     *
+     * @param exchange       the current server exchange
+     * @param serviceId      the id of the routed service
+     * @param choice         the chosen instance
+     * @param answer         which request answered first
+     * @param latencyHistory the latency history the response time is recorded in
+     * @return a Mono that completes when the response has been written, or never if the first request answered first
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<Void> send(ServerWebExchange exchange, String serviceId, LoadBalancerChoice choice,
+                            AtomicReference<Answer> answer, LatencyHistory latencyHistory) {
+        Set<LoadBalancerLifecycle> lifecycleProcessors = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        DefaultRequest<RequestDataContext> lbRequest = choice.lbRequest();
+        Response<ServiceInstance> lbResponse = choice.lbResponse();
+        return Mono.defer(() -> {
+            lifecycleProcessors.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+            long startTime = System.nanoTime();
+            AtomicBoolean completed = new AtomicBoolean();
+            return forward(exchange, lbResponse.getServer(), clientResponse -> {
+                        completed.set(true);
+                        latencyHistory.record(System.nanoTime() - startTime);
+                        complete(lifecycleProcessors, CompletionContext.Status.SUCCESS, lbRequest, lbResponse,
+                                new ResponseData(clientResponse.statusCode(), clientResponse.headers().asHttpHeaders(), null,
+                                        lbRequest.getContext().getClientRequest()), null);
+                        if (!answer.compareAndSet(null, Answer.HEDGE)) {
+                            return clientResponse.releaseBody().then(Mono.never());
+                        }
+                        return write(exchange.getResponse(), clientResponse);
+                    })
+                    .doOnError(e -> {
+                        if (completed.compareAndSet(false, true)) {
+                            complete(lifecycleProcessors, CompletionContext.Status.FAILED, lbRequest, lbResponse, null, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        //the other request answered first; its wait still counts as a latency sample
+                        if (completed.compareAndSet(false, true)) {
+                            latencyHistory.record(System.nanoTime() - startTime);
+                            complete(lifecycleProcessors, CompletionContext.Status.DISCARD, lbRequest, lbResponse, null, null);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Chooses an instance, trying again a few times if the excluded instance is chosen.
+     *
+     * @param loadBalancer the load balancer of the service
+     * @param exchange     the current server exchange
+     * @param excluded     an instance that must not be chosen, or null
+     * @return a Mono that emits the chosen instance, or completes empty if no instance is available
+     */
+    private static Mono<LoadBalancerChoice> choose(ReactorServiceInstanceLoadBalancer loadBalancer,
+                                                   ServerWebExchange exchange, ServiceInstance excluded) {
+        return Mono.defer(() -> {
+                    DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(
+                            new RequestDataContext(new RequestData(exchange.getRequest()), "default"));
+                    return loadBalancer.choose(lbRequest)
+                            .filter(lbResponse -> lbResponse.hasServer()
+                                    && (excluded == null || !isSameInstance(lbResponse.getServer(), excluded)))
+                            .map(lbResponse -> new LoadBalancerChoice(lbRequest, lbResponse));
+                })
+                .repeat(excluded == null ? 0 : 2)
+                .next();
+    }
+
+    private static boolean isSameInstance(ServiceInstance instance, ServiceInstance other) {
+        return instance.getHost().equals(other.getHost()) && instance.getPort() == other.getPort();
+    }
+
+    /**
+     * Sends a copy of the gateway request to an instance and hands its response to the given function while the
+     * connection is open, so the body can be streamed. The time left until the deadline is forwarded as it stands
+     * when the copy is sent, and bounds the wait for the response.
+     *
+     * @param exchange        the current server exchange
+     * @param instance        the chosen instance
+     * @param responseHandler the function that consumes the response of the instance
+     * @return a Mono that completes when the response has been consumed
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, ServiceInstance instance,
+                               Function<ClientResponse, Mono<Void>> responseHandler) {
+        ServerHttpRequest request = exchange.getRequest();
+        Long remainingMillis = DeadlineFilter.remainingMillis(exchange);
+        URI uri = UriComponentsBuilder.fromUri(request.getURI())
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    request.getHeaders().forEach((name, values) -> {
+                        if (!isHopByHop(name)) {
+                            headers.put(name, values);
+                        }
+                    });
+                    if (remainingMillis != null) {
+                        headers.set(DeadlineHeaders.REMAINING_MILLIS, String.valueOf(remainingMillis));
+                    }
+                })
+                .httpRequest(httpRequest -> {
+                    if (remainingMillis != null) {
+                        HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                        nativeRequest.responseTimeout(Duration.ofMillis(remainingMillis));
+                    }
+                })
+                .exchangeToMono(responseHandler);
+    }
+
+    /**
+     * Streams an upstream response to the client.
+     *
+     * @param response       the response to the client
+     * @param clientResponse the response of the instance
+     * @return a Mono that completes when the response has been written
+     */
+    private static Mono<Void> write(ServerHttpResponse response, ClientResponse clientResponse) {
+        response.setStatusCode(clientResponse.statusCode());
+        HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!isHopByHop(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        if (headers.getContentLength() >= 0) {
+            response.getHeaders().setContentLength(headers.getContentLength());
+        }
+        return response.writeWith(clientResponse.bodyToFlux(DataBuffer.class));
+    }
+
+    private static boolean isHopByHop(String headerName) {
+        return HOP_BY_HOP_HEADERS.stream().anyMatch(headerName::equalsIgnoreCase);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void complete(Set<LoadBalancerLifecycle> lifecycleProcessors, CompletionContext.Status status,
+                                 DefaultRequest<RequestDataContext> lbRequest, Response<ServiceInstance> lbResponse,
+                                 ResponseData responseData, Throwable throwable) {
+        CompletionContext completionContext = throwable != null
+                ? new CompletionContext<>(status, throwable, lbRequest, lbResponse)
+                : new CompletionContext<>(status, lbRequest, lbResponse, responseData);
+        lifecycleProcessors.forEach(lifecycle -> lifecycle.onComplete(completionContext));
+    }
+
+    /**
+     * The request whose response is written to the client.
+     */
+    private enum Answer {
+        PRIMARY, HEDGE
+    }
+
+    /**
+     * The response of the request that goes through the filter chain. Its status and headers are kept aside until
+     * the body is written, and are only passed on to the client if the hedged request has not answered first;
+     * otherwise the body is dropped. The time until the body arrives is recorded as a latency sample.
+     */
+    private static final class PrimaryResponse extends ServerHttpResponseDecorator {
+
+        private final AtomicReference<Answer> answer;
+
+        private final LatencyHistory latencyHistory;
+
+        private final long startTime = System.nanoTime();
+
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private HttpStatusCode statusCode;
+
+        PrimaryResponse(ServerHttpResponse delegate, AtomicReference<Answer> answer, LatencyHistory latencyHistory) {
+            super(delegate);
+            this.answer = answer;
+            this.latencyHistory = latencyHistory;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.statusCode = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return statusCode != null ? statusCode : super.getStatusCode();
+        }
+
+        @Override
+        public boolean setRawStatusCode(Integer value) {
+            return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+        }
+
+        @Override
+        @Deprecated
+        public Integer getRawStatusCode() {
+            HttpStatusCode status = getStatusCode();
+            return status != null ? status.value() : null;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!answer()) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.never());
+            }
+            return super.writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            if (!answer()) {
+                return Flux.from(body).concatMap(publisher -> publisher).doOnNext(DataBufferUtils::release).then(Mono.never());
+            }
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            if (!answer()) {
+                return Mono.never();
+            }
+            return super.setComplete();
+        }
+
+        void recordLatency() {
+            if (recorded.compareAndSet(false, true)) {
+                latencyHistory.record(System.nanoTime() - startTime);
+            }
+        }
+
+        /**
+         * Marks this response as the answer unless the hedged request answered first, and passes the status and
+         * headers on to the client if it is.
+         *
+         * @return true if this response is written to the client, false otherwise
+         */
+        private boolean answer() {
+            recordLatency();
+            if (!answer.compareAndSet(null, Answer.PRIMARY) && answer.get() != Answer.PRIMARY) {
+                return false;
+            }
+            if (statusCode != null) {
+                getDelegate().setStatusCode(statusCode);
+            }
+            getDelegate().getHeaders().putAll(headers);
+            return true;
+        }
+    }
+
+    /**
+     * A load balancer request together with the instance chosen for it.
+     */
+    private record LoadBalancerChoice(DefaultRequest<RequestDataContext> lbRequest, Response<ServiceInstance> lbResponse) {
+    }
+
+    /**
+     * The most recent response times of a route, kept in a ring buffer.
+     * The requested percentile is recomputed every few samples rather than on every request.
+     */
+    private static final class LatencyHistory {
+
+        private static final int SIZE = 512;
+
+        private static final int RECOMPUTE_INTERVAL = 32;
+
+        private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+
+        private final AtomicLong count = new AtomicLong();
+
+        private volatile long percentileNanos;
+
+        private volatile double percentile;
+
+        void record(long latencyNanos) {
+            long index = count.getAndIncrement();
+            samples.set((int) (index % SIZE), latencyNanos);
+            if (index % RECOMPUTE_INTERVAL == 0) {
+                percentileNanos = 0;
+            }
+        }
+
+        /**
+         * Returns the given percentile of the recent response times.
+         *
+         * @param percentile     the percentile, e.g. 0.95
+         * @param minimumSamples the number of samples needed before a percentile is returned
+         * @return the percentile, or null if there are too few samples
+         */
+        Duration percentile(double percentile, int minimumSamples) {
+            long recorded = Math.min(count.get(), SIZE);
+            if (recorded < minimumSamples) {
+                return null;
+            }
+            long cached = percentileNanos;
+            if (cached == 0 || this.percentile != percentile) {
+                long[] sorted = new long[(int) recorded];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = samples.get(i);
+                }
+                Arrays.sort(sorted);
+                cached = sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+                this.percentile = percentile;
+                percentileNanos = Math.max(1, cached);
+            }
+            return Duration.ofNanos(cached);
+        }
+    }
+
+    /**
+     * The hedging budget of a route. Every request deposits a fraction of a token and every hedged request takes a
+     * whole token, so the hedged requests never exceed the configured share of all requests.
+     */
+    private static final class HedgingBudget {
+
+        private static final long TOKEN = 1000;
+
+        private static final long MAXIMUM_BALANCE = 10 * TOKEN;
+
+        private final long deposit;
+
+        private final AtomicLong balance = new AtomicLong();
+
+        HedgingBudget(double ratio) {
+            this.deposit = Math.round(ratio * TOKEN);
+        }
+
+        void deposit() {
+            balance.updateAndGet(current -> Math.min(MAXIMUM_BALANCE, current + deposit));
+        }
+
+        boolean tryWithdraw() {
+            long current;
+            do {
+                current = balance.get();
+                if (current < TOKEN) {
+                    return false;
+                }
+            } while (!balance.compareAndSet(current, current - TOKEN));
+            return true;
+        }
+    }
+
+    /**
+     * Configuration class for the HedgingFilter.
+     * (Currently empty, as the hedged operations are configured in application.yml)
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,171 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.RateLimitProperties;
+import com.cims.api.gateway.util.TokenBucket;
+import com.cims.common.identity.IdentityHeaders;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway filter that limits the request rate of each authenticated user and each branch.
+ * Requests over the limit are answered with 429 Too Many Requests before they reach the downstream service.
+ * <p>
+ * The caller is identified by the identity headers set by the {@link AuthenticationFilter}, so this filter
+ * must be listed after it on a route. A verified token that carries no identity claims gets the per-user limit
+ * on the hash of the token. Anonymous requests, e.g. for open endpoints and static UI assets, get the per-address
+ * limit on the client address, which is configured apart from the per-user limit as many users may share an
+ * address. Buckets are kept in memory per route, caller and branch, and evicted once they have been idle for
+ * a while.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final String USER_KEY = "user|";
+
+    private static final String TOKEN_KEY = "token|";
+
+    private static final String ADDRESS_KEY = "address|";
+
+    private final RateLimitProperties properties;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    /**
+     * Constructor that sets up the filter, its configuration class and the bucket store.
+     *
+     * @param properties the rate limit configuration
+     */
+    public RateLimitFilter(RateLimitProperties properties) {
+        super(Config.class);
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+    }
+
+    /**
+     * Creates and returns a new instance of a GatewayFilter that performs rate limiting.
+     *
+     * @param config the configuration object for the filter (not used)
+     * @return a new GatewayFilter instance that performs rate limiting
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return ((exchange, chain) -> {
+            String callerKey = callerKey(exchange);
+            if (callerKey == null) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : null;
+            RateLimitProperties.Limit limit = properties.limitFor(routeId);
+            if (limit == null) {
+                return chain.filter(exchange);
+            }
+            //only callers with an identity belong to a branch
+            String branchCode = callerKey.startsWith(USER_KEY)
+                    ? exchange.getRequest().getHeaders().getFirst(IdentityHeaders.BRANCH) : null;
+            long waitNanos = tryAcquire(routeId, callerKey, branchCode, limit);
+            if (waitNanos > 0) {
+                return onTooManyRequests(exchange, waitNanos);
+            }
+            return chain.filter(exchange);
+        });
+    }
+
+    /**
+     * Returns the key the caller of a request is limited by: the authenticated user, the hash of a verified token
+     * without identity claims, or the client address.
+     *
+     * @param exchange the current server exchange
+     * @return the caller key, or null if the caller cannot be told apart
+     */
+    private static String callerKey(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst(IdentityHeaders.USER_ID);
+        if (userId != null) {
+            return USER_KEY + userId;
+        }
+        String tokenHash = exchange.getAttribute(AuthenticationFilter.TOKEN_HASH_ATTR);
+        if (tokenHash != null) {
+            return TOKEN_KEY + tokenHash;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        return ADDRESS_KEY + remoteAddress.getAddress().getHostAddress();
+    }
+
+    /**
+     * Takes a token from the caller bucket and the branch bucket of the route.
+     * The caller token is returned if the branch is over its limit, so a rejected request costs nothing.
+     *
+     * @param routeId    the id of the route
+     * @param callerKey  the key of the caller, as returned by {@link #callerKey(ServerWebExchange)}
+     * @param branchCode the branch code of the authenticated user, or null if the caller has no identity
+     * @param limit      the limit of the route
+     * @return 0 if the request is admitted, otherwise the number of nanoseconds until it may be retried
+     */
+    private long tryAcquire(String routeId, String callerKey, String branchCode, RateLimitProperties.Limit limit) {
+        RateLimitProperties.Bandwidth callerBandwidth = callerKey.startsWith(ADDRESS_KEY) ? limit.address() : limit.user();
+        TokenBucket userBucket = bucket(routeId + "|" + callerKey, callerBandwidth);
+        long waitNanos = userBucket != null ? userBucket.tryConsume() : 0;
+        if (waitNanos > 0 || branchCode == null) {
+            return waitNanos;
+        }
+        TokenBucket branchBucket = bucket(routeId + "|branch|" + branchCode, limit.branch());
+        waitNanos = branchBucket != null ? branchBucket.tryConsume() : 0;
+        if (waitNanos > 0 && userBucket != null) {
+            userBucket.refund();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Returns the bucket of a key, creating it on first use.
+     *
+     * @param key       the bucket key
+     * @param bandwidth the bandwidth of the bucket, or null if the key is not limited
+     * @return the bucket of the key, or null if the key is not limited
+     */
+    private TokenBucket bucket(String key, RateLimitProperties.Bandwidth bandwidth) {
+        if (bandwidth == null) {
+            return null;
+        }
+        return buckets.get(key, k -> new TokenBucket(bandwidth.capacity(), bandwidth.refillPerSecond()));
+    }
+
+    /**
+     * Completes the exchange with a 429 Too Many Requests response without forwarding it downstream.
+     *
+     * @param exchange  the current server exchange
+     * @param waitNanos the number of nanoseconds until the request may be retried
+     * @return a Mono that completes when the response has been committed
+     */
+    private Mono<Void> onTooManyRequests(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * Configuration class for the RateLimitFilter.
+     * (Currently empty, as the limits are configured per route id in application.yml)
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,184 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.RequestCoalescingProperties;
+import com.cims.api.gateway.util.RequestPaths;
+import com.cims.common.identity.IdentityHeaders;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Gateway filter that collapses identical concurrent GET requests into a single downstream call.
+ * Requests are identical when they have the same route, path, query and branch. The first request is sent
+ * downstream, and its response is buffered and written to every request that arrived while it was in flight.
+ * The waiting requests get the result of the call from a sink that keeps it, so a request subscribing late still
+ * gets the buffered response and never sends the first request again. The key is removed before the result is
+ * emitted, so a request arriving after that starts a new call.
+ * <p>
+ * Only operations configured under {@code request-coalescing} in application.yml are coalesced, as their
+ * responses depend on the branch alone and not on the individual user. The branch is taken from the identity
+ * headers set by the {@link AuthenticationFilter}, so this filter must be listed after it on a route.
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    private final RequestCoalescingProperties properties;
+
+    private final ConcurrentMap<String, Mono<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that sets up the filter and its configuration class.
+     *
+     * @param properties the request coalescing configuration
+     */
+    public RequestCoalescingFilter(RequestCoalescingProperties properties) {
+        super(Config.class);
+        this.properties = properties;
+    }
+
+    /**
+     * Creates and returns a new instance of a GatewayFilter that coalesces requests.
+     *
+     * @param config the configuration object for the filter (not used)
+     * @return a new GatewayFilter instance that coalesces requests
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return ((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String branchCode = request.getHeaders().getFirst(IdentityHeaders.BRANCH);
+            String operation = RequestPaths.operationOf(request.getURI().getRawPath());
+            if (request.getMethod() != HttpMethod.GET || branchCode == null || operation == null
+                    || !properties.isCoalesced(operation)) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String key = (route != null ? route.getId() : "") + "|" + branchCode + "|" + request.getURI().getRawPath()
+                    + "?" + Objects.toString(request.getURI().getRawQuery(), "");
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Mono<SharedResponse> pending = sink.asMono();
+            Mono<SharedResponse> shared = inFlight.putIfAbsent(key, pending);
+            if (shared != null) {
+                //an empty result means the first request was cancelled, so this request is sent on its own
+                return shared.flatMap(response -> write(exchange.getResponse(), response).thenReturn(response))
+                        .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).then(Mono.empty())))
+                        .then();
+            }
+            return fetch(exchange, chain)
+                    .doOnSuccess(response -> {
+                        inFlight.remove(key, pending);
+                        sink.tryEmitValue(response);
+                    })
+                    .doOnError(e -> {
+                        inFlight.remove(key, pending);
+                        sink.tryEmitError(e);
+                    })
+                    .doOnCancel(() -> {
+                        inFlight.remove(key, pending);
+                        sink.tryEmitEmpty();
+                    })
+                    .flatMap(response -> write(exchange.getResponse(), response));
+        });
+    }
+
+    /**
+     * Sends the first of the identical requests downstream, with its response buffered instead of written.
+     *
+     * @param exchange the exchange of the first request
+     * @param chain    the remaining filter chain of the first request
+     * @return a Mono that emits the buffered response
+     */
+    private static Mono<SharedResponse> fetch(ServerWebExchange exchange, GatewayFilterChain chain) {
+        BufferingResponse bufferingResponse = new BufferingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(bufferingResponse).build())
+                .then(Mono.fromSupplier(bufferingResponse::toSharedResponse));
+    }
+
+    /**
+     * Writes a shared response to the response of a waiting request.
+     *
+     * @param response       the response of the waiting request
+     * @param sharedResponse the buffered response of the downstream call
+     * @return a Mono that completes when the response has been written
+     */
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse sharedResponse) {
+        response.setStatusCode(sharedResponse.status());
+        sharedResponse.headers().forEach((name, values) -> response.getHeaders().put(name, values));
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(sharedResponse.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(sharedResponse.body())));
+    }
+
+    /**
+     * A response decorator that buffers the downstream response instead of writing it to the client.
+     */
+    private static class BufferingResponse extends ServerHttpResponseDecorator {
+
+        private byte[] body = new byte[0];
+
+        BufferingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .doOnNext(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        this.body = bytes;
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(publisher -> publisher));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+
+        SharedResponse toSharedResponse() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            return new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), body);
+        }
+    }
+
+    /**
+     * A buffered downstream response shared by all coalesced requests.
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Configuration class for the RequestCoalescingFilter.
+     * (Currently empty, as the coalesced operations are configured in application.yml)
+     */
+    public static class Config {
+    }
+}
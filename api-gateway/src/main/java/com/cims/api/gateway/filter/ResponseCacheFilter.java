@@ -0,0 +1,225 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.ResponseCacheProperties;
+import com.cims.api.gateway.util.RequestPaths;
+import com.cims.common.identity.IdentityHeaders;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway filter that caches successful GET responses of reference-data resources per branch.
+ * Cached responses carry an ETag, so clients revalidating with If-None-Match get 304 Not Modified without a body.
+ * <p>
+ * Any other request to a cached resource, e.g. saveUpdate or deleteById, invalidates the cache of that resource
+ * for the caller's branch. Invalidation moves the resource to a new version, which is part of the cache key, so
+ * a response fetched before the change can never be served after it.
+ * <p>
+ * The branch is taken from the identity headers set by the {@link AuthenticationFilter}, so this filter must be
+ * listed after it on a route. Requests without a branch are not cached.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final ResponseCacheProperties properties;
+
+    private final Cache<String, CachedResponse> responses;
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that sets up the filter, its configuration class and the response store.
+     *
+     * @param properties the response cache configuration
+     */
+    public ResponseCacheFilter(ResponseCacheProperties properties) {
+        super(Config.class);
+        this.properties = properties;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.maximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * Creates and returns a new instance of a GatewayFilter that caches responses.
+     *
+     * @param config the configuration object for the filter (not used)
+     * @return a new GatewayFilter instance that caches responses
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return ((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String branchCode = request.getHeaders().getFirst(IdentityHeaders.BRANCH);
+            String resource = RequestPaths.resourceOf(request.getURI().getRawPath());
+            if (branchCode == null || resource == null || !properties.resources().contains(resource)) {
+                return chain.filter(exchange);
+            }
+            String versionKey = branchCode + "|" + resource;
+            if (request.getMethod() != HttpMethod.GET) {
+                //invalidate before and after the change, so a read racing with the change is not kept
+                invalidate(versionKey);
+                return chain.filter(exchange).doFinally(signal -> invalidate(versionKey));
+            }
+            String cacheKey = versionKey + "|" + version(versionKey) + "|" + request.getURI().getRawPath()
+                    + "?" + Objects.toString(request.getURI().getRawQuery(), "");
+            CachedResponse cached = responses.getIfPresent(cacheKey);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+            return chain.filter(exchange.mutate().response(new CachingResponse(exchange, cacheKey)).build());
+        });
+    }
+
+    private long version(String versionKey) {
+        return versions.computeIfAbsent(versionKey, key -> new AtomicLong()).get();
+    }
+
+    private void invalidate(String versionKey) {
+        versions.computeIfAbsent(versionKey, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Answers a request from the cache, with 304 Not Modified if the client already has the response.
+     *
+     * @param exchange the current server exchange
+     * @param cached   the cached response
+     * @return a Mono that completes when the response has been written
+     */
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(cached.eTag());
+        response.getHeaders().setCacheControl(CACHE_CONTROL);
+        if (isNotModified(exchange.getRequest(), cached.eTag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            response.getHeaders().setContentType(cached.contentType());
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Checks whether the client already holds the response with the given ETag.
+     *
+     * @param request the current request
+     * @param eTag    the ETag of the response
+     * @return true if the If-None-Match header of the request matches the ETag, false otherwise
+     */
+    private static boolean isNotModified(ServerHttpRequest request, String eTag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(eTag) || ifNoneMatch.contains("*");
+    }
+
+    /**
+     * Returns a strong ETag derived from the SHA-256 hash of a response body.
+     *
+     * @param body the response body
+     * @return the quoted ETag
+     */
+    private static String eTagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A response decorator that collects a successful downstream response, stores it in the cache and
+     * answers the client with an ETag.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerHttpRequest request;
+
+        private final String cacheKey;
+
+        CachingResponse(ServerWebExchange exchange, String cacheKey) {
+            super(exchange.getResponse());
+            this.request = exchange.getRequest();
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body)
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(this::writeAndCache);
+        }
+
+        private Mono<Void> writeAndCache(byte[] bytes) {
+            String eTag = eTagOf(bytes);
+            MediaType contentType = getHeaders().getContentType();
+            if (bytes.length <= properties.maximumBodySize().toBytes()) {
+                responses.put(cacheKey, new CachedResponse(contentType, eTag, bytes));
+            }
+            getHeaders().setETag(eTag);
+            getHeaders().setCacheControl(CACHE_CONTROL);
+            getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            if (isNotModified(request, eTag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+                getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                return setComplete();
+            }
+            getHeaders().setContentLength(bytes.length);
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+    }
+
+    /**
+     * A cached response body together with its content type and ETag.
+     */
+    private record CachedResponse(MediaType contentType, String eTag, byte[] body) {
+    }
+
+    /**
+     * Configuration class for the ResponseCacheFilter.
+     * (Currently empty, as the cached resources are configured in application.yml)
+     */
+    public static class Config {
+    }
+}
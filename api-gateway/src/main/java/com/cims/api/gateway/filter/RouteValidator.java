@@ -1,6 +1,7 @@
 package com.cims.api.gateway.filter;
 
 import com.cims.api.gateway.constants.EndPoints;
+import com.cims.api.gateway.util.PathPrefixTrie;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 
@@ -9,16 +10,17 @@ import java.util.function.Predicate;
 /**
  * The RouteValidator class is responsible for validating if a given request is a secured request or not.
  * It contains a list of open API endpoints, which do not require authorization.
+ * The endpoints are compiled once into a {@link PathPrefixTrie} and matched against the start of the request path.
  */
 @Component
 public class RouteValidator {
 
+    private final PathPrefixTrie openApiEndPoints = PathPrefixTrie.of(EndPoints.OPEN_API_END_POINTS);
+
     /**
      * A predicate that checks whether the request is secured or not by matching the request URI with open API endpoints.
      */
     public Predicate<ServerHttpRequest> isSecured =
-            request -> EndPoints.OPEN_API_END_POINTS
-                    .stream()
-                    .noneMatch(uri -> request.getURI().getPath().contains(uri));
+            request -> !openApiEndPoints.matches(request.getURI().getPath());
 
 }
@@ -0,0 +1,314 @@
+package com.cims.api.gateway.util;
+
+import com.cims.api.gateway.config.BatchProperties;
+import com.cims.api.gateway.constants.EndPoints;
+import com.cims.api.gateway.dto.BatchRequest;
+import com.cims.api.gateway.dto.BatchResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.AbstractServerHttpRequest;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.SslInfo;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes the sub-requests of a batch inside the gateway. Each sub-request is passed to the gateway's own
+ * {@link HttpHandler}, so it is matched to a route and goes through the same authentication, rate limiting, caching
+ * and routing filters as a request sent on its own, without another round-trip from the client.
+ */
+@Component
+public class BatchRequestExecutor {
+
+    /**
+     * The headers of the batch request that describe its own body or connection and are not copied to sub-requests.
+     */
+    private static final Set<String> BATCH_ONLY_HEADERS = Set.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.EXPECT, HttpHeaders.UPGRADE);
+
+    /**
+     * The headers of a sub-response that are not returned in the batch response.
+     */
+    private static final Set<String> EXCLUDED_RESPONSE_HEADERS = Set.of(HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.SET_COOKIE);
+
+    private final ObjectProvider<HttpHandler> httpHandler;
+
+    private final ObjectMapper objectMapper;
+
+    private final BatchProperties properties;
+
+    /**
+     * Constructor that sets up the executor.
+     *
+     * @param httpHandler  the HTTP handler of the gateway, looked up lazily as it contains the batch endpoint itself
+     * @param objectMapper the JSON mapper of the application
+     * @param properties   the batch configuration
+     */
+    public BatchRequestExecutor(ObjectProvider<HttpHandler> httpHandler, ObjectMapper objectMapper,
+                                BatchProperties properties) {
+        this.httpHandler = httpHandler;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Executes one sub-request of a batch. A failing sub-request is returned as an error response of its own,
+     * so it never fails the rest of the batch.
+     *
+     * @param batchRequest  the batch request, whose headers, address and host are used for the sub-request
+     * @param item          the sub-request
+     * @param bufferFactory the buffer factory of the batch response
+     * @return a Mono that emits the response of the sub-request
+     */
+    public Mono<BatchResponse.Item> execute(ServerHttpRequest batchRequest, BatchRequest.Item item,
+                                            DataBufferFactory bufferFactory) {
+        String path = item.path();
+        if (path == null || !path.startsWith("/") || path.startsWith("//") || isBatch(path)) {
+            return Mono.just(error(item, HttpStatus.BAD_REQUEST, "Invalid sub-request path: " + path));
+        }
+        SubRequest request;
+        try {
+            request = createRequest(batchRequest, item, bufferFactory);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return Mono.just(error(item, HttpStatus.BAD_REQUEST, "Invalid sub-request: " + e.getMessage()));
+        }
+        SubResponse response = new SubResponse(bufferFactory, (int) properties.maximumBodySize().toBytes());
+        return httpHandler.getObject().handle(request, response)
+                .then(Mono.fromSupplier(() -> toItem(item, response)))
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> Mono.just(error(item, HttpStatus.BAD_GATEWAY, "Response body too large")))
+                .onErrorResume(e -> Mono.just(error(item, HttpStatus.BAD_GATEWAY, e.getMessage())));
+    }
+
+    /**
+     * Creates the request of a sub-request, with the headers of the batch request overridden by its own.
+     *
+     * @param batchRequest  the batch request
+     * @param item          the sub-request
+     * @param bufferFactory the buffer factory used for the request body
+     * @return the request of the sub-request
+     * @throws JsonProcessingException if the body cannot be serialized
+     */
+    private SubRequest createRequest(ServerHttpRequest batchRequest, BatchRequest.Item item,
+                                     DataBufferFactory bufferFactory) throws JsonProcessingException {
+        URI batchUri = batchRequest.getURI();
+        URI uri = URI.create(batchUri.getScheme() + "://" + batchUri.getRawAuthority() + item.path());
+        HttpMethod method = HttpMethod.valueOf(item.method() != null ? item.method().toUpperCase() : "GET");
+        HttpHeaders headers = new HttpHeaders();
+        batchRequest.getHeaders().forEach((name, values) -> {
+            if (BATCH_ONLY_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.put(name, values);
+            }
+        });
+        if (item.headers() != null) {
+            item.headers().forEach(headers::set);
+        }
+        byte[] body = new byte[0];
+        if (item.body() != null && !item.body().isNull()) {
+            body = objectMapper.writeValueAsBytes(item.body());
+            if (headers.getContentType() == null) {
+                headers.setContentType(MediaType.APPLICATION_JSON);
+            }
+            headers.setContentLength(body.length);
+        }
+        return new SubRequest(batchRequest, method, uri, headers, body, bufferFactory);
+    }
+
+    /**
+     * Converts the buffered response of a sub-request into its batch response item.
+     *
+     * @param item     the sub-request
+     * @param response the buffered response
+     * @return the batch response item
+     */
+    private BatchResponse.Item toItem(BatchRequest.Item item, SubResponse response) {
+        HttpStatusCode status = response.getStatusCode() != null ? response.getStatusCode() : HttpStatus.OK;
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.getHeaders().forEach((name, values) -> {
+            if (EXCLUDED_RESPONSE_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.put(name, values);
+            }
+        });
+        return new BatchResponse.Item(item.id(), status.value(), headers,
+                toJson(response.body, response.getHeaders().getContentType()));
+    }
+
+    /**
+     * Converts a response body into JSON, keeping JSON bodies as they are and wrapping other bodies as text.
+     *
+     * @param body        the response body
+     * @param contentType the content type of the response, or null
+     * @return the JSON body, or null if the body is empty
+     */
+    private JsonNode toJson(byte[] body, MediaType contentType) {
+        if (body.length == 0) {
+            return null;
+        }
+        if (contentType == null || MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json")) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                //not JSON after all, returned as text below
+            }
+        }
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return TextNode.valueOf(new String(body, charset));
+    }
+
+    /**
+     * Checks whether a path is the batch endpoint itself, which may not be called from a batch.
+     *
+     * @param path the path and query of a sub-request
+     * @return true if the path is the batch endpoint, false otherwise
+     */
+    private static boolean isBatch(String path) {
+        return path.startsWith(EndPoints.BATCH_END_POINT) && (path.length() == EndPoints.BATCH_END_POINT.length()
+                || "/?#".indexOf(path.charAt(EndPoints.BATCH_END_POINT.length())) >= 0);
+    }
+
+    private static BatchResponse.Item error(BatchRequest.Item item, HttpStatus status, String message) {
+        return new BatchResponse.Item(item.id(), status.value(), Map.of(), TextNode.valueOf(String.valueOf(message)));
+    }
+
+    /**
+     * An in-memory request for one sub-request, sharing the connection details of the batch request.
+     */
+    private static class SubRequest extends AbstractServerHttpRequest {
+
+        private final ServerHttpRequest batchRequest;
+
+        private final HttpMethod method;
+
+        private final byte[] body;
+
+        private final DataBufferFactory bufferFactory;
+
+        SubRequest(ServerHttpRequest batchRequest, HttpMethod method, URI uri, HttpHeaders headers, byte[] body,
+                   DataBufferFactory bufferFactory) {
+            super(uri, null, headers);
+            this.batchRequest = batchRequest;
+            this.method = method;
+            this.body = body;
+            this.bufferFactory = bufferFactory;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return body.length == 0 ? Flux.empty() : Flux.defer(() -> Flux.just(bufferFactory.wrap(body)));
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return batchRequest.getRemoteAddress();
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return batchRequest.getLocalAddress();
+        }
+
+        @Override
+        protected MultiValueMap<String, HttpCookie> initCookies() {
+            return new LinkedMultiValueMap<>(batchRequest.getCookies());
+        }
+
+        @Override
+        protected SslInfo initSslInfo() {
+            return batchRequest.getSslInfo();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getNativeRequest() {
+            return (T) this;
+        }
+    }
+
+    /**
+     * An in-memory response that buffers the body of a sub-request instead of writing it to the client.
+     */
+    private static class SubResponse extends AbstractServerHttpResponse {
+
+        private final int maximumBodySize;
+
+        private byte[] body = new byte[0];
+
+        SubResponse(DataBufferFactory bufferFactory, int maximumBodySize) {
+            super(bufferFactory);
+            this.maximumBodySize = maximumBodySize;
+        }
+
+        @Override
+        protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+            //join() returns a Mono as it is, without checking its size
+            return DataBufferUtils.join(Flux.from(body), maximumBodySize)
+                    .doOnNext(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        this.body = bytes;
+                    })
+                    .then();
+        }
+
+        @Override
+        protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWithInternal(Flux.from(body).concatMap(publisher -> publisher));
+        }
+
+        @Override
+        protected void applyStatusCode() {
+        }
+
+        @Override
+        protected void applyHeaders() {
+        }
+
+        @Override
+        protected void applyCookies() {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getNativeResponse() {
+            return (T) this;
+        }
+    }
+}
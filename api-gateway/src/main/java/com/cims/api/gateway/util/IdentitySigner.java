@@ -0,0 +1,56 @@
+package com.cims.api.gateway.util;
+
+import com.cims.common.identity.Identity;
+import com.cims.common.identity.IdentitySignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The IdentitySigner class signs the identity headers forwarded to the downstream services with a secret
+ * shared between the gateway and the services, so the services can trust the headers without calling
+ * the user service. The signature is bound to the bearer token of the request and expires with the token,
+ * or after the configured maximum age if that comes first.
+ */
+@Component
+public class IdentitySigner {
+
+    private final IdentitySignature identitySignature;
+
+    private final long maximumAgeMillis;
+
+    /**
+     * Creates the signer with the shared identity secret.
+     *
+     * @param secret     the secret shared with the downstream services
+     * @param maximumAge the longest a signature is accepted by the downstream services
+     */
+    public IdentitySigner(@Value("${identity.secret}") String secret,
+                          @Value("${identity.maximum-age:60s}") Duration maximumAge) {
+        this.identitySignature = new IdentitySignature(secret);
+        this.maximumAgeMillis = maximumAge.toMillis();
+    }
+
+    /**
+     * Returns the time after which a signature made now for the given token is stale.
+     *
+     * @param verifiedToken the verified identity to sign
+     * @return the expiry time of the signature in epoch milliseconds
+     */
+    public long expiresAt(VerifiedToken verifiedToken) {
+        return Math.min(verifiedToken.expiresAt(), System.currentTimeMillis() + maximumAgeMillis);
+    }
+
+    /**
+     * Signs the identity of a verified token for the given bearer token.
+     *
+     * @param token         the bearer token of the request, without the "Bearer " prefix
+     * @param verifiedToken the verified identity to sign
+     * @param expiresAt     the expiry time of the signature, as returned by {@link #expiresAt(VerifiedToken)}
+     * @return the Base64 encoded signature
+     */
+    public String sign(String token, VerifiedToken verifiedToken, long expiresAt) {
+        return identitySignature.sign(token, verifiedToken.toIdentity(), expiresAt);
+    }
+}
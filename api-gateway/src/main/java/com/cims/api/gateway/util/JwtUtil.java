@@ -1,37 +1,252 @@
 package com.cims.api.gateway.util;
 
+import com.cims.common.jwt.JwtKeySet;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.PublicKey;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The JwtUtil class provides utility methods for working with JSON Web Tokens (JWTs).
  * It allows for validating a JWT's signature and extracting its claims.
+ * <p>
+ * Tokens are verified with the public key named in their {@code kid} header, taken from the {@link JwtKeySet}
+ * of the auth service. A token signed with a key that is not known yet causes the key set to be fetched again
+ * before the token is rejected, so the auth service can rotate its keys while the gateway is running.
+ * <p>
+ * Verified tokens are remembered by the SHA-256 hash of the token until their own expiry, so repeated
+ * requests from the same session skip signature verification. Rejected tokens are remembered for a short
+ * period so a client retrying a bad token does not pay for parsing it again. Every token is checked against
+ * the {@link TokenRevocationList} before the cache is used, so a token revoked in the user service, e.g. on
+ * logout, is rejected within the sync interval of the list instead of at its expiry.
  */
 @Component
 public class JwtUtil {
 
-    private static final String SECRET = "5971337436773979244226452948404D635166546A576E5A7234753778214125";
+    private final JwtKeySet jwtKeySet;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    private final JwtParser jwtParser;
+
+    private static final String USER_ID_CLAIM = "userId";
+
+    private static final String BRANCH_CODE_CLAIM = "branchCode";
+
+    private static final String ROLE_ID_CLAIM = "roleId";
+
+    private static final String STATUS_CLAIM = "status";
+
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private final Cache<String, Boolean> rejectedTokens;
+
+    /**
+     * Creates the JWT utility with bounded caches for verified and rejected tokens.
+     *
+     * @param jwtKeySet           the public keys of the auth service
+     * @param tokenRevocationList the tokens revoked in the user service
+     * @param maximumSize     the maximum number of tokens kept in each cache
+     * @param rejectedTimeout how long a rejected token is remembered
+     */
+    public JwtUtil(JwtKeySet jwtKeySet,
+                   TokenRevocationList tokenRevocationList,
+                   @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+                   @Value("${jwt.cache.rejected-timeout:60s}") Duration rejectedTimeout) {
+        this.jwtKeySet = jwtKeySet;
+        this.tokenRevocationList = tokenRevocationList;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KeySetResolver()).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+        this.rejectedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(rejectedTimeout)
+                .build();
+    }
+
+    /**
+     * Verifies a JSON Web Token and returns the identity it carries.
+     * Tokens seen before are answered from the cache without re-verifying the signature, unless they have been revoked.
+     *
+     * @param token the JWT to verify
+     * @return a Mono that emits the verified identity of the token, or completes empty if the token is invalid, expired or revoked
+     */
+    public Mono<VerifiedToken> verifyToken(final String token) {
+        if (token == null || token.isEmpty()) {
+            return Mono.empty();
+        }
+        String tokenHash = hash(token);
+        if (tokenRevocationList.isRevoked(tokenHash)) {
+            verifiedTokens.invalidate(tokenHash);
+            return Mono.empty();
+        }
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken != null) {
+            return verifiedToken.expiresAt() > System.currentTimeMillis() ? Mono.just(verifiedToken) : Mono.empty();
+        }
+        if (rejectedTokens.getIfPresent(tokenHash) != null) {
+            return Mono.empty();
+        }
+        try {
+            return Mono.justOrEmpty(verify(token, tokenHash));
+        } catch (UnknownKeyException e) {
+            //the key may have been rotated since the key set was fetched
+            return Mono.fromFuture(jwtKeySet.refreshIfStale()).then(Mono.fromSupplier(() -> {
+                try {
+                    return verify(token, tokenHash);
+                } catch (UnknownKeyException unknownKey) {
+                    return null;
+                }
+            }));
+        }
+    }
+
+    /**
+     * Verifies a token that is not cached yet, and caches the result.
+     *
+     * @param token     the JWT to verify
+     * @param tokenHash the hash of the token
+     * @return the verified identity of the token, or null if the token is invalid or expired
+     * @throws UnknownKeyException if the token is signed with a key that is not known
+     */
+    private VerifiedToken verify(final String token, final String tokenHash) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            rejectedTokens.put(tokenHash, Boolean.TRUE);
+            return null;
+        }
+        VerifiedToken verifiedToken = toVerifiedToken(claims);
+        verifiedTokens.put(tokenHash, verifiedToken);
+        return verifiedToken;
+    }
+
+    /**
+     * Builds the verified identity from the claims of a token.
+     *
+     * @param claims the claims of a verified token
+     * @return the verified identity
+     */
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                claims.get(USER_ID_CLAIM, String.class),
+                removeServiceName(claims.getSubject()),
+                claims.get(BRANCH_CODE_CLAIM, String.class),
+                claims.get(ROLE_ID_CLAIM, String.class),
+                claims.get(STATUS_CLAIM, String.class));
+    }
 
     /**
-     * Validates a JSON Web Token's signature.
+     * Removes the service name prefix (e.g. "USER_") that the auth service prepends to the subject.
      *
-     * @param token the JWT to validate
+     * @param subject the subject of the token
+     * @return the user name without the service name prefix
      */
-    public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+    private static String removeServiceName(String subject) {
+        if (subject == null) {
+            return null;
+        }
+        int separator = subject.indexOf('_');
+        return separator < 0 ? subject : subject.substring(separator + 1);
     }
 
     /**
-     * Returns the signing key used to verify the JWT signature.
+     * Parses and verifies a JSON Web Token, returning its claims.
      *
-     * @return the signing key as a Key object
+     * @param token the JWT to parse
+     * @return the claims of the token, or null if the token is malformed, expired or has an invalid signature
+     * @throws UnknownKeyException if the token is signed with a key that is not known
      */
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Claims parseClaims(final String token) {
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (UnknownKeyException e) {
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the SHA-256 hash of the token, used as the cache key so raw tokens are not kept in memory.
+     *
+     * @param token the JWT to hash
+     * @return the Base64 encoded hash of the token
+     */
+    public static String hash(final String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Picks the verification key of a token by its {@code kid} header.
+     */
+    private class KeySetResolver extends SigningKeyResolverAdapter {
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            PublicKey publicKey = jwtKeySet.getKey(header.getKeyId());
+            if (publicKey == null) {
+                throw new UnknownKeyException(header.getKeyId());
+            }
+            return publicKey;
+        }
+    }
+
+    /**
+     * Thrown when a token is signed with a key that is not in the key set.
+     */
+    private static class UnknownKeyException extends JwtException {
+
+        UnknownKeyException(String keyId) {
+            super("Unknown signing key " + keyId);
+        }
+    }
+
+    /**
+     * Expires each verified token at the expiry time carried in its own claims.
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken verifiedToken, long currentTime) {
+            long remainingMillis = verifiedToken.expiresAt() - System.currentTimeMillis();
+            return remainingMillis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
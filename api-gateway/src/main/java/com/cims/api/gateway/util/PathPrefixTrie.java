@@ -0,0 +1,117 @@
+package com.cims.api.gateway.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The PathPrefixTrie class matches request paths against a fixed set of path prefixes.
+ * The prefixes are compiled once into a character trie, so a lookup costs at most one step per character
+ * of the path regardless of how many prefixes are registered.
+ * <p>
+ * Matching is anchored at the start of the path. A prefix ending with "/" matches everything below it,
+ * e.g. "/user/js/" matches "/user/js/app.js". A prefix without a trailing "/" matches the path itself and
+ * everything below it, e.g. "/user/login" matches "/user/login" and "/user/login/x" but not "/user/loginx".
+ */
+public final class PathPrefixTrie {
+
+    private final Node root = new Node();
+
+    private PathPrefixTrie() {
+    }
+
+    /**
+     * Compiles the given path prefixes into a trie.
+     *
+     * @param prefixes the path prefixes to match
+     * @return the compiled trie
+     */
+    public static PathPrefixTrie of(Collection<String> prefixes) {
+        PathPrefixTrie trie = new PathPrefixTrie();
+        prefixes.forEach(trie::add);
+        return trie;
+    }
+
+    /**
+     * Checks whether the path starts with one of the registered prefixes.
+     *
+     * @param path the request path, without query string
+     * @return true if the path is matched by a prefix, false otherwise
+     */
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        Node node = root;
+        int length = path.length();
+        for (int i = 0; ; i++) {
+            if (node.terminal == Node.DIRECTORY) {
+                return true;
+            }
+            if (node.terminal == Node.SEGMENT && (i == length || path.charAt(i) == '/')) {
+                return true;
+            }
+            if (i == length) {
+                return false;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds a path prefix to the trie.
+     *
+     * @param prefix the path prefix to add
+     */
+    private void add(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.getOrAddChild(prefix.charAt(i));
+        }
+        if (node.terminal != Node.DIRECTORY) {
+            node.terminal = prefix.endsWith("/") ? Node.DIRECTORY : Node.SEGMENT;
+        }
+    }
+
+    /**
+     * A trie node. Children are kept in parallel arrays as path characters fan out only a little per position.
+     */
+    private static final class Node {
+
+        private static final byte NONE = 0;
+
+        private static final byte SEGMENT = 1;
+
+        private static final byte DIRECTORY = 2;
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private byte terminal = NONE;
+
+        private Node child(char key) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrAddChild(char key) {
+            Node child = child(key);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = key;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
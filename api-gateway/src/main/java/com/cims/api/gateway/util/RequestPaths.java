@@ -0,0 +1,39 @@
+package com.cims.api.gateway.util;
+
+/**
+ * The RequestPaths class splits request paths of the form {@code /service/resource/operation/...},
+ * which all routed services follow, e.g. {@code /employee/employeeType/getById/1}.
+ */
+public final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    /**
+     * Returns the resource of a path, i.e. its first two segments, e.g. {@code /employee/employeeType}.
+     *
+     * @param path the request path
+     * @return the resource of the path, or null if the path has no operation below a resource
+     */
+    public static String resourceOf(String path) {
+        int first = path.indexOf('/', 1);
+        int second = first < 0 ? -1 : path.indexOf('/', first + 1);
+        return second < 0 ? null : path.substring(0, second);
+    }
+
+    /**
+     * Returns the operation of a path, i.e. its third segment, e.g. {@code getById}.
+     *
+     * @param path the request path
+     * @return the operation of the path, or null if the path has no operation
+     */
+    public static String operationOf(String path) {
+        int first = path.indexOf('/', 1);
+        int second = first < 0 ? -1 : path.indexOf('/', first + 1);
+        if (second < 0) {
+            return null;
+        }
+        int third = path.indexOf('/', second + 1);
+        return third < 0 ? path.substring(second + 1) : path.substring(second + 1, third);
+    }
+}
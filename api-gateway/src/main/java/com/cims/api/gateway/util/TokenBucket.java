@@ -0,0 +1,81 @@
+package com.cims.api.gateway.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The TokenBucket class is a lock-free token bucket used for rate limiting.
+ * The bucket holds up to {@code capacity} tokens and is refilled continuously at {@code refillPerSecond}.
+ * Each admitted request takes one token; concurrent callers update the bucket with compare-and-set.
+ */
+public final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double capacity;
+
+    private final double refillPerNano;
+
+    private final AtomicReference<State> state;
+
+    /**
+     * Creates a full token bucket.
+     *
+     * @param capacity        the maximum number of tokens, i.e. the allowed burst
+     * @param refillPerSecond the number of tokens added per second, i.e. the sustained rate
+     */
+    public TokenBucket(long capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    /**
+     * Tries to take one token from the bucket.
+     *
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until a token becomes available
+     */
+    public long tryConsume() {
+        while (true) {
+            long now = System.nanoTime();
+            State current = state.get();
+            double tokens = refill(current, now);
+            if (tokens < 1) {
+                return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerNano));
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryConsume()} when the request was rejected by another limit.
+     */
+    public void refund() {
+        while (true) {
+            State current = state.get();
+            if (state.compareAndSet(current, new State(Math.min(capacity, current.tokens() + 1), current.refilledAt()))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens in the bucket at the given time.
+     *
+     * @param current the last recorded state of the bucket
+     * @param now     the current time in nanoseconds
+     * @return the number of available tokens
+     */
+    private double refill(State current, long now) {
+        long elapsed = Math.max(0, now - current.refilledAt());
+        return Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.cims.api.gateway.util;
+
+import com.cims.api.gateway.dto.RevokedToken;
+import com.cims.common.security.ServiceCredential;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The TokenRevocationList class keeps the tokens revoked in the user service, e.g. on logout, so the gateway
+ * rejects a revoked token even while its verification is cached by {@link JwtUtil}.
+ * <p>
+ * The revoked tokens are read from the internal endpoint of the user service with the service credential, once
+ * the application is ready and then on a fixed interval, so a revocation reaches the gateway within the sync
+ * interval. Each read asks for the tokens revoked since the last one seen, overlapped by one interval so a
+ * revocation committed late is not missed. A failed read keeps the tokens already known. Tokens are dropped once
+ * they have expired, as an expired token is rejected anyway.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient webClient;
+
+    private final String revokedTokensUri;
+
+    private final Duration syncInterval;
+
+    private final ServiceCredential serviceCredential;
+
+    /**
+     * The expiry of each revoked token in epoch milliseconds, keyed by the hash of the token, see {@link JwtUtil#hash(String)}.
+     */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Written by the sync only, which never runs concurrently with itself.
+     */
+    private volatile Instant lastRevokedAt = Instant.EPOCH;
+
+    private volatile Disposable scheduledSync;
+
+    /**
+     * Creates the revocation list. The reads start when the application is ready.
+     *
+     * @param loadBalancerFunction the filter that resolves the user service through the load balancer
+     * @param revokedTokensUri     the URI of the revoked tokens endpoint
+     * @param syncInterval         how often the revoked tokens are read
+     * @param serviceCredential    the credential of the internal endpoints
+     */
+    public TokenRevocationList(ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                               @Value("${token-revocation.uri:http://USER-SERVICE/internal/revokedTokens}") String revokedTokensUri,
+                               @Value("${token-revocation.sync-interval:10s}") Duration syncInterval,
+                               ServiceCredential serviceCredential) {
+        this.webClient = WebClient.builder().filter(loadBalancerFunction).build();
+        this.revokedTokensUri = revokedTokensUri;
+        this.syncInterval = syncInterval;
+        this.serviceCredential = serviceCredential;
+    }
+
+    /**
+     * Starts reading the revoked tokens. The reads run on the bounded elastic scheduler, as resolving the user
+     * service may block the first time it is looked up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduledSync = Flux.interval(Duration.ZERO, syncInterval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> synchronize())
+                .subscribe();
+    }
+
+    /**
+     * Stops reading the revoked tokens.
+     */
+    @PreDestroy
+    public void shutdown() {
+        Disposable sync = scheduledSync;
+        if (sync != null) {
+            sync.dispose();
+        }
+    }
+
+    /**
+     * Checks whether the token with the given hash has been revoked.
+     *
+     * @param tokenHash the hash of the token, see {@link JwtUtil#hash(String)}
+     * @return true if the token is revoked and has not expired, false otherwise
+     */
+    public boolean isRevoked(String tokenHash) {
+        if (revokedTokens.isEmpty()) {
+            return false;
+        }
+        Long expiresAt = revokedTokens.get(tokenHash);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Reads the tokens revoked since the last one seen and drops the expired ones.
+     *
+     * @return a Mono that completes when the read has finished or failed
+     */
+    Mono<Void> synchronize() {
+        Instant since = lastRevokedAt.equals(Instant.EPOCH) ? Instant.EPOCH : lastRevokedAt.minus(syncInterval);
+        return webClient.get()
+                .uri(revokedTokensUri + "?since={since}", since.toEpochMilli())
+                .header(ServiceCredential.HEADER, serviceCredential.value())
+                .retrieve()
+                .bodyToFlux(RevokedToken.class)
+                .collectList()
+                .timeout(FETCH_TIMEOUT)
+                .doOnNext(this::add)
+                .onErrorResume(e -> {
+                    log.warn("Reading the revoked tokens from {} failed: {}", revokedTokensUri, e.toString());
+                    return Mono.empty();
+                })
+                .then(Mono.fromRunnable(this::dropExpired));
+    }
+
+    private void add(List<RevokedToken> tokens) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        for (RevokedToken token : tokens) {
+            if (token.tokenHash() == null || token.expiresAt() == null) {
+                continue;
+            }
+            revokedTokens.put(encoder.encodeToString(HexFormat.of().parseHex(token.tokenHash())), token.expiresAt().toEpochMilli());
+            if (token.revokedAt() != null && token.revokedAt().isAfter(lastRevokedAt)) {
+                lastRevokedAt = token.revokedAt();
+            }
+        }
+    }
+
+    private void dropExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cims.api.gateway.util;
+
+import com.cims.common.identity.Identity;
+
+/**
+ * The identity carried by a verified JSON Web Token, together with the time at which the token expires.
+ *
+ * @param expiresAt  the expiry time of the token in epoch milliseconds
+ * @param userId     the ID of the user account, or null if the token does not carry it
+ * @param userName   the name of the user, without the service name prefix
+ * @param branchCode the branch code of the user account, or null if the token does not carry it
+ * @param roleId     the ID of the user role, or null if the token does not carry it
+ * @param status     the name of the account status, or null if the token does not carry it
+ */
+public record VerifiedToken(long expiresAt, String userId, String userName, String branchCode, String roleId, String status) {
+
+    /**
+     * Checks whether the token carries the identity claims needed to forward identity headers.
+     * Tokens issued before these claims were introduced do not.
+     *
+     * @return true if the user ID and branch code are present, false otherwise
+     */
+    public boolean hasIdentity() {
+        return userId != null && branchCode != null;
+    }
+
+    /**
+     * Returns the identity forwarded to the downstream services.
+     *
+     * @return the identity of the token
+     */
+    public Identity toIdentity() {
+        return new Identity(userId, userName, branchCode, roleId, status);
+    }
+}
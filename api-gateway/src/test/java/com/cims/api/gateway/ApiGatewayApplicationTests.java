@@ -3,7 +3,9 @@ package com.cims.api.gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"INTERNAL_SECRET=5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437",
+		"IDENTITY_SECRET=4B6150645367566B5970337336763979244226452948404D635166546A576E5A"})
 class ApiGatewayApplicationTests {
 
 	@Test
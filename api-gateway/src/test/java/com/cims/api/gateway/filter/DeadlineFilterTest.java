@@ -0,0 +1,112 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.common.deadline.DeadlineHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineFilterTest {
+
+    private DeadlineFilter deadlineFilter;
+
+    private final DeadlineHeaderFilter deadlineHeaderFilter = new DeadlineHeaderFilter();
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    public void setUp() {
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        httpClientProperties.setResponseTimeout(Duration.ofSeconds(5));
+        deadlineFilter = new DeadlineFilter(httpClientProperties);
+    }
+
+    @Test
+    public void testFilter_ClientHeaderRemoved() {
+        deadlineFilter.filter(exchange(Map.of(), "999999"), chain).block();
+
+        assertNull(forwarded.get().getRequest().getHeaders().getFirst(DeadlineHeaders.REMAINING_MILLIS));
+        assertNotNull(forwarded.get().getAttribute(DeadlineFilter.DEADLINE_ATTR));
+    }
+
+    @Test
+    public void testFilter_RouteTimeoutUsed() {
+        deadlineFilter.filter(exchange(Map.of(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, 200)), chain).block();
+
+        Long remainingMillis = DeadlineFilter.remainingMillis(forwarded.get());
+        assertTrue(remainingMillis > 0 && remainingMillis <= 200);
+    }
+
+    @Test
+    public void testFilter_NegativeRouteTimeoutDisablesDeadline() {
+        deadlineFilter.filter(exchange(Map.of(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)), chain).block();
+
+        assertNull(DeadlineFilter.remainingMillis(forwarded.get()));
+    }
+
+    @Test
+    public void testHeaderFilter_SendsTimeLeftWhenForwarding() {
+        MockServerWebExchange exchange = exchange(Map.of());
+        //the request spent 4 of its 5 seconds in the gateway before it is forwarded
+        exchange.getAttributes().put(DeadlineFilter.DEADLINE_ATTR, System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+
+        deadlineHeaderFilter.filter(exchange, chain).block();
+
+        long remainingMillis = Long.parseLong(forwarded.get().getRequest().getHeaders().getFirst(DeadlineHeaders.REMAINING_MILLIS));
+        assertTrue(remainingMillis > 900 && remainingMillis <= 1000);
+    }
+
+    @Test
+    public void testHeaderFilter_DeadlinePassed() {
+        MockServerWebExchange exchange = exchange(Map.of());
+        exchange.getAttributes().put(DeadlineFilter.DEADLINE_ATTR, System.nanoTime() - 1);
+
+        deadlineHeaderFilter.filter(exchange, chain).block();
+
+        assertEquals("0", forwarded.get().getRequest().getHeaders().getFirst(DeadlineHeaders.REMAINING_MILLIS));
+    }
+
+    @Test
+    public void testHeaderFilter_WithoutDeadline() {
+        deadlineHeaderFilter.filter(exchange(Map.of()), chain).block();
+
+        assertNull(forwarded.get().getRequest().getHeaders().getFirst(DeadlineHeaders.REMAINING_MILLIS));
+    }
+
+    private static MockServerWebExchange exchange(Map<String, Object> metadata) {
+        return exchange(metadata, null);
+    }
+
+    private static MockServerWebExchange exchange(Map<String, Object> metadata, String remainingMillis) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/user/userAccount/getAll");
+        if (remainingMillis != null) {
+            request.header(DeadlineHeaders.REMAINING_MILLIS, remainingMillis);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async().id("user-service").uri("lb://USER-SERVICE").predicate(e -> true).metadata(metadata).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,226 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.HedgingProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HedgingFilterTest {
+
+    private static final String SERVICE_ID = "EMPLOYEE-SERVICE";
+
+    private static final String PATH = "/employee/employeeType/getById/1";
+
+    private static final Duration SLOW_RESPONSE = Duration.ofMillis(1000);
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final ServiceInstance primaryInstance = new DefaultServiceInstance("primary", SERVICE_ID, "127.0.0.1", 1, false);
+
+    private volatile Duration primaryDelay = Duration.ZERO;
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(primaryInstance));
+        return Mono.delay(primaryDelay).then(Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap("primary".getBytes(StandardCharsets.UTF_8))));
+        }));
+    };
+
+    private final Queue<ServiceInstance> chosenInstances = new ConcurrentLinkedQueue<>();
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory = mock(LoadBalancerClientFactory.class);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    private ServiceInstance slowInstance;
+
+    private ServiceInstance fastInstance;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        slowInstance = startServer("slow", "slow", SLOW_RESPONSE);
+        fastInstance = startServer("fast", "fast", Duration.ZERO);
+        ReactorServiceInstanceLoadBalancer loadBalancer = request -> Mono.fromSupplier(() -> new DefaultResponse(chosenInstances.poll()));
+        when(loadBalancerClientFactory.getInstance(SERVICE_ID, ReactorServiceInstanceLoadBalancer.class)).thenReturn(loadBalancer);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFilter_SlowRequestHedged() {
+        GatewayFilter hedgingFilter = createFilter(1.0);
+        filter(hedgingFilter, PATH);
+
+        primaryDelay = SLOW_RESPONSE;
+        chosenInstances.addAll(List.of(primaryInstance, fastInstance));
+        long startTime = System.nanoTime();
+        MockServerWebExchange hedged = filter(hedgingFilter, PATH);
+
+        assertEquals("fast", hedged.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, hedged.getResponse().getStatusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - startTime).compareTo(SLOW_RESPONSE) < 0);
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_FirstAnswerWritten() {
+        GatewayFilter hedgingFilter = createFilter(1.0);
+        filter(hedgingFilter, PATH);
+
+        primaryDelay = Duration.ofMillis(200);
+        chosenInstances.add(slowInstance);
+        long startTime = System.nanoTime();
+        MockServerWebExchange exchange = filter(hedgingFilter, PATH);
+
+        assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+        assertTrue(Duration.ofNanos(System.nanoTime() - startTime).compareTo(SLOW_RESPONSE) < 0);
+    }
+
+    @Test
+    public void testFilter_LargeResponseStreamed() throws IOException {
+        String body = "x".repeat(2 * 1024 * 1024);
+        ServiceInstance largeInstance = startServer("large", body, Duration.ZERO);
+        GatewayFilter hedgingFilter = createFilter(1.0);
+        filter(hedgingFilter, PATH);
+
+        primaryDelay = SLOW_RESPONSE;
+        chosenInstances.addAll(List.of(primaryInstance, largeInstance));
+        MockServerWebExchange hedged = filter(hedgingFilter, PATH);
+
+        assertEquals(body.length(), hedged.getResponse().getBodyAsString().block().length());
+        assertEquals(body.length(), hedged.getResponse().getHeaders().getContentLength());
+    }
+
+    @Test
+    public void testFilter_NotHedgedBeforeMinimumSamples() {
+        GatewayFilter hedgingFilter = createFilter(1.0);
+        primaryDelay = Duration.ofMillis(200);
+        chosenInstances.add(fastInstance);
+
+        MockServerWebExchange exchange = filter(hedgingFilter, PATH);
+
+        assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void testFilter_NotHedgedWithoutBudget() {
+        GatewayFilter hedgingFilter = createFilter(0.0);
+        filter(hedgingFilter, PATH);
+
+        primaryDelay = Duration.ofMillis(200);
+        chosenInstances.add(fastInstance);
+        MockServerWebExchange exchange = filter(hedgingFilter, PATH);
+
+        assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void testFilter_OnlyConfiguredGetsHedged() {
+        GatewayFilter hedgingFilter = createFilter(1.0);
+
+        filter(hedgingFilter, "/employee/employeeType/getAll");
+        hedgingFilter.filter(route(MockServerWebExchange.from(MockServerHttpRequest.post("http://gateway" + PATH))), chain).block();
+        hedgingFilter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("http://gateway" + PATH)), chain).block();
+
+        assertEquals(3, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_UnknownServiceNotHedged() {
+        GatewayFilter hedgingFilter = createFilter(1.0);
+        Route route = Route.async().id("unknown").uri(URI.create("lb://UNKNOWN-SERVICE")).predicate(e -> true).build();
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://gateway" + PATH));
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+            hedgingFilter.filter(exchange, chain).block(Duration.ofSeconds(5));
+            primaryDelay = Duration.ofMillis(200);
+
+            assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals(2, forwarded.get());
+    }
+
+    private GatewayFilter createFilter(double budgetRatio) {
+        HedgingProperties properties = new HedgingProperties(List.of("getById"), 0.95, Duration.ofMillis(50), 1,
+                budgetRatio);
+        return new HedgingFilter(properties, loadBalancerClientFactory, HttpClient.create()).apply(new HedgingFilter.Config());
+    }
+
+    private MockServerWebExchange filter(GatewayFilter hedgingFilter, String path) {
+        MockServerWebExchange exchange = route(MockServerWebExchange.from(MockServerHttpRequest.get("http://gateway" + path)));
+        hedgingFilter.filter(exchange, chain).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private static MockServerWebExchange route(MockServerWebExchange exchange) {
+        Route route = Route.async().id("employee-service").uri(URI.create("lb://" + SERVICE_ID)).predicate(e -> true).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private ServiceInstance startServer(String instanceId, String body, Duration delay) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", httpExchange -> {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            httpExchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                outputStream.write(bytes);
+            } catch (IOException e) {
+                //the request was cancelled
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        servers.add(server);
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, "127.0.0.1", server.getAddress().getPort(), false);
+    }
+}
@@ -0,0 +1,124 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.RateLimitProperties;
+import com.cims.common.identity.IdentityHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class RateLimitFilterTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private GatewayFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(
+                new RateLimitProperties.Bandwidth(2, 0.001), new RateLimitProperties.Bandwidth(3, 0.001),
+                new RateLimitProperties.Bandwidth(4, 0.001));
+        RateLimitProperties properties = new RateLimitProperties(Duration.ofMinutes(10), 1000, limit, Map.of());
+        rateLimitFilter = new RateLimitFilter(properties).apply(new RateLimitFilter.Config());
+    }
+
+    @Test
+    public void testFilter_UserOverLimit() {
+        assertEquals(HttpStatus.OK, filter(user("1", "CM")));
+        assertEquals(HttpStatus.OK, filter(user("1", "CM")));
+
+        MockServerWebExchange rejected = user("1", "CM");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, filter(rejected));
+        assertNotNull(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_BranchOverLimit() {
+        assertEquals(HttpStatus.OK, filter(user("1", "CM")));
+        assertEquals(HttpStatus.OK, filter(user("2", "CM")));
+        assertEquals(HttpStatus.OK, filter(user("3", "CM")));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, filter(user("4", "CM")));
+        assertEquals(HttpStatus.OK, filter(user("4", "KY")));
+    }
+
+    @Test
+    public void testFilter_TokenWithoutIdentityLimited() {
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = anonymous("10.0.0.1");
+            exchange.getAttributes().put(AuthenticationFilter.TOKEN_HASH_ATTR, "hash");
+            assertEquals(HttpStatus.OK, filter(exchange));
+        }
+        MockServerWebExchange exchange = anonymous("10.0.0.2");
+        exchange.getAttributes().put(AuthenticationFilter.TOKEN_HASH_ATTR, "hash");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, filter(exchange));
+    }
+
+    @Test
+    public void testFilter_AnonymousLimitedByAddress() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.OK, filter(anonymous("10.0.0.1")));
+        }
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, filter(anonymous("10.0.0.1")));
+        assertEquals(HttpStatus.OK, filter(anonymous("10.0.0.2")));
+    }
+
+    @Test
+    public void testFilter_AnonymousNotLimitedWithoutAddressLimit() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(new RateLimitProperties.Bandwidth(2, 0.001), null, null);
+        rateLimitFilter = new RateLimitFilter(new RateLimitProperties(Duration.ofMinutes(10), 1000, limit, Map.of()))
+                .apply(new RateLimitFilter.Config());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK, filter(anonymous("10.0.0.1")));
+        }
+    }
+
+    private HttpStatus filter(MockServerWebExchange exchange) {
+        rateLimitFilter.filter(exchange, chain).block();
+        return exchange.getResponse().getStatusCode() != null
+                ? HttpStatus.valueOf(exchange.getResponse().getStatusCode().value()) : HttpStatus.OK;
+    }
+
+    private static MockServerWebExchange user(String userId, String branchCode) {
+        return exchange(MockServerHttpRequest.get("/employee/employee/getAll")
+                .header(IdentityHeaders.USER_ID, userId)
+                .header(IdentityHeaders.BRANCH, branchCode)
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 50000)));
+    }
+
+    private static MockServerWebExchange anonymous(String address) {
+        return exchange(MockServerHttpRequest.get("/employee/employee/getAll")
+                .remoteAddress(new InetSocketAddress(address, 50000)));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async().id("EMPLOYEE-SERVICE").uri("lb://EMPLOYEE-SERVICE").predicate(e -> true).build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,143 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.RequestCoalescingProperties;
+import com.cims.common.identity.IdentityHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class RequestCoalescingFilterTest {
+
+    private static final String PATH = "/employee/employeeType/getAllActive";
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final Sinks.Empty<Void> downstream = Sinks.empty();
+
+    private final GatewayFilterChain chain = exchange -> {
+        int count = forwarded.incrementAndGet();
+        return downstream.asMono().then(Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body = ("{\"response\":" + count + "}").getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }));
+    };
+
+    private GatewayFilter requestCoalescingFilter;
+
+    @BeforeEach
+    public void setUp() {
+        requestCoalescingFilter = new RequestCoalescingFilter(new RequestCoalescingProperties(List.of("getAll")))
+                .apply(new RequestCoalescingFilter.Config());
+    }
+
+    @Test
+    public void testFilter_IdenticalRequestsCoalesced() throws Exception {
+        MockServerWebExchange first = get(PATH, "CM");
+        MockServerWebExchange second = get(PATH, "CM");
+
+        CompletableFuture<Void> responses = Mono.when(filter(first), filter(second)).toFuture();
+        assertFalse(responses.isDone());
+        downstream.tryEmitEmpty();
+        responses.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, forwarded.get());
+        assertEquals("{\"response\":1}", first.getResponse().getBodyAsString().block());
+        assertEquals("{\"response\":1}", second.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+        assertEquals(14, second.getResponse().getHeaders().getContentLength());
+    }
+
+    @Test
+    public void testFilter_LaterRequestForwardedAgain() {
+        downstream.tryEmitEmpty();
+        filter(get(PATH, "CM")).block();
+
+        MockServerWebExchange later = get(PATH, "CM");
+        filter(later).block();
+
+        assertEquals(2, forwarded.get());
+        assertEquals("{\"response\":2}", later.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void testFilter_LateSubscriberGetsSharedResponse() {
+        MockServerWebExchange first = get(PATH, "CM");
+        MockServerWebExchange late = get(PATH, "CM");
+        Mono<Void> firstResponse = filter(first);
+        Mono<Void> lateResponse = filter(late);
+
+        downstream.tryEmitEmpty();
+        firstResponse.block();
+        lateResponse.block();
+
+        assertEquals(1, forwarded.get());
+        assertEquals("{\"response\":1}", late.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void testFilter_CancelledFirstRequestLetsWaitersForward() {
+        MockServerWebExchange waiting = get(PATH, "CM");
+        Mono<Void> firstResponse = filter(get(PATH, "CM"));
+        Mono<Void> waitingResponse = filter(waiting);
+
+        firstResponse.subscribe().dispose();
+        downstream.tryEmitEmpty();
+        waitingResponse.block();
+
+        assertEquals(2, forwarded.get());
+        assertEquals("{\"response\":2}", waiting.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void testFilter_DifferentBranchesNotCoalesced() {
+        Mono<Void> responses = Mono.when(filter(get(PATH, "CM")), filter(get(PATH, "KY")));
+        downstream.tryEmitEmpty();
+        responses.block();
+
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_OnlyConfiguredGetsCoalesced() {
+        Mono<Void> responses = Mono.when(
+                filter(get("/employee/employeeType/getById/1", "CM")),
+                filter(get("/employee/employeeType/getById/1", "CM")),
+                filter(MockServerWebExchange.from(MockServerHttpRequest.post(PATH).header(IdentityHeaders.BRANCH, "CM"))),
+                filter(MockServerWebExchange.from(MockServerHttpRequest.post(PATH).header(IdentityHeaders.BRANCH, "CM"))),
+                filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH))),
+                filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH))));
+        downstream.tryEmitEmpty();
+        responses.block();
+
+        assertEquals(6, forwarded.get());
+    }
+
+    private Mono<Void> filter(MockServerWebExchange exchange) {
+        return requestCoalescingFilter.filter(exchange, chain);
+    }
+
+    private static MockServerWebExchange get(String path, String branchCode) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header(IdentityHeaders.BRANCH, branchCode));
+    }
+}
@@ -0,0 +1,134 @@
+package com.cims.api.gateway.filter;
+
+import com.cims.api.gateway.config.ResponseCacheProperties;
+import com.cims.common.identity.IdentityHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheFilterTest {
+
+    private static final String PATH = "/employee/employeeType/getAll";
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private HttpStatus downstreamStatus = HttpStatus.OK;
+
+    private final GatewayFilterChain chain = exchange -> {
+        int count = forwarded.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(downstreamStatus);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"response\":" + count + "}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    };
+
+    private GatewayFilter responseCacheFilter;
+
+    @BeforeEach
+    public void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties(Duration.ofMinutes(5), DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(64), Set.of("/employee/employeeType"));
+        responseCacheFilter = new ResponseCacheFilter(properties).apply(new ResponseCacheFilter.Config());
+    }
+
+    @Test
+    public void testFilter_GetServedFromCache() {
+        MockServerWebExchange first = filter(get(PATH, "CM"));
+        MockServerWebExchange second = filter(get(PATH, "CM"));
+
+        assertEquals(1, forwarded.get());
+        assertEquals("{\"response\":1}", second.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+        assertNotNull(first.getResponse().getHeaders().getETag());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    public void testFilter_NotModifiedWithMatchingETag() {
+        String eTag = filter(get(PATH, "CM")).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidated = filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH)
+                .header(IdentityHeaders.BRANCH, "CM")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+        assertTrue(revalidated.getResponse().getBodyAsString().blockOptional().orElse("").isEmpty());
+        assertEquals(1, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_ChangeInvalidatesBranch() {
+        filter(get(PATH, "CM"));
+        filter(get(PATH, "KY"));
+
+        filter(MockServerWebExchange.from(MockServerHttpRequest.post("/employee/employeeType/saveUpdate")
+                .header(IdentityHeaders.BRANCH, "CM")));
+        MockServerWebExchange afterChange = filter(get(PATH, "CM"));
+        filter(get(PATH, "KY"));
+
+        assertEquals("{\"response\":4}", afterChange.getResponse().getBodyAsString().block());
+        assertEquals(4, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_BranchesCachedSeparately() {
+        filter(get(PATH, "CM"));
+        MockServerWebExchange otherBranch = filter(get(PATH, "KY"));
+
+        assertEquals(2, forwarded.get());
+        assertEquals("{\"response\":2}", otherBranch.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void testFilter_NotCached() {
+        filter(get("/employee/employee/getAll", "CM"));
+        filter(get("/employee/employee/getAll", "CM"));
+        filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH)));
+        MockServerWebExchange withoutBranch = filter(MockServerWebExchange.from(MockServerHttpRequest.get(PATH)));
+
+        assertEquals(4, forwarded.get());
+        assertNull(withoutBranch.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    public void testFilter_ErrorNotCached() {
+        downstreamStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        filter(get(PATH, "CM"));
+        downstreamStatus = HttpStatus.OK;
+
+        MockServerWebExchange retried = filter(get(PATH, "CM"));
+
+        assertEquals(2, forwarded.get());
+        assertEquals("{\"response\":2}", retried.getResponse().getBodyAsString().block());
+    }
+
+    private MockServerWebExchange filter(MockServerWebExchange exchange) {
+        responseCacheFilter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange get(String path, String branchCode) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header(IdentityHeaders.BRANCH, branchCode));
+    }
+}
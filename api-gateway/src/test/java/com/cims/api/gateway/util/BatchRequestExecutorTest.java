@@ -0,0 +1,173 @@
+package com.cims.api.gateway.util;
+
+import com.cims.api.gateway.config.BatchProperties;
+import com.cims.api.gateway.dto.BatchRequest;
+import com.cims.api.gateway.dto.BatchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchRequestExecutorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    private final AtomicReference<ServerHttpRequest> handledRequest = new AtomicReference<>();
+
+    private final AtomicReference<String> handledBody = new AtomicReference<>();
+
+    private HttpHandler httpHandler = (request, response) -> {
+        handled.incrementAndGet();
+        handledRequest.set(request);
+        return DataBufferUtils.join(request.getBody())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .defaultIfEmpty("")
+                .flatMap(body -> {
+                    handledBody.set(body);
+                    response.setStatusCode(HttpStatus.OK);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    response.getHeaders().set("X-Handled", "true");
+                    response.addCookie(ResponseCookie.from("session", "1").build());
+                    return write(response, "{\"path\":\"" + request.getURI().getRawPath() + "\"}");
+                });
+    };
+
+    private BatchRequestExecutor batchRequestExecutor;
+
+    private final ServerHttpRequest batchRequest = MockServerHttpRequest.post("http://gateway/batch")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer batch")
+            .header("X-Branch", "CM")
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(512)
+            .build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<HttpHandler> httpHandlerProvider = mock(ObjectProvider.class);
+        when(httpHandlerProvider.getObject()).thenAnswer(invocation -> httpHandler);
+        batchRequestExecutor = new BatchRequestExecutor(httpHandlerProvider, objectMapper,
+                new BatchProperties(20, DataSize.ofBytes(64)));
+    }
+
+    @Test
+    public void testExecute_SubRequestRoutedWithBatchHeaders() {
+        BatchRequest.Item item = new BatchRequest.Item("1", null, "/employee/employeeType/getAll?page=1",
+                Map.of("X-Branch", "KY"), null);
+
+        BatchResponse.Item response = execute(item);
+
+        assertEquals("1", response.id());
+        assertEquals(200, response.status());
+        assertEquals("/employee/employeeType/getAll", response.body().get("path").asText());
+        assertEquals(List.of("true"), response.headers().get("X-Handled"));
+        assertFalse(response.headers().containsKey(HttpHeaders.SET_COOKIE));
+        ServerHttpRequest request = handledRequest.get();
+        assertEquals("GET", request.getMethod().name());
+        assertEquals("http://gateway/employee/employeeType/getAll?page=1", request.getURI().toString());
+        assertEquals("Bearer batch", request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        assertEquals("KY", request.getHeaders().getFirst("X-Branch"));
+        assertNull(request.getHeaders().getContentType());
+        assertEquals(-1, request.getHeaders().getContentLength());
+    }
+
+    @Test
+    public void testExecute_BodySentAsJson() throws Exception {
+        BatchRequest.Item item = new BatchRequest.Item("2", "post", "/employee/employeeType/saveUpdate", null,
+                objectMapper.readTree("{\"name\":\"Permanent\"}"));
+
+        BatchResponse.Item response = execute(item);
+
+        assertEquals(200, response.status());
+        ServerHttpRequest request = handledRequest.get();
+        assertEquals("POST", request.getMethod().name());
+        assertEquals(MediaType.APPLICATION_JSON, request.getHeaders().getContentType());
+        assertEquals("{\"name\":\"Permanent\"}", handledBody.get());
+        assertEquals(handledBody.get().length(), request.getHeaders().getContentLength());
+    }
+
+    @Test
+    public void testExecute_TextBodyReturnedAsText() {
+        httpHandler = (request, response) -> {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+            return write(response, "Not found");
+        };
+
+        BatchResponse.Item response = execute(new BatchRequest.Item("3", "GET", "/missing", null, null));
+
+        assertEquals(404, response.status());
+        assertEquals(TextNode.valueOf("Not found"), response.body());
+    }
+
+    @Test
+    public void testExecute_InvalidPathRejected() {
+        for (String path : new String[]{null, "employee", "//evil.example/x", "/batch", "/batch/", "/batch?x=1"}) {
+            BatchResponse.Item response = execute(new BatchRequest.Item("4", "GET", path, null, null));
+
+            assertEquals(400, response.status());
+        }
+        assertEquals(0, handled.get());
+
+        assertEquals(200, execute(new BatchRequest.Item("5", "GET", "/batchSize", null, null)).status());
+    }
+
+    @Test
+    public void testExecute_FailureReturnedAsItem() {
+        httpHandler = (request, response) -> Mono.error(new IllegalStateException("Connection refused"));
+
+        BatchResponse.Item response = execute(new BatchRequest.Item("6", "GET", "/employee/employeeType/getAll", null, null));
+
+        assertEquals(502, response.status());
+        assertEquals(TextNode.valueOf("Connection refused"), response.body());
+    }
+
+    @Test
+    public void testExecute_LargeBodyRejected() {
+        httpHandler = (request, response) -> write(response, "x".repeat(65));
+
+        BatchResponse.Item response = execute(new BatchRequest.Item("7", "GET", "/employee/employeeType/getAll", null, null));
+
+        assertEquals(502, response.status());
+        assertTrue(response.body().asText().contains("too large"));
+    }
+
+    private BatchResponse.Item execute(BatchRequest.Item item) {
+        return batchRequestExecutor.execute(batchRequest, item, bufferFactory).block();
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, String body) {
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,148 @@
+package com.cims.api.gateway.util;
+
+import com.cims.common.jwt.JwtKeySet;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtUtilTest {
+
+    private static final KeyPair KEY_PAIR = generateKeyPair();
+
+    private static final KeyPair OTHER_KEY_PAIR = generateKeyPair();
+
+    @Mock
+    private JwtKeySet jwtKeySet;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(jwtKeySet.getKey("key-1")).thenReturn(KEY_PAIR.getPublic());
+        jwtUtil = new JwtUtil(jwtKeySet, tokenRevocationList, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testVerifyToken() {
+        String token = createToken("key-1", KEY_PAIR, Duration.ofMinutes(10));
+
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(token).block();
+
+        assertNotNull(verifiedToken);
+        assertEquals("1", verifiedToken.userId());
+        assertEquals("alice", verifiedToken.userName());
+        assertEquals("CM", verifiedToken.branchCode());
+        assertEquals("2", verifiedToken.roleId());
+        assertEquals("ACTIVE", verifiedToken.status());
+    }
+
+    @Test
+    public void testVerifyToken_CachedAfterFirstVerification() {
+        String token = createToken("key-1", KEY_PAIR, Duration.ofMinutes(10));
+
+        jwtUtil.verifyToken(token).block();
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(token).block();
+
+        assertNotNull(verifiedToken);
+        verify(jwtKeySet, times(1)).getKey("key-1");
+    }
+
+    @Test
+    public void testVerifyToken_RevokedTokenRejected() {
+        String token = createToken("key-1", KEY_PAIR, Duration.ofMinutes(10));
+        assertNotNull(jwtUtil.verifyToken(token).block());
+
+        when(tokenRevocationList.isRevoked(JwtUtil.hash(token))).thenReturn(true);
+
+        assertNull(jwtUtil.verifyToken(token).block());
+    }
+
+    @Test
+    public void testVerifyToken_InvalidTokenRejected() {
+        assertNull(jwtUtil.verifyToken(null).block());
+        assertNull(jwtUtil.verifyToken("").block());
+        assertNull(jwtUtil.verifyToken("not.a.token").block());
+        assertNull(jwtUtil.verifyToken(createToken("key-1", KEY_PAIR, Duration.ofMinutes(-1))).block());
+    }
+
+    @Test
+    public void testVerifyToken_BadSignatureRememberedAsRejected() {
+        String token = createToken("key-1", OTHER_KEY_PAIR, Duration.ofMinutes(10));
+
+        assertNull(jwtUtil.verifyToken(token).block());
+        assertNull(jwtUtil.verifyToken(token).block());
+
+        verify(jwtKeySet, times(1)).getKey("key-1");
+    }
+
+    @Test
+    public void testVerifyToken_UnknownKeyRefreshesKeySet() {
+        String token = createToken("key-2", OTHER_KEY_PAIR, Duration.ofMinutes(10));
+        when(jwtKeySet.getKey("key-2")).thenReturn(null, OTHER_KEY_PAIR.getPublic());
+        when(jwtKeySet.refreshIfStale()).thenReturn(CompletableFuture.completedFuture(null));
+
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(token).block();
+
+        assertNotNull(verifiedToken);
+        assertEquals("alice", verifiedToken.userName());
+        verify(jwtKeySet).refreshIfStale();
+    }
+
+    @Test
+    public void testVerifyToken_UnknownKeyAfterRefreshRejected() {
+        String token = createToken("key-2", OTHER_KEY_PAIR, Duration.ofMinutes(10));
+        when(jwtKeySet.refreshIfStale()).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertNull(jwtUtil.verifyToken(token).block());
+        verify(jwtKeySet, never()).getKey("key-1");
+        verify(jwtKeySet, times(2)).getKey(anyString());
+    }
+
+    private static String createToken(String keyId, KeyPair keyPair, Duration validity) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setHeaderParam("kid", keyId)
+                .setClaims(Map.of("userId", "1", "branchCode", "CM", "roleId", "2", "status", "ACTIVE"))
+                .setSubject("USER_alice")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + validity.toMillis()))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
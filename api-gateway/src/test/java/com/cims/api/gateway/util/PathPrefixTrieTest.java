@@ -0,0 +1,54 @@
+package com.cims.api.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PathPrefixTrieTest {
+
+    private final PathPrefixTrie trie = PathPrefixTrie.of(List.of("/user/js/", "/user/login", "/auth/token", "/auth/tokenRefresh"));
+
+    @Test
+    public void testMatches_DirectoryPrefix() {
+        assertTrue(trie.matches("/user/js/app.js"));
+        assertTrue(trie.matches("/user/js/module/user.js"));
+        assertFalse(trie.matches("/user/js"));
+        assertFalse(trie.matches("/user/jsx/app.js"));
+    }
+
+    @Test
+    public void testMatches_SegmentPrefix() {
+        assertTrue(trie.matches("/user/login"));
+        assertTrue(trie.matches("/user/login/reset"));
+        assertFalse(trie.matches("/user/loginx"));
+        assertFalse(trie.matches("/user/log"));
+    }
+
+    @Test
+    public void testMatches_PrefixOfAnotherPrefix() {
+        assertTrue(trie.matches("/auth/token"));
+        assertTrue(trie.matches("/auth/tokenRefresh"));
+        assertFalse(trie.matches("/auth/tokenRefreshx"));
+        assertFalse(trie.matches("/auth/tokens"));
+    }
+
+    @Test
+    public void testMatches_AnchoredAtStart() {
+        assertFalse(trie.matches("/api/user/login"));
+        assertFalse(trie.matches("user/login"));
+        assertFalse(trie.matches(""));
+        assertFalse(trie.matches(null));
+    }
+
+    @Test
+    public void testMatches_DirectoryWinsOverSegment() {
+        PathPrefixTrie directoryTrie = PathPrefixTrie.of(List.of("/user/", "/user"));
+
+        assertTrue(directoryTrie.matches("/user/login"));
+        assertTrue(directoryTrie.matches("/user"));
+        assertFalse(directoryTrie.matches("/users"));
+    }
+}
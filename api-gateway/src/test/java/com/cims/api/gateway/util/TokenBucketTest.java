@@ -0,0 +1,68 @@
+package com.cims.api.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testTryConsume_BurstUpToCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(3, 0.001);
+
+        assertEquals(0, tokenBucket.tryConsume());
+        assertEquals(0, tokenBucket.tryConsume());
+        assertEquals(0, tokenBucket.tryConsume());
+        assertTrue(tokenBucket.tryConsume() > 0);
+    }
+
+    @Test
+    public void testTryConsume_WaitMatchesRefillRate() {
+        TokenBucket tokenBucket = new TokenBucket(1, 1);
+        tokenBucket.tryConsume();
+
+        long waitNanos = tokenBucket.tryConsume();
+
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(900) && waitNanos <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testTryConsume_Refilled() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(1, 100);
+        tokenBucket.tryConsume();
+
+        Thread.sleep(50);
+
+        assertEquals(0, tokenBucket.tryConsume());
+    }
+
+    @Test
+    public void testRefund() {
+        TokenBucket tokenBucket = new TokenBucket(1, 0.001);
+        tokenBucket.tryConsume();
+
+        tokenBucket.refund();
+
+        assertEquals(0, tokenBucket.tryConsume());
+    }
+
+    @Test
+    public void testRefund_NotAboveCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(1, 0.001);
+
+        tokenBucket.refund();
+
+        assertEquals(0, tokenBucket.tryConsume());
+        assertTrue(tokenBucket.tryConsume() > 0);
+    }
+
+    @Test
+    public void testConstructor_InvalidBandwidth() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,111 @@
+package com.cims.api.gateway.util;
+
+import com.cims.common.security.ServiceCredential;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationListTest {
+
+    private static final String SECRET = "3F4528482B4D6251655468576D5A7134743777217A25432A462D4A614E645267";
+
+    @Mock
+    private ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction;
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    private final List<ClientResponse> responses = new ArrayList<>();
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    public void setUp() {
+        when(loadBalancerFunction.apply(any())).thenCallRealMethod();
+        when(loadBalancerFunction.filter(any(), any())).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            return Mono.just(responses.remove(0));
+        });
+        tokenRevocationList = new TokenRevocationList(loadBalancerFunction, "http://USER-SERVICE/internal/revokedTokens",
+                Duration.ofSeconds(10), new ServiceCredential(SECRET));
+    }
+
+    @Test
+    public void testSynchronize() {
+        String token = "header.payload.signature";
+        Instant revokedAt = Instant.parse("2026-10-17T10:00:00Z");
+        respond("[{\"tokenHash\":\"" + hexHash(token) + "\",\"expiresAt\":\"" + Instant.now().plusSeconds(60)
+                + "\",\"revokedAt\":\"" + revokedAt + "\"}]");
+        respond("[]");
+
+        assertFalse(tokenRevocationList.isRevoked(JwtUtil.hash(token)));
+        tokenRevocationList.synchronize().block();
+        tokenRevocationList.synchronize().block();
+
+        assertTrue(tokenRevocationList.isRevoked(JwtUtil.hash(token)));
+        assertFalse(tokenRevocationList.isRevoked(JwtUtil.hash("other.token.signature")));
+        assertEquals(SECRET, requests.get(0).headers().getFirst(ServiceCredential.HEADER));
+        assertEquals("since=0", requests.get(0).url().getQuery());
+        assertEquals("since=" + revokedAt.minusSeconds(10).toEpochMilli(), requests.get(1).url().getQuery());
+    }
+
+    @Test
+    public void testSynchronize_ExpiredTokenDropped() {
+        String token = "header.payload.signature";
+        respond("[{\"tokenHash\":\"" + hexHash(token) + "\",\"expiresAt\":\"" + Instant.now().minusSeconds(1)
+                + "\",\"revokedAt\":\"" + Instant.now().minusSeconds(60) + "\"}]");
+
+        tokenRevocationList.synchronize().block();
+
+        assertFalse(tokenRevocationList.isRevoked(JwtUtil.hash(token)));
+    }
+
+    @Test
+    public void testSynchronize_FailedReadKeepsKnownTokens() {
+        String token = "header.payload.signature";
+        respond("[{\"tokenHash\":\"" + hexHash(token) + "\",\"expiresAt\":\"" + Instant.now().plusSeconds(60)
+                + "\",\"revokedAt\":\"" + Instant.now() + "\"}]");
+        responses.add(ClientResponse.create(HttpStatus.FORBIDDEN).build());
+
+        tokenRevocationList.synchronize().block();
+        tokenRevocationList.synchronize().block();
+
+        assertTrue(tokenRevocationList.isRevoked(JwtUtil.hash(token)));
+    }
+
+    private void respond(String body) {
+        responses.add(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    /**
+     * Returns the hash of a token the way the user service encodes it.
+     */
+    private static String hexHash(String token) {
+        return HexFormat.of().formatHex(Base64.getUrlDecoder().decode(JwtUtil.hash(token)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.constants.TokenClaims;
+import com.cims.auth.service.dto.UserAccountDTO;
+import com.cims.auth.service.entity.JwtSigningKey;
+import com.cims.auth.service.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures how many access tokens {@link JwtService} issues and validates per second, against the previous issuance
+ * path that derived the key, looked up the JSON serializer and built a parser on every call.
+ * The RS256 signature dominates the cost of issuing a token, so the issuing throughput is the figure auth-service
+ * instances are sized by; add {@code -t} to measure it on several threads.
+ * <p>
+ * Run with {@code ./gradlew jmh}, the gc profiler reports the bytes allocated per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String USER_NAME = "USER_john";
+
+    private static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(30);
+
+    private JwtKeySetService jwtKeySetService;
+
+    private JwtService jwtService;
+
+    private CustomUserDetails userDetails;
+
+    private String token;
+
+    private String keyId;
+
+    private byte[] encodedPrivateKey;
+
+    private byte[] encodedPublicKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtKeySetService = new JwtKeySetService(inMemoryRepository(), 2048, Duration.ofMinutes(10), ACCESS_TOKEN_LIFETIME);
+        jwtService = new JwtService(jwtKeySetService, ACCESS_TOKEN_LIFETIME);
+
+        UserAccountDTO userAccount = new UserAccountDTO();
+        userAccount.setId("42");
+        userAccount.setBranchCode("BR001");
+        userAccount.setRoleId("7");
+        userDetails = new CustomUserDetails(USER_NAME, userAccount);
+        token = jwtService.generateToken(USER_NAME, userDetails);
+
+        keyId = jwtKeySetService.getSigningKey().keyId();
+        encodedPrivateKey = jwtKeySetService.getSigningKey().privateKey().getEncoded();
+        encodedPublicKey = jwtKeySetService.getPublicKey(keyId).getEncoded();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jwtKeySetService.shutdown();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(USER_NAME, userDetails);
+    }
+
+    @Benchmark
+    public String generateTokenPerCallSetup() throws GeneralSecurityException {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TokenClaims.USER_ID, userDetails.getId());
+        claims.put(TokenClaims.BRANCH_CODE, userDetails.getBranchCode());
+        claims.put(TokenClaims.ROLE_ID, userDetails.getRoleId());
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
+                .setClaims(claims)
+                .setSubject(USER_NAME)
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_LIFETIME.toMillis()))
+                .signWith(KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(encodedPrivateKey)),
+                        SignatureAlgorithm.RS256).compact();
+    }
+
+    @Benchmark
+    public void validateToken() {
+        jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public void validateTokenPerCallSetup() throws GeneralSecurityException {
+        Jwts.parserBuilder()
+                .setSigningKey(KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(encodedPublicKey)))
+                .build()
+                .parseClaimsJws(token);
+    }
+
+    /**
+     * Keeps the signing keys in memory, so the benchmark needs no database. The keys are only read at setup.
+     *
+     * @return the repository of the signing keys
+     */
+    private static JwtSigningKeyRepository inMemoryRepository() {
+        List<JwtSigningKey> keys = new ArrayList<>();
+        JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            keys.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findAllByOrderByCreatedAtAscKidAsc()).thenAnswer(invocation -> List.copyOf(keys));
+        return repository;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cims.auth.service.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code indexOf} based name parsing of {@link AuthenticationUtils} with the previous
+ * {@code String.split} that built an array of every part of the name.
+ * <p>
+ * Run with {@code ./gradlew jmh}, the gc profiler reports the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthenticationUtilsBenchmark {
+
+    /**
+     * Service-qualified names as issued by the auth endpoints.
+     */
+    @Param({
+            "USER_john",
+            "ADMIN_administrator",
+            "USER_john_doe"
+    })
+    private String fullName;
+
+    @Benchmark
+    public String splitServiceName() {
+        return fullName.split("_")[0];
+    }
+
+    @Benchmark
+    public String getServiceName() {
+        return AuthenticationUtils.getServiceName(fullName);
+    }
+
+    @Benchmark
+    public String splitUserName() {
+        return fullName.split("_")[1];
+    }
+
+    @Benchmark
+    public String getUserName() {
+        return AuthenticationUtils.getUserName(fullName);
+    }
+}
@@ -1,9 +1,19 @@
 package com.cims.auth.service.config;
 
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration class that provides Spring beans for use throughout the application.
  */
@@ -11,12 +21,32 @@ import org.springframework.web.client.RestTemplate;
 public class AppConfig {
 
     /**
-     * Creates and returns a new instance of the {@link RestTemplate} class.
+     * Creates a {@link RestTemplate} that calls the other services directly by their service ID, e.g.
+     * {@code http://USER-SERVICE/...}, balancing the calls over the instances registered in Eureka.
+     * The connections are pooled and kept alive, so a burst of logins does not open a new connection per call.
      *
-     * @return a new {@link RestTemplate} instance
+     * @param maxConnections        the maximum number of pooled connections
+     * @param maxConnectionsPerHost the maximum number of pooled connections to one service instance
+     * @param connectTimeout        the time limit to open a connection
+     * @param readTimeout           the time limit to wait for response data
+     * @return a load-balanced {@link RestTemplate} instance
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @LoadBalanced
+    public RestTemplate loadBalancedRestTemplate(@Value("${http-client.max-connections:100}") int maxConnections,
+                                                 @Value("${http-client.max-connections-per-host:20}") int maxConnectionsPerHost,
+                                                 @Value("${http-client.connect-timeout:2s}") Duration connectTimeout,
+                                                 @Value("${http-client.read-timeout:5s}") Duration readTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerHost)
+                        .setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(Timeout.ofMilliseconds(readTimeout.toMillis())).build())
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build());
+        requestFactory.setConnectTimeout((int) connectTimeout.toMillis());
+        requestFactory.setConnectionRequestTimeout((int) connectTimeout.toMillis());
+        return new RestTemplate(requestFactory);
     }
 }
@@ -1,19 +1,28 @@
 package com.cims.auth.service.config;
 
 import com.cims.auth.service.service.CustomUserDetailsService;
+import com.cims.auth.service.utils.CaffeineUserCache;
+import com.cims.common.security.BoundedPasswordEncoder;
+import com.cims.common.security.ServiceCredential;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 /**
  * Configuration class for authentication related beans and security filter chain.
  */
@@ -32,41 +41,85 @@ public class AuthConfig {
     }
 
     /**
-     * Bean to provide security filter chain with required configurations.
+     * Bean to provide the credential the other services send to the internal endpoints.
+     *
+     * @param secret the secret shared by the services
+     * @return ServiceCredential
+     */
+    @Bean
+    public ServiceCredential serviceCredential(@Value("${internal.secret}") String secret) {
+        return new ServiceCredential(secret);
+    }
+
+    /**
+     * Bean to provide security filter chain with required configurations. The internal user cache and key set
+     * endpoints are only answered for requests that carry the service credential.
      *
      * @param httpSecurity
+     * @param serviceCredential the credential of the internal endpoints
      * @return SecurityFilterChain
      * @throws Exception
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, ServiceCredential serviceCredential) throws Exception {
         return httpSecurity.csrf().disable()
                 .authorizeHttpRequests()
-                .requestMatchers("/auth/register", "/auth/token", "/auth/validate").permitAll()
+                .requestMatchers("/auth/register", "/auth/token", "/auth/refresh", "/auth/logout", "/auth/validate", "/auth/keySet").permitAll()
+                .requestMatchers("/internal/userCache/**", "/internal/keySet/**").access((authentication, context) ->
+                        new AuthorizationDecision(serviceCredential.matches(context.getRequest().getHeader(ServiceCredential.HEADER))))
                 .and()
                 .build();
     }
 
     /**
-     * Bean to provide password encoder.
+     * Bean to provide password encoder. BCrypt runs on a bounded pool with one thread per CPU, so a burst of
+     * logins is answered with 503 Service Unavailable instead of taking the CPU from every other request.
      *
+     * @param strength      the BCrypt work factor
+     * @param threads       the number of hashing threads, or 0 for one per CPU
+     * @param queueCapacity the number of logins that may wait for a hashing thread
+     * @param retryAfter    the time after which a rejected login may be tried again
+     * @param maximumWait   the longest a caller waits for a hashing thread and the hash
+     * @param meterRegistry the registry the queue wait and hash timers are published to
      * @return PasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${password-encoder.strength:10}") int strength,
+                                                 @Value("${password-encoder.threads:0}") int threads,
+                                                 @Value("${password-encoder.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${password-encoder.retry-after:1s}") Duration retryAfter,
+                                                 @Value("${password-encoder.maximum-wait:5s}") Duration maximumWait,
+                                                 MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, retryAfter,
+                maximumWait, meterRegistry);
+    }
+
+    /**
+     * Bean to provide the cache of loaded user details, so repeated logins do not each call the owning service.
+     *
+     * @param timeToLive  how long loaded user details are kept
+     * @param maximumSize the maximum number of cached users
+     * @return UserCache
+     */
+    @Bean
+    public CaffeineUserCache userCache(@Value("${user-details.cache.ttl:30s}") Duration timeToLive,
+                                       @Value("${user-details.cache.maximum-size:10000}") long maximumSize) {
+        return new CaffeineUserCache(timeToLive, maximumSize);
     }
 
     /**
-     * Bean to provide authentication provider with user details service and password encoder.
+     * Bean to provide authentication provider with user details service, user cache and password encoder.
      *
+     * @param userCache       the cache of loaded user details
+     * @param passwordEncoder the password encoder
      * @return AuthenticationProvider
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(UserCache userCache, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailsService());
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserCache(userCache);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
     }
 
@@ -10,23 +10,81 @@ import java.util.Collection;
  * CustomUserDetails is a class that implements the UserDetails interface to provide
  * custom user authentication details for a Spring Security application. It takes a
  * UserAccountDTO object as input and extracts the username and password information
- * from it to create a new UserDetails object.
+ * from it to create a new UserDetails object. The account ID, branch code, role ID and
+ * status are kept as well so they can be embedded in the issued token.
  */
 public class CustomUserDetails implements UserDetails {
 
+    private static final String ACTIVE = "ACTIVE";
+
+    private String id;
     private String userName;
     private String password;
+    private String branchCode;
+    private String roleId;
+    private String status;
 
     /**
      * Constructor for CustomUserDetails that takes a UserAccountDTO object as input
      * and extracts the username and password information from it to create a new
      * UserDetails object.
      *
+     * @param userName       The service-qualified name the user authenticates with, e.g. USER_john.
      * @param userAccountDTO The UserAccountDTO object containing the user's account details.
      */
-    public CustomUserDetails(UserAccountDTO userAccountDTO) {
-        this.userName = userAccountDTO.getUserName();
+    public CustomUserDetails(String userName, UserAccountDTO userAccountDTO) {
+        this.id = userAccountDTO.getId();
+        this.userName = userName;
         this.password = userAccountDTO.getPassword();
+        this.branchCode = userAccountDTO.getBranchCode();
+        this.roleId = userAccountDTO.getUserRole() != null ? userAccountDTO.getUserRole().getId() : userAccountDTO.getRoleId();
+        this.status = userAccountDTO.getStatus();
+    }
+
+    /**
+     * Returns the ID of the user account.
+     *
+     * @return the user account ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the branch code the user account belongs to.
+     *
+     * @return the branch code
+     */
+    public String getBranchCode() {
+        return branchCode;
+    }
+
+    /**
+     * Returns the ID of the role assigned to the user account.
+     *
+     * @return the user role ID
+     */
+    public String getRoleId() {
+        return roleId;
+    }
+
+    /**
+     * Returns the name of the status of the user account.
+     *
+     * @return the account status, or null if the account service does not report one
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns whether the account is ACTIVE. A session is only refreshed for an ACTIVE account; an account service
+     * that does not report a status is trusted. Password logins do not check it.
+     *
+     * @return true if the account status is ACTIVE or not reported
+     */
+    public boolean isActive() {
+        return status == null || ACTIVE.equals(status);
     }
 
     @Override
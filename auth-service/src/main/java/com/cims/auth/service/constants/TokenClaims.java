@@ -0,0 +1,17 @@
+package com.cims.auth.service.constants;
+
+/**
+ * The {@code TokenClaims} class contains the names of the custom claims embedded in issued JWT tokens.
+ * The API gateway reads these claims to forward the caller's identity to the downstream services.
+ */
+public class TokenClaims {
+    public static final String USER_ID = "userId";
+    public static final String BRANCH_CODE = "branchCode";
+    public static final String ROLE_ID = "roleId";
+    public static final String STATUS = "status";
+
+    /**
+     * The family of a refresh token; every token rotated from the same login shares it.
+     */
+    public static final String FAMILY_ID = "familyId";
+}
@@ -1,9 +1,17 @@
 package com.cims.auth.service.controller;
 
+import com.cims.auth.service.config.CustomUserDetails;
 import com.cims.auth.service.dto.AuthRequestDTO;
+import com.cims.auth.service.dto.AuthTokensDTO;
 import com.cims.auth.service.service.AuthService;
+import com.cims.auth.service.service.RefreshTokenService;
 import com.cims.auth.service.utils.AuthenticationUtils;
+import com.cims.auth.service.utils.InvalidRefreshTokenException;
+import com.cims.common.security.PasswordEncoderBusyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -11,8 +19,9 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * The AuthController class is a Spring REST controller that handles authentication
- * requests for a web application. It exposes two endpoints - one for generating an
- * authentication token and one for validating a token.
+ * requests for a web application. It exposes endpoints for generating an authentication
+ * token, refreshing it, ending a session and validating a token. The refresh token is sent
+ * in an HttpOnly cookie, so the token endpoints keep returning the access token alone.
  */
 @RestController
 @RequestMapping("/auth")
@@ -21,29 +30,61 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
     /**
      * This method handles POST requests to /auth/token and generates an authentication
      * token for the specified user. It uses the AuthenticationManager to authenticate the
-     * user credentials and returns a token if authentication is successful.
+     * user credentials and returns a token if authentication is successful, together with
+     * a refresh token cookie that starts the session.
      *
      * @param authRequest The AuthRequest object containing the user's username and password
      * @return A string representation of the authentication token
      * @throws RuntimeException if authentication fails
      */
     @PostMapping("/token")
-    public String getToken(@RequestBody AuthRequestDTO authRequest) {
+    public ResponseEntity<String> getToken(@RequestBody AuthRequestDTO authRequest) {
         String userName = AuthenticationUtils.prependServiceNameToUserName(authRequest);
         Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(userName, authRequest.getPassword()));
         if (authentication.isAuthenticated()) {
-            return authService.generateToken(authRequest.getUserName());
+            CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+            return tokenResponse(authService.generateTokens(authRequest.getUserName(), userDetails));
         } else {
             throw new RuntimeException("invalid access");
         }
     }
 
+    /**
+     * This method handles POST requests to /auth/refresh and exchanges the refresh token cookie
+     * for a new access token and a new refresh token cookie. The password is not checked again.
+     *
+     * @param refreshToken The refresh token cookie, if present
+     * @return A string representation of the new authentication token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refreshToken(@CookieValue(name = RefreshTokenService.COOKIE_NAME, required = false) String refreshToken) {
+        return tokenResponse(authService.refreshTokens(refreshToken));
+    }
+
+    /**
+     * This method handles POST requests to /auth/logout and ends the session of the refresh
+     * token cookie, removing the cookie from the client.
+     *
+     * @param refreshToken The refresh token cookie, if present
+     * @return An empty response
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@CookieValue(name = RefreshTokenService.COOKIE_NAME, required = false) String refreshToken) {
+        authService.revokeRefreshToken(refreshToken);
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenService.clearCookie().toString())
+                .build();
+    }
+
     /**
      * This method handles GET requests to /auth/validate and validates the specified
      * authentication token. It uses the AuthService to check the validity of the token
@@ -57,4 +98,43 @@ public class AuthController {
         authService.validateToken(token);
         return "Token is valid";
     }
+
+    /**
+     * Answers a rejected refresh token with 401 Unauthorized and removes the cookie from the client.
+     *
+     * @param e the exception thrown for the refresh token
+     * @return a ResponseEntity with the expired cookie
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> handleInvalidRefreshToken(InvalidRefreshTokenException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.SET_COOKIE, refreshTokenService.clearCookie().toString())
+                .body(e.getMessage());
+    }
+
+    /**
+     * Answers a login rejected because the password encoder is busy with 503 Service Unavailable,
+     * telling the client when to try again.
+     *
+     * @param e the exception thrown by the password encoder
+     * @return a ResponseEntity with the Retry-After header
+     */
+    @ExceptionHandler(PasswordEncoderBusyException.class)
+    public ResponseEntity<String> handlePasswordEncoderBusy(PasswordEncoderBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Returns the access token as the body and the refresh token as a cookie.
+     *
+     * @param tokens the issued tokens
+     * @return a ResponseEntity with the access token and the refresh token cookie
+     */
+    private ResponseEntity<String> tokenResponse(AuthTokensDTO tokens) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenService.createCookie(tokens.getRefreshToken()).toString())
+                .body(tokens.getAccessToken());
+    }
 }
@@ -0,0 +1,47 @@
+package com.cims.auth.service.controller;
+
+import com.cims.auth.service.service.JwtKeySetService;
+import com.cims.common.jwt.JsonWebKeySet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * The KeySetController class publishes the public keys that verify issued tokens, and rotates the signing key.
+ * Rotation is called on one instance directly with the service credential and is not routed through the API
+ * gateway; the other instances pick up the new key from the shared key set.
+ */
+@RestController
+public class KeySetController {
+
+    @Autowired
+    private JwtKeySetService jwtKeySetService;
+
+    /**
+     * This method handles GET requests to /auth/keySet and returns the public keys as a JSON Web Key Set.
+     *
+     * @return the JSON Web Key Set
+     */
+    @GetMapping("/auth/keySet")
+    public ResponseEntity<JsonWebKeySet> getKeySet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+                .body(jwtKeySetService.getPublicKeySet());
+    }
+
+    /**
+     * This method handles POST requests to /internal/keySet/rotate and makes a new key sign all tokens issued
+     * from now on. Tokens signed with the previous keys stay valid until they expire.
+     *
+     * @return the ID of the new key
+     */
+    @PostMapping("/internal/keySet/rotate")
+    public String rotate() {
+        return jwtKeySetService.rotateKey();
+    }
+}
@@ -0,0 +1,31 @@
+package com.cims.auth.service.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The UserCacheController class lets the services that own user accounts remove a user from the cache of loaded
+ * user details, e.g. after the password of the user has changed. It is called on each instance of this service
+ * directly and is not routed through the API gateway.
+ */
+@RestController
+@RequestMapping("/internal/userCache")
+public class UserCacheController {
+
+    @Autowired
+    private UserCache userCache;
+
+    /**
+     * This method handles DELETE requests to /internal/userCache/{userName} and removes the user from the cache.
+     *
+     * @param userName the service-qualified name of the user, e.g. USER_john
+     */
+    @DeleteMapping("/{userName}")
+    public void evict(@PathVariable String userName) {
+        userCache.removeUserFromCache(userName);
+    }
+}
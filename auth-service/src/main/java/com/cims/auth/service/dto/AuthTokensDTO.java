@@ -0,0 +1,17 @@
+package com.cims.auth.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data class for holding an access token together with the refresh token issued with it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthTokensDTO {
+
+    private String accessToken;
+    private String refreshToken;
+}
@@ -17,4 +17,7 @@ public class UserAccountDTO {
     private String password;
     private String token;
     private String roleId;
+    private String branchCode;
+    private UserRoleDTO userRole;
+    private String status;
 }
@@ -5,13 +5,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Data class for holding user token information.
+ * Data class for holding user role information.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class UserTokenDTO {
+public class UserRoleDTO {
 
-    private String userName;
-    private String token;
+    private String id;
+    private String roleName;
 }
@@ -0,0 +1,35 @@
+package com.cims.auth.service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class for holding an RSA key that signs access tokens, with its base64 encoded PKCS#8 private key and
+ * X.509 public key. The newest key signs new tokens; the older ones are kept until the tokens they signed expire.
+ */
+@Entity
+@Table(name = "jwt_signing_key")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JwtSigningKey {
+
+    @Id
+    @Column(name = "kid", length = 36)
+    private String kid;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Lob
+    @Column(name = "private_key", nullable = false)
+    private String privateKey;
+
+    @Lob
+    @Column(name = "public_key", nullable = false)
+    private String publicKey;
+}
@@ -0,0 +1,34 @@
+package com.cims.auth.service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class for holding the session started by a login. Only the id of the latest refresh token of the session
+ * is valid; every other token of the family has been used. The row is deleted when the session is revoked, and
+ * dropped once its latest refresh token has expired.
+ */
+@Entity
+@Table(name = "refresh_token_family", indexes = {@Index(columnList = "expires_at")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenFamily {
+
+    @Id
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
+    @Column(name = "user_name", length = 100, nullable = false)
+    private String userName;
+
+    @Column(name = "current_token_id", length = 36, nullable = false)
+    private String currentTokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
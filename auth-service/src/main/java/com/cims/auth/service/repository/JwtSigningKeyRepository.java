@@ -0,0 +1,19 @@
+package com.cims.auth.service.repository;
+
+import com.cims.auth.service.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * This is a repository interface for performing database operations on JwtSigningKey entities.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+    List<JwtSigningKey> findAllByOrderByCreatedAtAscKidAsc();
+
+    @Query("select k.kid from JwtSigningKey k order by k.createdAt asc, k.kid asc")
+    List<String> findAllKeyIds();
+}
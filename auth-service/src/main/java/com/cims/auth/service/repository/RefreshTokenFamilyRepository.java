@@ -0,0 +1,41 @@
+package com.cims.auth.service.repository;
+
+import com.cims.auth.service.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * This is a repository interface for performing database operations on RefreshTokenFamily entities.
+ */
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, String> {
+
+    /**
+     * Replaces the latest refresh token of a family, only if it is still the given one. The check and the update
+     * are one statement, so of two instances presenting the same token at once only one succeeds.
+     *
+     * @param familyId    the family of the token
+     * @param tokenId     the id of the token being used
+     * @param nextTokenId the id of the token that replaces it
+     * @param expiresAt   the expiry of the token that replaces it
+     * @return 1 if the token was replaced, 0 if it is not the latest token of a live family
+     */
+    @Modifying
+    @Query("update RefreshTokenFamily f set f.currentTokenId = :nextTokenId, f.expiresAt = :expiresAt " +
+            "where f.familyId = :familyId and f.currentTokenId = :tokenId")
+    int replaceCurrentToken(@Param("familyId") String familyId, @Param("tokenId") String tokenId,
+                            @Param("nextTokenId") String nextTokenId, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("delete from RefreshTokenFamily f where f.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("delete from RefreshTokenFamily f where f.expiresAt < :expiresAt")
+    int deleteAllExpiredBefore(@Param("expiresAt") Instant expiresAt);
+}
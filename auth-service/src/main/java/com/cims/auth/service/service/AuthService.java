@@ -1,17 +1,18 @@
 package com.cims.auth.service.service;
 
-import com.cims.auth.service.constants.enums.ServiceName;
-import com.cims.auth.service.dto.UserAccountDTO;
-import com.cims.auth.service.dto.UserTokenDTO;
-import com.cims.auth.service.utils.AuthenticationUtils;
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.dto.AuthTokensDTO;
+import com.cims.auth.service.utils.InvalidRefreshTokenException;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * The AuthService class provides services related to authentication and authorization.
- * It uses a JwtService to generate and validate JSON Web Tokens (JWTs) and a RestTemplate
- * to make REST API calls to other services.
+ * It uses a JwtService to generate and validate JSON Web Tokens (JWTs) and a RefreshTokenService to keep sessions
+ * alive without checking the password again.
  */
 @Service
 public class AuthService {
@@ -20,33 +21,56 @@ public class AuthService {
     private JwtService jwtService;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
 
     /**
-     * Generates a JWT for the specified user and saves it to the database via a REST API call.
+     * Generates a JWT for the specified user.
      *
-     * @param userName the name of the user to generate the token for
+     * @param userName    the service-qualified name of the user to generate the token for
+     * @param userDetails the details of the authenticated user, embedded in the token as claims
      * @return the generated token
      */
-    public String generateToken(String userName) {
-        String token = jwtService.generateToken(userName);
-        postUserToken(userName, token);
-        return token;
+    public String generateToken(String userName, CustomUserDetails userDetails) {
+        return jwtService.generateToken(userName, userDetails);
     }
 
     /**
-     * Sends a POST request to the admin service to save the user token to the database.
+     * Generates an access token and the first refresh token of a new session for an authenticated user.
      *
-     * @param userName the name of the user associated with the token
-     * @param token    the token to be saved
+     * @param userName    the service-qualified name of the user
+     * @param userDetails the details of the authenticated user
+     * @return the access token and the refresh token
      */
-    public void postUserToken(String userName, String token) {
-        UserTokenDTO userTokenDTO = new UserTokenDTO(AuthenticationUtils.getUserName(userName), token);
-        if(AuthenticationUtils.getServiceName(userName).equals(ServiceName.ADMIN.toString())){
-            restTemplate.postForObject("http://localhost:8764/admin/userAccount/saveToken", userTokenDTO, UserAccountDTO.class);
-        } else {
-            restTemplate.postForObject("http://localhost:8764/user/userAccount/saveToken", userTokenDTO, UserAccountDTO.class);
-        }
+    public AuthTokensDTO generateTokens(String userName, CustomUserDetails userDetails) {
+        return new AuthTokensDTO(generateToken(userName, userDetails), refreshTokenService.createToken(userName));
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the refresh token that replaces it.
+     * The password is not checked again, but the account is reloaded from the service that owns it, so the new
+     * access token carries its current claims and a disabled or deleted account ends the session.
+     *
+     * @param refreshToken the refresh token sent by the client
+     * @return the new access token and refresh token
+     * @throws InvalidRefreshTokenException if the token is rejected or the account may no longer log in
+     */
+    public AuthTokensDTO refreshTokens(String refreshToken) {
+        Claims claims = refreshTokenService.verifyToken(refreshToken);
+        CustomUserDetails userDetails = loadEnabledUser(claims);
+        String accessToken = generateToken(claims.getSubject(), userDetails);
+        return new AuthTokensDTO(accessToken, refreshTokenService.rotateToken(claims));
+    }
+
+    /**
+     * Ends the session of a refresh token, so neither it nor any token rotated from it can be used again.
+     *
+     * @param refreshToken the refresh token sent by the client, or null
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenService.revokeToken(refreshToken);
     }
 
     /**
@@ -57,4 +81,26 @@ public class AuthService {
     public void validateToken(String token) {
         jwtService.validateToken(token);
     }
+
+    /**
+     * Reloads the account a refresh token was issued for, revoking the session if the account is gone or not active.
+     *
+     * @param claims the claims of the verified refresh token
+     * @return the current details of the user
+     * @throws InvalidRefreshTokenException if the account does not exist or is not active
+     */
+    private CustomUserDetails loadEnabledUser(Claims claims) {
+        CustomUserDetails userDetails;
+        try {
+            userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenService.revokeFamily(claims);
+            throw new InvalidRefreshTokenException("User account no longer exists");
+        }
+        if (!userDetails.isActive()) {
+            refreshTokenService.revokeFamily(claims);
+            throw new InvalidRefreshTokenException("User account is not active");
+        }
+        return userDetails;
+    }
 }
@@ -5,6 +5,7 @@ import com.cims.auth.service.constants.enums.ServiceName;
 import com.cims.auth.service.dto.UserAccountDTO;
 import com.cims.auth.service.utils.AuthenticationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,33 +16,34 @@ import java.util.Optional;
 
 /**
  * The CustomUserDetailsService class implements the UserDetailsService interface to provide
- * a custom user details service for Spring Security. It uses a RestTemplate to make REST API
- * calls to other services to retrieve the user details.
+ * a custom user details service for Spring Security. It uses a load-balanced RestTemplate to
+ * call the admin and user services directly, rather than through the API gateway, to retrieve
+ * the user details. Loaded user details are kept in the user cache of the authentication provider.
  */
 @Component
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
+    @LoadBalanced
     private RestTemplate restTemplate;
 
     /**
      * Loads the user details for the specified username.
      *
-     * @param username the name of the user to load
+     * @param username the service-qualified name of the user to load, e.g. USER_john
      * @return the user details for the specified username
      * @throws UsernameNotFoundException if the user cannot be found
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         UserAccountDTO userAccount;
-        Optional<UserAccountDTO> userAccount1;
-        if (AuthenticationUtils.getServiceName(username).equals(ServiceName.ADMIN.toString())){
-            userAccount = restTemplate.getForObject("http://localhost:8764/admin/userAccount/getByUserName/" + AuthenticationUtils.getUserName(username), UserAccountDTO.class);
-            userAccount1 = Optional.ofNullable(userAccount);
-            return userAccount1.map(CustomUserDetails::new).orElseThrow(() -> new UsernameNotFoundException("user not found with name :" + username));
+        if (AuthenticationUtils.getServiceName(username).equals(ServiceName.ADMIN.toString())) {
+            userAccount = restTemplate.getForObject("http://ADMIN-SERVICE/admin/userAccount/getByUserName/{userName}", UserAccountDTO.class, AuthenticationUtils.getUserName(username));
+        } else {
+            userAccount = restTemplate.getForObject("http://USER-SERVICE/user/userAccount/getByUserName/{userName}", UserAccountDTO.class, AuthenticationUtils.getUserName(username));
         }
-        userAccount = restTemplate.getForObject("http://localhost:8764/user/userAccount/getByUserName/" + AuthenticationUtils.getUserName(username), UserAccountDTO.class);
-        userAccount1 = Optional.ofNullable(userAccount);
-        return userAccount1.map(CustomUserDetails::new).orElseThrow(() -> new UsernameNotFoundException("user not found with name :" + username));
+        return Optional.ofNullable(userAccount)
+                .map(account -> new CustomUserDetails(username, account))
+                .orElseThrow(() -> new UsernameNotFoundException("user not found with name :" + username));
     }
 }
@@ -0,0 +1,263 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.entity.JwtSigningKey;
+import com.cims.auth.service.repository.JwtSigningKeyRepository;
+import com.cims.common.jwt.JsonWebKeySet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JwtKeySetService class manages the versioned RSA keys that sign access tokens.
+ * <p>
+ * Every token is signed with the newest key and names it in its {@code kid} header. The public keys are published
+ * as a JSON Web Key Set, so the API gateway and the services verify tokens by picking the key named in the token,
+ * and no secret is shared with them. The keys are kept in the {@code jwt_signing_key} table shared by all instances
+ * of this service, wherever they run. Each instance checks the key IDs on a fixed delay and reloads the keys when
+ * they have changed, so a key rotated on one instance is used by all of them without a restart. A first key is
+ * created when the table is empty.
+ * <p>
+ * Rotating adds a new key and keeps the previous ones until every token they signed has expired, so tokens issued
+ * before a rotation stay valid. Two instances rotating at once each add a key; the newest one signs on all of them.
+ */
+@Service
+@Slf4j
+public class JwtKeySetService {
+
+    private static final String KEY_ALGORITHM = "RSA";
+
+    private static final String SIGNATURE_ALGORITHM = "RS256";
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final int keySize;
+
+    private final Duration retirementDelay;
+
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwt-key-set-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile KeySet keySet;
+
+    /**
+     * Constructor that loads the key set, creating a first key if there is none, and starts watching it for changes.
+     *
+     * @param jwtSigningKeyRepository the repository of the signing keys
+     * @param keySize                 the size of new RSA keys in bits
+     * @param reloadInterval          how often the key set is checked for changes
+     * @param retirementDelay         how long a replaced key is kept, at least the lifetime of an access token
+     */
+    public JwtKeySetService(JwtSigningKeyRepository jwtSigningKeyRepository,
+                            @Value("${jwt.key-set.key-size:2048}") int keySize,
+                            @Value("${jwt.key-set.reload-interval:10s}") Duration reloadInterval,
+                            @Value("${access-token.lifetime:30m}") Duration retirementDelay) {
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        this.keySize = keySize;
+        this.retirementDelay = retirementDelay;
+        this.keySet = loadOrCreate();
+        reloader.scheduleWithFixedDelay(this::reloadIfModified, reloadInterval.toMillis(), reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the key that signs new tokens.
+     *
+     * @return the newest key
+     */
+    public SigningKey getSigningKey() {
+        return keySet.signingKey();
+    }
+
+    /**
+     * Returns the public key with the given ID.
+     *
+     * @param keyId the {@code kid} header of a token
+     * @return the public key, or null if there is no key with this ID
+     */
+    public PublicKey getPublicKey(String keyId) {
+        return keyId != null ? keySet.publicKeys().get(keyId) : null;
+    }
+
+    /**
+     * Returns the public keys that verify issued tokens.
+     *
+     * @return the JSON Web Key Set
+     */
+    public JsonWebKeySet getPublicKeySet() {
+        return keySet.publicKeySet();
+    }
+
+    /**
+     * Adds a new key that signs all tokens issued from now on, and removes the keys whose tokens have all expired.
+     *
+     * @return the ID of the new key
+     */
+    public synchronized String rotateKey() {
+        Instant now = Instant.now();
+        JwtSigningKey newKey = jwtSigningKeyRepository.save(generateKey(now));
+        //read the keys again, another instance may have rotated since they were last loaded
+        List<JwtSigningKey> keys = new ArrayList<>(jwtSigningKeyRepository.findAllByOrderByCreatedAtAscKidAsc());
+        List<JwtSigningKey> retiredKeys = removeRetiredKeys(keys, now);
+        if (!retiredKeys.isEmpty()) {
+            jwtSigningKeyRepository.deleteAll(retiredKeys);
+        }
+        keySet = toKeySet(keys);
+        log.info("/************* JWT signing key rotated to :" + newKey.getKid());
+        return newKey.getKid();
+    }
+
+    /**
+     * Stops watching the key set.
+     */
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    /**
+     * Loads the keys, creating a first key if there is none.
+     *
+     * @return the loaded key set
+     */
+    private synchronized KeySet loadOrCreate() {
+        List<JwtSigningKey> keys = jwtSigningKeyRepository.findAllByOrderByCreatedAtAscKidAsc();
+        if (keys.isEmpty()) {
+            JwtSigningKey firstKey = jwtSigningKeyRepository.save(generateKey(Instant.now()));
+            log.info("/************* JWT key set created with key :" + firstKey.getKid());
+            keys = List.of(firstKey);
+        }
+        return toKeySet(keys);
+    }
+
+    /**
+     * Reloads the keys when a key has been added or removed since they were last loaded.
+     */
+    void reloadIfModified() {
+        try {
+            if (!jwtSigningKeyRepository.findAllKeyIds().equals(keySet.keyIds())) {
+                List<JwtSigningKey> keys = jwtSigningKeyRepository.findAllByOrderByCreatedAtAscKidAsc();
+                if (!keys.isEmpty()) {
+                    keySet = toKeySet(keys);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("/**************** Exception in JwtKeySetService -> reloadIfModified()" + e);
+        }
+    }
+
+    /**
+     * Removes the keys that were replaced longer than the retirement delay ago. The newest key is always kept.
+     *
+     * @param keys the keys, oldest first
+     * @param now  the current time
+     * @return the removed keys
+     */
+    private List<JwtSigningKey> removeRetiredKeys(List<JwtSigningKey> keys, Instant now) {
+        for (int i = keys.size() - 2; i >= 0; i--) {
+            Instant replacedAt = keys.get(i + 1).getCreatedAt();
+            if (!replacedAt.plus(retirementDelay).isAfter(now)) {
+                List<JwtSigningKey> retiredKeys = List.copyOf(keys.subList(0, i + 1));
+                keys.subList(0, i + 1).clear();
+                return retiredKeys;
+            }
+        }
+        return List.of();
+    }
+
+    private JwtSigningKey generateKey(Instant now) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(KEY_ALGORITHM);
+            generator.initialize(keySize);
+            KeyPair keyPair = generator.generateKeyPair();
+            Base64.Encoder encoder = Base64.getEncoder();
+            return new JwtSigningKey(UUID.randomUUID().toString(), now,
+                    encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+                    encoder.encodeToString(keyPair.getPublic().getEncoded()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decodes the stored keys once, so signing and verifying a token does not derive any key.
+     *
+     * @param keys the stored keys, oldest first
+     * @return the decoded key set
+     * @throws IllegalStateException if a key cannot be decoded
+     */
+    private KeySet toKeySet(List<JwtSigningKey> keys) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+            Base64.Decoder decoder = Base64.getDecoder();
+            Map<String, PublicKey> publicKeys = new HashMap<>();
+            List<JsonWebKeySet.Key> jsonWebKeys = new ArrayList<>();
+            List<String> keyIds = new ArrayList<>();
+            for (JwtSigningKey key : keys) {
+                RSAPublicKey publicKey = (RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(key.getPublicKey())));
+                publicKeys.put(key.getKid(), publicKey);
+                keyIds.add(key.getKid());
+                jsonWebKeys.add(new JsonWebKeySet.Key(KEY_ALGORITHM, key.getKid(), "sig", SIGNATURE_ALGORITHM,
+                        toBase64Url(publicKey.getModulus()), toBase64Url(publicKey.getPublicExponent())));
+            }
+            JwtSigningKey newestKey = keys.get(keys.size() - 1);
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decoder.decode(newestKey.getPrivateKey())));
+            return new KeySet(new SigningKey(newestKey.getKid(), privateKey), Map.copyOf(publicKeys),
+                    new JsonWebKeySet(List.copyOf(jsonWebKeys)), List.copyOf(keyIds));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("JWT key set has an invalid key", e);
+        }
+    }
+
+    /**
+     * Encodes a positive integer as unsigned big-endian bytes in base64url, as JSON Web Keys require.
+     */
+    private static String toBase64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * A private key that signs tokens, with the ID written to their {@code kid} header.
+     *
+     * @param keyId      the ID of the key
+     * @param privateKey the private key
+     */
+    public record SigningKey(String keyId, PrivateKey privateKey) {
+    }
+
+    /**
+     * The decoded keys of the key set, with their IDs oldest first.
+     */
+    private record KeySet(SigningKey signingKey, Map<String, PublicKey> publicKeys, JsonWebKeySet publicKeySet,
+                          List<String> keyIds) {
+    }
+}
@@ -1,26 +1,70 @@
 package com.cims.auth.service.service;
 
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.constants.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.ServiceLoader;
 
 /**
- * JwtService class provides methods for generating and validating JWT tokens using a secret key.
+ * JwtService class provides methods for generating and validating JWT tokens using the versioned keys of the
+ * {@link JwtKeySetService}. Each token names the key that signed it in its {@code kid} header.
+ * <p>
+ * Everything a token does not depend on is set up once: the keys are decoded by the key set, the parser is built
+ * once, and the JSON serializer is shared by all builders, as a builder without one looks it up on every token.
+ * The throughput of this class is measured by {@code JwtServiceBenchmark}.
  */
 @Component
 public class JwtService {
 
+    private static final Serializer<Map<String, ?>> SERIALIZER = loadSerializer();
+
+    private final JwtKeySetService jwtKeySetService;
+
     /**
-     * Secret key used for signing and verifying JWT tokens.
+     * How long an access token is valid, in milliseconds. Sessions are kept alive with refresh tokens, so this can stay short.
      */
-    private static final String SECRET = "5971337436773979244226452948404D635166546A576E5A7234753778214125";
+    private final long accessTokenLifetimeMillis;
+
+    private final JwtParser jwtParser;
+
+    /**
+     * Constructor that builds the parser that verifies tokens against the public keys of the key set.
+     *
+     * @param jwtKeySetService    the key set the tokens are signed and verified with
+     * @param accessTokenLifetime how long an access token is valid
+     */
+    public JwtService(JwtKeySetService jwtKeySetService,
+                      @Value("${access-token.lifetime:30m}") Duration accessTokenLifetime) {
+        this.jwtKeySetService = jwtKeySetService;
+        this.accessTokenLifetimeMillis = accessTokenLifetime.toMillis();
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        PublicKey publicKey = jwtKeySetService.getPublicKey(header.getKeyId());
+                        if (publicKey == null) {
+                            throw new SignatureException("Unknown signing key " + header.getKeyId());
+                        }
+                        return publicKey;
+                    }
+                })
+                .build();
+    }
 
     /**
      * Validates the given JWT token by parsing its claims and verifying its signature.
@@ -29,43 +73,71 @@ public class JwtService {
      * @param token the JWT token to validate
      */
     public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+        jwtParser.parseClaimsJws(token);
     }
 
     /**
-     * Generates a JWT token for the given user name and sets its expiration time to 30 minutes from the current time.
+     * Generates a JWT token for the given user name that expires after the configured access token lifetime.
+     * The user account ID, branch code, role ID and status of the authenticated user are embedded as claims.
      *
-     * @param userName the name of the user for whom the token is generated
+     * @param userName    the name of the user for whom the token is generated
+     * @param userDetails the details of the authenticated user
      * @return the JWT token as a string
      */
-    public String generateToken(String userName) {
-        Map<String, Object> claims = new HashMap<>();
+    public String generateToken(String userName, CustomUserDetails userDetails) {
+        Claims claims = Jwts.claims();
+        if (userDetails != null) {
+            putClaim(claims, TokenClaims.USER_ID, userDetails.getId());
+            putClaim(claims, TokenClaims.BRANCH_CODE, userDetails.getBranchCode());
+            putClaim(claims, TokenClaims.ROLE_ID, userDetails.getRoleId());
+            putClaim(claims, TokenClaims.STATUS, userDetails.getStatus());
+        }
         return createToken(claims, userName);
     }
 
     /**
-     * Creates a JWT token with the given claims and user name, and signs it with the secret key using the HS256 algorithm.
+     * Adds a claim to the given claims when the value is present.
+     *
+     * @param claims the claims to add to
+     * @param name   the name of the claim
+     * @param value  the value of the claim
+     */
+    private void putClaim(Claims claims, String name, String value) {
+        if (value != null) {
+            claims.put(name, value);
+        }
+    }
+
+    /**
+     * Creates a JWT token with the given claims and user name, and signs it with the current key using the RS256 algorithm.
+     * The claims are handed to the builder as they are, so they are not copied.
      *
      * @param claims   the claims to include in the token
      * @param userName the name of the user for whom the token is created
      * @return the JWT token as a string
      */
-    private String createToken(Map<String, Object> claims, String userName) {
+    private String createToken(Claims claims, String userName) {
+        JwtKeySetService.SigningKey signingKey = jwtKeySetService.getSigningKey();
+        long now = System.currentTimeMillis();
+        claims.setSubject(userName);
+        claims.setIssuedAt(new Date(now));
+        claims.setExpiration(new Date(now + accessTokenLifetimeMillis));
         return Jwts.builder()
+                .serializeToJsonWith(SERIALIZER)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId())
                 .setClaims(claims)
-                .setSubject(userName)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256).compact();
+                .signWith(signingKey.privateKey(), SignatureAlgorithm.RS256).compact();
     }
 
     /**
-     * Decodes the secret key from base64 and returns it as a Key object for use in signing and verifying JWT tokens.
+     * Looks up the JSON serializer of the runtime classpath once.
      *
-     * @return the secret key as a Key object
+     * @return the serializer provided by jjwt-jackson
      */
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @SuppressWarnings("unchecked")
+    private static Serializer<Map<String, ?>> loadSerializer() {
+        return ServiceLoader.load(Serializer.class, JwtService.class.getClassLoader())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No JWT serializer found on the classpath"));
     }
 }
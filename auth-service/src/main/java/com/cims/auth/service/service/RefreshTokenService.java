@@ -0,0 +1,247 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.constants.TokenClaims;
+import com.cims.auth.service.entity.RefreshTokenFamily;
+import com.cims.auth.service.repository.RefreshTokenFamilyRepository;
+import com.cims.auth.service.utils.InvalidRefreshTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The RefreshTokenService class issues and verifies the long-lived refresh tokens that keep a session alive,
+ * so a new access token is issued without checking the password with BCrypt again.
+ * <p>
+ * A refresh token is a JWT signed with its own key, so it is never accepted as an access token by the gateway.
+ * It names the user and the family of the login it belongs to; the claims of the access token are reloaded from
+ * the service that owns the account on every refresh. Each refresh token can be used once: using it issues a new
+ * one of the same family. When a used token is presented again it has been copied, so its whole family is revoked
+ * and the user has to log in again. Every token of a family keeps the expiry set at login, so refreshing cannot
+ * keep a session alive for longer than the refresh token lifetime.
+ * <p>
+ * Each family is a row of the {@code refresh_token_family} table holding the id of its latest token, so every
+ * instance sees the same used tokens and revoked sessions, and a restart keeps them.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    /**
+     * The name of the cookie the refresh token is sent in. It is HttpOnly, so scripts cannot read it.
+     */
+    public static final String COOKIE_NAME = "CIMS_REFRESH";
+
+    private static final String COOKIE_PATH = "/auth";
+
+    @Autowired
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    private final Key signKey;
+
+    private final Duration lifetime;
+
+    private final boolean secureCookie;
+
+    /**
+     * Constructor that sets up the signing key.
+     *
+     * @param secret       the base64 encoded key the refresh tokens are signed with
+     * @param lifetime     how long the refresh tokens of a login are valid
+     * @param secureCookie whether the refresh token cookie is only sent over HTTPS
+     */
+    public RefreshTokenService(@Value("${refresh-token.secret}") String secret,
+                               @Value("${refresh-token.lifetime:12h}") Duration lifetime,
+                               @Value("${refresh-token.secure-cookie:false}") boolean secureCookie) {
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.lifetime = lifetime;
+        this.secureCookie = secureCookie;
+    }
+
+    /**
+     * Starts the family of a new login and issues its first refresh token.
+     *
+     * @param userName the service-qualified name of the user, e.g. USER_john
+     * @return the refresh token
+     */
+    @Transactional
+    public String createToken(String userName) {
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        Instant expiresAt = Instant.now().plus(lifetime);
+        refreshTokenFamilyRepository.save(new RefreshTokenFamily(familyId, userName, tokenId, expiresAt));
+        return createToken(userName, familyId, tokenId, expiresAt);
+    }
+
+    /**
+     * Verifies a refresh token without using it. The token must be the latest one of a live family; a token
+     * that has already been used revokes its family.
+     *
+     * @param refreshToken the refresh token sent by the client
+     * @return the claims of the refresh token
+     * @throws InvalidRefreshTokenException if the token is missing, invalid, expired, revoked or already used
+     */
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public Claims verifyToken(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        RefreshTokenFamily family = refreshTokenFamilyRepository.findById(claims.get(TokenClaims.FAMILY_ID, String.class))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token has been revoked"));
+        if (!family.getCurrentTokenId().equals(claims.getId())) {
+            revokeReusedToken(claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Uses a verified refresh token and issues the one that replaces it, with the same expiry. Only one of several requests presenting
+     * the same token succeeds, on any instance; the others revoke the family.
+     *
+     * @param claims the claims of the verified refresh token
+     * @return the new refresh token of the same family
+     * @throws InvalidRefreshTokenException if the token has been used or revoked since it was verified
+     */
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public String rotateToken(Claims claims) {
+        String familyId = claims.get(TokenClaims.FAMILY_ID, String.class);
+        String nextTokenId = UUID.randomUUID().toString();
+        Instant expiresAt = claims.getExpiration().toInstant();
+        if (refreshTokenFamilyRepository.replaceCurrentToken(familyId, claims.getId(), nextTokenId, expiresAt) == 0) {
+            revokeReusedToken(claims);
+        }
+        return createToken(claims.getSubject(), familyId, nextTokenId, expiresAt);
+    }
+
+    /**
+     * Revokes the family of verified refresh token claims, e.g. when the account has been disabled.
+     *
+     * @param claims the claims of the refresh token
+     */
+    @Transactional
+    public void revokeFamily(Claims claims) {
+        refreshTokenFamilyRepository.deleteByFamilyId(claims.get(TokenClaims.FAMILY_ID, String.class));
+    }
+
+    /**
+     * Revokes the family of a refresh token, e.g. when the user logs out. Invalid tokens are ignored.
+     *
+     * @param refreshToken the refresh token sent by the client, or null
+     */
+    @Transactional
+    public void revokeToken(String refreshToken) {
+        try {
+            revokeFamily(parse(refreshToken));
+        } catch (InvalidRefreshTokenException e) {
+            //nothing to revoke
+        }
+    }
+
+    /**
+     * Drops the families whose latest refresh token has expired, as none of their tokens is accepted anymore.
+     */
+    @Scheduled(fixedDelayString = "${refresh-token.cleanup-interval-ms:600000}")
+    @Transactional
+    public void deleteExpiredFamilies() {
+        try {
+            refreshTokenFamilyRepository.deleteAllExpiredBefore(Instant.now());
+        } catch (Exception e) {
+            log.warn("/**************** Exception in RefreshTokenService -> deleteExpiredFamilies()" + e);
+        }
+    }
+
+    /**
+     * Creates the cookie that sends a refresh token to the client. It is only sent back to the auth endpoints.
+     *
+     * @param refreshToken the refresh token
+     * @return the cookie
+     */
+    public ResponseCookie createCookie(String refreshToken) {
+        return cookie(refreshToken, lifetime);
+    }
+
+    /**
+     * Creates the cookie that removes the refresh token from the client.
+     *
+     * @return the expired cookie
+     */
+    public ResponseCookie clearCookie() {
+        return cookie("", Duration.ZERO);
+    }
+
+    private ResponseCookie cookie(String value, Duration maxAge) {
+        return ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Strict")
+                .path(COOKIE_PATH)
+                .maxAge(maxAge)
+                .build();
+    }
+
+    /**
+     * Creates a refresh token of the given family.
+     *
+     * @param userName  the service-qualified name of the user
+     * @param familyId  the family of the token
+     * @param tokenId   the id of the token
+     * @param expiresAt the expiry of the token
+     * @return the signed refresh token
+     */
+    private String createToken(String userName, String familyId, String tokenId, Instant expiresAt) {
+        return Jwts.builder()
+                .claim(TokenClaims.FAMILY_ID, familyId)
+                .setId(tokenId)
+                .setSubject(userName)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiresAt))
+                .signWith(signKey, SignatureAlgorithm.HS256).compact();
+    }
+
+    /**
+     * Revokes the family of a refresh token that was presented after it had been used.
+     *
+     * @param claims the claims of the used refresh token
+     * @throws InvalidRefreshTokenException always
+     */
+    private void revokeReusedToken(Claims claims) {
+        revokeFamily(claims);
+        log.warn("/**************** Refresh token reused, revoking the session of " + claims.getSubject());
+        throw new InvalidRefreshTokenException("Refresh token has already been used");
+    }
+
+    /**
+     * Verifies the signature and expiry of a refresh token.
+     *
+     * @param refreshToken the refresh token
+     * @return the claims of the token
+     * @throws InvalidRefreshTokenException if the token is missing or invalid
+     */
+    private Claims parse(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new InvalidRefreshTokenException("Refresh token is missing");
+        }
+        try {
+            Claims claims = Jwts.parserBuilder().setSigningKey(signKey).build().parseClaimsJws(refreshToken).getBody();
+            if (claims.getId() == null || claims.getSubject() == null || claims.get(TokenClaims.FAMILY_ID) == null) {
+                throw new InvalidRefreshTokenException("Refresh token is malformed");
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid");
+        }
+    }
+}
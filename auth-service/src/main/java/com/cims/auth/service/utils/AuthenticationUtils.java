@@ -8,6 +8,8 @@ import com.cims.auth.service.dto.AuthRequestDTO;
  */
 public class AuthenticationUtils {
 
+    private static final char SEPARATOR = '_';
+
     /**
      * Prepends the service name prefix to the user name in the given authentication request.
      *
@@ -16,7 +18,7 @@ public class AuthenticationUtils {
      */
     public static String prependServiceNameToUserName(AuthRequestDTO authRequest) {
         String serviceNamePrefix = authRequest.getServiceName().equals(ServiceName.ADMIN) ? ServiceName.ADMIN.toString() : ServiceName.USER.toString();
-        authRequest.setUserName(serviceNamePrefix.concat("_").concat(authRequest.getUserName()));
+        authRequest.setUserName(serviceNamePrefix + SEPARATOR + authRequest.getUserName());
         return authRequest.getUserName();
     }
 
@@ -24,19 +26,26 @@ public class AuthenticationUtils {
      * Extracts the service name from a full name string.
      *
      * @param fullName the full name string containing the service name prefix and user name, separated by an underscore.
-     * @return the service name.
+     * @return the service name, or the full name if it has no underscore.
      */
     public static String getServiceName(String fullName){
-        return fullName.split("_")[0];
+        int separatorIndex = fullName.indexOf(SEPARATOR);
+        return separatorIndex < 0 ? fullName : fullName.substring(0, separatorIndex);
     }
 
     /**
-     * Extracts the user name from a full name string.
+     * Extracts the user name from a full name string. Only the first underscore separates the service name,
+     * so user names that contain underscores are kept whole.
      *
      * @param fullName the full name string containing the service name prefix and user name, separated by an underscore.
      * @return the user name.
+     * @throws IllegalArgumentException if the full name has no service name prefix.
      */
     public static String getUserName(String fullName){
-        return fullName.split("_")[1];
+        int separatorIndex = fullName.indexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            throw new IllegalArgumentException("User name has no service name prefix: " + fullName);
+        }
+        return fullName.substring(separatorIndex + 1);
     }
 }
@@ -0,0 +1,47 @@
+package com.cims.auth.service.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+/**
+ * A {@link UserCache} that keeps loaded user details for a short time, keyed by the service-qualified user name,
+ * e.g. {@code USER_john}. The authentication provider checks a login against the cached details first and only
+ * reloads them from the owning service when the password does not match, so a changed password is picked up on
+ * the next login. Entries are also removed when the owning service reports a password change.
+ */
+public class CaffeineUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    /**
+     * Creates a user cache.
+     *
+     * @param timeToLive  how long loaded user details are kept
+     * @param maximumSize the maximum number of cached users
+     */
+    public CaffeineUserCache(Duration timeToLive, long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+}
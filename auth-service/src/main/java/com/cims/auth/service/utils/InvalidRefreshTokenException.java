@@ -0,0 +1,17 @@
+package com.cims.auth.service.utils;
+
+/**
+ * Thrown when a refresh token is missing, expired, forged or has already been used.
+ * It is answered with 401 Unauthorized, so the client asks the user to log in again.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the reason the refresh token was rejected
+     */
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
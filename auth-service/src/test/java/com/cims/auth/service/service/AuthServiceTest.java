@@ -0,0 +1,94 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.dto.AuthTokensDTO;
+import com.cims.auth.service.dto.UserAccountDTO;
+import com.cims.auth.service.utils.InvalidRefreshTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthServiceTest {
+
+    @InjectMocks
+    private AuthService authService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private Claims claims;
+
+    @BeforeEach
+    public void setUp() {
+        claims = Jwts.claims().setSubject("USER_john").setId("token");
+        when(refreshTokenService.verifyToken("refresh")).thenReturn(claims);
+    }
+
+    @Test
+    public void testRefreshTokens_ReloadsAccount() {
+        when(userDetailsService.loadUserByUsername("USER_john")).thenReturn(userDetails("ACTIVE", "2"));
+        when(jwtService.generateToken(eq("USER_john"), any())).thenReturn("access");
+        when(refreshTokenService.rotateToken(claims)).thenReturn("rotated");
+
+        AuthTokensDTO tokens = authService.refreshTokens("refresh");
+
+        assertEquals("access", tokens.getAccessToken());
+        assertEquals("rotated", tokens.getRefreshToken());
+        ArgumentCaptor<CustomUserDetails> userDetails = ArgumentCaptor.forClass(CustomUserDetails.class);
+        verify(jwtService).generateToken(eq("USER_john"), userDetails.capture());
+        assertEquals("2", userDetails.getValue().getRoleId());
+    }
+
+    @Test
+    public void testRefreshTokens_InactiveAccountEndsSession() {
+        when(userDetailsService.loadUserByUsername("USER_john")).thenReturn(userDetails("INACTIVE", "2"));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshTokens("refresh"));
+
+        verify(refreshTokenService).revokeFamily(claims);
+        verify(refreshTokenService, never()).rotateToken(any());
+        verify(jwtService, never()).generateToken(any(), any());
+    }
+
+    @Test
+    public void testRefreshTokens_DeletedAccountEndsSession() {
+        when(userDetailsService.loadUserByUsername("USER_john")).thenThrow(new UsernameNotFoundException("user not found"));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshTokens("refresh"));
+
+        verify(refreshTokenService).revokeFamily(claims);
+        verify(refreshTokenService, never()).rotateToken(any());
+    }
+
+    private static CustomUserDetails userDetails(String status, String roleId) {
+        UserAccountDTO userAccount = new UserAccountDTO();
+        userAccount.setId("1");
+        userAccount.setRoleId(roleId);
+        userAccount.setBranchCode("CM");
+        userAccount.setStatus(status);
+        return new CustomUserDetails("USER_john", userAccount);
+    }
+}
@@ -0,0 +1,55 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.dto.UserAccountDTO;
+import com.cims.auth.service.utils.CaffeineUserCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CaffeineUserCacheTest {
+
+    private final CaffeineUserCache userCache = new CaffeineUserCache(Duration.ofMinutes(1), 100);
+
+    @Test
+    public void testPutUserInCache() {
+        CustomUserDetails userDetails = userDetails("USER_john");
+
+        userCache.putUserInCache(userDetails);
+
+        assertSame(userDetails, userCache.getUserFromCache("USER_john"));
+        assertNull(userCache.getUserFromCache("ADMIN_john"));
+    }
+
+    @Test
+    public void testRemoveUserFromCache() {
+        userCache.putUserInCache(userDetails("USER_john"));
+        userCache.putUserInCache(userDetails("USER_jane"));
+
+        userCache.removeUserFromCache("USER_john");
+
+        assertNull(userCache.getUserFromCache("USER_john"));
+        assertEquals("USER_jane", userCache.getUserFromCache("USER_jane").getUsername());
+    }
+
+    @Test
+    public void testGetUserFromCache_ExpiredUserRemoved() throws InterruptedException {
+        CaffeineUserCache shortLivedCache = new CaffeineUserCache(Duration.ofMillis(10), 100);
+        shortLivedCache.putUserInCache(userDetails("USER_john"));
+
+        Thread.sleep(50);
+
+        assertNull(shortLivedCache.getUserFromCache("USER_john"));
+    }
+
+    private static CustomUserDetails userDetails(String userName) {
+        UserAccountDTO userAccount = new UserAccountDTO();
+        userAccount.setPassword("hash");
+        userAccount.setStatus("ACTIVE");
+        return new CustomUserDetails(userName, userAccount);
+    }
+}
@@ -0,0 +1,85 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.dto.UserAccountDTO;
+import com.cims.auth.service.dto.UserRoleDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    private static final String USER_ACCOUNT_URL = "http://USER-SERVICE/user/userAccount/getByUserName/{userName}";
+
+    private static final String ADMIN_ACCOUNT_URL = "http://ADMIN-SERVICE/admin/userAccount/getByUserName/{userName}";
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Test
+    public void testLoadUserByUsername_UserAccount() {
+        UserAccountDTO userAccount = new UserAccountDTO("42", "john", "hash", null, null, "CM", new UserRoleDTO("7", "Manager"), "ACTIVE");
+        when(restTemplate.getForObject(USER_ACCOUNT_URL, UserAccountDTO.class, "john")).thenReturn(userAccount);
+
+        CustomUserDetails userDetails = (CustomUserDetails) customUserDetailsService.loadUserByUsername("USER_john");
+
+        assertEquals("USER_john", userDetails.getUsername());
+        assertEquals("hash", userDetails.getPassword());
+        assertEquals("42", userDetails.getId());
+        assertEquals("CM", userDetails.getBranchCode());
+        assertEquals("7", userDetails.getRoleId());
+        assertTrue(userDetails.isActive());
+    }
+
+    @Test
+    public void testLoadUserByUsername_InactiveAccountStillEnabledForLogin() {
+        UserAccountDTO userAccount = new UserAccountDTO("42", "john", "hash", null, null, "CM", null, "INACTIVE");
+        when(restTemplate.getForObject(USER_ACCOUNT_URL, UserAccountDTO.class, "john")).thenReturn(userAccount);
+
+        CustomUserDetails userDetails = (CustomUserDetails) customUserDetailsService.loadUserByUsername("USER_john");
+
+        assertTrue(userDetails.isEnabled());
+        assertFalse(userDetails.isActive());
+    }
+
+    @Test
+    public void testLoadUserByUsername_AdminAccount() {
+        UserAccountDTO userAccount = new UserAccountDTO("1", "root_admin", "hash", null, "3", "HQ", null, null);
+        when(restTemplate.getForObject(ADMIN_ACCOUNT_URL, UserAccountDTO.class, "root_admin")).thenReturn(userAccount);
+
+        CustomUserDetails userDetails = (CustomUserDetails) customUserDetailsService.loadUserByUsername("ADMIN_root_admin");
+
+        assertEquals("ADMIN_root_admin", userDetails.getUsername());
+        assertEquals("3", userDetails.getRoleId());
+    }
+
+    @Test
+    public void testLoadUserByUsername_UnknownUser() {
+        when(restTemplate.getForObject(USER_ACCOUNT_URL, UserAccountDTO.class, "john")).thenReturn(null);
+
+        assertThrows(UsernameNotFoundException.class, () -> customUserDetailsService.loadUserByUsername("USER_john"));
+    }
+
+    @Test
+    public void testLoadUserByUsername_ServiceUnavailable() {
+        when(restTemplate.getForObject(USER_ACCOUNT_URL, UserAccountDTO.class, "john"))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThrows(ResourceAccessException.class, () -> customUserDetailsService.loadUserByUsername("USER_john"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.entity.JwtSigningKey;
+import com.cims.auth.service.repository.JwtSigningKeyRepository;
+import com.cims.common.jwt.JsonWebKeySet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtKeySetServiceTest {
+
+    @Mock
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final List<JwtSigningKey> keys = new ArrayList<>();
+
+    private JwtKeySetService jwtKeySetService;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(jwtSigningKeyRepository.save(any())).thenAnswer(invocation -> {
+            keys.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        lenient().when(jwtSigningKeyRepository.findAllByOrderByCreatedAtAscKidAsc()).thenAnswer(invocation -> List.copyOf(keys));
+        lenient().when(jwtSigningKeyRepository.findAllKeyIds()).thenAnswer(invocation -> keys.stream().map(JwtSigningKey::getKid).toList());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jwtKeySetService.shutdown();
+    }
+
+    @Test
+    public void testCreatesFirstKey() {
+        jwtKeySetService = create(Duration.ofMinutes(30));
+
+        assertEquals(1, keys.size());
+        String keyId = jwtKeySetService.getSigningKey().keyId();
+        assertEquals(keys.get(0).getKid(), keyId);
+        assertNotNull(jwtKeySetService.getPublicKey(keyId));
+        assertNull(jwtKeySetService.getPublicKey("unknown"));
+        JsonWebKeySet.Key jsonWebKey = jwtKeySetService.getPublicKeySet().keys().get(0);
+        assertEquals(keyId, jsonWebKey.kid());
+        assertEquals("RS256", jsonWebKey.alg());
+    }
+
+    @Test
+    public void testRotateKey_PreviousKeyStillVerifies() {
+        jwtKeySetService = create(Duration.ofMinutes(30));
+        String previousKeyId = jwtKeySetService.getSigningKey().keyId();
+
+        String newKeyId = jwtKeySetService.rotateKey();
+
+        assertNotEquals(previousKeyId, newKeyId);
+        assertEquals(newKeyId, jwtKeySetService.getSigningKey().keyId());
+        assertNotNull(jwtKeySetService.getPublicKey(previousKeyId));
+        assertEquals(2, jwtKeySetService.getPublicKeySet().keys().size());
+        verify(jwtSigningKeyRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    public void testRotateKey_RetiredKeysRemoved() {
+        jwtKeySetService = create(Duration.ofMinutes(30));
+        String retiredKeyId = jwtKeySetService.getSigningKey().keyId();
+        String replacedKeyId = jwtKeySetService.rotateKey();
+        JwtSigningKey retiredKey = keys.get(0);
+        retiredKey.setCreatedAt(Instant.now().minus(Duration.ofHours(2)));
+        keys.get(1).setCreatedAt(Instant.now().minus(Duration.ofHours(1)));
+
+        jwtKeySetService.rotateKey();
+
+        verify(jwtSigningKeyRepository).deleteAll(List.of(retiredKey));
+        assertNull(jwtKeySetService.getPublicKey(retiredKeyId));
+        assertNotNull(jwtKeySetService.getPublicKey(replacedKeyId));
+    }
+
+    @Test
+    public void testReloadIfModified_PicksUpKeyRotatedByOtherInstance() {
+        jwtKeySetService = create(Duration.ofMinutes(30));
+        JwtKeySetService otherInstance = create(Duration.ofMinutes(30));
+        String newKeyId = otherInstance.rotateKey();
+        otherInstance.shutdown();
+
+        jwtKeySetService.reloadIfModified();
+
+        assertEquals(newKeyId, jwtKeySetService.getSigningKey().keyId());
+    }
+
+    private JwtKeySetService create(Duration retirementDelay) {
+        return new JwtKeySetService(jwtSigningKeyRepository, 2048, Duration.ofMinutes(10), retirementDelay);
+    }
+}
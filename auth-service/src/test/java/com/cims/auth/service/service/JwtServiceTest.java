@@ -0,0 +1,150 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.config.CustomUserDetails;
+import com.cims.auth.service.constants.TokenClaims;
+import com.cims.auth.service.dto.UserAccountDTO;
+import com.cims.auth.service.entity.JwtSigningKey;
+import com.cims.auth.service.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JwtServiceTest {
+
+    private static final String USER_NAME = "USER_john";
+
+    private static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(30);
+
+    private JwtKeySetService jwtKeySetService;
+
+    private JwtService jwtService;
+
+    private CustomUserDetails userDetails;
+
+    @BeforeEach
+    public void setUp() {
+        jwtKeySetService = createKeySet();
+        jwtService = new JwtService(jwtKeySetService, ACCESS_TOKEN_LIFETIME);
+
+        UserAccountDTO userAccount = new UserAccountDTO();
+        userAccount.setId("42");
+        userAccount.setBranchCode("CM");
+        userAccount.setRoleId("7");
+        userAccount.setStatus("ACTIVE");
+        userDetails = new CustomUserDetails(USER_NAME, userAccount);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jwtKeySetService.shutdown();
+    }
+
+    @Test
+    public void testGenerateToken() {
+        long now = System.currentTimeMillis();
+
+        Jws<Claims> jws = parse(jwtService.generateToken(USER_NAME, userDetails));
+
+        Claims claims = jws.getBody();
+        assertEquals(jwtKeySetService.getSigningKey().keyId(), jws.getHeader().getKeyId());
+        assertEquals("RS256", jws.getHeader().getAlgorithm());
+        assertEquals(USER_NAME, claims.getSubject());
+        assertEquals("42", claims.get(TokenClaims.USER_ID));
+        assertEquals("CM", claims.get(TokenClaims.BRANCH_CODE));
+        assertEquals("7", claims.get(TokenClaims.ROLE_ID));
+        assertEquals("ACTIVE", claims.get(TokenClaims.STATUS));
+        long lifetime = claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
+        assertEquals(ACCESS_TOKEN_LIFETIME.toMillis(), lifetime);
+        assertTrue(claims.getIssuedAt().getTime() >= now - 1000);
+    }
+
+    @Test
+    public void testGenerateToken_WithoutUserDetails() {
+        Claims claims = parse(jwtService.generateToken(USER_NAME, null)).getBody();
+
+        assertEquals(USER_NAME, claims.getSubject());
+        assertFalse(claims.containsKey(TokenClaims.USER_ID));
+        assertFalse(claims.containsKey(TokenClaims.ROLE_ID));
+    }
+
+    @Test
+    public void testValidateToken() {
+        String token = jwtService.generateToken(USER_NAME, userDetails);
+
+        assertDoesNotThrow(() -> jwtService.validateToken(token));
+    }
+
+    @Test
+    public void testValidateToken_SignedWithPreviousKey() {
+        String token = jwtService.generateToken(USER_NAME, userDetails);
+
+        jwtKeySetService.rotateKey();
+
+        assertDoesNotThrow(() -> jwtService.validateToken(token));
+    }
+
+    @Test
+    public void testValidateToken_UnknownKey() {
+        JwtKeySetService otherKeySet = createKeySet();
+        String token = new JwtService(otherKeySet, ACCESS_TOKEN_LIFETIME).generateToken(USER_NAME, userDetails);
+        otherKeySet.shutdown();
+
+        assertThrows(SignatureException.class, () -> jwtService.validateToken(token));
+    }
+
+    @Test
+    public void testValidateToken_TamperedToken() {
+        String token = jwtService.generateToken(USER_NAME, userDetails);
+        String[] parts = token.split("\\.");
+        String otherPayload = jwtService.generateToken("USER_admin", userDetails).split("\\.")[1];
+
+        assertThrows(SignatureException.class, () -> jwtService.validateToken(parts[0] + "." + otherPayload + "." + parts[2]));
+    }
+
+    @Test
+    public void testValidateToken_ExpiredToken() {
+        String token = new JwtService(jwtKeySetService, Duration.ofMinutes(-1)).generateToken(USER_NAME, userDetails);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.validateToken(token));
+    }
+
+    /**
+     * Creates a key set backed by its own in-memory repository.
+     */
+    private static JwtKeySetService createKeySet() {
+        List<JwtSigningKey> keys = new ArrayList<>();
+        JwtSigningKeyRepository jwtSigningKeyRepository = mock(JwtSigningKeyRepository.class);
+        when(jwtSigningKeyRepository.save(any())).thenAnswer(invocation -> {
+            keys.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(jwtSigningKeyRepository.findAllByOrderByCreatedAtAscKidAsc()).thenAnswer(invocation -> List.copyOf(keys));
+        when(jwtSigningKeyRepository.findAllKeyIds()).thenAnswer(invocation -> keys.stream().map(JwtSigningKey::getKid).toList());
+        return new JwtKeySetService(jwtSigningKeyRepository, 2048, Duration.ofMinutes(10), Duration.ofMinutes(30));
+    }
+
+    private Jws<Claims> parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(jwtKeySetService.getPublicKey(jwtKeySetService.getSigningKey().keyId()))
+                .build()
+                .parseClaimsJws(token);
+    }
+}
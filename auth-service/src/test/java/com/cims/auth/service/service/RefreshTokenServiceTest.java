@@ -0,0 +1,163 @@
+package com.cims.auth.service.service;
+
+import com.cims.auth.service.constants.TokenClaims;
+import com.cims.auth.service.entity.RefreshTokenFamily;
+import com.cims.auth.service.repository.RefreshTokenFamilyRepository;
+import com.cims.auth.service.utils.InvalidRefreshTokenException;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String SECRET = "9111E7C0FD1E19666E4A4CFD194276E3FDC2D8ADF076DC7648142DCACBC4B865";
+
+    private static final String OTHER_SECRET = "3F4528482B4D6251655468576D5A7134743777217A25432A462D4A614E645267";
+
+    @Mock
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    public void setUp() {
+        refreshTokenService = create(SECRET);
+    }
+
+    @Test
+    public void testCreateToken() {
+        String refreshToken = refreshTokenService.createToken("USER_john");
+
+        RefreshTokenFamily family = savedFamily();
+        assertEquals("USER_john", family.getUserName());
+        assertTrue(family.getExpiresAt().isAfter(Instant.now().plus(Duration.ofHours(11))));
+        when(refreshTokenFamilyRepository.findById(family.getFamilyId())).thenReturn(Optional.of(family));
+        Claims claims = refreshTokenService.verifyToken(refreshToken);
+        assertEquals("USER_john", claims.getSubject());
+        assertEquals(family.getCurrentTokenId(), claims.getId());
+        assertEquals(family.getFamilyId(), claims.get(TokenClaims.FAMILY_ID, String.class));
+    }
+
+    @Test
+    public void testVerifyToken_RevokedFamily() {
+        String refreshToken = refreshTokenService.createToken("USER_john");
+        when(refreshTokenFamilyRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.verifyToken(refreshToken));
+    }
+
+    @Test
+    public void testVerifyToken_UsedTokenRevokesFamily() {
+        String refreshToken = refreshTokenService.createToken("USER_john");
+        RefreshTokenFamily family = savedFamily();
+        family.setCurrentTokenId("rotated");
+        when(refreshTokenFamilyRepository.findById(family.getFamilyId())).thenReturn(Optional.of(family));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.verifyToken(refreshToken));
+
+        verify(refreshTokenFamilyRepository).deleteByFamilyId(family.getFamilyId());
+    }
+
+    @Test
+    public void testVerifyToken_ForgedToken() {
+        String forged = create(OTHER_SECRET).createToken("USER_john");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.verifyToken(forged));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.verifyToken(null));
+    }
+
+    @Test
+    public void testRotateToken() {
+        Claims claims = issueAndVerify();
+        String familyId = claims.get(TokenClaims.FAMILY_ID, String.class);
+        when(refreshTokenFamilyRepository.replaceCurrentToken(eq(familyId), eq(claims.getId()), anyString(), any())).thenReturn(1);
+
+        String rotated = refreshTokenService.rotateToken(claims);
+
+        ArgumentCaptor<String> nextTokenId = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenFamilyRepository).replaceCurrentToken(eq(familyId), eq(claims.getId()), nextTokenId.capture(),
+                eq(claims.getExpiration().toInstant()));
+        savedFamily().setCurrentTokenId(nextTokenId.getValue());
+        Claims rotatedClaims = refreshTokenService.verifyToken(rotated);
+        assertNotEquals(claims.getId(), rotatedClaims.getId());
+        assertEquals(familyId, rotatedClaims.get(TokenClaims.FAMILY_ID, String.class));
+        assertEquals(claims.getExpiration(), rotatedClaims.getExpiration());
+        verify(refreshTokenFamilyRepository, never()).deleteByFamilyId(anyString());
+    }
+
+    @Test
+    public void testRotateToken_LostRaceRevokesFamily() {
+        Claims claims = issueAndVerify();
+        when(refreshTokenFamilyRepository.replaceCurrentToken(anyString(), anyString(), anyString(), any())).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotateToken(claims));
+
+        verify(refreshTokenFamilyRepository).deleteByFamilyId(claims.get(TokenClaims.FAMILY_ID, String.class));
+    }
+
+    @Test
+    public void testRevokeToken() {
+        String refreshToken = refreshTokenService.createToken("USER_john");
+        String familyId = savedFamily().getFamilyId();
+
+        refreshTokenService.revokeToken(refreshToken);
+        refreshTokenService.revokeToken("not-a-token");
+
+        verify(refreshTokenFamilyRepository).deleteByFamilyId(familyId);
+    }
+
+    @Test
+    public void testClearCookie() {
+        ResponseCookie cookie = refreshTokenService.clearCookie();
+
+        assertEquals(RefreshTokenService.COOKIE_NAME, cookie.getName());
+        assertEquals(Duration.ZERO, cookie.getMaxAge());
+        assertTrue(cookie.isHttpOnly());
+    }
+
+    private RefreshTokenService create(String secret) {
+        RefreshTokenService service = new RefreshTokenService(secret, Duration.ofHours(12), false);
+        ReflectionTestUtils.setField(service, "refreshTokenFamilyRepository", refreshTokenFamilyRepository);
+        return service;
+    }
+
+    private RefreshTokenFamily savedFamily() {
+        ArgumentCaptor<RefreshTokenFamily> family = ArgumentCaptor.forClass(RefreshTokenFamily.class);
+        verify(refreshTokenFamilyRepository).save(family.capture());
+        return family.getValue();
+    }
+
+    /**
+     * Issues a token whose family the repository returns, and verifies it.
+     *
+     * @return the claims of the issued token
+     */
+    private Claims issueAndVerify() {
+        String refreshToken = refreshTokenService.createToken("USER_john");
+        RefreshTokenFamily family = savedFamily();
+        when(refreshTokenFamilyRepository.findById(family.getFamilyId())).thenReturn(Optional.of(family));
+        return refreshTokenService.verifyToken(refreshToken);
+    }
+}
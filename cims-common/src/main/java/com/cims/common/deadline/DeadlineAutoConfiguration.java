@@ -0,0 +1,98 @@
+package com.cims.common.deadline;
+
+import feign.Capability;
+import feign.RequestInterceptor;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Auto-configuration that bounds the work done for a request by the deadline set by the {@link DeadlineFilter}, in
+ * every servlet service that depends on this module. The remaining budget limits the timeouts of the Feign calls
+ * and of the JPA transactions, and is forwarded to the called services so they can do the same. The Feign and JPA
+ * beans are only registered when the service uses them.
+ */
+@AutoConfiguration(after = DataSourceAutoConfiguration.class, before = HibernateJpaAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DeadlineAutoConfiguration {
+
+    /**
+     * Returns the filter that reads the time budget sent by the API gateway and sets it as the deadline of the request.
+     *
+     * @return the deadline filter
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DeadlineFilter deadlineFilter() {
+        return new DeadlineFilter();
+    }
+
+    /**
+     * Feign beans that forward the remaining budget and bound the calls by it.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Capability.class)
+    static class FeignDeadlineConfiguration {
+
+        /**
+         * Returns a Feign request interceptor that forwards the remaining budget of the request to the called service.
+         *
+         * @return the request interceptor
+         */
+        @Bean
+        public RequestInterceptor deadlineRequestInterceptor() {
+            return new DeadlineRequestInterceptor();
+        }
+
+        /**
+         * Returns a Feign capability that limits the connect and read timeouts of each call to the remaining budget
+         * of the request, and fails the call at once when no budget is left.
+         *
+         * @return the Feign capability
+         */
+        @Bean
+        public Capability deadlineCapability() {
+            return new DeadlineCapability();
+        }
+    }
+
+    /**
+     * The JPA transaction manager bounded by the remaining budget. It is registered before the one of Spring Boot,
+     * which then backs off.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({EntityManagerFactory.class, JpaTransactionManager.class})
+    @ConditionalOnSingleCandidate(DataSource.class)
+    static class JpaDeadlineConfiguration {
+
+        /**
+         * Returns the JPA transaction manager, limiting the timeout of each transaction to the remaining budget of
+         * the request.
+         *
+         * @param entityManagerFactory          the entity manager factory of the application
+         * @param transactionManagerCustomizers the customizers of the transaction manager, e.g. the default timeout
+         * @return the transaction manager
+         */
+        @Bean
+        @ConditionalOnMissingBean(TransactionManager.class)
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                        ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+            JpaTransactionManager transactionManager = new DeadlineTransactionManager(entityManagerFactory);
+            transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+            return transactionManager;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.cims.common.deadline;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign capability that limits the connect and read timeouts of each call to the remaining budget of the request,
+ * and fails the call at once when no budget is left. Feign calls {@code enrich} by reflection, so the class has to
+ * be public.
+ */
+public class DeadlineCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Long remainingMillis = RequestDeadline.remainingMillis();
+            if (remainingMillis == null) {
+                return client.execute(request, options);
+            }
+            if (remainingMillis <= 0) {
+                throw new SocketTimeoutException("Request deadline exceeded before calling " + request.url());
+            }
+            return client.execute(request, new Request.Options(
+                    Math.min(options.connectTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                    Math.min(options.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                    options.isFollowRedirects()));
+        };
+    }
+}
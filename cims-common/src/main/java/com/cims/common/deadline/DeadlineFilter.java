@@ -0,0 +1,63 @@
+package com.cims.common.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filter that reads the time budget sent by the API gateway and sets it as the deadline of the request.
+ * A request that arrives with no budget left is answered with 504 at once, as its caller has already given up.
+ * Requests without the header, e.g. those not sent through the gateway, have no deadline.
+ * <p>
+ * The filter is registered in every servlet service by the {@link DeadlineAutoConfiguration}.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long remainingMillis = remainingMillisOf(request);
+        if (remainingMillis == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (remainingMillis <= 0) {
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded");
+            return;
+        }
+        RequestDeadline.start(remainingMillis);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * Reads the remaining budget of a request.
+     *
+     * @param request the incoming request
+     * @return the number of milliseconds left, or null if the header is missing or invalid
+     */
+    private Long remainingMillisOf(HttpServletRequest request) {
+        String header = request.getHeader(DeadlineHeaders.REMAINING_MILLIS);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            log.warn("/**************** Exception in DeadlineFilter -> remainingMillisOf()" + e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cims.common.deadline;
+
+/**
+ * The {@code DeadlineHeaders} class contains the name of the internal header that carries the time budget of a
+ * request. The API gateway sets it from the response timeout of the route, and the services forward what is left
+ * of it on their own calls. The budget is sent in milliseconds rather than as a point in time, so the services
+ * do not depend on their clocks agreeing.
+ */
+public class DeadlineHeaders {
+    public static final String REMAINING_MILLIS = "X-Cims-Deadline-Ms";
+}
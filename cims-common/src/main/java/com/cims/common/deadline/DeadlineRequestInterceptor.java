@@ -0,0 +1,19 @@
+package com.cims.common.deadline;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Feign request interceptor that forwards the remaining budget of the request to the called service, so it can
+ * bound its own work by it.
+ */
+public class DeadlineRequestInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis != null) {
+            template.header(DeadlineHeaders.REMAINING_MILLIS, String.valueOf(Math.max(0, remainingMillis)));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.cims.common.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * A JPA transaction manager that limits the timeout of each transaction to the time left until the deadline of the
+ * request. Hibernate applies the remaining transaction timeout to every JDBC statement of the transaction, so a slow
+ * query is cancelled by the database driver instead of running on after the caller has given up.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    /**
+     * Creates a transaction manager for an entity manager factory.
+     *
+     * @param entityManagerFactory the entity manager factory of the application
+     */
+    public DeadlineTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    /**
+     * Returns the smaller of the configured timeout and the seconds left until the deadline of the request.
+     *
+     * @param definition the definition of the transaction
+     * @return the timeout of the transaction in seconds
+     * @throws TransactionTimedOutException if the deadline of the request has already passed
+     */
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis == null) {
+            return timeout;
+        }
+        if (remainingMillis <= 0) {
+            throw new TransactionTimedOutException("Request deadline exceeded before the transaction started");
+        }
+        int remainingSeconds = (int) ((remainingMillis + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
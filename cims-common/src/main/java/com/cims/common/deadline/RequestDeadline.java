@@ -0,0 +1,43 @@
+package com.cims.common.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the deadline of the request handled by the current thread. The deadline is set by the
+ * {@link DeadlineFilter} from the budget sent by the caller, and is used to bound the Feign calls and database
+ * transactions made while handling the request.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Sets the deadline of the current request.
+     *
+     * @param remainingMillis the number of milliseconds left to handle the request
+     */
+    public static void start(long remainingMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+    }
+
+    /**
+     * Removes the deadline of the current request.
+     */
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Returns the time left until the deadline of the current request.
+     *
+     * @return the number of milliseconds left, zero or less once the deadline has passed,
+     * or null if the request has no deadline
+     */
+    public static Long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.cims.common.identity;
+
+/**
+ * The identity of an authenticated caller, as forwarded by the API gateway in the {@link IdentityHeaders}.
+ *
+ * @param userId     the ID of the user account
+ * @param userName   the name of the user, without the service name prefix
+ * @param branchCode the branch code of the user account
+ * @param roleId     the ID of the user role, or null if the token does not carry it
+ * @param status     the name of the account status, or null if the token does not carry it
+ */
+public record Identity(String userId, String userName, String branchCode, String roleId, String status) {
+}
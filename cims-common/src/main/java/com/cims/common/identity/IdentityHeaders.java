@@ -0,0 +1,29 @@
+package com.cims.common.identity;
+
+import java.util.List;
+
+/**
+ * The IdentityHeaders class contains the names of the internal headers the API gateway uses to forward the
+ * identity of an authenticated caller to the downstream services. These headers are always stripped from
+ * incoming requests and only re-added by the gateway after the token has been verified.
+ */
+public class IdentityHeaders {
+
+    public static final String USER_ID = "X-Cims-User-Id";
+    public static final String USER_NAME = "X-Cims-User-Name";
+    public static final String BRANCH = "X-Cims-Branch";
+    public static final String ROLE = "X-Cims-Role";
+    public static final String STATUS = "X-Cims-Status";
+
+    /**
+     * The time, in epoch milliseconds, after which the signed identity must no longer be trusted.
+     */
+    public static final String EXPIRES = "X-Cims-Identity-Expires";
+
+    public static final String SIGNATURE = "X-Cims-Signature";
+
+    /**
+     * All identity headers, removed from every request before it is forwarded.
+     */
+    public static final List<String> ALL = List.of(USER_ID, USER_NAME, BRANCH, ROLE, STATUS, EXPIRES, SIGNATURE);
+}
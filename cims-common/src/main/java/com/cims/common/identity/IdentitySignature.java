@@ -0,0 +1,98 @@
+package com.cims.common.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Signs and verifies the {@link IdentityHeaders} with a secret shared between the API gateway and the services,
+ * so the services can trust the headers without calling the user service.
+ * <p>
+ * The signature covers the bearer token of the request, every identity value and the time the signature expires.
+ * The gateway lets a signature expire with the token, or earlier, so a captured set of headers cannot be replayed
+ * once it is stale. A {@link Mac} is initialised once per thread and reused for every signature.
+ */
+public class IdentitySignature {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec secretKey;
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Creates the signature with the shared identity secret.
+     *
+     * @param secret the secret shared by the gateway and the services
+     */
+    public IdentitySignature(String secret) {
+        this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::createMac);
+    }
+
+    /**
+     * Signs an identity for the given bearer token.
+     *
+     * @param token     the bearer token of the request, without the "Bearer " prefix
+     * @param identity  the identity to sign
+     * @param expiresAt the time after which the signature is stale, in epoch milliseconds
+     * @return the Base64 encoded signature
+     */
+    public String sign(String token, Identity identity, long expiresAt) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(token, identity, expiresAt));
+    }
+
+    /**
+     * Verifies the signature of an identity for the given bearer token.
+     *
+     * @param token     the bearer token of the request, without the "Bearer " prefix
+     * @param identity  the identity read from the headers
+     * @param expiresAt the expiry time read from the headers, in epoch milliseconds
+     * @param signature the Base64 encoded signature read from the headers
+     * @return true if the signature matches and has not expired, false otherwise
+     */
+    public boolean verify(String token, Identity identity, long expiresAt, String signature) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(mac(token, identity, expiresAt), Base64.getUrlDecoder().decode(signature));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Computes the MAC of the signed values.
+     *
+     * @param token     the bearer token of the request
+     * @param identity  the identity to sign
+     * @param expiresAt the expiry time of the signature
+     * @return the raw MAC
+     */
+    private byte[] mac(String token, Identity identity, long expiresAt) {
+        String payload = String.join("\n", token, identity.userId(), String.valueOf(identity.userName()),
+                identity.branchCode(), String.valueOf(identity.roleId()), String.valueOf(identity.status()),
+                Long.toString(expiresAt));
+        //doFinal resets the Mac, so it is ready for the next signature of this thread
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a Mac initialised with the shared secret.
+     *
+     * @return the Mac
+     */
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
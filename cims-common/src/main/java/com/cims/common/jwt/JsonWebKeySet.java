@@ -0,0 +1,29 @@
+package com.cims.common.jwt;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * The public keys that verify the tokens issued by the auth service, in JSON Web Key Set format (RFC 7517).
+ * The auth service publishes it and the gateway and the services read it.
+ *
+ * @param keys the public keys
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JsonWebKeySet(List<Key> keys) {
+
+    /**
+     * A public RSA key in JSON Web Key format.
+     *
+     * @param kty the key type, {@code RSA}
+     * @param kid the ID of the key, named in the {@code kid} header of the tokens it signed
+     * @param use the use of the key, {@code sig}
+     * @param alg the algorithm of the signatures, {@code RS256}
+     * @param n   the base64url encoded modulus
+     * @param e   the base64url encoded public exponent
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Key(String kty, String kid, String use, String alg, String n, String e) {
+    }
+}
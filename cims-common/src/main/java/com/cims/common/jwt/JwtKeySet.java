@@ -0,0 +1,195 @@
+package com.cims.common.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the public keys that verify the tokens issued by the auth service, fetched from its key set endpoint.
+ * The keys are decoded once per fetch and looked up by the {@code kid} header of a token, so verifying a token
+ * derives no key. The gateway and the services share this class and only supply how the key set is fetched.
+ * <p>
+ * The key set is fetched once started and then on a fixed interval. A token signed with a key that is not known
+ * yet, e.g. right after the auth service rotated its key, triggers an early fetch, at most once per minimum
+ * refresh interval, and concurrent early fetches are collapsed into one. A failed fetch keeps the previous keys.
+ * Every fetch runs on the single thread of the key set, so no lock is held and no request thread or event loop
+ * runs a fetch; callers wait on the returned future, or for a bounded time in {@link #getKey(String, Duration)}.
+ */
+public class JwtKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeySet.class);
+
+    private final Supplier<JsonWebKeySet> fetcher;
+
+    private final Duration refreshInterval;
+
+    private final long minimumRefreshIntervalNanos;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicReference<CompletableFuture<Void>> inFlightRefresh = new AtomicReference<>();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    private volatile long lastRefreshAt = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    /**
+     * Creates the key set. The fetches start with {@link #start()}.
+     *
+     * @param fetcher                fetches the key set; it should be bounded by a timeout, as it holds the thread
+     *                               of the key set
+     * @param refreshInterval        how often the key set is fetched
+     * @param minimumRefreshInterval the minimum time between two fetches triggered by unknown keys
+     */
+    public JwtKeySet(Supplier<JsonWebKeySet> fetcher, Duration refreshInterval, Duration minimumRefreshInterval) {
+        this.fetcher = fetcher;
+        this.refreshInterval = refreshInterval;
+        this.minimumRefreshIntervalNanos = minimumRefreshInterval.toNanos();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-key-set");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts fetching the key set, at once and then on the refresh interval.
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(this::fetch, 0, refreshInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops fetching the key set.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the public key with the given ID. It never fetches the key set.
+     *
+     * @param keyId the {@code kid} header of a token
+     * @return the public key, or null if the key is not known
+     */
+    public PublicKey getKey(String keyId) {
+        return keyId != null ? keys.get(keyId) : null;
+    }
+
+    /**
+     * Returns the public key with the given ID. If the key is not known, the key set is fetched again unless it was
+     * fetched within the minimum refresh interval, and the caller waits for that fetch for at most the given time.
+     *
+     * @param keyId       the {@code kid} header of a token
+     * @param maximumWait the longest the caller waits for the fetch
+     * @return the public key, or null if the key is still not known
+     */
+    public PublicKey getKey(String keyId, Duration maximumWait) {
+        PublicKey key = getKey(keyId);
+        if (key != null || keyId == null) {
+            return key;
+        }
+        try {
+            refreshIfStale().get(maximumWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("/**************** Exception in JwtKeySet -> getKey()" + e);
+        }
+        return getKey(keyId);
+    }
+
+    /**
+     * Fetches the key set again unless it was fetched within the minimum refresh interval, joining a fetch that is
+     * already in flight.
+     *
+     * @return a future that completes when the key set has been fetched or the fetch is skipped; it never fails
+     */
+    public CompletableFuture<Void> refreshIfStale() {
+        if (isFresh()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> refresh = inFlightRefresh.get();
+        if (refresh != null) {
+            return refresh;
+        }
+        CompletableFuture<Void> newRefresh = new CompletableFuture<>();
+        if (!inFlightRefresh.compareAndSet(null, newRefresh)) {
+            return refreshIfStale();
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!isFresh()) {
+                        fetch();
+                    }
+                } finally {
+                    inFlightRefresh.set(null);
+                    newRefresh.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightRefresh.set(null);
+            newRefresh.complete(null);
+        }
+        return newRefresh;
+    }
+
+    private boolean isFresh() {
+        return System.nanoTime() - lastRefreshAt < minimumRefreshIntervalNanos;
+    }
+
+    private void fetch() {
+        lastRefreshAt = System.nanoTime();
+        try {
+            keys = toPublicKeys(fetcher.get());
+        } catch (RuntimeException e) {
+            log.warn("/**************** Exception in JwtKeySet -> fetch()" + e);
+        }
+    }
+
+    /**
+     * Decodes the RSA keys of a key set, skipping the keys of other types.
+     *
+     * @param keySet the fetched key set
+     * @return the public keys by ID
+     * @throws IllegalStateException if a key cannot be decoded
+     */
+    static Map<String, PublicKey> toPublicKeys(JsonWebKeySet keySet) {
+        if (keySet == null || keySet.keys() == null) {
+            return Map.of();
+        }
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            for (JsonWebKeySet.Key key : keySet.keys()) {
+                if ("RSA".equals(key.kty()) && key.kid() != null) {
+                    publicKeys.put(key.kid(), keyFactory.generatePublic(new RSAPublicKeySpec(
+                            new BigInteger(1, decoder.decode(key.n())), new BigInteger(1, decoder.decode(key.e())))));
+                }
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("JWT key set has an invalid key", e);
+        }
+        return Map.copyOf(publicKeys);
+    }
+}
@@ -0,0 +1,38 @@
+package com.cims.common.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration applied to every service called through {@code lb://} routes or the Feign clients.
+ * Each application registers it as the default configuration of its load balancer clients with
+ * {@code @LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.class)}. It is deliberately not annotated
+ * with {@code @Configuration}, so it is only loaded into the per-service contexts.
+ */
+public class LoadBalancerConfig {
+
+    /**
+     * Creates the latency-aware load balancer of a service, replacing the default round-robin load balancer.
+     *
+     * @param environment               the environment holding the id of the service
+     * @param loadBalancerClientFactory the factory of the per-service load balancer contexts
+     * @param meterRegistry             the registry the instance scores are published to
+     * @return the load balancer of the service
+     */
+    @Bean
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment,
+                                                     LoadBalancerClientFactory loadBalancerClientFactory,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(serviceId,
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                DurationStyle.detectAndParse(environment.getProperty("loadbalancer.peak-ewma.decay-time", "10s")),
+                DurationStyle.detectAndParse(environment.getProperty("loadbalancer.peak-ewma.failure-penalty", "2s")),
+                meterRegistry.getIfAvailable());
+    }
+}
@@ -0,0 +1,298 @@
+package com.cims.common.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The PeakEwmaLoadBalancer class chooses service instances by their expected cost instead of in turn.
+ * Each instance keeps the number of requests in flight and a peak-sensitive exponentially weighted moving average
+ * of its response times: a slower response raises the average at once, faster responses lower it gradually.
+ * The cost of an instance is its average latency multiplied by the requests in flight plus one. Two random
+ * instances are compared and the cheaper one is chosen, so load still spreads while slow or busy instances,
+ * e.g. one pausing for GC or waiting on its connection pool, get fewer requests.
+ * <p>
+ * Response times are recorded through the {@link LoadBalancerLifecycle} callbacks of the load balancer clients.
+ * The score and requests in flight of every instance are published as the {@code loadbalancer.instance.score}
+ * and {@code loadbalancer.instance.outstanding} gauges. When an instance leaves the instance list of the service,
+ * its statistics and gauges are removed.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final double decayNanos;
+
+    private final long failurePenaltyNanos;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, InstanceStats> instanceStats = new ConcurrentHashMap<>();
+
+    /**
+     * The instance list the statistics were last pruned against.
+     */
+    private volatile List<ServiceInstance> knownInstances = List.of();
+
+    /**
+     * Creates a load balancer for a service.
+     *
+     * @param serviceId                           the id of the service
+     * @param serviceInstanceListSupplierProvider the provider of the service instances
+     * @param decayTime                           how quickly the latency average forgets past responses
+     * @param failurePenalty                      the latency recorded for a failed request
+     * @param meterRegistry                       the registry the instance scores are published to, or null
+     */
+    public PeakEwmaLoadBalancer(String serviceId,
+                                ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                Duration decayTime, Duration failurePenalty, MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.decayNanos = decayTime.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Chooses the cheaper of two random instances.
+     *
+     * @param instances the available instances of the service
+     * @return the chosen instance, or an empty response if there are no instances
+     */
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        pruneStats(instances);
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        long now = System.nanoTime();
+        ServiceInstance firstInstance = instances.get(first);
+        ServiceInstance secondInstance = instances.get(second);
+        return new DefaultResponse(statsOf(firstInstance).cost(now) <= statsOf(secondInstance).cost(now)
+                ? firstInstance : secondInstance);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            statsOf(lbResponse.getServer()).outstanding.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats stats = instanceStats.get(instanceId(lbResponse.getServer()));
+        if (stats == null) {
+            //the instance has left the service while the request was in flight
+            return;
+        }
+        long now = System.nanoTime();
+        stats.outstanding.updateAndGet(outstanding -> Math.max(0, outstanding - 1));
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            //the request was abandoned, e.g. cancelled, so its latency says nothing about the instance
+            return;
+        }
+        long startTime = completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                ? context.getRequestStartTime() : 0;
+        long latency = startTime > 0 ? now - startTime : 0;
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        if (latency > 0) {
+            stats.observe(latency, now);
+        }
+    }
+
+    /**
+     * Returns the statistics of an instance, creating and publishing them on first use.
+     *
+     * @param instance the service instance
+     * @return the statistics of the instance
+     */
+    private InstanceStats statsOf(ServiceInstance instance) {
+        String instanceId = instanceId(instance);
+        InstanceStats stats = instanceStats.get(instanceId);
+        if (stats != null) {
+            return stats;
+        }
+        return instanceStats.computeIfAbsent(instanceId, id -> {
+            InstanceStats newStats = new InstanceStats(decayNanos);
+            if (meterRegistry != null) {
+                newStats.score = Gauge.builder("loadbalancer.instance.score", newStats, s -> s.cost(System.nanoTime()) / TimeUnit.MILLISECONDS.toNanos(1))
+                        .description("Expected cost of a request to the instance, in milliseconds")
+                        .tag("service", serviceId)
+                        .tag("instance", id)
+                        .register(meterRegistry);
+                newStats.outstandingGauge = Gauge.builder("loadbalancer.instance.outstanding", newStats, s -> s.outstanding.get())
+                        .description("Requests in flight to the instance")
+                        .tag("service", serviceId)
+                        .tag("instance", id)
+                        .register(meterRegistry);
+            }
+            return newStats;
+        });
+    }
+
+    /**
+     * Removes the statistics and gauges of the instances that are no longer in the instance list of the service.
+     * The list is usually the same object until the service instances are fetched again, so the statistics are
+     * only compared with a list once.
+     *
+     * @param instances the available instances of the service
+     */
+    private void pruneStats(List<ServiceInstance> instances) {
+        if (instances == knownInstances) {
+            return;
+        }
+        knownInstances = instances;
+        Set<String> instanceIds = new HashSet<>();
+        instances.forEach(instance -> instanceIds.add(instanceId(instance)));
+        Iterator<Map.Entry<String, InstanceStats>> iterator = instanceStats.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, InstanceStats> entry = iterator.next();
+            if (!instanceIds.contains(entry.getKey())) {
+                iterator.remove();
+                removeGauges(entry.getValue());
+            }
+        }
+    }
+
+    private void removeGauges(InstanceStats stats) {
+        if (meterRegistry != null) {
+            for (Meter gauge : new Meter[]{stats.score, stats.outstandingGauge}) {
+                if (gauge != null) {
+                    meterRegistry.remove(gauge);
+                }
+            }
+        }
+    }
+
+    private static String instanceId(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * The requests in flight and the peak-sensitive latency average of one instance.
+     */
+    private static final class InstanceStats {
+
+        /**
+         * The cost of an instance with requests in flight but no recorded latency yet, in nanoseconds.
+         */
+        private static final double UNKNOWN_LATENCY_PENALTY = TimeUnit.SECONDS.toNanos(1);
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private Gauge score;
+
+        private Gauge outstandingGauge;
+
+        private final double decayNanos;
+
+        private double latency;
+
+        private long updatedAt = System.nanoTime();
+
+        InstanceStats(double decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        /**
+         * Records the latency of a completed request. A latency above the average replaces it,
+         * a lower one is blended in by how long ago the average was last updated.
+         */
+        synchronized void observe(long latencyNanos, long now) {
+            double decay = decay(now);
+            latency = latencyNanos > latency ? latencyNanos : latency * decay + latencyNanos * (1 - decay);
+            updatedAt = now;
+        }
+
+        /**
+         * Returns the expected cost of sending one more request to the instance.
+         * The latency average fades while the instance gets no responses, so an idle instance is tried again.
+         */
+        double cost(long now) {
+            double current;
+            synchronized (this) {
+                current = latency * decay(now);
+            }
+            int inFlight = outstanding.get();
+            if (current == 0 && inFlight > 0) {
+                return UNKNOWN_LATENCY_PENALTY + inFlight;
+            }
+            return current * (inFlight + 1);
+        }
+
+        private double decay(long now) {
+            return Math.exp(-Math.max(0, now - updatedAt) / decayNanos);
+        }
+    }
+}
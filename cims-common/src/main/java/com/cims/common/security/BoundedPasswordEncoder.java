@@ -0,0 +1,154 @@
+package com.cims.common.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link PasswordEncoder} that runs the hashing and verification of a delegate encoder, e.g. BCrypt, on a
+ * dedicated pool with one thread per CPU and a bounded queue. The calling thread waits for the result, but no more
+ * than one hash per CPU is computed at a time, so a burst of logins cannot take the CPU from every other request.
+ * When the queue is full the call fails at once with a {@link PasswordEncoderBusyException}, and a caller that has
+ * waited longer than the maximum wait gives up with the same exception, so request threads are never held for
+ * longer than that.
+ * <p>
+ * The time spent waiting in the queue and the time spent hashing are published as the
+ * {@code password.encoder.queue.wait} and {@code password.encoder.hash} timers, tagged by operation.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration retryAfter;
+
+    private final long maximumWaitNanos;
+
+    private final Timers encodeTimers;
+
+    private final Timers matchesTimers;
+
+    /**
+     * Creates a bounded password encoder.
+     *
+     * @param delegate      the encoder doing the hashing
+     * @param threads       the number of hashing threads, or 0 for one per CPU
+     * @param queueCapacity the number of calls that may wait for a hashing thread
+     * @param retryAfter    the time after which a rejected caller may try again
+     * @param maximumWait   the longest a caller waits for the result, including the time spent in the queue
+     * @param meterRegistry the registry the timers are published to
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration retryAfter,
+                                  Duration maximumWait, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-encoder-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfter = retryAfter;
+        this.maximumWaitNanos = maximumWait.toNanos();
+        this.encodeTimers = Timers.register(meterRegistry, "encode");
+        this.matchesTimers = Timers.register(meterRegistry, "matches");
+        meterRegistry.gauge("password.encoder.queue.size", queue, BlockingQueue::size);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimers, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimers, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs an operation of the delegate encoder on the hashing pool and waits for its result.
+     *
+     * @param timers the timers of the operation
+     * @param task   the operation
+     * @return the result of the operation
+     * @throws PasswordEncoderBusyException if the queue of the hashing pool is full or the result takes longer
+     *                                      than the maximum wait
+     */
+    private <T> T run(Timers timers, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                timers.queueWait().record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    timers.hash().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new PasswordEncoderBusyException(retryAfter);
+        }
+        try {
+            return future.get(maximumWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            //a task still in the queue is dropped; one already hashing finishes, but nobody waits for it
+            future.cancel(true);
+            throw new PasswordEncoderBusyException(retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the password encoder", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops the hashing pool.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * The queue wait and hash timers of one operation.
+     */
+    private record Timers(Timer queueWait, Timer hash) {
+
+        static Timers register(MeterRegistry meterRegistry, String operation) {
+            return new Timers(
+                    Timer.builder("password.encoder.queue.wait")
+                            .description("Time a password operation waited for a hashing thread")
+                            .tag("operation", operation)
+                            .register(meterRegistry),
+                    Timer.builder("password.encoder.hash")
+                            .description("Time spent hashing a password")
+                            .tag("operation", operation)
+                            .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.cims.common.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a password cannot be hashed or verified because the queue of the password encoder is full.
+ * It is answered with 503 Service Unavailable and a Retry-After header.
+ */
+public class PasswordEncoderBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Creates the exception.
+     *
+     * @param retryAfter the time after which the caller may try again
+     */
+    public PasswordEncoderBusyException(Duration retryAfter) {
+        super("Password encoder is busy, retry after " + retryAfter.toMillis() + "ms");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the time after which the caller may try again.
+     *
+     * @return the retry delay
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cims.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The credential the services send to each other's internal endpoints, which are called on an instance directly
+ * and not routed through the API gateway. It is a secret shared by the services and sent in {@link #HEADER}.
+ */
+public class ServiceCredential {
+
+    /**
+     * The header that carries the credential.
+     */
+    public static final String HEADER = "X-Cims-Service-Credential";
+
+    private final String secret;
+
+    private final byte[] secretBytes;
+
+    /**
+     * Creates the credential from the shared secret.
+     *
+     * @param secret the secret shared by the services
+     */
+    public ServiceCredential(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("The internal service secret must not be empty");
+        }
+        this.secret = secret;
+        this.secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the value to send in {@link #HEADER}.
+     *
+     * @return the shared secret
+     */
+    public String value() {
+        return secret;
+    }
+
+    /**
+     * Checks a received credential against the shared secret in constant time.
+     *
+     * @param credential the value of {@link #HEADER}, or null if the header is missing
+     * @return true if the credential matches, false otherwise
+     */
+    public boolean matches(String credential) {
+        return credential != null && MessageDigest.isEqual(secretBytes, credential.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.cims.common.deadline;
+
+import feign.Capability;
+import feign.RequestInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeadlineAutoConfigurationTest {
+
+    private final AutoConfigurations autoConfigurations = AutoConfigurations.of(DeadlineAutoConfiguration.class);
+
+    @Test
+    public void testServletService() {
+        new WebApplicationContextRunner()
+                .withConfiguration(autoConfigurations)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(DeadlineFilter.class);
+                    assertThat(context).getBean(RequestInterceptor.class).isInstanceOf(DeadlineRequestInterceptor.class);
+                    assertThat(context).getBean(Capability.class).isInstanceOf(DeadlineCapability.class);
+                    assertThat(context).doesNotHaveBean(JpaTransactionManager.class);
+                });
+    }
+
+    @Test
+    public void testReactiveGateway() {
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(autoConfigurations)
+                .run(context -> assertThat(context).doesNotHaveBean(DeadlineFilter.class));
+    }
+}
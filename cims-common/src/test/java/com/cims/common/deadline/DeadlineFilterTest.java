@@ -0,0 +1,80 @@
+package com.cims.common.deadline;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineFilterTest {
+
+    private final DeadlineFilter deadlineFilter = new DeadlineFilter();
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testDoFilter_SetsDeadlineWhileHandling() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/userAccount/getAll");
+        request.addHeader(DeadlineHeaders.REMAINING_MILLIS, "5000");
+        AtomicReference<Long> remainingMillis = new AtomicReference<>();
+
+        deadlineFilter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse res) {
+                        remainingMillis.set(RequestDeadline.remainingMillis());
+                    }
+                }));
+
+        assertNotNull(remainingMillis.get());
+        assertTrue(remainingMillis.get() > 4000 && remainingMillis.get() <= 5000);
+        assertNull(RequestDeadline.remainingMillis());
+    }
+
+    @Test
+    public void testDoFilter_NoBudgetLeft() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/userAccount/getAll");
+        request.addHeader(DeadlineHeaders.REMAINING_MILLIS, "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        deadlineFilter.doFilter(request, response, filterChain);
+
+        assertEquals(504, response.getStatus());
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    public void testDoFilter_WithoutHeader() throws Exception {
+        MockFilterChain filterChain = new MockFilterChain();
+
+        deadlineFilter.doFilter(new MockHttpServletRequest("GET", "/user/userAccount/getAll"), new MockHttpServletResponse(), filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        assertNull(RequestDeadline.remainingMillis());
+    }
+
+    @Test
+    public void testDoFilter_InvalidHeaderIgnored() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/userAccount/getAll");
+        request.addHeader(DeadlineHeaders.REMAINING_MILLIS, "soon");
+        MockFilterChain filterChain = new MockFilterChain();
+
+        deadlineFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNotNull(filterChain.getRequest());
+    }
+}
@@ -0,0 +1,68 @@
+package com.cims.common.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineTransactionManagerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testDetermineTimeout_WithoutDeadline() {
+        assertEquals(TransactionDefinition.TIMEOUT_DEFAULT, new TestTransactionManager().timeoutOf(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    public void testDetermineTimeout_LimitedByDeadline() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setTimeout(30);
+        RequestDeadline.start(2500);
+
+        assertEquals(3, new TestTransactionManager().timeoutOf(definition));
+        assertEquals(3, new TestTransactionManager().timeoutOf(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    public void testDetermineTimeout_ConfiguredTimeoutKept() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setTimeout(1);
+        RequestDeadline.start(10000);
+
+        assertEquals(1, new TestTransactionManager().timeoutOf(definition));
+    }
+
+    @Test
+    public void testDetermineTimeout_DeadlinePassed() {
+        RequestDeadline.start(0);
+
+        assertThrows(TransactionTimedOutException.class, () -> new TestTransactionManager().timeoutOf(new DefaultTransactionDefinition()));
+    }
+
+    private class TestTransactionManager extends DeadlineTransactionManager {
+
+        TestTransactionManager() {
+            super(entityManagerFactory);
+        }
+
+        int timeoutOf(TransactionDefinition definition) {
+            return determineTimeout(definition);
+        }
+    }
+}
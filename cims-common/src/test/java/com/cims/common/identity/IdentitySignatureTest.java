@@ -0,0 +1,50 @@
+package com.cims.common.identity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdentitySignatureTest {
+
+    private static final Identity IDENTITY = new Identity("1", "john", "B001", "2", "ACTIVE");
+
+    private final IdentitySignature identitySignature = new IdentitySignature("secret");
+
+    @Test
+    public void testVerify() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        String signature = identitySignature.sign("token", IDENTITY, expiresAt);
+
+        assertTrue(identitySignature.verify("token", IDENTITY, expiresAt, signature));
+        assertTrue(identitySignature.verify("token", IDENTITY, expiresAt, identitySignature.sign("token", IDENTITY, expiresAt)));
+    }
+
+    @Test
+    public void testVerify_ExpiredSignatureRejected() {
+        long expiresAt = System.currentTimeMillis() - 1;
+
+        assertFalse(identitySignature.verify("token", IDENTITY, expiresAt, identitySignature.sign("token", IDENTITY, expiresAt)));
+    }
+
+    @Test
+    public void testVerify_ChangedValuesRejected() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        String signature = identitySignature.sign("token", IDENTITY, expiresAt);
+
+        assertFalse(identitySignature.verify("other", IDENTITY, expiresAt, signature));
+        assertFalse(identitySignature.verify("token", new Identity("1", "john", "B001", "2", "INACTIVE"), expiresAt, signature));
+        assertFalse(identitySignature.verify("token", IDENTITY, expiresAt + 60_000, signature));
+        assertFalse(identitySignature.verify("token", IDENTITY, expiresAt, "not base64!"));
+    }
+
+    @Test
+    public void testSign_OtherSecret() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        assertNotEquals(identitySignature.sign("token", IDENTITY, expiresAt),
+                new IdentitySignature("other").sign("token", IDENTITY, expiresAt));
+    }
+}
@@ -0,0 +1,164 @@
+package com.cims.common.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtKeySetTest {
+
+    private static final RSAPublicKey PUBLIC_KEY = generatePublicKey();
+
+    private static final JsonWebKeySet KEY_SET = new JsonWebKeySet(List.of(new JsonWebKeySet.Key("RSA", "key-1", "sig",
+            "RS256", toBase64Url(PUBLIC_KEY.getModulus()), toBase64Url(PUBLIC_KEY.getPublicExponent()))));
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final AtomicReference<String> fetchThread = new AtomicReference<>();
+
+    private JwtKeySet jwtKeySet;
+
+    @AfterEach
+    public void tearDown() {
+        jwtKeySet.shutdown();
+    }
+
+    @Test
+    public void testStart_FetchesOnTheKeySetThread() throws Exception {
+        jwtKeySet = create(() -> KEY_SET, Duration.ofMinutes(1));
+        assertEquals(0, fetches.get());
+
+        jwtKeySet.start();
+
+        awaitKey();
+        assertEquals("jwt-key-set", fetchThread.get());
+        assertEquals(PUBLIC_KEY, jwtKeySet.getKey("key-1"));
+        assertNull(jwtKeySet.getKey("unknown"));
+        assertNull(jwtKeySet.getKey(null));
+    }
+
+    @Test
+    public void testRefreshIfStale_SkippedWithinMinimumInterval() throws Exception {
+        jwtKeySet = create(() -> KEY_SET, Duration.ofMinutes(1));
+
+        jwtKeySet.refreshIfStale().get(5, TimeUnit.SECONDS);
+        jwtKeySet.refreshIfStale().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, fetches.get());
+        assertEquals(PUBLIC_KEY, jwtKeySet.getKey("key-1"));
+    }
+
+    @Test
+    public void testRefreshIfStale_ConcurrentRefreshesCollapsed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        jwtKeySet = create(() -> {
+            await(release);
+            return KEY_SET;
+        }, Duration.ZERO);
+
+        CompletableFuture<Void> first = jwtKeySet.refreshIfStale();
+        CompletableFuture<Void> second = jwtKeySet.refreshIfStale();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertSame(first, second);
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testGetKey_UnknownKeyWaitsForRefresh() {
+        jwtKeySet = create(() -> KEY_SET, Duration.ofMinutes(1));
+
+        assertEquals(PUBLIC_KEY, jwtKeySet.getKey("key-1", Duration.ofSeconds(5)));
+        assertNull(jwtKeySet.getKey("key-2", Duration.ofSeconds(5)));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testGetKey_WaitBounded() {
+        CountDownLatch release = new CountDownLatch(1);
+        jwtKeySet = create(() -> {
+            await(release);
+            return KEY_SET;
+        }, Duration.ofMinutes(1));
+
+        long start = System.nanoTime();
+        assertNull(jwtKeySet.getKey("key-1", Duration.ofMillis(50)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        release.countDown();
+    }
+
+    @Test
+    public void testFetch_FailureKeepsPreviousKeys() throws Exception {
+        AtomicReference<Supplier<JsonWebKeySet>> response = new AtomicReference<>(() -> KEY_SET);
+        jwtKeySet = create(() -> response.get().get(), Duration.ZERO);
+        jwtKeySet.refreshIfStale().get(5, TimeUnit.SECONDS);
+
+        response.set(() -> {
+            throw new IllegalStateException("Connection refused");
+        });
+        jwtKeySet.refreshIfStale().get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, fetches.get());
+        assertEquals(PUBLIC_KEY, jwtKeySet.getKey("key-1"));
+    }
+
+    private JwtKeySet create(Supplier<JsonWebKeySet> fetcher, Duration minimumRefreshInterval) {
+        return new JwtKeySet(() -> {
+            fetches.incrementAndGet();
+            fetchThread.set(Thread.currentThread().getName());
+            return fetcher.get();
+        }, Duration.ofMinutes(5), minimumRefreshInterval);
+    }
+
+    private void awaitKey() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jwtKeySet.getKey("key-1") == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String toBase64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static RSAPublicKey generatePublicKey() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return (RSAPublicKey) generator.generateKeyPair().getPublic();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cims.common.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PeakEwmaLoadBalancerTest {
+
+    private static final ServiceInstance FIRST = new DefaultServiceInstance("first", "USER-SERVICE", "10.0.0.1", 8080, false);
+
+    private static final ServiceInstance SECOND = new DefaultServiceInstance("second", "USER-SERVICE", "10.0.0.2", 8080, false);
+
+    private static final ServiceInstance THIRD = new DefaultServiceInstance("third", "USER-SERVICE", "10.0.0.3", 8080, false);
+
+    @Mock
+    private ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    @Mock
+    private ServiceInstanceListSupplier serviceInstanceListSupplier;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PeakEwmaLoadBalancer peakEwmaLoadBalancer;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        peakEwmaLoadBalancer = new PeakEwmaLoadBalancer("USER-SERVICE", serviceInstanceListSupplierProvider,
+                Duration.ofSeconds(10), Duration.ofSeconds(2), meterRegistry);
+        lenient().when(serviceInstanceListSupplierProvider.getIfAvailable(any())).thenReturn(serviceInstanceListSupplier);
+    }
+
+    @Test
+    public void testChoose_AvoidsFailingInstance() {
+        List<ServiceInstance> instances = List.of(FIRST, SECOND);
+        when(serviceInstanceListSupplier.get(any())).thenReturn(Flux.just(instances));
+        complete(FIRST, CompletionContext.Status.FAILED);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(SECOND, choose().getServer());
+        }
+    }
+
+    @Test
+    public void testChoose_AvoidsBusyInstance() {
+        List<ServiceInstance> instances = List.of(FIRST, SECOND);
+        when(serviceInstanceListSupplier.get(any())).thenReturn(Flux.just(instances));
+        peakEwmaLoadBalancer.onStartRequest(request(), new DefaultResponse(SECOND));
+        peakEwmaLoadBalancer.onStartRequest(request(), new DefaultResponse(SECOND));
+
+        assertEquals(2.0, meterRegistry.get("loadbalancer.instance.outstanding").tag("instance", "10.0.0.2:8080").gauge().value());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(FIRST, choose().getServer());
+        }
+    }
+
+    @Test
+    public void testChoose_NoInstances() {
+        when(serviceInstanceListSupplier.get(any())).thenReturn(Flux.just(List.of()));
+
+        assertFalse(choose().hasServer());
+    }
+
+    @Test
+    public void testChoose_PrunesDepartedInstances() {
+        when(serviceInstanceListSupplier.get(any())).thenReturn(Flux.just(List.of(FIRST, SECOND, THIRD)));
+        choose();
+        complete(FIRST, CompletionContext.Status.SUCCESS);
+        complete(THIRD, CompletionContext.Status.SUCCESS);
+        assertNotNull(meterRegistry.find("loadbalancer.instance.score").tag("instance", "10.0.0.3:8080").gauge());
+
+        when(serviceInstanceListSupplier.get(any())).thenReturn(Flux.just(List.of(FIRST, SECOND)));
+        choose();
+
+        assertNotNull(meterRegistry.find("loadbalancer.instance.score").tag("instance", "10.0.0.1:8080").gauge());
+        assertNull(meterRegistry.find("loadbalancer.instance.score").tag("instance", "10.0.0.3:8080").gauge());
+        assertNull(meterRegistry.find("loadbalancer.instance.outstanding").tag("instance", "10.0.0.3:8080").gauge());
+    }
+
+    @Test
+    public void testOnComplete_DepartedInstanceIgnored() {
+        Request<Object> request = request();
+        peakEwmaLoadBalancer.onStartRequest(request, new DefaultResponse(THIRD));
+        when(serviceInstanceListSupplier.get(any())).thenReturn(Flux.just(List.of(FIRST, SECOND)));
+        choose();
+
+        peakEwmaLoadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, request, new DefaultResponse(THIRD)));
+
+        assertNull(meterRegistry.find("loadbalancer.instance.score").tag("instance", "10.0.0.3:8080").gauge());
+    }
+
+    @Test
+    public void testSupports() {
+        assertTrue(peakEwmaLoadBalancer.supports(Object.class, Object.class, DefaultServiceInstance.class));
+        assertFalse(peakEwmaLoadBalancer.supports(Object.class, Object.class, String.class));
+    }
+
+    private Response<ServiceInstance> choose() {
+        return peakEwmaLoadBalancer.choose(request()).block();
+    }
+
+    private void complete(ServiceInstance instance, CompletionContext.Status status) {
+        Request<Object> request = request();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        peakEwmaLoadBalancer.onStartRequest(request, response);
+        peakEwmaLoadBalancer.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Request<Object> request() {
+        return (Request<Object>) (Request<?>) new DefaultRequest<>(new RequestDataContext());
+    }
+}
@@ -0,0 +1,122 @@
+package com.cims.common.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BoundedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        boundedPasswordEncoder.shutdown();
+    }
+
+    @Test
+    public void testEncodeAndMatches() {
+        boundedPasswordEncoder = create(1, Duration.ofSeconds(5));
+        when(delegate.encode("secret")).thenReturn("$2a$10$hash");
+        when(delegate.matches("secret", "$2a$10$hash")).thenReturn(true);
+
+        assertEquals("$2a$10$hash", boundedPasswordEncoder.encode("secret"));
+        assertTrue(boundedPasswordEncoder.matches("secret", "$2a$10$hash"));
+    }
+
+    @Test
+    public void testEncode_RejectedWhenQueueIsFull() throws Exception {
+        boundedPasswordEncoder = create(1, Duration.ofSeconds(5));
+        CountDownLatch hashing = blockHashing();
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("first"));
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("second"));
+        waitForQueue();
+
+        PasswordEncoderBusyException e = assertThrows(PasswordEncoderBusyException.class, () -> boundedPasswordEncoder.encode("third"));
+
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testEncode_CallerGivesUpAfterMaximumWait() throws Exception {
+        boundedPasswordEncoder = create(1, Duration.ofMillis(100));
+        CountDownLatch hashing = blockHashing();
+        CompletableFuture.runAsync(() -> {
+            try {
+                boundedPasswordEncoder.encode("first");
+            } catch (PasswordEncoderBusyException e) {
+                //gives up as well
+            }
+        });
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        long startedAt = System.nanoTime();
+
+        assertThrows(PasswordEncoderBusyException.class, () -> boundedPasswordEncoder.encode("second"));
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        assertTrue(waitedMillis >= 100 && waitedMillis < 5000);
+    }
+
+    @Test
+    public void testMatches_DelegateExceptionPassedOn() {
+        boundedPasswordEncoder = create(1, Duration.ofSeconds(5));
+        IllegalArgumentException failure = new IllegalArgumentException("Encoded password does not look like BCrypt");
+        when(delegate.matches("secret", "plain")).thenThrow(failure);
+
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> boundedPasswordEncoder.matches("secret", "plain")));
+    }
+
+    private BoundedPasswordEncoder create(int queueCapacity, Duration maximumWait) {
+        return new BoundedPasswordEncoder(delegate, 1, queueCapacity, Duration.ofSeconds(1), maximumWait, meterRegistry);
+    }
+
+    /**
+     * Makes the delegate block until the test releases it.
+     *
+     * @return a latch that opens when the first hash has started
+     */
+    private CountDownLatch blockHashing() {
+        CountDownLatch hashing = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "hash";
+        });
+        return hashing;
+    }
+
+    private void waitForQueue() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.encoder.queue.size").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
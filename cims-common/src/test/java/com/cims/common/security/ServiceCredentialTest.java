@@ -0,0 +1,26 @@
+package com.cims.common.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServiceCredentialTest {
+
+    private final ServiceCredential serviceCredential = new ServiceCredential("secret");
+
+    @Test
+    public void testMatches() {
+        assertTrue(serviceCredential.matches(serviceCredential.value()));
+        assertFalse(serviceCredential.matches("secret2"));
+        assertFalse(serviceCredential.matches(""));
+        assertFalse(serviceCredential.matches(null));
+    }
+
+    @Test
+    public void testConstructor_EmptySecret() {
+        assertThrows(IllegalArgumentException.class, () -> new ServiceCredential(" "));
+        assertThrows(IllegalArgumentException.class, () -> new ServiceCredential(null));
+    }
+}
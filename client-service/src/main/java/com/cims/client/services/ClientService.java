@@ -6,14 +6,14 @@ import com.cims.client.constants.enums.Status;
 import com.cims.client.constants.validationMessages.ClientValidationMessages;
 import com.cims.client.constants.validationMessages.CommonValidationMessages;
 import com.cims.client.dtos.ClientDTO;
-import com.cims.client.dtos.UserAccountResponseDTO;
 import com.cims.client.entities.Client;
-import com.cims.client.proxyClients.UserServiceClient;
 import com.cims.client.repositories.ClientRepository;
 import com.cims.client.utils.MapperUtils;
 import com.cims.client.utils.ResponseDTO;
 import com.cims.client.utils.ResponseUtils;
 import com.cims.client.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,7 +40,7 @@ public class ClientService {
     private ClientRepository clientRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -56,12 +56,12 @@ public class ClientService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateClient(String token, ClientDTO clientDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
             List<String> validations = validateClient(clientDTO);
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            clientDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            clientDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveClientToDatabase(mapperUtils.mapDTOToEntity(clientDTO, Client.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, clientDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -165,7 +165,7 @@ public class ClientService {
      */
     public List<Client> getClientsFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return clientRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in ClientService -> getClientsFromDatabase()" + e);
@@ -1,6 +1,8 @@
 package com.cims.employee.config;
 
+import com.cims.common.loadbalancer.LoadBalancerConfig;
 import org.modelmapper.ModelMapper;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -8,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
  * Configuration class that provides Spring beans for use throughout the application.
  */
 @Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.class)
 public class AppConfig {
 
     /**
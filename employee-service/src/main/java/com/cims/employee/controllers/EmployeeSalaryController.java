@@ -4,11 +4,15 @@ import com.cims.employee.dtos.EmployeeSalaryDTO;
 import com.cims.employee.services.EmployeeSalaryService;
 import com.cims.employee.utils.PdfResponseDTO;
 import com.cims.employee.utils.ResponseDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import net.sf.jasperreports.engine.JasperPrint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -69,7 +73,27 @@ public class EmployeeSalaryController {
     }
 
     /**
-     * This method is an endpoint for exporting the payslip of an employee.
+     * This method is an endpoint for exporting the payslip of an employee as a streamed PDF, asked for with the
+     * {@code stream=true} query parameter. It fills the payslip in the EmployeeSalaryService and writes it to the
+     * response as it is exported, or sets a NOT_FOUND status if it cannot be filled.
+     *
+     * @param response The HTTP response the PDF is written to.
+     * @param token    The Authorization token.
+     * @param id       The ID of the employee whose payslip is to be exported.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/exportPaySlip/{id}", params = "stream=true")
+    public void streamPaySlip(HttpServletResponse response, @RequestHeader(name = "Authorization") String token, @PathVariable String id) throws IOException {
+        JasperPrint paySlip = employeeSalaryService.getPaySlip(id);
+        if (paySlip == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        employeeSalaryService.writePaySlip(paySlip, response);
+    }
+
+    /**
+     * This method is an endpoint for exporting the payslip of an employee as JSON, the default for existing clients.
      * It takes in an employee ID as a path variable and an Authorization token in the header.
      * It calls the exportPaySlip method of the EmployeeSalaryService to generate a List of PdfResponseDTO objects
      * containing the payslip PDFs byte array and file path, and returns it as a ResponseEntity with a status of OK.
@@ -78,7 +102,7 @@ public class EmployeeSalaryController {
      * @param id    The ID of the employee whose payslip is to be exported.
      * @return A ResponseEntity containing a List of PdfResponseDTO objects representing the payslip PDFs byte array and file path.
      */
-    @GetMapping("/exportPaySlip/{id}")
+    @GetMapping(value = "/exportPaySlip/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<PdfResponseDTO>> exportPaymentReceipt(@RequestHeader(name = "Authorization") String token, @PathVariable String id) {
         return new ResponseEntity<>(employeeSalaryService.exportPaySlip(id), HttpStatus.OK);
     }
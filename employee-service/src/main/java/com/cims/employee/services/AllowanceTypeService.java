@@ -6,14 +6,14 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.AllowanceTypeValidationMessages;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.dtos.AllowanceTypeDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.AllowanceType;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.AllowanceTypeRepository;
 import com.cims.employee.utils.MapperUtils;
 import com.cims.employee.utils.ResponseDTO;
 import com.cims.employee.utils.ResponseUtils;
 import com.cims.employee.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class AllowanceTypeService {
     private AllowanceTypeRepository allowanceTypeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +55,12 @@ public class AllowanceTypeService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateAllowanceType(String token, AllowanceTypeDTO allowanceTypeDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateAllowanceType(allowanceTypeDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateAllowanceType(allowanceTypeDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            allowanceTypeDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            allowanceTypeDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveAllowanceTypeToDatabase(mapperUtils.mapDTOToEntity(allowanceTypeDTO, AllowanceType.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, allowanceTypeDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +164,7 @@ public class AllowanceTypeService {
      */
     public List<AllowanceType> getAllowanceTypesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return allowanceTypeRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in AllowanceTypeService -> getAllowanceTypesFromDatabase()" + e);
@@ -6,14 +6,14 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.DocumentTypeValidationMessages;
 import com.cims.employee.dtos.DocumentTypeDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.DocumentType;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.DocumentTypeRepository;
 import com.cims.employee.utils.MapperUtils;
 import com.cims.employee.utils.ResponseDTO;
 import com.cims.employee.utils.ResponseUtils;
 import com.cims.employee.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class DocumentTypeService {
     private DocumentTypeRepository documentTypeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +55,12 @@ public class DocumentTypeService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateDocumentType(String token, DocumentTypeDTO documentTypeDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateDocumentType(documentTypeDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateDocumentType(documentTypeDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            documentTypeDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            documentTypeDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveDocumentTypeToDatabase(mapperUtils.mapDTOToEntity(documentTypeDTO, DocumentType.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, documentTypeDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +164,7 @@ public class DocumentTypeService {
      */
     public List<DocumentType> getDocumentTypesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return documentTypeRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in DocumentTypeService -> getDocumentTypesFromDatabase()" + e);
@@ -6,14 +6,15 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.EmployeeDocumentValidationMessages;
 import com.cims.employee.dtos.EmployeeDocumentDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.EmployeeDocument;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.EmployeeDocumentRepository;
 import com.cims.employee.utils.MapperUtils;
 import com.cims.employee.utils.ResponseDTO;
 import com.cims.employee.utils.ResponseUtils;
 import com.cims.employee.utils.ValidatorUtils;
+import com.cims.user.client.StoredFileReleaser;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +40,10 @@ public class EmployeeDocumentService {
     private EmployeeDocumentRepository employeeDocumentRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private StoredFileReleaser storedFileReleaser;
+
+    @Autowired
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +59,12 @@ public class EmployeeDocumentService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEmployeeDocument(String token, EmployeeDocumentDTO employeeDocumentDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
             List<String> validations = validateEmployeeDocument(employeeDocumentDTO);
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            employeeDocumentDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            employeeDocumentDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEmployeeDocumentToDatabase(mapperUtils.mapDTOToEntity(employeeDocumentDTO, EmployeeDocument.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, employeeDocumentDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +168,7 @@ public class EmployeeDocumentService {
      */
     public List<EmployeeDocument> getEmployeeDocumentsFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return employeeDocumentRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EmployeeDocumentService -> getEmployeeDocumentsFromDatabase()" + e);
@@ -220,13 +224,17 @@ public class EmployeeDocumentService {
     }
 
     /**
-     * Deletes a employee document from the database by its ID.
+     * Deletes a employee document from the database by its ID, and releases its stored file once the deletion has committed.
      *
      * @param id the ID of the employee document to be deleted
      */
     public void deleteEmployeeDocumentFromDatabase(String id) {
         try {
-            employeeDocumentRepository.deleteById(Long.parseLong(id));
+            EmployeeDocument employeeDocument = employeeDocumentRepository.findById(Long.parseLong(id)).orElse(null);
+            if (employeeDocument != null) {
+                employeeDocumentRepository.delete(employeeDocument);
+                storedFileReleaser.releaseAfterCommit(employeeDocument.getFileName());
+            }
         } catch (NumberFormatException e) {
             log.warn("/**************** Exception in EmployeeDocumentService -> deleteEmployeeDocumentFromDatabase()" + e);
         }
@@ -6,14 +6,15 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.EmployeeHistoryValidationMessages;
 import com.cims.employee.dtos.EmployeeHistoryDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.EmployeeHistory;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.EmployeeHistoryRepository;
 import com.cims.employee.utils.MapperUtils;
 import com.cims.employee.utils.ResponseDTO;
 import com.cims.employee.utils.ResponseUtils;
 import com.cims.employee.utils.ValidatorUtils;
+import com.cims.user.client.StoredFileReleaser;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +40,10 @@ public class EmployeeHistoryService {
     private EmployeeHistoryRepository employeeHistoryRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private StoredFileReleaser storedFileReleaser;
+
+    @Autowired
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +59,12 @@ public class EmployeeHistoryService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEmployeeHistory(String token, EmployeeHistoryDTO employeeHistoryDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
             List<String> validations = validateEmployeeHistory(employeeHistoryDTO);
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            employeeHistoryDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            employeeHistoryDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEmployeeHistoryToDatabase(mapperUtils.mapDTOToEntity(employeeHistoryDTO, EmployeeHistory.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, employeeHistoryDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +168,7 @@ public class EmployeeHistoryService {
      */
     public List<EmployeeHistory> getEmployeeHistoriesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return employeeHistoryRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EmployeeHistoryService -> getEmployeeHistoriesFromDatabase()" + e);
@@ -220,13 +224,17 @@ public class EmployeeHistoryService {
     }
 
     /**
-     * Deletes a employee history from the database by its ID.
+     * Deletes a employee history from the database by its ID, and releases its stored file once the deletion has committed.
      *
      * @param id the ID of the employee history to be deleted
      */
     public void deleteEmployeeHistoryFromDatabase(String id) {
         try {
-            employeeHistoryRepository.deleteById(Long.parseLong(id));
+            EmployeeHistory employeeHistory = employeeHistoryRepository.findById(Long.parseLong(id)).orElse(null);
+            if (employeeHistory != null) {
+                employeeHistoryRepository.delete(employeeHistory);
+                storedFileReleaser.releaseAfterCommit(employeeHistory.getFileName());
+            }
         } catch (NumberFormatException e) {
             log.warn("/**************** Exception in EmployeeHistoryService -> deleteEmployeeHistoryFromDatabase()" + e);
         }
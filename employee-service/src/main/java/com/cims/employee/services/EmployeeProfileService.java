@@ -6,16 +6,16 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.EmployeeProfileValidationMessages;
 import com.cims.employee.dtos.EmployeeProfileDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.Employee;
 import com.cims.employee.entities.EmployeeProfile;
 import com.cims.employee.entities.FinancialYear;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.EmployeeProfileRepository;
 import com.cims.employee.utils.MapperUtils;
 import com.cims.employee.utils.ResponseDTO;
 import com.cims.employee.utils.ResponseUtils;
 import com.cims.employee.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -41,7 +41,7 @@ public class EmployeeProfileService {
     private EmployeeProfileRepository employeeProfileRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private FinancialYearService financialYearService;
@@ -63,12 +63,12 @@ public class EmployeeProfileService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEmployeeProfile(String token, EmployeeProfileDTO employeeProfileDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEmployeeProfile(employeeProfileDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEmployeeProfile(employeeProfileDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            employeeProfileDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            employeeProfileDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEmployeeProfileToDatabase(mapperUtils.mapDTOToEntity(employeeProfileDTO, EmployeeProfile.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, employeeProfileDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -209,7 +209,7 @@ public class EmployeeProfileService {
      */
     public List<EmployeeProfile> getEmployeeProfilesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return employeeProfileRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EmployeeProfileService -> getEmployeeProfilesFromDatabase()" + e);
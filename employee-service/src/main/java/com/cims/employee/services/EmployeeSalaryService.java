@@ -6,23 +6,30 @@ import com.cims.employee.constants.VarList;
 import com.cims.employee.constants.enums.Month;
 import com.cims.employee.constants.validationMessages.EmployeeSalaryValidationMessages;
 import com.cims.employee.dtos.EmployeeSalaryDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.*;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.EmployeeSalaryRepository;
 import com.cims.employee.utils.*;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ResourceUtils;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
 
@@ -34,11 +41,13 @@ import java.util.*;
 @Slf4j
 public class EmployeeSalaryService {
 
+    private static final String PAY_SLIP_FILE_NAME = "pay_slip.pdf";
+
     @Autowired
     private EmployeeSalaryRepository employeeSalaryRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private FinancialYearService financialYearService;
@@ -69,12 +78,12 @@ public class EmployeeSalaryService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEmployeeSalary(String token, EmployeeSalaryDTO employeeSalaryDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
             List<String> validations = validateEmployeeSalary(employeeSalaryDTO);
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            employeeSalaryDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            employeeSalaryDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEmployeeSalaryToDatabase(mapperUtils.mapDTOToEntity(employeeSalaryDTO, EmployeeSalary.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, employeeSalaryDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -161,7 +170,7 @@ public class EmployeeSalaryService {
      */
     public List<EmployeeSalary> getEmployeeSalariesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return employeeSalaryRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EmployeeSalaryService -> getEmployeeSalariesFromDatabase()" + e);
@@ -293,10 +302,9 @@ public class EmployeeSalaryService {
 
     /**
      * This method exports the payslip of an employee based on the given employee ID.
-     * It fetches the employee's salary and profile details from the database using the ID,
-     * retrieves the relevant allowance types from the employee profile, compiles a JasperReport,
-     * populates the report with the data, and exports the report as a PDF file to the configured location.
+     * It fills the payslip report and exports it as a PDF file to the configured location.
      * The method then reads the PDF file and returns it as a List of PdfResponseDTO objects containing the PDF file's byte array and file path.
+     * The whole PDF is held in memory, so it is only kept for clients that ask for JSON; see {@link #writePaySlip}.
      *
      * @param id The ID of the employee whose payslip is to be exported.
      * @return A List of PdfResponseDTO objects containing the PDF file's byte array and file path.
@@ -305,20 +313,11 @@ public class EmployeeSalaryService {
         PdfResponseDTO pdfResponseDTO = new PdfResponseDTO();
         List<PdfResponseDTO> pdf = new ArrayList<>();
         try {
-            EmployeeSalary employeeSalary = getEmployeeSalaryFromDatabaseById(id);
-            EmployeeProfile employeeProfile = employeeProfileService.getEmployeeProfileFromDatabaseByEmployeeAndFinancialYear(employeeSalary.getFinancialYear(), employeeSalary.getEmployee());
-            List<AllowanceType> allowanceTypes = employeeProfile.getAllowanceTypes();
-
-            JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(allowanceTypes);
-            File file = ResourceUtils.getFile(propertyConfig.getPaySlipLocation().concat("/paySlip.jrxml"));
-            JasperReport jasperReport = JasperCompileManager.compileReport(file.getAbsolutePath());
-
-            Map<String, Object> parameters = getPaySlipParameters(employeeSalary, employeeProfile);
+            JasperPrint jasperPrint = fillPaySlip(getEmployeeSalaryFromDatabaseById(id));
             String report = "pay_slip_.pdf_".concat(String.valueOf(new Date().getTime()));
             String filePath = propertyConfig.getPaySlipLocation().concat(File.separator).concat(report);
             pdfResponseDTO.setFilePath(filePath);
 
-            JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
             JasperExportManager.exportReportToPdfFile(jasperPrint, filePath);
 
             byte[] contents = Files.readAllBytes(new File(filePath).toPath());
@@ -330,6 +329,68 @@ public class EmployeeSalaryService {
         return pdf;
     }
 
+    /**
+     * This method fills the payslip report of an employee salary based on the given ID, for the caller to stream
+     * with {@link #writePaySlip}.
+     *
+     * @param id The ID of the employee salary whose payslip is to be exported.
+     * @return The filled payslip report, or null if there is no employee salary with the given ID or it cannot be filled.
+     */
+    public JasperPrint getPaySlip(String id) {
+        try {
+            EmployeeSalary employeeSalary = getEmployeeSalaryFromDatabaseById(id);
+            return (employeeSalary == null) ? null : fillPaySlip(employeeSalary);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in EmployeeSalaryService -> getPaySlip()" + e);
+            return null;
+        }
+    }
+
+    /**
+     * This method exports a filled payslip report to the response as a PDF. The PDF is written as it is exported,
+     * without a copy on disk or in memory, so it is sent chunked. No transaction is held while the client reads it.
+     *
+     * @param jasperPrint The filled payslip report.
+     * @param response    The HTTP response the PDF is written to.
+     * @throws IOException if the response cannot be written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writePaySlip(JasperPrint jasperPrint, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().filename(PAY_SLIP_FILE_NAME).build().toString());
+        try {
+            JasperExportManager.exportReportToPdfStream(jasperPrint, response.getOutputStream());
+        } catch (JRException e) {
+            log.warn("/**************** Exception in EmployeeSalaryService -> writePaySlip()" + e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
+
+    /**
+     * This method fills the payslip report of an employee salary.
+     * It fetches the employee's profile details from the database, retrieves the relevant allowance types from the
+     * employee profile, compiles a JasperReport and populates it with the data.
+     *
+     * @param employeeSalary The employee salary whose payslip is to be filled.
+     * @return The filled payslip report.
+     * @throws JRException           if the report cannot be compiled or filled.
+     * @throws FileNotFoundException if the report template cannot be found.
+     */
+    private JasperPrint fillPaySlip(EmployeeSalary employeeSalary) throws JRException, FileNotFoundException {
+        EmployeeProfile employeeProfile = employeeProfileService.getEmployeeProfileFromDatabaseByEmployeeAndFinancialYear(employeeSalary.getFinancialYear(), employeeSalary.getEmployee());
+        List<AllowanceType> allowanceTypes = employeeProfile.getAllowanceTypes();
+
+        JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(allowanceTypes);
+        File file = ResourceUtils.getFile(propertyConfig.getPaySlipLocation().concat("/paySlip.jrxml"));
+        JasperReport jasperReport = JasperCompileManager.compileReport(file.getAbsolutePath());
+
+        Map<String, Object> parameters = getPaySlipParameters(employeeSalary, employeeProfile);
+        return JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+    }
+
     /**
      * This method generates a Map of parameters required to populate the payslip report template with data.
      * It takes in an EmployeeSalary object and an EmployeeProfile object and retrieves the employee, employee type,
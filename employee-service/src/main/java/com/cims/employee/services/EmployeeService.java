@@ -6,14 +6,14 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.EmployeeValidationMessages;
 import com.cims.employee.dtos.EmployeeDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.Employee;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.EmployeeRepository;
 import com.cims.employee.utils.MapperUtils;
 import com.cims.employee.utils.ResponseDTO;
 import com.cims.employee.utils.ResponseUtils;
 import com.cims.employee.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -40,7 +40,7 @@ public class EmployeeService {
     private EmployeeRepository employeeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -56,12 +56,12 @@ public class EmployeeService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEmployee(String token, EmployeeDTO employeeDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEmployee(employeeDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEmployee(employeeDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            employeeDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            employeeDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEmployeeToDatabase(mapperUtils.mapDTOToEntity(employeeDTO, Employee.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, employeeDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -165,7 +165,7 @@ public class EmployeeService {
      */
     public List<Employee> getEmployeesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return employeeRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EmployeeService -> getEmployeesFromDatabase()" + e);
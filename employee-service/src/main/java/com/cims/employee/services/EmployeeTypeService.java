@@ -6,11 +6,11 @@ import com.cims.employee.constants.enums.Status;
 import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.EmployeeTypeValidationMessages;
 import com.cims.employee.dtos.EmployeeTypeDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
 import com.cims.employee.entities.EmployeeType;
-import com.cims.employee.proxyClients.UserServiceClient;
 import com.cims.employee.repositories.EmployeeTypeRepository;
 import com.cims.employee.utils.*;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -36,7 +36,7 @@ public class EmployeeTypeService {
     private EmployeeTypeRepository employeeTypeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -52,12 +52,12 @@ public class EmployeeTypeService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEmployeeType(String token, EmployeeTypeDTO employeeTypeDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEmployeeType(employeeTypeDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEmployeeType(employeeTypeDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            employeeTypeDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            employeeTypeDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEmployeeTypeToDatabase(mapperUtils.mapDTOToEntity(employeeTypeDTO, EmployeeType.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, employeeTypeDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -161,7 +161,7 @@ public class EmployeeTypeService {
      */
     public List<EmployeeType> getEmployeeTypesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return employeeTypeRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EmployeeTypeService -> getEmployeeTypesFromDatabase()" + e);
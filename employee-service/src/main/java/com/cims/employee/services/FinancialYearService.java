@@ -1,16 +1,16 @@
 package com.cims.employee.services;
 
-import com.cims.employee.constants.validationMessages.CommonValidationMessages;
-import com.cims.employee.entities.FinancialYear;
 import com.cims.employee.constants.CommonMessages;
 import com.cims.employee.constants.VarList;
 import com.cims.employee.constants.enums.Status;
+import com.cims.employee.constants.validationMessages.CommonValidationMessages;
 import com.cims.employee.constants.validationMessages.FinancialYearValidationMessages;
 import com.cims.employee.dtos.FinancialYearDTO;
-import com.cims.employee.dtos.UserAccountResponseDTO;
-import com.cims.employee.proxyClients.UserServiceClient;
+import com.cims.employee.entities.FinancialYear;
 import com.cims.employee.repositories.FinancialYearRepository;
 import com.cims.employee.utils.*;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -36,7 +36,7 @@ public class FinancialYearService {
     private FinancialYearRepository financialYearRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -52,12 +52,12 @@ public class FinancialYearService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateFinancialYear(String token, FinancialYearDTO financialYearDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateFinancialYear(financialYearDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateFinancialYear(financialYearDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            financialYearDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            financialYearDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveFinancialYearToDatabase(mapperUtils.mapDTOToEntity(financialYearDTO, FinancialYear.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, financialYearDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -161,7 +161,7 @@ public class FinancialYearService {
      */
     public List<FinancialYear> getFinancialYearsFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return financialYearRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in FinancialYearService -> getFinancialYearsFromDatabase()" + e);
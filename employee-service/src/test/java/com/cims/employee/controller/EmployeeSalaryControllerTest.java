@@ -0,0 +1,92 @@
+package com.cims.employee.controller;
+
+import com.cims.employee.controllers.EmployeeSalaryController;
+import com.cims.employee.services.EmployeeSalaryService;
+import com.cims.employee.utils.PdfResponseDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import net.sf.jasperreports.engine.JasperPrint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSalaryControllerTest {
+
+    @InjectMocks
+    private EmployeeSalaryController employeeSalaryController;
+
+    @Mock
+    private EmployeeSalaryService employeeSalaryService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(employeeSalaryController).build();
+    }
+
+    @Test
+    public void testExportPaySlip_JsonByDefault() throws Exception {
+        PdfResponseDTO pdfResponseDTO = new PdfResponseDTO();
+        pdfResponseDTO.setFilePath("pay_slip.pdf");
+        when(employeeSalaryService.exportPaySlip("1")).thenReturn(List.of(pdfResponseDTO));
+
+        mockMvc.perform(get("/employee/employeeSalary/exportPaySlip/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].filePath").value("pay_slip.pdf"));
+
+        verify(employeeSalaryService, never()).getPaySlip(any());
+    }
+
+    @Test
+    public void testStreamPaySlip() throws Exception {
+        JasperPrint paySlip = new JasperPrint();
+        when(employeeSalaryService.getPaySlip("1")).thenReturn(paySlip);
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.getOutputStream().write("%PDF-".getBytes());
+            return null;
+        }).when(employeeSalaryService).writePaySlip(same(paySlip), any());
+
+        mockMvc.perform(get("/employee/employeeSalary/exportPaySlip/1?stream=true")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().string("%PDF-"));
+
+        verify(employeeSalaryService, never()).exportPaySlip(any());
+    }
+
+    @Test
+    public void testStreamPaySlip_UnknownId() throws Exception {
+        mockMvc.perform(get("/employee/employeeSalary/exportPaySlip/1?stream=true")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(status().isNotFound());
+
+        verify(employeeSalaryService, never()).writePaySlip(any(), any());
+    }
+}
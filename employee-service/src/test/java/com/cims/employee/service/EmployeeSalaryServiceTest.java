@@ -0,0 +1,56 @@
+package com.cims.employee.service;
+
+import com.cims.employee.repositories.EmployeeSalaryRepository;
+import com.cims.employee.services.EmployeeSalaryService;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSalaryServiceTest {
+
+    @InjectMocks
+    private EmployeeSalaryService employeeSalaryService;
+
+    @Mock
+    private EmployeeSalaryRepository employeeSalaryRepository;
+
+    @Test
+    public void testWritePaySlip() throws Exception {
+        JasperPrint paySlip = new JasperPrint();
+        paySlip.setName("pay_slip");
+        paySlip.setPageWidth(595);
+        paySlip.setPageHeight(842);
+        paySlip.addPage(new JRBasePrintPage());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        employeeSalaryService.writePaySlip(paySlip, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_PDF_VALUE, response.getContentType());
+        assertEquals("inline; filename=\"pay_slip.pdf\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertTrue(new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1).startsWith("%PDF-"));
+    }
+
+    @Test
+    public void testGetPaySlip_UnknownId() {
+        when(employeeSalaryRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertNull(employeeSalaryService.getPaySlip("1"));
+    }
+}
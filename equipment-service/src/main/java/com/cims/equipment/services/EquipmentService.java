@@ -6,14 +6,14 @@ import com.cims.equipment.constants.enums.Status;
 import com.cims.equipment.constants.validationMessages.CommonValidationMessages;
 import com.cims.equipment.constants.validationMessages.EquipmentValidationMessages;
 import com.cims.equipment.dtos.EquipmentDTO;
-import com.cims.equipment.dtos.UserAccountResponseDTO;
 import com.cims.equipment.entities.Equipment;
-import com.cims.equipment.proxyClients.UserServiceClient;
 import com.cims.equipment.repositories.EquipmentRepository;
 import com.cims.equipment.utils.MapperUtils;
 import com.cims.equipment.utils.ResponseDTO;
 import com.cims.equipment.utils.ResponseUtils;
 import com.cims.equipment.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class EquipmentService {
     private EquipmentRepository equipmentRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +55,12 @@ public class EquipmentService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEquipment(String token, EquipmentDTO equipmentDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEquipment(equipmentDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEquipment(equipmentDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            equipmentDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            equipmentDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEquipmentToDatabase(mapperUtils.mapDTOToEntity(equipmentDTO, Equipment.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, equipmentDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -181,7 +181,7 @@ public class EquipmentService {
      */
     public List<Equipment> getEquipmentsFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return equipmentRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EquipmentService -> getEquipmentsFromDatabase()" + e);
@@ -4,14 +4,14 @@ import com.cims.equipment.constants.CommonMessages;
 import com.cims.equipment.constants.VarList;
 import com.cims.equipment.constants.validationMessages.EquipmentStockHistoryValidationMessages;
 import com.cims.equipment.dtos.EquipmentStockHistoryDTO;
-import com.cims.equipment.dtos.UserAccountResponseDTO;
 import com.cims.equipment.entities.EquipmentStockHistory;
-import com.cims.equipment.proxyClients.UserServiceClient;
 import com.cims.equipment.repositories.EquipmentStockHistoryRepository;
 import com.cims.equipment.utils.MapperUtils;
 import com.cims.equipment.utils.ResponseDTO;
 import com.cims.equipment.utils.ResponseUtils;
 import com.cims.equipment.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -38,7 +38,7 @@ public class EquipmentStockHistoryService {
     private EquipmentStockHistoryRepository equipmentStockHistoryRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private EquipmentStockService equipmentStockService;
@@ -57,13 +57,13 @@ public class EquipmentStockHistoryService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEquipmentStockHistory(String token, EquipmentStockHistoryDTO equipmentStockHistoryDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
             List<String> validations = validateEquipmentStockHistory(equipmentStockHistoryDTO);
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
             equipmentStockHistoryDTO.setDate(LocalDate.now());
-            equipmentStockHistoryDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            equipmentStockHistoryDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEquipmentStockHistoryToDatabase(mapperUtils.mapDTOToEntity(equipmentStockHistoryDTO, EquipmentStockHistory.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, equipmentStockHistoryDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -110,7 +110,7 @@ public class EquipmentStockHistoryService {
      */
     public List<EquipmentStockHistory> getEquipmentStockHistoryFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return equipmentStockHistoryRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EquipmentStockHistoryService -> getEquipmentStockHistoryFromDatabase()" + e);
@@ -6,15 +6,15 @@ import com.cims.equipment.constants.enums.Status;
 import com.cims.equipment.constants.validationMessages.CommonValidationMessages;
 import com.cims.equipment.constants.validationMessages.EquipmentStockValidationMessages;
 import com.cims.equipment.dtos.EquipmentStockDTO;
-import com.cims.equipment.dtos.UserAccountResponseDTO;
 import com.cims.equipment.entities.Equipment;
 import com.cims.equipment.entities.EquipmentStock;
-import com.cims.equipment.proxyClients.UserServiceClient;
 import com.cims.equipment.repositories.EquipmentStockRepository;
 import com.cims.equipment.utils.MapperUtils;
 import com.cims.equipment.utils.ResponseDTO;
 import com.cims.equipment.utils.ResponseUtils;
 import com.cims.equipment.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -40,7 +40,7 @@ public class EquipmentStockService {
     private EquipmentStockRepository equipmentStockRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private EquipmentService equipmentService;
@@ -59,12 +59,12 @@ public class EquipmentStockService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEquipmentStock(String token, EquipmentStockDTO equipmentStockDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEquipmentStock(equipmentStockDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEquipmentStock(equipmentStockDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            equipmentStockDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            equipmentStockDTO.setBranchCode(userAccountDTO.getBranchCode());
             equipmentStockDTO.setAvailableQuantity(0);
             saveEquipmentStockToDatabase(mapperUtils.mapDTOToEntity(equipmentStockDTO, EquipmentStock.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, equipmentStockDTO, HttpStatus.OK);
@@ -209,7 +209,7 @@ public class EquipmentStockService {
      */
     public List<EquipmentStock> getEquipmentStocksFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return equipmentStockRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EquipmentStockService -> getEquipmentStocksFromDatabase()" + e);
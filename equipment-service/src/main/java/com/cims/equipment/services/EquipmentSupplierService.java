@@ -6,14 +6,14 @@ import com.cims.equipment.constants.enums.Status;
 import com.cims.equipment.constants.validationMessages.CommonValidationMessages;
 import com.cims.equipment.constants.validationMessages.EquipmentSupplierValidationMessages;
 import com.cims.equipment.dtos.EquipmentSupplierDTO;
-import com.cims.equipment.dtos.UserAccountResponseDTO;
 import com.cims.equipment.entities.EquipmentSupplier;
-import com.cims.equipment.proxyClients.UserServiceClient;
 import com.cims.equipment.repositories.EquipmentSupplierRepository;
 import com.cims.equipment.utils.MapperUtils;
 import com.cims.equipment.utils.ResponseDTO;
 import com.cims.equipment.utils.ResponseUtils;
 import com.cims.equipment.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class EquipmentSupplierService {
     private EquipmentSupplierRepository equipmentSupplierRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +55,12 @@ public class EquipmentSupplierService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEquipmentSupplier(String token, EquipmentSupplierDTO equipmentSupplierDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEquipmentSupplier(equipmentSupplierDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEquipmentSupplier(equipmentSupplierDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            equipmentSupplierDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            equipmentSupplierDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEquipmentSupplierToDatabase(mapperUtils.mapDTOToEntity(equipmentSupplierDTO, EquipmentSupplier.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, equipmentSupplierDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +164,7 @@ public class EquipmentSupplierService {
      */
     public List<EquipmentSupplier> getEquipmentSuppliersFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return equipmentSupplierRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EquipmentSupplierService -> getEquipmentSuppliersFromDatabase()" + e);
@@ -6,14 +6,14 @@ import com.cims.equipment.constants.enums.Status;
 import com.cims.equipment.constants.validationMessages.CommonValidationMessages;
 import com.cims.equipment.constants.validationMessages.EquipmentTypeValidationMessages;
 import com.cims.equipment.dtos.EquipmentTypeDTO;
-import com.cims.equipment.dtos.UserAccountResponseDTO;
 import com.cims.equipment.entities.EquipmentType;
-import com.cims.equipment.proxyClients.UserServiceClient;
 import com.cims.equipment.repositories.EquipmentTypeRepository;
 import com.cims.equipment.utils.MapperUtils;
 import com.cims.equipment.utils.ResponseDTO;
 import com.cims.equipment.utils.ResponseUtils;
 import com.cims.equipment.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class EquipmentTypeService {
     private EquipmentTypeRepository equipmentTypeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +55,12 @@ public class EquipmentTypeService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateEquipmentType(String token, EquipmentTypeDTO equipmentTypeDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateEquipmentType(equipmentTypeDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateEquipmentType(equipmentTypeDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            equipmentTypeDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            equipmentTypeDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveEquipmentTypeToDatabase(mapperUtils.mapDTOToEntity(equipmentTypeDTO, EquipmentType.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, equipmentTypeDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +164,7 @@ public class EquipmentTypeService {
      */
     public List<EquipmentType> getEquipmentTypesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return equipmentTypeRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in EquipmentTypeService -> getEquipmentTypesFromDatabase()" + e);
@@ -4,15 +4,15 @@ import com.cims.project.constants.CommonMessages;
 import com.cims.project.constants.VarList;
 import com.cims.project.constants.validationMessages.ClientProjectEquipmentStockValidationMessages;
 import com.cims.project.dtos.ClientProjectEquipmentStockDTO;
-import com.cims.project.dtos.UserAccountResponseDTO;
 import com.cims.project.entities.ClientProjectEquipmentStock;
 import com.cims.project.proxyClients.EquipmentServiceClient;
-import com.cims.project.proxyClients.UserServiceClient;
 import com.cims.project.repositories.ClientProjectEquipmentStockRepository;
 import com.cims.project.utils.MapperUtils;
 import com.cims.project.utils.ResponseDTO;
 import com.cims.project.utils.ResponseUtils;
 import com.cims.project.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class ClientProjectEquipmentStockService {
     private ClientProjectEquipmentStockRepository clientProjectEquipmentStockRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private EquipmentServiceClient equipmentServiceClient;
@@ -58,13 +58,13 @@ public class ClientProjectEquipmentStockService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateClientProjectEquipmentStock(String token, ClientProjectEquipmentStockDTO clientProjectEquipmentStockDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
             List<String> validations = validateClientProjectEquipmentStock(clientProjectEquipmentStockDTO);
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
             clientProjectEquipmentStockDTO.setDate(LocalDate.now());
-            clientProjectEquipmentStockDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            clientProjectEquipmentStockDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveClientProjectEquipmentStockToDatabase(mapperUtils.mapDTOToEntity(clientProjectEquipmentStockDTO, ClientProjectEquipmentStock.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, clientProjectEquipmentStockDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -111,7 +111,7 @@ public class ClientProjectEquipmentStockService {
      */
     public List<ClientProjectEquipmentStock> getClientProjectEquipmentStockFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return clientProjectEquipmentStockRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in ClientProjectEquipmentStockService -> getClientProjectEquipmentStockFromDatabase()" + e);
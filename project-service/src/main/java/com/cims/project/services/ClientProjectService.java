@@ -5,14 +5,15 @@ import com.cims.project.constants.VarList;
 import com.cims.project.constants.enums.Status;
 import com.cims.project.constants.validationMessages.ClientProjectValidationMessages;
 import com.cims.project.dtos.ClientProjectDTO;
-import com.cims.project.dtos.UserAccountResponseDTO;
 import com.cims.project.entities.ClientProject;
-import com.cims.project.proxyClients.UserServiceClient;
 import com.cims.project.repositories.ClientProjectRepository;
 import com.cims.project.utils.MapperUtils;
 import com.cims.project.utils.ResponseDTO;
 import com.cims.project.utils.ResponseUtils;
 import com.cims.project.utils.ValidatorUtils;
+import com.cims.user.client.StoredFileReleaser;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +40,10 @@ public class ClientProjectService {
     private ClientProjectRepository clientProjectRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private StoredFileReleaser storedFileReleaser;
+
+    @Autowired
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +59,12 @@ public class ClientProjectService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateClientProject(String token, ClientProjectDTO clientProjectDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateClientProject(clientProjectDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateClientProject(clientProjectDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            clientProjectDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            clientProjectDTO.setBranchCode(userAccountDTO.getBranchCode());
             clientProjectDTO.setStatus(Status.PENDING);
             saveClientProjectToDatabase(mapperUtils.mapDTOToEntity(clientProjectDTO, ClientProject.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, clientProjectDTO, HttpStatus.OK);
@@ -182,7 +186,7 @@ public class ClientProjectService {
      */
     public List<ClientProject> getClientProjectsFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return clientProjectRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in ClientProjectService -> getClientProjectsFromDatabase()" + e);
@@ -254,13 +258,17 @@ public class ClientProjectService {
     }
 
     /**
-     * Deletes a client project from the database by its ID.
+     * Deletes a client project from the database by its ID, and releases its stored file once the deletion has committed.
      *
      * @param id the ID of the client project to be deleted
      */
     public void deleteProjectFromDatabase(String id) {
         try {
-            clientProjectRepository.deleteById(Long.parseLong(id));
+            ClientProject clientProject = clientProjectRepository.findById(Long.parseLong(id)).orElse(null);
+            if (clientProject != null) {
+                clientProjectRepository.delete(clientProject);
+                storedFileReleaser.releaseAfterCommit(clientProject.getFileName());
+            }
         } catch (NumberFormatException e) {
             log.warn("/**************** Exception in ClientProjectService -> deleteProjectFromDatabase()" + e);
         }
@@ -6,14 +6,15 @@ import com.cims.project.constants.enums.Status;
 import com.cims.project.constants.validationMessages.CommonValidationMessages;
 import com.cims.project.constants.validationMessages.ProjectValidationMessages;
 import com.cims.project.dtos.ProjectDTO;
-import com.cims.project.dtos.UserAccountResponseDTO;
 import com.cims.project.entities.Project;
-import com.cims.project.proxyClients.UserServiceClient;
 import com.cims.project.repositories.ProjectRepository;
 import com.cims.project.utils.MapperUtils;
 import com.cims.project.utils.ResponseDTO;
 import com.cims.project.utils.ResponseUtils;
 import com.cims.project.utils.ValidatorUtils;
+import com.cims.user.client.StoredFileReleaser;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +40,10 @@ public class ProjectService {
     private ProjectRepository projectRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private StoredFileReleaser storedFileReleaser;
+
+    @Autowired
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +59,12 @@ public class ProjectService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateProject(String token, ProjectDTO projectDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateProject(projectDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateProject(projectDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            projectDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            projectDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveProjectToDatabase(mapperUtils.mapDTOToEntity(projectDTO, Project.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, projectDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -181,7 +185,7 @@ public class ProjectService {
      */
     public List<Project> getProjectsFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return projectRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in ProjectService -> getProjectsFromDatabase()" + e);
@@ -253,13 +257,17 @@ public class ProjectService {
     }
 
     /**
-     * Deletes a project from the database by its ID.
+     * Deletes a project from the database by its ID, and releases its stored file once the deletion has committed.
      *
      * @param id the ID of the project to be deleted
      */
     public void deleteProjectFromDatabase(String id) {
         try {
-            projectRepository.deleteById(Long.parseLong(id));
+            Project project = projectRepository.findById(Long.parseLong(id)).orElse(null);
+            if (project != null) {
+                projectRepository.delete(project);
+                storedFileReleaser.releaseAfterCommit(project.getFileName());
+            }
         } catch (NumberFormatException e) {
             log.warn("/**************** Exception in ProjectService -> deleteProjectFromDatabase()" + e);
         }
@@ -6,14 +6,14 @@ import com.cims.project.constants.enums.Status;
 import com.cims.project.constants.validationMessages.CommonValidationMessages;
 import com.cims.project.constants.validationMessages.ProjectTypeValidationMessages;
 import com.cims.project.dtos.ProjectTypeDTO;
-import com.cims.project.dtos.UserAccountResponseDTO;
 import com.cims.project.entities.ProjectType;
-import com.cims.project.proxyClients.UserServiceClient;
 import com.cims.project.repositories.ProjectTypeRepository;
 import com.cims.project.utils.MapperUtils;
 import com.cims.project.utils.ResponseDTO;
 import com.cims.project.utils.ResponseUtils;
 import com.cims.project.utils.ValidatorUtils;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.dtos.UserAccountDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -39,7 +39,7 @@ public class ProjectTypeService {
     private ProjectTypeRepository projectTypeRepository;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserAccountResolver userAccountResolver;
 
     @Autowired
     private MapperUtils mapperUtils;
@@ -55,12 +55,12 @@ public class ProjectTypeService {
      */
     public ResponseEntity<ResponseDTO> saveUpdateProjectType(String token, ProjectTypeDTO projectTypeDTO) {
         try {
-            UserAccountResponseDTO userAccountResponseDTO = userServiceClient.getByTokenForClient(token);
-            List<String> validations = validateProjectType(projectTypeDTO, userAccountResponseDTO.getBranchCode());
+            UserAccountDTO userAccountDTO = userAccountResolver.getUserAccount(token);
+            List<String> validations = validateProjectType(projectTypeDTO, userAccountDTO.getBranchCode());
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            projectTypeDTO.setBranchCode(userAccountResponseDTO.getBranchCode());
+            projectTypeDTO.setBranchCode(userAccountDTO.getBranchCode());
             saveProjectTypeToDatabase(mapperUtils.mapDTOToEntity(projectTypeDTO, ProjectType.class));
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, projectTypeDTO, HttpStatus.OK);
         } catch (Exception e) {
@@ -164,7 +164,7 @@ public class ProjectTypeService {
      */
     public List<ProjectType> getProjectTypesFromDatabase(String token) {
         try {
-            String branchCode = userServiceClient.getByTokenForClient(token).getBranchCode();
+            String branchCode = userAccountResolver.getUserAccount(token).getBranchCode();
             return projectTypeRepository.findAllByBranchCode(branchCode);
         } catch (Exception e) {
             log.warn("/**************** Exception in ProjectTypeService -> getProjectTypesFromDatabase()" + e);
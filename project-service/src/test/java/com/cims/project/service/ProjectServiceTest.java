@@ -9,6 +9,7 @@ import com.cims.project.services.ProjectService;
 import com.cims.project.utils.MapperUtils;
 import com.cims.project.utils.ResponseDTO;
 import com.cims.project.utils.ResponseUtils;
+import com.cims.user.client.StoredFileReleaser;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -21,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +40,9 @@ public class ProjectServiceTest {
     @Mock
     private ResponseUtils responseUtils;
 
+    @Mock
+    private StoredFileReleaser storedFileReleaser;
+
     @Test
      void testSaveUpdateProject() {
         Project project = new Project();
@@ -127,4 +132,23 @@ public class ProjectServiceTest {
         assertEquals(CommonMessages.NO_DATA, response.getBody().getMessage());
     }
 
+    @Test
+    public void testDeleteProjectById_ReleasesStoredFile() {
+        // Arrange
+        long id = 1L;
+        Project project = new Project();
+        project.setId(id);
+        project.setFileName("plan.pdf_3f1c2a9e-8d4b-4c1e-9a7f-2b6d5e8c0a14");
+
+        when(projectRepository.existsById(id)).thenReturn(true);
+        when(projectRepository.findById(id)).thenReturn(Optional.of(project));
+
+        // Act
+        projectService.deleteProjectById(String.valueOf(id));
+
+        // Assert
+        verify(projectRepository).delete(project);
+        verify(storedFileReleaser).releaseAfterCommit("plan.pdf_3f1c2a9e-8d4b-4c1e-9a7f-2b6d5e8c0a14");
+    }
+
 }
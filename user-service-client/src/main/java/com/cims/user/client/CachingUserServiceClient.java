@@ -0,0 +1,161 @@
+package com.cims.user.client;
+
+import com.cims.user.client.dtos.UserAccountDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps the {@link UserServiceClient} Feign client so the user account of a token is looked up at most once per
+ * request, and is shared by the requests with the same token for a short time.
+ * <p>
+ * The first lookup of a request is kept as a request attribute, including a missing account or a failed call, and
+ * every further lookup of the request returns it. Lookups across requests go through a bounded cache keyed by the
+ * hash of the token, so raw tokens are not kept in memory. Concurrent requests with the same token wait for one
+ * remote lookup instead of making their own. An account changed in the USER-SERVICE is seen once its entry has
+ * expired.
+ * <p>
+ * The cache is published to Micrometer as {@code userAccounts}, with {@code user.account.request.hits} counting
+ * the lookups answered by the request and {@code user.account.hit.ratio} the share of all lookups answered without
+ * a remote call.
+ */
+public class CachingUserServiceClient implements UserServiceClient {
+
+    private static final String CACHE_NAME = "userAccounts";
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = CachingUserServiceClient.class.getName() + ".";
+
+    private final UserServiceClient userServiceClient;
+
+    private final Cache<String, UserAccountDTO> userAccounts;
+
+    private final LongAdder requestHits = new LongAdder();
+
+    /**
+     * Constructor that sets up the cache around the Feign client.
+     *
+     * @param userServiceClient the Feign client that calls the USER-SERVICE
+     * @param maximumSize       the maximum number of tokens kept
+     * @param timeToLive        how long an account is kept, the longest an outdated account is served
+     */
+    public CachingUserServiceClient(UserServiceClient userServiceClient, long maximumSize, Duration timeToLive) {
+        this.userServiceClient = userServiceClient;
+        this.userAccounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retrieves the user account associated with the given token, from the current request or the cache when
+     * it has been looked up before.
+     *
+     * @param token The token used to retrieve the user account.
+     * @return The user account associated with the given token, or null if the USER-SERVICE has none.
+     */
+    @Override
+    public UserAccountDTO getByTokenForClient(String token) {
+        String tokenHash = hash(token);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return lookUp(tokenHash, token).get();
+        }
+        String attributeName = REQUEST_ATTRIBUTE_PREFIX + tokenHash;
+        Lookup lookup = (Lookup) requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+        if (lookup != null) {
+            requestHits.increment();
+        } else {
+            lookup = lookUp(tokenHash, token);
+            requestAttributes.setAttribute(attributeName, lookup, RequestAttributes.SCOPE_REQUEST);
+        }
+        return lookup.get();
+    }
+
+    /**
+     * Releases a file stored in the USER-SERVICE, which is never cached.
+     *
+     * @param credential the service credential sent to the internal endpoint
+     * @param name       the name of the stored file
+     */
+    @Override
+    public void releaseFile(String credential, String name) {
+        userServiceClient.releaseFile(credential, name);
+    }
+
+    /**
+     * Publishes the cache statistics and the hit ratio to the given registry.
+     *
+     * @param meterRegistry the registry of the service
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, userAccounts, CACHE_NAME);
+        FunctionCounter.builder("user.account.request.hits", requestHits, LongAdder::doubleValue)
+                .description("User account lookups answered by an earlier lookup of the same request")
+                .register(meterRegistry);
+        Gauge.builder("user.account.hit.ratio", this, CachingUserServiceClient::hitRatio)
+                .description("Share of user account lookups answered without calling the USER-SERVICE")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the share of lookups answered by the request or the cache.
+     *
+     * @return the hit ratio between 0 and 1, or 1 before the first lookup
+     */
+    public double hitRatio() {
+        long hits = requestHits.sum() + userAccounts.stats().hitCount();
+        long lookups = requestHits.sum() + userAccounts.stats().requestCount();
+        return lookups == 0 ? 1.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Looks up a token in the cache, calling the USER-SERVICE when it is not cached. A missing account or a failed
+     * call is not cached, so it is only kept for the current request.
+     *
+     * @param tokenHash the hash of the token
+     * @param token     the token
+     * @return the outcome of the lookup
+     */
+    private Lookup lookUp(String tokenHash, String token) {
+        try {
+            return new Lookup(userAccounts.get(tokenHash, key -> userServiceClient.getByTokenForClient(token)), null);
+        } catch (RuntimeException e) {
+            return new Lookup(null, e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The outcome of a lookup, either the user account or the failure of the remote call.
+     */
+    private record Lookup(UserAccountDTO userAccount, RuntimeException failure) {
+
+        UserAccountDTO get() {
+            if (failure != null) {
+                throw failure;
+            }
+            return userAccount;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cims.user.client;
+
+import com.cims.common.security.ServiceCredential;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * Releases the files a service stored in the USER-SERVICE when the records that refer to them are deleted, so the
+ * content of a file is deleted once nothing refers to it. A file is released after the transaction deleting its
+ * record has committed, and a failed call is only logged, as the record is already gone and the file is then left
+ * stored.
+ */
+@Slf4j
+public class StoredFileReleaser {
+
+    private final UserServiceClient userServiceClient;
+
+    private final ServiceCredential serviceCredential;
+
+    /**
+     * Constructor that sets up the releaser.
+     *
+     * @param userServiceClient the client of the USER-SERVICE
+     * @param serviceCredential the credential sent to its internal endpoint
+     */
+    public StoredFileReleaser(UserServiceClient userServiceClient, ServiceCredential serviceCredential) {
+        this.userServiceClient = userServiceClient;
+        this.serviceCredential = serviceCredential;
+    }
+
+    /**
+     * Releases a stored file once the current transaction has committed, so a rolled back delete keeps it. Without
+     * a transaction the file is released at once, and a record without a file releases nothing.
+     *
+     * @param name the name of the stored file, or null if the record has none
+     */
+    public void releaseAfterCommit(String name) {
+        if (!StringUtils.hasText(name)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(name);
+                }
+            });
+        } else {
+            release(name);
+        }
+    }
+
+    private void release(String name) {
+        try {
+            userServiceClient.releaseFile(serviceCredential.value(), name);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in StoredFileReleaser -> release()" + e);
+        }
+    }
+}
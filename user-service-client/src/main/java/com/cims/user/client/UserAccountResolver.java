@@ -0,0 +1,94 @@
+package com.cims.user.client;
+
+import com.cims.common.identity.Identity;
+import com.cims.common.identity.IdentityHeaders;
+import com.cims.common.identity.IdentitySignature;
+import com.cims.user.client.dtos.UserAccountDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Resolves the user account of the caller. The identity headers signed by the API gateway are used when present,
+ * valid and not yet expired, so most requests do not need a call to the USER-SERVICE. Requests without those
+ * headers, or with a stale signature, fall back to {@link UserServiceClient#getByTokenForClient(String)}, which
+ * looks a token up at most once per request.
+ */
+@Slf4j
+public class UserAccountResolver {
+
+    private final UserServiceClient userServiceClient;
+
+    private final IdentitySignature identitySignature;
+
+    /**
+     * Creates the resolver.
+     *
+     * @param userServiceClient the client that looks a token up in the USER-SERVICE
+     * @param identitySignature the signature shared with the API gateway
+     */
+    public UserAccountResolver(UserServiceClient userServiceClient, IdentitySignature identitySignature) {
+        this.userServiceClient = userServiceClient;
+        this.identitySignature = identitySignature;
+    }
+
+    /**
+     * Retrieves the user account associated with the given token.
+     *
+     * @param token the authorization token of the request, with or without the "Bearer " prefix
+     * @return the user account of the caller
+     */
+    public UserAccountDTO getUserAccount(String token) {
+        UserAccountDTO userAccountDTO = getUserAccountFromHeaders(token);
+        if (userAccountDTO != null) {
+            return userAccountDTO;
+        }
+        return userServiceClient.getByTokenForClient(token);
+    }
+
+    /**
+     * Builds the user account from the identity headers of the current request.
+     *
+     * @param token the authorization token of the request
+     * @return the user account, or null if the headers are missing, their signature does not match or has expired
+     */
+    private UserAccountDTO getUserAccountFromHeaders(String token) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (token == null || !(requestAttributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        String userId = request.getHeader(IdentityHeaders.USER_ID);
+        String branchCode = request.getHeader(IdentityHeaders.BRANCH);
+        String status = request.getHeader(IdentityHeaders.STATUS);
+        String expires = request.getHeader(IdentityHeaders.EXPIRES);
+        String signature = request.getHeader(IdentityHeaders.SIGNATURE);
+        //tokens issued without a status claim are looked up, so the account status is always known
+        if (userId == null || branchCode == null || status == null || expires == null || signature == null) {
+            return null;
+        }
+        Identity identity = new Identity(userId, request.getHeader(IdentityHeaders.USER_NAME), branchCode,
+                request.getHeader(IdentityHeaders.ROLE), status);
+        if (!identitySignature.verify(token.replace("Bearer ", ""), identity, parseExpiry(expires), signature)) {
+            log.warn("/**************** Invalid or expired identity signature in UserAccountResolver -> getUserAccountFromHeaders()");
+            return null;
+        }
+        return new UserAccountDTO(identity.userId(), identity.userName(), identity.branchCode(), identity.roleId(), identity.status());
+    }
+
+    /**
+     * Parses the expiry header of the identity.
+     *
+     * @param expires the value of the expiry header
+     * @return the expiry time in epoch milliseconds, or 0 if the header is malformed
+     */
+    private static long parseExpiry(String expires) {
+        try {
+            return Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
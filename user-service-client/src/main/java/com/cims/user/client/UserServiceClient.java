@@ -0,0 +1,42 @@
+package com.cims.user.client;
+
+import com.cims.common.security.ServiceCredential;
+import com.cims.user.client.dtos.UserAccountDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+/**
+ * Feign client for making HTTP requests to the USER-SERVICE.
+ * <p>
+ * Injecting this interface gives the {@link CachingUserServiceClient}, so a request never looks up its token more
+ * than once. The Feign client itself is only reachable through the {@link #REMOTE} qualifier.
+ */
+@FeignClient(name = "USER-SERVICE", qualifiers = UserServiceClient.REMOTE, primary = false)
+public interface UserServiceClient {
+
+    /**
+     * The qualifier of the Feign client that calls the USER-SERVICE on every lookup.
+     */
+    String REMOTE = "remoteUserServiceClient";
+
+    /**
+     * Retrieves the UserAccountDTO associated with the given token for the client.
+     *
+     * @param token The token used to retrieve the UserAccountDTO.
+     * @return The UserAccountDTO associated with the given token.
+     */
+    @GetMapping("/user/userAccount/getByToken/{token}")
+    UserAccountDTO getByTokenForClient(@PathVariable("token") final String token);
+
+    /**
+     * Releases a file stored in the USER-SERVICE, which deletes its content when no other file refers to it.
+     *
+     * @param credential the service credential sent to the internal endpoint
+     * @param name       the name of the stored file
+     */
+    @DeleteMapping("/internal/file/{name}")
+    void releaseFile(@RequestHeader(ServiceCredential.HEADER) final String credential, @PathVariable("name") final String name);
+}
@@ -0,0 +1,98 @@
+package com.cims.user.client.config;
+
+import com.cims.common.identity.IdentitySignature;
+import com.cims.common.security.ServiceCredential;
+import com.cims.user.client.CachingUserServiceClient;
+import com.cims.user.client.StoredFileReleaser;
+import com.cims.user.client.UserAccountResolver;
+import com.cims.user.client.UserServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Auto-configuration that registers the {@link UserServiceClient} of every service that depends on this module.
+ * The Feign client is wrapped in a {@link CachingUserServiceClient}, which is the one injected by type, and the
+ * {@link UserAccountResolver} reads the identity the API gateway forwards before falling back to it. The
+ * {@link StoredFileReleaser} releases the files stored for deleted records.
+ */
+@AutoConfiguration
+@EnableFeignClients(clients = UserServiceClient.class)
+public class UserServiceClientAutoConfiguration {
+
+    /**
+     * Creates the caching client and publishes its metrics when the service has a meter registry.
+     *
+     * @param userServiceClient the Feign client that calls the USER-SERVICE
+     * @param meterRegistry     the meter registry of the service, if any
+     * @param maximumSize       the maximum number of tokens kept
+     * @param timeToLive        how long an account is kept
+     * @return the caching client
+     */
+    @Bean
+    @Primary
+    public CachingUserServiceClient cachingUserServiceClient(@Qualifier(UserServiceClient.REMOTE) UserServiceClient userServiceClient,
+                                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                                             @Value("${user-service-client.cache.maximum-size:10000}") long maximumSize,
+                                                             @Value("${user-service-client.cache.time-to-live:30s}") Duration timeToLive) {
+        CachingUserServiceClient cachingUserServiceClient = new CachingUserServiceClient(userServiceClient, maximumSize, timeToLive);
+        meterRegistry.ifAvailable(cachingUserServiceClient::bindTo);
+        return cachingUserServiceClient;
+    }
+
+    /**
+     * Creates the signature used to verify the identity headers forwarded by the API gateway.
+     *
+     * @param secret the secret shared with the API gateway
+     * @return the identity signature
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentitySignature identitySignature(@Value("${identity.secret}") String secret) {
+        return new IdentitySignature(secret);
+    }
+
+    /**
+     * Creates the resolver of the caller's user account.
+     *
+     * @param userServiceClient the caching client of the USER-SERVICE
+     * @param identitySignature the signature shared with the API gateway
+     * @return the user account resolver
+     */
+    @Bean
+    public UserAccountResolver userAccountResolver(UserServiceClient userServiceClient, IdentitySignature identitySignature) {
+        return new UserAccountResolver(userServiceClient, identitySignature);
+    }
+
+    /**
+     * Creates the credential sent to the internal endpoints of the USER-SERVICE.
+     *
+     * @param secret the secret shared by the services
+     * @return the service credential
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ServiceCredential serviceCredential(@Value("${internal.secret}") String secret) {
+        return new ServiceCredential(secret);
+    }
+
+    /**
+     * Creates the releaser of the files stored in the USER-SERVICE.
+     *
+     * @param userServiceClient the caching client of the USER-SERVICE
+     * @param serviceCredential the credential sent to its internal endpoint
+     * @return the stored file releaser
+     */
+    @Bean
+    public StoredFileReleaser storedFileReleaser(UserServiceClient userServiceClient, ServiceCredential serviceCredential) {
+        return new StoredFileReleaser(userServiceClient, serviceCredential);
+    }
+}
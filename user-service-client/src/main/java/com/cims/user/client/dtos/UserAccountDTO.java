@@ -1,21 +1,21 @@
-package com.cims.project.dtos;
+package com.cims.user.client.dtos;
 
-import com.cims.project.constants.enums.Status;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Data class for holding user account response information.
+ * Data class for holding the user account information returned by the USER-SERVICE.
+ * The status is kept by name, as each service has its own status enum.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class UserAccountResponseDTO {
+public class UserAccountDTO {
 
     private String id;
     private String userName;
     private String branchCode;
     private String userRoleId;
-    private Status status;
+    private String status;
 }
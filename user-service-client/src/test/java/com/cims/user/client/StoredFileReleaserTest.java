@@ -0,0 +1,87 @@
+package com.cims.user.client;
+
+import com.cims.common.security.ServiceCredential;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class StoredFileReleaserTest {
+
+    private static final String SECRET = "3F4528482B4D6251655468576D5A7134743777217A25432A462D4A614E645267";
+
+    private static final String FILE_NAME = "nic.png_3f1c2a9e-8d4b-4c1e-9a7f-2b6d5e8c0a14";
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    private StoredFileReleaser storedFileReleaser;
+
+    @BeforeEach
+    public void setUp() {
+        storedFileReleaser = new StoredFileReleaser(userServiceClient, new ServiceCredential(SECRET));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testReleaseAfterCommit_WithoutTransaction() {
+        storedFileReleaser.releaseAfterCommit(FILE_NAME);
+
+        verify(userServiceClient).releaseFile(SECRET, FILE_NAME);
+    }
+
+    @Test
+    public void testReleaseAfterCommit_ReleasedOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        storedFileReleaser.releaseAfterCommit(FILE_NAME);
+
+        verify(userServiceClient, never()).releaseFile(any(), any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(userServiceClient).releaseFile(SECRET, FILE_NAME);
+    }
+
+    @Test
+    public void testReleaseAfterCommit_NotReleasedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        storedFileReleaser.releaseAfterCommit(FILE_NAME);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(userServiceClient, never()).releaseFile(any(), any());
+    }
+
+    @Test
+    public void testReleaseAfterCommit_NoFile() {
+        storedFileReleaser.releaseAfterCommit(null);
+        storedFileReleaser.releaseAfterCommit("");
+
+        verify(userServiceClient, never()).releaseFile(any(), any());
+    }
+
+    @Test
+    public void testReleaseAfterCommit_FailureLogged() {
+        doThrow(new IllegalStateException("USER-SERVICE unavailable")).when(userServiceClient).releaseFile(SECRET, FILE_NAME);
+
+        storedFileReleaser.releaseAfterCommit(FILE_NAME);
+
+        verify(userServiceClient).releaseFile(SECRET, FILE_NAME);
+    }
+}
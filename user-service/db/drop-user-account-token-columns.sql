@@ -0,0 +1,11 @@
+-- Drops the token columns earlier versions kept in the user_account table:
+--   token      - the last issued token of each account, in plain text
+--   token_hash - its SHA-256 hash, with a unique index that is dropped with the column
+-- Issued tokens are no longer stored, and ddl-auto: update never drops a column.
+--
+-- Run this once, by hand, after every USER-SERVICE instance runs a version that no longer maps these columns;
+-- an older instance still writes them. Skip the statement of a column the database never had.
+
+ALTER TABLE user_account DROP COLUMN token_hash;
+
+ALTER TABLE user_account DROP COLUMN token;
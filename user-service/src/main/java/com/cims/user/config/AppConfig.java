@@ -1,8 +1,23 @@
 package com.cims.user.config;
 
+import com.cims.common.jwt.JsonWebKeySet;
+import com.cims.common.jwt.JwtKeySet;
+import com.cims.common.security.BoundedPasswordEncoder;
+import com.cims.common.security.ServiceCredential;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
 
 /**
  * Configuration class that provides Spring beans for use throughout the application.
@@ -10,6 +25,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class AppConfig {
 
+    private static final String AUTH_SERVICE = "AUTH-SERVICE";
+
     /**
      * Returns a new instance of {@link ModelMapper}, which is a flexible and
      * easy-to-use Java library for mapping objects between different representations
@@ -21,4 +38,96 @@ public class AppConfig {
     public ModelMapper modelMapper() {
         return new ModelMapper();
     }
+
+    /**
+     * Returns the credential sent to the internal endpoints of the other services.
+     *
+     * @param secret the secret shared by the services
+     * @return the service credential
+     */
+    @Bean
+    public ServiceCredential serviceCredential(@Value("${internal.secret}") String secret) {
+        return new ServiceCredential(secret);
+    }
+
+    /**
+     * Creates the {@link RestTemplate} that calls the instances of the other services. Its calls are bounded by
+     * timeouts, as they run on request threads, e.g. after the commit of a password change.
+     *
+     * @param connectTimeout the time limit to open a connection
+     * @param readTimeout    the time limit to wait for response data
+     * @return a new {@link RestTemplate} instance
+     */
+    @Bean
+    public RestTemplate restTemplate(@Value("${http-client.connect-timeout:2s}") Duration connectTimeout,
+                                     @Value("${http-client.read-timeout:5s}") Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) connectTimeout.toMillis());
+        requestFactory.setReadTimeout((int) readTimeout.toMillis());
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Returns the password encoder. BCrypt runs on a bounded pool with one thread per CPU, so a burst of
+     * password changes is answered with 503 Service Unavailable instead of taking the CPU from every other request.
+     *
+     * @param strength      the BCrypt work factor
+     * @param threads       the number of hashing threads, or 0 for one per CPU
+     * @param queueCapacity the number of calls that may wait for a hashing thread
+     * @param retryAfter    the time after which a rejected call may be tried again
+     * @param maximumWait   the longest a caller waits for a hashing thread and the hash
+     * @param meterRegistry the registry the queue wait and hash timers are published to
+     * @return the password encoder
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(@Value("${password-encoder.strength:10}") int strength,
+                                                 @Value("${password-encoder.threads:0}") int threads,
+                                                 @Value("${password-encoder.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${password-encoder.retry-after:1s}") Duration retryAfter,
+                                                 @Value("${password-encoder.maximum-wait:5s}") Duration maximumWait,
+                                                 MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, retryAfter,
+                maximumWait, meterRegistry);
+    }
+
+    /**
+     * Returns the public keys that verify the tokens issued by the AUTH-SERVICE, fetched from the first of its
+     * instances that answers. The fetches use the {@link RestTemplate} with timeouts and run on the thread of the
+     * key set, never on a request thread.
+     *
+     * @param discoveryClient              the client that finds the AUTH-SERVICE instances
+     * @param restTemplate                 the template that calls the key set endpoint
+     * @param keySetPath                   the path of the key set endpoint
+     * @param refreshIntervalMillis        how often the key set is fetched
+     * @param minimumRefreshIntervalMillis the minimum time between two fetches triggered by unknown keys
+     * @return the key set
+     */
+    @Bean(destroyMethod = "shutdown")
+    public JwtKeySet jwtKeySet(DiscoveryClient discoveryClient, RestTemplate restTemplate,
+                               @Value("${jwt.key-set.path:/auth/keySet}") String keySetPath,
+                               @Value("${jwt.key-set.refresh-interval-ms:300000}") long refreshIntervalMillis,
+                               @Value("${jwt.key-set.minimum-refresh-interval-ms:5000}") long minimumRefreshIntervalMillis) {
+        return new JwtKeySet(() -> {
+            RuntimeException failure = new IllegalStateException("No " + AUTH_SERVICE + " instance is available");
+            for (ServiceInstance instance : discoveryClient.getInstances(AUTH_SERVICE)) {
+                try {
+                    return restTemplate.getForObject(instance.getUri() + keySetPath, JsonWebKeySet.class);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            throw failure;
+        }, Duration.ofMillis(refreshIntervalMillis), Duration.ofMillis(minimumRefreshIntervalMillis));
+    }
+
+    /**
+     * Starts fetching the key set once the application is ready.
+     *
+     * @param jwtKeySet the key set
+     * @return the listener that starts the key set
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> jwtKeySetStarter(JwtKeySet jwtKeySet) {
+        return event -> jwtKeySet.start();
+    }
 }
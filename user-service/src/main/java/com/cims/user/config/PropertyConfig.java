@@ -38,4 +38,11 @@ public class PropertyConfig {
      */
     @Value("${document.max.image}")
     private String maxImageSize;
+
+    /**
+     * Sets the location of the content addressed file store.
+     * @param storeLocation the location of the file store
+     */
+    @Value("${document.store}")
+    private String storeLocation;
 }
@@ -10,7 +10,9 @@ public class CommonMessages {
     public static final String SYNCED_SUCCESSFULLY = "Synced successfully.";
     public static final String RETRIEVED_SUCCESSFULLY = "Retrieved successfully.";
     public static final String DELETED_SUCCESSFULLY = "Deleted successfully.";
+    public static final String LOGGED_OUT_SUCCESSFULLY = "Logged out successfully.";
     public static final String RETRIEVAL_FAILED = "Retrieved failed.";
     public static final String ERROR = "Error";
     public static final String NO_DATA = "No data available for this ID.";
+    public static final String NOT_AUTHORISED = "Not authorised.";
 }
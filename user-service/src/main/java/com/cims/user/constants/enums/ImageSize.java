@@ -0,0 +1,20 @@
+package com.cims.user.constants.enums;
+
+/**
+ * An enum representing the sizes uploaded images are scaled down to, each fitting its longest side in a number of
+ * pixels. THUMBNAIL is meant for rows of a list, PREVIEW for the preview box of a form.
+ */
+public enum ImageSize {
+    THUMBNAIL(160),
+    PREVIEW(800);
+
+    private final int maxDimension;
+
+    ImageSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+}
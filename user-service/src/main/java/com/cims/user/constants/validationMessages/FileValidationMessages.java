@@ -10,4 +10,7 @@ public class FileValidationMessages {
     public static final String EMPTY_FILE_TYPE = "No files were uploaded.";
     public static final String LARGE_FILE = "File size is too large.";
     public static final String INVALID_FILE_TYPE = "Invalid file type.";
+    public static final String INVALID_OFFSET = "Chunk offset does not match the bytes received.";
+    public static final String INVALID_CHECKSUM = "Checksum does not match the bytes received.";
+    public static final String INCOMPLETE_FILE = "File upload is not complete.";
 }
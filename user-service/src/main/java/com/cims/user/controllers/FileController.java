@@ -1,22 +1,29 @@
 package com.cims.user.controllers;
 
 import com.cims.user.constants.enums.FileType;
+import com.cims.user.constants.enums.ImageSize;
+import com.cims.user.dtos.ChunkedUploadDTO;
 import com.cims.user.utils.PdfResponseDTO;
+import com.cims.user.services.ChunkedUploadService;
+import com.cims.user.services.FileDownloadService;
 import com.cims.user.services.FileService;
+import com.cims.user.services.FileStoreService;
+import com.cims.user.services.ImageDerivativeService;
 import com.cims.user.utils.ResponseDTO;
 import com.cims.user.utils.StringUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.apache.tomcat.util.http.fileupload.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -29,6 +36,18 @@ public class FileController {
     @Autowired
     FileService fileService;
 
+    @Autowired
+    FileDownloadService fileDownloadService;
+
+    @Autowired
+    FileStoreService fileStoreService;
+
+    @Autowired
+    ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    ImageDerivativeService imageDerivativeService;
+
     /**
      * Handles the HTTP POST request to upload files.
      *
@@ -42,7 +61,90 @@ public class FileController {
     }
 
     /**
-     * Handles the HTTP GET request to download a PDF file.
+     * Handles the HTTP POST request to initiate a chunked upload of one or more large files.
+     *
+     * @param token            the authorization token for the user
+     * @param chunkedUploadDTO the type of the files and the name, content type and size of each
+     * @return a ResponseEntity containing a ResponseDTO with the upload session
+     */
+    @PostMapping("/chunkedUpload")
+    public ResponseEntity<ResponseDTO> initiateChunkedUpload(@RequestHeader(name = "Authorization") String token, @RequestBody ChunkedUploadDTO chunkedUploadDTO) {
+        return chunkedUploadService.initiateUpload(token, chunkedUploadDTO);
+    }
+
+    /**
+     * Handles the HTTP GET request to retrieve a chunked upload session, with the bytes received of each file.
+     *
+     * @param token     the authorization token for the user
+     * @param sessionId the ID of the upload session
+     * @return a ResponseEntity containing a ResponseDTO with the upload session
+     */
+    @GetMapping("/chunkedUpload/{sessionId}")
+    public ResponseEntity<ResponseDTO> getChunkedUpload(@RequestHeader(name = "Authorization") String token, @PathVariable String sessionId) {
+        return chunkedUploadService.getUpload(token, sessionId);
+    }
+
+    /**
+     * Handles the HTTP PUT request to upload a chunk of a file, sent as the raw request body.
+     *
+     * @param request   the HTTP request object, whose body is the chunk
+     * @param token     the authorization token for the user
+     * @param sessionId the ID of the upload session
+     * @param fileIndex the index of the file in the session
+     * @param offset    the offset of the chunk in the file
+     * @param checksum  the hex encoded CRC32C checksum of the chunk
+     * @return a ResponseEntity containing a ResponseDTO with the upload session
+     * @throws IOException if the request body cannot be read
+     */
+    @PutMapping(value = "/chunkedUpload/{sessionId}/{fileIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResponseDTO> uploadChunk(HttpServletRequest request, @RequestHeader(name = "Authorization") String token, @PathVariable String sessionId, @PathVariable int fileIndex, @RequestParam long offset, @RequestHeader(name = "Upload-Checksum") String checksum) throws IOException {
+        return chunkedUploadService.writeChunk(token, sessionId, fileIndex, offset, checksum, request.getInputStream());
+    }
+
+    /**
+     * Handles the HTTP POST request to complete a chunked upload and save its files.
+     *
+     * @param token     the authorization token for the user
+     * @param sessionId the ID of the upload session
+     * @return a ResponseEntity containing a ResponseDTO with the generated names of the saved files
+     */
+    @PostMapping("/chunkedUpload/{sessionId}/complete")
+    public ResponseEntity<ResponseDTO> completeChunkedUpload(@RequestHeader(name = "Authorization") String token, @PathVariable String sessionId) {
+        return chunkedUploadService.completeUpload(token, sessionId);
+    }
+
+    /**
+     * Handles the HTTP DELETE request to cancel a chunked upload and delete its partial files.
+     *
+     * @param token     the authorization token for the user
+     * @param sessionId the ID of the upload session
+     * @return a ResponseEntity containing a ResponseDTO with the result of the operation
+     */
+    @DeleteMapping("/chunkedUpload/{sessionId}")
+    public ResponseEntity<ResponseDTO> cancelChunkedUpload(@RequestHeader(name = "Authorization") String token, @PathVariable String sessionId) {
+        return chunkedUploadService.cancelUpload(token, sessionId);
+    }
+
+    /**
+     * Handles the HTTP GET request to download a PDF file as a stream of its bytes, asked for with the
+     * {@code stream=true} query parameter. The file is sent with its length, and byte ranges are supported, as for
+     * images.
+     *
+     * @param request  the HTTP request object
+     * @param response the HTTP response object
+     * @param token    the authorization token for the user
+     * @param id       the ID of the file to download
+     * @param docName  the name of the file to download
+     * @param docType  the type of the file to download
+     */
+    @GetMapping(value = "/pdfDownloader/{id}/{docName}/{docType}", params = "stream=true")
+    public void streamPDF(HttpServletRequest request, HttpServletResponse response, @RequestHeader(name = "Authorization") String token, @PathVariable String id, @PathVariable String docName, @PathVariable FileType docType) {
+        writeFile(request, response, id, docName, docType);
+    }
+
+    /**
+     * Handles the HTTP GET request to download a PDF file as a base64 encoded byte array in JSON, the default for
+     * existing clients. The whole file is read into memory, so new clients should use the streamed download.
      *
      * @param token   the authorization token for the user
      * @param id      the ID of the file to download
@@ -50,39 +152,77 @@ public class FileController {
      * @param docType the type of the file to download
      * @return a ResponseEntity containing a list of PdfResponseDTOs for the downloaded file
      */
-    @GetMapping("/pdfDownloader/{id}/{docName}/{docType}")
+    @GetMapping(value = "/pdfDownloader/{id}/{docName}/{docType}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<PdfResponseDTO>> downloadPDF(@RequestHeader(name = "Authorization") String token, @PathVariable String id, @PathVariable String docName, @PathVariable FileType docType) {
         return new ResponseEntity<>(fileService.getPdfFile(id, docName, docType), HttpStatus.OK);
     }
 
     /**
-     * Handles the HTTP GET request to download an image file.
+     * Handles the HTTP GET request to download an image file. The file is sent with its length, ETag and last
+     * modified time, and byte ranges are supported, so browsers revalidate it and large files can be resumed.
+     * <p>
+     * When a size is given, a scaled down copy of the image is sent instead, or the original if it already fits.
+     * A stored file never changes under its name, so the copy is cached by the browser without revalidation.
      *
+     * @param request  the HTTP request object
      * @param response the HTTP response object
      * @param id       the ID of the file to download
      * @param docName  the name of the file to download
      * @param docType  the type of the file to download
+     * @param size     the size to scale the image down to, or null for the original
      */
     @GetMapping("/imgDownloader/{id}/{docName}/{docType}")
-    public void downloadIMG(HttpServletResponse response, @PathVariable String id, @PathVariable String docName, @PathVariable FileType docType) {
+    public void downloadIMG(HttpServletRequest request, HttpServletResponse response, @PathVariable String id, @PathVariable String docName, @PathVariable FileType docType, @RequestParam(required = false) ImageSize size) {
+        if (size == null) {
+            writeFile(request, response, id, docName, docType);
+            return;
+        }
+        try {
+            String documentPath = fileService.downloadFile(id, docName, docType);
+            if (documentPath == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            String fileName = StringUtils.extractFileName(docName);
+            String contentHash = fileStoreService.getContentHash(docName);
+            Path derivative = imageDerivativeService.getDerivative(Path.of(documentPath), size);
+            if (derivative == null) {
+                fileDownloadService.writeFile(request, response, Path.of(documentPath), fileName, contentHash);
+                return;
+            }
+            //the derivatives of a stored file are named after the hash of its content, the size and the format
+            String derivativeTag = contentHash != null ? derivative.getFileName().toString() : null;
+            fileDownloadService.writeFile(request, response, derivative, ImageDerivativeService.getFileName(fileName, derivative),
+                    derivativeTag, CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable());
+        } catch (IOException e) {
+            if (!response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
+
+    /**
+     * Writes a stored file to the response, or sets a NOT_FOUND status if no file is found.
+     *
+     * @param request  the HTTP request object
+     * @param response the HTTP response object
+     * @param id       the ID of the file to download
+     * @param docName  the name of the file to download
+     * @param docType  the type of the file to download
+     */
+    private void writeFile(HttpServletRequest request, HttpServletResponse response, String id, String docName, FileType docType) {
         try {
             String documentPath = fileService.downloadFile(id, docName, docType);
-            if (documentPath != null) {
-                String fileName = StringUtils.extractFileName(docName);
-                fileName = (fileName != null) ? fileName : documentPath;
-
-                response.setHeader("Content-Disposition", "inline;filename=" + fileName);
-                response.setContentType(docType.toString());
-
-                InputStream in = new FileInputStream(documentPath);
-                OutputStream out = response.getOutputStream();
-                IOUtils.copy(in, out);
-                out.flush();
-                in.close();
-                out.close();
+            if (documentPath == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
+            fileDownloadService.writeFile(request, response, Path.of(documentPath), StringUtils.extractFileName(docName),
+                    fileStoreService.getContentHash(docName));
         } catch (IOException e) {
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
 }
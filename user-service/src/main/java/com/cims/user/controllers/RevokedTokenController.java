@@ -0,0 +1,48 @@
+package com.cims.user.controllers;
+
+import com.cims.common.security.ServiceCredential;
+import com.cims.user.dtos.RevokedTokenDTO;
+import com.cims.user.services.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The RevokedTokenController class lets the API gateway read the deny-list of revoked tokens, so a revoked token
+ * is rejected at the gateway even while its verification is cached there. It is called on an instance of this
+ * service directly, is not routed through the API gateway, and only answers requests with the service credential.
+ */
+@RestController
+@RequestMapping("/internal/revokedTokens")
+public class RevokedTokenController {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ServiceCredential serviceCredential;
+
+    /**
+     * Returns the tokens revoked at or after the given time that have not expired yet.
+     *
+     * @param credential the service credential of the caller
+     * @param since      the time to read from, in epoch milliseconds
+     * @return a ResponseEntity containing the revoked tokens, or FORBIDDEN without a valid service credential
+     */
+    @GetMapping
+    public ResponseEntity<List<RevokedTokenDTO>> getRevokedTokens(@RequestHeader(name = ServiceCredential.HEADER, required = false) String credential,
+                                                                  @RequestParam(name = "since", defaultValue = "0") long since) {
+        if (!serviceCredential.matches(credential)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(tokenRevocationService.getRevokedTokensSince(Instant.ofEpochMilli(since)));
+    }
+}
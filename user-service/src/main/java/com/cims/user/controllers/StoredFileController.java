@@ -0,0 +1,46 @@
+package com.cims.user.controllers;
+
+import com.cims.common.security.ServiceCredential;
+import com.cims.user.services.FileStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The StoredFileController class lets the other services release the files stored for their records once a record
+ * is deleted. It is called on an instance of this service directly, is not routed through the API gateway, and
+ * only answers requests with the service credential.
+ */
+@RestController
+@RequestMapping("/internal/file")
+public class StoredFileController {
+
+    @Autowired
+    private FileStoreService fileStoreService;
+
+    @Autowired
+    private ServiceCredential serviceCredential;
+
+    /**
+     * Releases a stored file, deleting its content when no other file refers to it. Releasing a file that is not
+     * stored does nothing, so a retried call succeeds.
+     *
+     * @param credential the service credential of the caller
+     * @param name       the name of the stored file
+     * @return a ResponseEntity with NO_CONTENT, or FORBIDDEN without a valid service credential
+     */
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> releaseFile(@RequestHeader(name = ServiceCredential.HEADER, required = false) String credential,
+                                            @PathVariable String name) {
+        if (!serviceCredential.matches(credential)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        fileStoreService.release(name);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,23 +1,28 @@
 package com.cims.user.controllers;
 
-import com.cims.user.services.UserAccountService;
+import com.cims.user.services.PageAuthorizationService;
+import com.cims.user.utils.PageRenderer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
 
 /**
  * The `UIControllerInternal` class serves as a Spring MVC Controller that handles requests related to the user
- * of the application.
+ * of the application. Pages are authorized by verifying the token locally and are served from the rendered page
+ * cache, so loading a page does not touch the database.
  */
 @Controller
 @RequestMapping("/user")
 public class UIControllerInternal {
 
     @Autowired
-    private UserAccountService userAccountService;
+    private PageAuthorizationService pageAuthorizationService;
+
+    @Autowired
+    private PageRenderer pageRenderer;
 
     /**
      * Renders the login page.
@@ -32,379 +37,269 @@ public class UIControllerInternal {
     /**
      * Renders the dashboard page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The dashboard page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The dashboard page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/dashboard/{user}/{token}")
-    public String dashboardPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Dashboard");
-            model.addAttribute("user", user);
-            return "dashboard";
-        }
-        return "accessDenied";
+    public ModelAndView dashboardPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("dashboard", "Dashboard", user, token);
     }
 
     /**
      * Renders the user role page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The user role page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The user role page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-user-role/{user}/{token}")
-    public String userRolePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "User Role");
-            model.addAttribute("user", user);
-            return "settings/userRole";
-        }
-        return "accessDenied";
+    public ModelAndView userRolePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/userRole", "User Role", user, token);
     }
 
     /**
      * Renders the user account page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The user account page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The user account page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-user-account/{user}/{token}")
-    public String userAccountPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "User Account");
-            model.addAttribute("user", user);
-            return "settings/userAccount";
-        }
-        return "accessDenied";
+    public ModelAndView userAccountPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/userAccount", "User Account", user, token);
     }
 
     /**
      * Renders the financial year page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The financial year page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The financial year page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-financial-year/{user}/{token}")
-    public String financialYearPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Financial Year");
-            model.addAttribute("user", user);
-            return "settings/financialYear";
-        }
-        return "accessDenied";
+    public ModelAndView financialYearPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/financialYear", "Financial Year", user, token);
     }
 
     /**
      * Renders the employee type page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The employee type page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The employee type page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-employee-type/{user}/{token}")
-    public String employeeTypePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Employee Type");
-            model.addAttribute("user", user);
-            return "settings/employeeType";
-        }
-        return "accessDenied";
+    public ModelAndView employeeTypePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/employeeType", "Employee Type", user, token);
     }
 
     /**
      * Renders the allowance type page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The allowance type page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The allowance type page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-allowance-type/{user}/{token}")
-    public String allowanceTypePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Allowance Type");
-            model.addAttribute("user", user);
-            return "settings/allowanceType";
-        }
-        return "accessDenied";
+    public ModelAndView allowanceTypePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/allowanceType", "Allowance Type", user, token);
     }
 
     /**
      * Renders the document type page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The document type page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The document type page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-document-type/{user}/{token}")
-    public String documentTypePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Document Type");
-            model.addAttribute("user", user);
-            return "settings/documentType";
-        }
-        return "accessDenied";
+    public ModelAndView documentTypePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/documentType", "Document Type", user, token);
     }
 
     /**
      * Renders the equipment type page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The equipment type page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The equipment type page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-equipment-type/{user}/{token}")
-    public String equipmentTypePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Equipment Type");
-            model.addAttribute("user", user);
-            return "settings/equipmentType";
-        }
-        return "accessDenied";
+    public ModelAndView equipmentTypePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/equipmentType", "Equipment Type", user, token);
     }
 
     /**
      * Renders the project type page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The project type page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The project type page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-project-type/{user}/{token}")
-    public String projectTypePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Project Type");
-            model.addAttribute("user", user);
-            return "settings/projectType";
-        }
-        return "accessDenied";
+    public ModelAndView projectTypePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/projectType", "Project Type", user, token);
     }
 
     /**
      * Renders the data sync page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The data sync page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The data sync page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/settings-data-sync/{user}/{token}")
-    public String dataSyncPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Data Sync");
-            model.addAttribute("user", user);
-            return "settings/dataSync";
-        }
-        return "accessDenied";
+    public ModelAndView dataSyncPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("settings/dataSync", "Data Sync", user, token);
     }
 
     /**
      * Renders the employee page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The employee page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The employee page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/employee-employee/{user}/{token}")
-    public String employeePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Employee");
-            model.addAttribute("user", user);
-            return "employee/employee";
-        }
-        return "accessDenied";
+    public ModelAndView employeePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("employee/employee", "Employee", user, token);
     }
 
     /**
      * Renders the employee profile page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The employee profile page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The employee profile page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/employee-profile/{user}/{token}")
-    public String employeeProfilePage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Employee Profile");
-            model.addAttribute("user", user);
-            return "employee/employeeProfile";
-        }
-        return "accessDenied";
+    public ModelAndView employeeProfilePage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("employee/employeeProfile", "Employee Profile", user, token);
     }
 
     /**
      * Renders the employee document page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The employee document page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The employee document page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/employee-document/{user}/{token}")
-    public String employeeDocumentPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Employee Document");
-            model.addAttribute("user", user);
-            return "employee/employeeDocument";
-        }
-        return "accessDenied";
+    public ModelAndView employeeDocumentPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("employee/employeeDocument", "Employee Document", user, token);
     }
 
     /**
      * Renders the employee history page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The employee history page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The employee history page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/employee-history/{user}/{token}")
-    public String employeeHistoryPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Employee History");
-            model.addAttribute("user", user);
-            return "employee/employeeHistory";
-        }
-        return "accessDenied";
+    public ModelAndView employeeHistoryPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("employee/employeeHistory", "Employee History", user, token);
     }
 
     /**
      * Renders the employee salary page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The employee salary page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The employee salary page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/employee-salary/{user}/{token}")
-    public String employeeSalaryPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Employee Salary");
-            model.addAttribute("user", user);
-            return "employee/employeeSalary";
-        }
-        return "accessDenied";
+    public ModelAndView employeeSalaryPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("employee/employeeSalary", "Employee Salary", user, token);
     }
 
     /**
      * Renders the equipment page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The equipment page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The equipment page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/equipment-equipment/{user}/{token}")
-    public String equipmentPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Equipment");
-            model.addAttribute("user", user);
-            return "equipment/equipment";
-        }
-        return "accessDenied";
+    public ModelAndView equipmentPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("equipment/equipment", "Equipment", user, token);
     }
 
     /**
      * Renders the equipment supplier page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The equipment supplier page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The equipment supplier page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/equipment-supplier/{user}/{token}")
-    public String equipmentSupplierPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Equipment Supplier");
-            model.addAttribute("user", user);
-            return "equipment/equipmentSupplier";
-        }
-        return "accessDenied";
+    public ModelAndView equipmentSupplierPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("equipment/equipmentSupplier", "Equipment Supplier", user, token);
     }
 
 
     /**
      * Renders the equipment stock page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The equipment stock page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The equipment stock page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/equipment-stock/{user}/{token}")
-    public String equipmentStockPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Equipment Stock");
-            model.addAttribute("user", user);
-            return "equipment/equipmentStock";
-        }
-        return "accessDenied";
+    public ModelAndView equipmentStockPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("equipment/equipmentStock", "Equipment Stock", user, token);
     }
 
     /**
      * Renders the project page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The project page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The project page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/project-project/{user}/{token}")
-    public String projectPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Project");
-            model.addAttribute("user", user);
-            return "project/project";
-        }
-        return "accessDenied";
+    public ModelAndView projectPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("project/project", "Project", user, token);
     }
 
     /**
      * Renders the client project page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The client project page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The client project page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/project-client/{user}/{token}")
-    public String clientProjectPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Client Project");
-            model.addAttribute("user", user);
-            return "project/clientProject";
-        }
-        return "accessDenied";
+    public ModelAndView clientProjectPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("project/clientProject", "Client Project", user, token);
     }
 
     /**
      * Renders the client page.
      *
-     * @param model The Model object used to pass data to the view.
      * @param user  The username extracted from the URL path variable.
      * @param token The access token extracted from the URL path variable.
-     * @return The client page view name if the token is valid, otherwise the accessDenied view name.
+     * @return The client page if the token is valid, otherwise the accessDenied view.
      */
     @GetMapping("/client-client/{user}/{token}")
-    public String clientPage(Model model, @PathVariable final String user, @PathVariable final String token) {
-        if (userAccountService.isValidToken(token, user)) {
-            model.addAttribute("pageName", "Client");
-            model.addAttribute("user", user);
-            return "client/client";
+    public ModelAndView clientPage(@PathVariable final String user, @PathVariable final String token) {
+        return renderPage("client/client", "Client", user, token);
+    }
+
+    /**
+     * Renders a page for the user of the URL if the token was issued to that user.
+     *
+     * @param template The name of the page template.
+     * @param pageName The name of the page shown in its header.
+     * @param user     The username extracted from the URL path variable.
+     * @param token    The access token extracted from the URL path variable.
+     * @return The page if the token is valid, otherwise the accessDenied view.
+     */
+    private ModelAndView renderPage(String template, String pageName, String user, String token) {
+        if (pageAuthorizationService.isAuthorized(token, user)) {
+            return new ModelAndView(pageRenderer.getPage(template, pageName, user));
         }
-        return "accessDenied";
+        return new ModelAndView("accessDenied");
     }
 }
@@ -3,12 +3,13 @@ package com.cims.user.controllers;
 import com.cims.user.dtos.PageRedirectionDTO;
 import com.cims.user.dtos.UserAccountResponseDTO;
 import com.cims.user.dtos.UserAccountSendDTO;
-import com.cims.user.dtos.UserTokenDTO;
 import com.cims.user.entities.UserAccount;
+import com.cims.user.services.PageAuthorizationService;
 import com.cims.user.services.UserAccountService;
 import com.cims.user.utils.ResponseDTO;
 import com.cims.user.utils.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +23,9 @@ public class UserAccountController {
     @Autowired
     private UserAccountService userAccountService;
 
+    @Autowired
+    private PageAuthorizationService pageAuthorizationService;
+
     /**
      * Saves or updates a User Account in the database.
      *
@@ -34,16 +38,6 @@ public class UserAccountController {
         return userAccountService.saveUpdateUserAccount(StringUtils.extractBearerPrefix(token), userAccountSendDTO);
     }
 
-    /**
-     * Endpoint for updating a user token DTO.
-     *
-     * @param userTokenDTO the user token DTO to update
-     */
-    @PostMapping("/saveToken")
-    public void saveToken(@RequestBody UserTokenDTO userTokenDTO) {
-        userAccountService.saveUserAccountToken(userTokenDTO);
-    }
-
     /**
      * Gets all User Accounts from the database.
      *
@@ -89,6 +83,17 @@ public class UserAccountController {
         return userAccountService.getUserAccountById(id);
     }
 
+    /**
+     * Logs the user out by revoking the token of the request.
+     *
+     * @param token the authorization token for the request.
+     * @return a ResponseEntity containing the ResponseDTO with the result of the operation and an HTTP status code.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ResponseDTO> logout(@RequestHeader(name = "Authorization") String token) {
+        return userAccountService.logout(StringUtils.extractBearerPrefix(token));
+    }
+
     /**
      * Retrieves the UserAccountResponseDTO associated with the given token for the client.
      *
@@ -124,14 +129,19 @@ public class UserAccountController {
     }
 
     /**
-     * Endpoint for getting a page redirection object based on a provided authorization token.
+     * Endpoint for getting a page redirection object based on a provided authorization token. The token is verified
+     * locally, without a database query.
      *
-     * @param authorizationHeader the authorization header containing the token
-     * @return a page redirection DTO
+     * @param token the authorization header containing the token
+     * @return a ResponseEntity containing the page redirection DTO, or UNAUTHORIZED if the token is not valid
      */
     @GetMapping("/pageRedirection")
-    public PageRedirectionDTO pageRedirection(@RequestHeader(name = "Authorization") String token) {
-        PageRedirectionDTO pageRedirectionDTO = userAccountService.getPageRedirection(StringUtils.extractBearerPrefix(token));
-        return pageRedirectionDTO;
+    public ResponseEntity<PageRedirectionDTO> pageRedirection(@RequestHeader(name = "Authorization") String token) {
+        String extractedToken = StringUtils.extractBearerPrefix(token);
+        String userName = pageAuthorizationService.getUserName(extractedToken);
+        if (userName == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(new PageRedirectionDTO(userName, extractedToken), HttpStatus.OK);
     }
 }
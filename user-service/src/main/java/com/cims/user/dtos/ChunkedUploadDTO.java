@@ -0,0 +1,21 @@
+package com.cims.user.dtos;
+
+import com.cims.user.constants.enums.FileType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data class for holding a chunked upload session and its files.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkedUploadDTO {
+
+    private String sessionId;
+    private FileType fileType;
+    private List<ChunkedUploadFileDTO> files;
+}
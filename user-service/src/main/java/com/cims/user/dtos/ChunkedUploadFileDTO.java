@@ -0,0 +1,20 @@
+package com.cims.user.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data class for holding a file of a chunked upload and the number of its bytes received so far.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkedUploadFileDTO {
+
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String sha256;
+    private long received;
+}
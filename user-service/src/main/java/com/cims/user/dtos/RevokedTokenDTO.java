@@ -0,0 +1,20 @@
+package com.cims.user.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data class for holding a revoked token as it is sent to the API gateway, which rejects the token until it expires.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedTokenDTO {
+
+    private String tokenHash;
+    private Instant expiresAt;
+    private Instant revokedAt;
+}
@@ -0,0 +1,40 @@
+package com.cims.user.entities;
+
+import com.cims.user.constants.enums.FileType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class for a chunked upload session, owned by the user who initiated it, so any instance of the service
+ * can continue it. A completed session keeps the names its files were saved under until it expires, so completing
+ * it again returns the same names.
+ */
+@Entity
+@Table(name = "chunked_upload_session", indexes = {@Index(columnList = "last_used_at")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkedUploadSession {
+
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    @Column(name = "user_name", length = 100, nullable = false)
+    private String userName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "file_type", length = 20, nullable = false)
+    private FileType fileType;
+
+    @Lob
+    @Column(name = "saved_file_names")
+    private String savedFileNames;
+
+    @Column(name = "last_used_at", nullable = false)
+    private Instant lastUsedAt;
+}
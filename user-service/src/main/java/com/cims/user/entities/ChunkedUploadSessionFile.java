@@ -0,0 +1,43 @@
+package com.cims.user.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class for a file of a {@link ChunkedUploadSession}, with the size it was declared with and the number of
+ * its bytes received so far, which is the offset the next chunk must be written at.
+ */
+@Entity
+@Table(name = "chunked_upload_session_file", indexes = {@Index(columnList = "session_id")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkedUploadSessionFile {
+
+    @Id
+    @Column(name = "file_id", length = 48)
+    private String fileId;
+
+    @Column(name = "session_id", length = 36, nullable = false)
+    private String sessionId;
+
+    @Column(name = "file_index", nullable = false)
+    private int fileIndex;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "received", nullable = false)
+    private long received;
+}
@@ -0,0 +1,28 @@
+package com.cims.user.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class for a stored file content, kept once under the hash of its content and counted by the names that
+ * refer to it. The content is deleted with the last name.
+ */
+@Entity
+@Table(name = "file_blob")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "reference_count", nullable = false)
+    private long referenceCount;
+}
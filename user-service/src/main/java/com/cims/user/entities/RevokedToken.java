@@ -0,0 +1,33 @@
+package com.cims.user.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class for holding a revoked token until it expires. Every instance of the service reads the rows
+ * revoked since its last read, so a token revoked on one instance is rejected by all of them.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = {@Index(columnList = "revoked_at"), @Index(columnList = "expires_at")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_name", length = 100)
+    private String userName;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
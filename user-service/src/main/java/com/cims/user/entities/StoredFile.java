@@ -0,0 +1,38 @@
+package com.cims.user.entities;
+
+import com.cims.user.constants.enums.FileType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class for the name an uploaded file is known by, mapped to the hash of its content. Uploads with the same
+ * content get their own names but share one stored {@link FileBlob}.
+ */
+@Entity
+@Table(name = "stored_file", indexes = {@Index(columnList = "content_hash")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoredFile {
+
+    @Id
+    @Column(name = "name", length = 255)
+    private String name;
+
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "file_type", length = 20, nullable = false)
+    private FileType fileType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
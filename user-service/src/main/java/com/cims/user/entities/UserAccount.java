@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.GenericGenerator;
 
 /**
- * Entity class for holding user account information.
+ * Entity class for holding user account information. Issued tokens are not stored; a token is verified by its
+ * signature and the account is found by its user name.
  */
 @Entity
 @Table(name = "user_account", uniqueConstraints = {@UniqueConstraint(columnNames = {"user_name"})})
@@ -29,9 +30,6 @@ public class UserAccount {
     @Column(name = "password", length = 128)
     private String password;
 
-    @Column(name = "token")
-    private String token;
-
     @Column(name = "branch_code", nullable = false)
     private String branchCode;
 
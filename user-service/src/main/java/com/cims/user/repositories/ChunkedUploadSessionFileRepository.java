@@ -0,0 +1,29 @@
+package com.cims.user.repositories;
+
+import com.cims.user.entities.ChunkedUploadSessionFile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This is a repository interface for performing database operations on ChunkedUploadSessionFile entities. A file
+ * is read with a lock while a chunk is added to it, so only one chunk is written at its offset.
+ */
+@Repository
+public interface ChunkedUploadSessionFileRepository extends JpaRepository<ChunkedUploadSessionFile, String> {
+    List<ChunkedUploadSessionFile> findAllBySessionIdOrderByFileIndex(String sessionId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ChunkedUploadSessionFile> findLockedByFileId(String fileId);
+
+    @Modifying
+    @Query("delete from ChunkedUploadSessionFile f where f.sessionId = :sessionId")
+    int deleteAllBySessionId(@Param("sessionId") String sessionId);
+}
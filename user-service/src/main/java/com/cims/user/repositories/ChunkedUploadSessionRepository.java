@@ -0,0 +1,31 @@
+package com.cims.user.repositories;
+
+import com.cims.user.entities.ChunkedUploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This is a repository interface for performing database operations on ChunkedUploadSession entities. A session is
+ * read with a lock while it is completed or deleted, so a retried completion waits for the first one.
+ */
+@Repository
+public interface ChunkedUploadSessionRepository extends JpaRepository<ChunkedUploadSession, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ChunkedUploadSession> findLockedBySessionId(String sessionId);
+
+    @Query("select s.sessionId from ChunkedUploadSession s where s.lastUsedAt < :lastUsedAt")
+    List<String> findAllSessionIdsLastUsedBefore(@Param("lastUsedAt") Instant lastUsedAt);
+
+    @Modifying
+    @Query("update ChunkedUploadSession s set s.lastUsedAt = :lastUsedAt where s.sessionId = :sessionId")
+    int updateLastUsedAt(@Param("sessionId") String sessionId, @Param("lastUsedAt") Instant lastUsedAt);
+}
@@ -0,0 +1,36 @@
+package com.cims.user.repositories;
+
+import com.cims.user.entities.FileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * This is a repository interface for performing database operations on FileBlob entities. The reference count is
+ * changed in place, so the row stays locked until the transaction that changed it ends. A content whose row is gone
+ * is read with a locking read before its file is deleted, which holds off a new upload of it until that ends.
+ */
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+    @Modifying
+    @Query(value = "insert into file_blob (content_hash, size, reference_count) values (:contentHash, :size, 1) "
+            + "on duplicate key update reference_count = reference_count + 1", nativeQuery = true)
+    int addReference(@Param("contentHash") String contentHash, @Param("size") long size);
+
+    @Modifying
+    @Query("update FileBlob b set b.referenceCount = b.referenceCount - 1 where b.contentHash = :contentHash")
+    int removeReference(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("delete from FileBlob b where b.contentHash = :contentHash and b.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<FileBlob> findLockedByContentHash(String contentHash);
+}
@@ -0,0 +1,23 @@
+package com.cims.user.repositories;
+
+import com.cims.user.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * This is a repository interface for performing database operations on RevokedToken entities.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant revokedAt, Instant expiresAt);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt < :expiresAt")
+    int deleteAllExpiredBefore(@Param("expiresAt") Instant expiresAt);
+}
@@ -0,0 +1,12 @@
+package com.cims.user.repositories;
+
+import com.cims.user.entities.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This is a repository interface for performing database operations on StoredFile entities.
+ */
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+}
@@ -11,13 +11,9 @@ import java.util.List;
  */
 @Repository
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
-    boolean existsByTokenAndUserName(String token, String userName);
-
     List<UserAccount> findAllByBranchCode(String branchCode);
 
     UserAccount findByUserName(String userName);
 
-    UserAccount findByToken(String token);
-
     UserAccount findByAdminUserIdAndBranchCode(String adminUserId, String branchCode);
 }
@@ -0,0 +1,568 @@
+package com.cims.user.services;
+
+import com.cims.user.constants.CommonMessages;
+import com.cims.user.constants.VarList;
+import com.cims.user.constants.validationMessages.FileValidationMessages;
+import com.cims.user.dtos.ChunkedUploadDTO;
+import com.cims.user.dtos.ChunkedUploadFileDTO;
+import com.cims.user.entities.ChunkedUploadSession;
+import com.cims.user.entities.ChunkedUploadSessionFile;
+import com.cims.user.repositories.ChunkedUploadSessionFileRepository;
+import com.cims.user.repositories.ChunkedUploadSessionRepository;
+import com.cims.user.utils.ResponseDTO;
+import com.cims.user.utils.ResponseUtils;
+import com.cims.user.utils.ValidatorUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Service class that receives large files in chunks, so an upload interrupted by a poor connection is resumed from
+ * the last chunk received instead of being sent again from the start.
+ * <p>
+ * A session is initiated with the files to upload, and each file is then sent in chunks that may be sent in
+ * parallel for different files. Sessions are kept in the database with the user who initiated them and the bytes
+ * received of each file, and their partial files next to the file store, so any instance of the service can
+ * continue a session and only its owner can. A chunk is first received into a file of its own and checked against
+ * the CRC32C checksum sent with it; only then is the row of its file locked to check its offset and append it, so
+ * the lock is never held while the network is read and a chunk that fails never reaches the partial file.
+ * <p>
+ * The SHA-256 hash of each file is kept rolling in memory as its chunks are appended, so a completed file is
+ * checked and moved into the {@link FileStoreService} without being read again. An instance that has not seen the
+ * earlier chunks of a file hashes its partial file up to the bytes received once. A completed session keeps the
+ * names its files were saved under, so a retried completion returns them instead of storing the files twice.
+ * Sessions expire when they have not been used for the session timeout, which deletes their partial files.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final String UPLOAD_DIRECTORY = "uploads";
+
+    private static final String FILE_ID_SEPARATOR = "/";
+
+    private static final String FILE_NAME_SEPARATOR = "/";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private FileStoreService fileStoreService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private ChunkedUploadSessionRepository chunkedUploadSessionRepository;
+
+    @Autowired
+    private ChunkedUploadSessionFileRepository chunkedUploadSessionFileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResponseUtils responseUtils;
+
+    private final long maxFileSize;
+
+    private final long maxChunkSize;
+
+    private final Duration sessionTimeout;
+
+    private final Cache<String, RollingHash> rollingHashes;
+
+    /**
+     * Constructor that sets up the upload limits and the rolling hashes of the files.
+     *
+     * @param maxFileSize    the maximum size of a file uploaded in chunks
+     * @param maxChunkSize   the maximum size of a chunk
+     * @param sessionTimeout how long an unused session is kept before its partial files are deleted
+     * @param maximumSize    the maximum number of rolling hashes kept
+     */
+    public ChunkedUploadService(@Value("${chunked-upload.max-file-size:100MB}") DataSize maxFileSize,
+                                @Value("${chunked-upload.max-chunk-size:8MB}") DataSize maxChunkSize,
+                                @Value("${chunked-upload.session-timeout:24h}") Duration sessionTimeout,
+                                @Value("${chunked-upload.hash-cache.maximum-size:1000}") long maximumSize) {
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxChunkSize = maxChunkSize.toBytes();
+        this.sessionTimeout = sessionTimeout;
+        this.rollingHashes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(sessionTimeout)
+                .build();
+    }
+
+    /**
+     * Initiates a chunked upload of one or more files after validating their types and sizes.
+     *
+     * @param token            the authorization token of the user, who owns the session
+     * @param chunkedUploadDTO the type of the files and the name, content type and size of each
+     * @return a ResponseEntity containing a ResponseDTO with the session and the bytes received of each file
+     */
+    public ResponseEntity<ResponseDTO> initiateUpload(String token, ChunkedUploadDTO chunkedUploadDTO) {
+        try {
+            String userName = userAccountService.getUserNameFromToken(token);
+            if (userName == null) {
+                return responseUtils.createResponseDTO(VarList.RSP_NOT_AUTHORISED, CommonMessages.NOT_AUTHORISED, null, HttpStatus.UNAUTHORIZED);
+            }
+            List<String> validations = validateUpload(chunkedUploadDTO);
+            if (!CollectionUtils.isEmpty(validations)) {
+                return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
+            }
+            String sessionId = UUID.randomUUID().toString();
+            Files.createDirectories(getSessionDirectory(sessionId));
+            ChunkedUploadSession session = new ChunkedUploadSession(sessionId, userName, chunkedUploadDTO.getFileType(), null, Instant.now());
+            List<ChunkedUploadSessionFile> files = new ArrayList<>();
+            for (ChunkedUploadFileDTO file : chunkedUploadDTO.getFiles()) {
+                files.add(new ChunkedUploadSessionFile(getFileId(sessionId, files.size()), sessionId, files.size(),
+                        file.getFileName(), file.getContentType(), file.getSize(), file.getSha256(), 0));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                chunkedUploadSessionRepository.save(session);
+                chunkedUploadSessionFileRepository.saveAll(files);
+            });
+            return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, toDTO(session, files), HttpStatus.OK);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> initiateUpload()" + e);
+            return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Retrieves a chunked upload session with the bytes received of each file, so an interrupted upload can resume.
+     *
+     * @param token     the authorization token of the user
+     * @param sessionId the ID of the session
+     * @return a ResponseEntity containing a ResponseDTO with the session, or no data if it has expired or is not
+     * owned by the user
+     */
+    public ResponseEntity<ResponseDTO> getUpload(String token, String sessionId) {
+        try {
+            ChunkedUploadSession session = getOwnedSession(token, sessionId);
+            if (session == null) {
+                return responseUtils.createResponseDTO(VarList.RSP_NO_DATA_FOUND, CommonMessages.NO_DATA, null, HttpStatus.ACCEPTED);
+            }
+            return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.RETRIEVED_SUCCESSFULLY, toDTO(session), HttpStatus.OK);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> getUpload()" + e);
+            return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Writes a chunk of a file at its offset, which must be the number of bytes received so far. The chunk is kept
+     * only if it is read completely, matches its checksum and its offset is still the bytes received once it has
+     * been read.
+     *
+     * @param token       the authorization token of the user
+     * @param sessionId   the ID of the session
+     * @param fileIndex   the index of the file in the session
+     * @param offset      the offset of the chunk in the file
+     * @param checksum    the hex encoded CRC32C checksum of the chunk
+     * @param inputStream the content of the chunk
+     * @return a ResponseEntity containing a ResponseDTO with the session and the bytes received of each file
+     */
+    public ResponseEntity<ResponseDTO> writeChunk(String token, String sessionId, int fileIndex, long offset, String checksum, InputStream inputStream) {
+        try {
+            ChunkedUploadSession session = getOwnedSession(token, sessionId);
+            ChunkedUploadSessionFile file = (session == null || session.getSavedFileNames() != null) ? null
+                    : chunkedUploadSessionFileRepository.findById(getFileId(sessionId, fileIndex)).orElse(null);
+            if (file == null) {
+                return responseUtils.createResponseDTO(VarList.RSP_NO_DATA_FOUND, CommonMessages.NO_DATA, null, HttpStatus.ACCEPTED);
+            }
+            String validation = (offset != file.getReceived())
+                    ? FileValidationMessages.INVALID_OFFSET
+                    : receiveChunk(file, offset, parseChecksum(checksum), inputStream);
+            if (validation != null) {
+                return responseUtils.createResponseDTO(VarList.RSP_FAIL, validation, toDTO(session), HttpStatus.ACCEPTED);
+            }
+            transactionTemplate.executeWithoutResult(status -> chunkedUploadSessionRepository.updateLastUsedAt(sessionId, Instant.now()));
+            return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, toDTO(session), HttpStatus.OK);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> writeChunk()" + e);
+            return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Completes a chunked upload once every file has been received, checking each against the SHA-256 hash it was
+     * initiated with, if any, and saving it to the file store. The session stays locked until its files are saved,
+     * and completing a completed session returns the names its files were saved under.
+     *
+     * @param token     the authorization token of the user
+     * @param sessionId the ID of the session
+     * @return a ResponseEntity containing a ResponseDTO with the generated names of the saved files
+     */
+    public ResponseEntity<ResponseDTO> completeUpload(String token, String sessionId) {
+        try {
+            String userName = userAccountService.getUserNameFromToken(token);
+            return transactionTemplate.execute(status -> {
+                ChunkedUploadSession session = chunkedUploadSessionRepository.findLockedBySessionId(sessionId)
+                        .filter(isOwnedBy(userName))
+                        .orElse(null);
+                if (session == null) {
+                    return responseUtils.createResponseDTO(VarList.RSP_NO_DATA_FOUND, CommonMessages.NO_DATA, null, HttpStatus.ACCEPTED);
+                }
+                if (session.getSavedFileNames() != null) {
+                    return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY,
+                            Arrays.asList(session.getSavedFileNames().split(FILE_NAME_SEPARATOR)), HttpStatus.OK);
+                }
+                List<ChunkedUploadSessionFile> files = chunkedUploadSessionFileRepository.findAllBySessionIdOrderByFileIndex(sessionId);
+                List<String> contentHashes = new ArrayList<>();
+                for (ChunkedUploadSessionFile file : files) {
+                    if (file.getReceived() != file.getSize()) {
+                        return responseUtils.createResponseDTO(VarList.RSP_FAIL, FileValidationMessages.INCOMPLETE_FILE, toDTO(session, files), HttpStatus.ACCEPTED);
+                    }
+                    String contentHash = HexFormat.of().formatHex(getRollingHash(file).digest());
+                    if (file.getSha256() != null && !file.getSha256().equalsIgnoreCase(contentHash)) {
+                        return responseUtils.createResponseDTO(VarList.RSP_FAIL, FileValidationMessages.INVALID_CHECKSUM, toDTO(session, files), HttpStatus.ACCEPTED);
+                    }
+                    contentHashes.add(contentHash);
+                }
+                List<String> savedFileNames = new ArrayList<>();
+                for (int i = 0; i < files.size(); i++) {
+                    ChunkedUploadSessionFile file = files.get(i);
+                    try {
+                        savedFileNames.add(fileStoreService.storeFile(getPartialFile(file), contentHashes.get(i), file.getSize(), file.getFileName(), session.getFileType()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                session.setSavedFileNames(String.join(FILE_NAME_SEPARATOR, savedFileNames));
+                session.setLastUsedAt(Instant.now());
+                chunkedUploadSessionRepository.save(session);
+                afterCommit(() -> deletePartialFiles(sessionId));
+                return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, savedFileNames, HttpStatus.OK);
+            });
+        } catch (Exception e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> completeUpload()" + e);
+            return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Cancels a chunked upload and deletes its partial files.
+     *
+     * @param token     the authorization token of the user
+     * @param sessionId the ID of the session
+     * @return a ResponseEntity containing a ResponseDTO with the result of the operation
+     */
+    public ResponseEntity<ResponseDTO> cancelUpload(String token, String sessionId) {
+        try {
+            String userName = userAccountService.getUserNameFromToken(token);
+            if (!deleteSession(sessionId, isOwnedBy(userName))) {
+                return responseUtils.createResponseDTO(VarList.RSP_NO_DATA_FOUND, CommonMessages.NO_DATA, null, HttpStatus.ACCEPTED);
+            }
+            return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.DELETED_SUCCESSFULLY, null, HttpStatus.OK);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> cancelUpload()" + e);
+            return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Deletes the sessions that have not been used for the session timeout, with their partial files. Every
+     * instance runs this, and a session used again before it is locked is kept.
+     */
+    @Scheduled(fixedDelayString = "${chunked-upload.cleanup-interval-ms:600000}")
+    public void deleteExpiredSessions() {
+        try {
+            Instant lastUsedBefore = Instant.now().minus(sessionTimeout);
+            for (String sessionId : chunkedUploadSessionRepository.findAllSessionIdsLastUsedBefore(lastUsedBefore)) {
+                deleteSession(sessionId, session -> session.getLastUsedAt().isBefore(lastUsedBefore));
+            }
+        } catch (Exception e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> deleteExpiredSessions()" + e);
+        }
+    }
+
+    /**
+     * Receives a chunk into a file of its own and checks it, then appends it to the partial file.
+     *
+     * @param file        the file of the session
+     * @param offset      the offset of the chunk
+     * @param checksum    the CRC32C checksum of the chunk, or -1 if it is missing
+     * @param inputStream the content of the chunk
+     * @return a validation message if the chunk was dropped, or null if it was written
+     * @throws IOException if the chunk cannot be read or written
+     */
+    private String receiveChunk(ChunkedUploadSessionFile file, long offset, long checksum, InputStream inputStream) throws IOException {
+        long limit = Math.min(file.getSize(), offset + maxChunkSize) - offset;
+        Path chunk = Files.createTempFile(getSessionDirectory(file.getSessionId()), "chunk", null);
+        try {
+            CRC32C crc = new CRC32C();
+            long length = 0;
+            try (OutputStream outputStream = Files.newOutputStream(chunk)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    length += read;
+                    if (length > limit) {
+                        return FileValidationMessages.LARGE_FILE;
+                    }
+                    crc.update(buffer, 0, read);
+                    outputStream.write(buffer, 0, read);
+                }
+            }
+            if (crc.getValue() != checksum) {
+                return FileValidationMessages.INVALID_CHECKSUM;
+            }
+            long chunkLength = length;
+            return transactionTemplate.execute(status -> appendChunk(file.getFileId(), offset, chunk, chunkLength));
+        } finally {
+            Files.deleteIfExists(chunk);
+        }
+    }
+
+    /**
+     * Appends a received chunk to the partial file and its rolling hash while the row of the file is locked, if
+     * its offset is still the bytes received. The rolling hash is kept once the transaction has committed.
+     *
+     * @param fileId the ID of the file of the session
+     * @param offset the offset of the chunk
+     * @param chunk  the file the chunk was received into
+     * @param length the length of the chunk
+     * @return a validation message if the chunk was dropped, or null if it was written
+     */
+    private String appendChunk(String fileId, long offset, Path chunk, long length) {
+        ChunkedUploadSessionFile file = chunkedUploadSessionFileRepository.findLockedByFileId(fileId).orElse(null);
+        if (file == null) {
+            return CommonMessages.NO_DATA;
+        }
+        if (file.getReceived() != offset) {
+            return FileValidationMessages.INVALID_OFFSET;
+        }
+        MessageDigest digest = getRollingHash(file);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long position = offset;
+        try (InputStream inputStream = Files.newInputStream(chunk);
+             FileChannel channel = FileChannel.open(getPartialFile(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        file.setReceived(offset + length);
+        chunkedUploadSessionFileRepository.save(file);
+        RollingHash rollingHash = new RollingHash(file.getReceived(), digest);
+        afterCommit(() -> rollingHashes.put(fileId, rollingHash));
+        return null;
+    }
+
+    /**
+     * Returns a copy of the rolling hash of the bytes received of a file, hashing its partial file up to them when
+     * this instance has no rolling hash of them.
+     *
+     * @param file the file of the session
+     * @return the rolling hash, which the caller may update
+     */
+    private MessageDigest getRollingHash(ChunkedUploadSessionFile file) {
+        RollingHash rollingHash = rollingHashes.getIfPresent(file.getFileId());
+        if (rollingHash != null && rollingHash.received() == file.getReceived()) {
+            return rollingHash.copyDigest();
+        }
+        MessageDigest digest = createDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = file.getReceived();
+        if (remaining == 0) {
+            return digest;
+        }
+        try (InputStream inputStream = Files.newInputStream(getPartialFile(file))) {
+            while (remaining > 0) {
+                int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    throw new IOException("Partial file is shorter than the bytes received :" + file.getFileId());
+                }
+                digest.update(buffer, 0, read);
+                remaining -= read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return digest;
+    }
+
+    /**
+     * Deletes a session and its files once the given condition holds for it while it is locked, and its partial
+     * files once the deletion has committed.
+     *
+     * @param sessionId the ID of the session
+     * @param condition the condition the locked session must meet
+     * @return true if the session was deleted, false otherwise
+     */
+    private boolean deleteSession(String sessionId, Predicate<ChunkedUploadSession> condition) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            ChunkedUploadSession session = chunkedUploadSessionRepository.findLockedBySessionId(sessionId).filter(condition).orElse(null);
+            if (session == null) {
+                return false;
+            }
+            chunkedUploadSessionFileRepository.deleteAllBySessionId(sessionId);
+            chunkedUploadSessionRepository.delete(session);
+            afterCommit(() -> deletePartialFiles(sessionId));
+            return true;
+        }));
+    }
+
+    private void deletePartialFiles(String sessionId) {
+        rollingHashes.asMap().keySet().removeIf(fileId -> fileId.startsWith(sessionId + FILE_ID_SEPARATOR));
+        try {
+            FileSystemUtils.deleteRecursively(getSessionDirectory(sessionId));
+        } catch (IOException e) {
+            log.warn("/**************** Exception in ChunkedUploadService -> deletePartialFiles()" + e);
+        }
+    }
+
+    private ChunkedUploadSession getOwnedSession(String token, String sessionId) {
+        String userName = userAccountService.getUserNameFromToken(token);
+        return chunkedUploadSessionRepository.findById(sessionId).filter(isOwnedBy(userName)).orElse(null);
+    }
+
+    private static Predicate<ChunkedUploadSession> isOwnedBy(String userName) {
+        return session -> userName != null && userName.equals(session.getUserName());
+    }
+
+    private ChunkedUploadDTO toDTO(ChunkedUploadSession session) {
+        return toDTO(session, chunkedUploadSessionFileRepository.findAllBySessionIdOrderByFileIndex(session.getSessionId()));
+    }
+
+    private static ChunkedUploadDTO toDTO(ChunkedUploadSession session, List<ChunkedUploadSessionFile> files) {
+        List<ChunkedUploadFileDTO> fileDTOs = new ArrayList<>();
+        for (ChunkedUploadSessionFile file : files) {
+            fileDTOs.add(new ChunkedUploadFileDTO(file.getFileName(), file.getContentType(), file.getSize(), file.getSha256(), file.getReceived()));
+        }
+        return new ChunkedUploadDTO(session.getSessionId(), session.getFileType(), fileDTOs);
+    }
+
+    /**
+     * Validates the files of a chunked upload and returns a list of error messages for any validation errors found.
+     *
+     * @param chunkedUploadDTO the chunked upload to be validated
+     * @return a list of error messages; an empty list if no validation errors are found
+     */
+    private List<String> validateUpload(ChunkedUploadDTO chunkedUploadDTO) {
+        List<String> validations = new ArrayList<>();
+        if (!ValidatorUtils.fileTypeValidator.test(chunkedUploadDTO.getFileType())) {
+            validations.add(FileValidationMessages.INVALID_FILE_TYPE);
+        }
+        if (CollectionUtils.isEmpty(chunkedUploadDTO.getFiles())) {
+            validations.add(FileValidationMessages.EMPTY_FILE_TYPE);
+            return validations;
+        }
+        for (ChunkedUploadFileDTO file : chunkedUploadDTO.getFiles()) {
+            if (file.getSize() <= 0) {
+                validations.add(FileValidationMessages.EMPTY_FILE_TYPE);
+                return validations;
+            }
+            if (!fileService.isValidContentType(file.getContentType())) {
+                validations.add(FileValidationMessages.INVALID_FILE_TYPE);
+                return validations;
+            }
+            if (file.getSize() > maxFileSize) {
+                validations.add(FileValidationMessages.LARGE_FILE);
+            }
+        }
+        return validations;
+    }
+
+    private static long parseChecksum(String checksum) {
+        try {
+            return Long.parseUnsignedLong(checksum, 16);
+        } catch (NumberFormatException | NullPointerException e) {
+            return -1;
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path getSessionDirectory(String sessionId) throws IOException {
+        return fileStoreService.getTempDirectory().resolve(UPLOAD_DIRECTORY).resolve(sessionId);
+    }
+
+    private Path getPartialFile(ChunkedUploadSessionFile file) throws IOException {
+        return getSessionDirectory(file.getSessionId()).resolve(String.valueOf(file.getFileIndex()));
+    }
+
+    private static String getFileId(String sessionId, int fileIndex) {
+        return sessionId + FILE_ID_SEPARATOR + fileIndex;
+    }
+
+    /**
+     * Runs an action once the current transaction has committed, or at once without a transaction.
+     *
+     * @param action the action to run
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * The rolling hash of the first bytes of a file, kept by the instance that appended them.
+     */
+    private record RollingHash(long received, MessageDigest digest) {
+
+        MessageDigest copyDigest() {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.cims.user.services;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Globals;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * Service class that writes stored files to HTTP responses.
+ * <p>
+ * A file is sent with its length, an ETag and its last modified time, so browsers revalidate a file they have seen
+ * and get a 304 without a body. The ETag is strong when the caller knows a tag of the content, e.g. the SHA-256 hash
+ * of a stored file, and weak otherwise, as the length and last modified time of a file do not prove its content. Byte ranges are supported, so a large file can be resumed or read in parts. The
+ * file is copied by the kernel with sendfile when Tomcat supports it, and with {@link FileChannel#transferTo}
+ * otherwise, so its content is never loaded into the heap.
+ */
+@Service
+@Slf4j
+public class FileDownloadService {
+
+    private static final ResourceRegionHttpMessageConverter REGION_CONVERTER = new ResourceRegionHttpMessageConverter();
+
+    /**
+     * Writes a file, or the ranges of it the request asks for, to the response.
+     *
+     * @param request  the HTTP request, read for its conditional and range headers
+     * @param response the HTTP response to write the file to
+     * @param file     the path of the stored file
+     * @param fileName the name the file is shown with, which also gives its content type
+     * @throws IOException if the file cannot be read or the response cannot be written
+     */
+    public void writeFile(HttpServletRequest request, HttpServletResponse response, Path file, String fileName) throws IOException {
+        writeFile(request, response, file, fileName, null, CacheControl.noCache().cachePrivate());
+    }
+
+    /**
+     * Writes a file whose content is identified by the given tag, or the ranges of it the request asks for, to the
+     * response.
+     *
+     * @param request    the HTTP request, read for its conditional and range headers
+     * @param response   the HTTP response to write the file to
+     * @param file       the path of the stored file
+     * @param fileName   the name the file is shown with, which also gives its content type
+     * @param contentTag a tag that changes whenever the content does, e.g. its SHA-256 hash, sent as a strong ETag;
+     *                   or null to send a weak ETag made from the length and last modified time of the file
+     * @throws IOException if the file cannot be read or the response cannot be written
+     */
+    public void writeFile(HttpServletRequest request, HttpServletResponse response, Path file, String fileName, String contentTag) throws IOException {
+        writeFile(request, response, file, fileName, contentTag, CacheControl.noCache().cachePrivate());
+    }
+
+    /**
+     * Writes a file, or the ranges of it the request asks for, to the response with the given caching policy, e.g.
+     * a long lived immutable one for a file whose URL never serves other content.
+     *
+     * @param request      the HTTP request, read for its conditional and range headers
+     * @param response     the HTTP response to write the file to
+     * @param file         the path of the stored file
+     * @param fileName     the name the file is shown with, which also gives its content type
+     * @param contentTag   a tag that changes whenever the content does, e.g. its SHA-256 hash, sent as a strong ETag;
+     *                     or null to send a weak ETag made from the length and last modified time of the file
+     * @param cacheControl the Cache-Control header sent with the file
+     * @throws IOException if the file cannot be read or the response cannot be written
+     */
+    public void writeFile(HttpServletRequest request, HttpServletResponse response, Path file, String fileName, String contentTag, CacheControl cacheControl) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = createETag(contentTag, length, lastModified);
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build().toString());
+
+        List<HttpRange> ranges = getRanges(request, eTag, lastModified);
+        if (ranges.isEmpty()) {
+            response.setContentType(mediaType.toString());
+            writeRegion(request, response, file, 0, length);
+            return;
+        }
+        List<ResourceRegion> regions;
+        try {
+            regions = HttpRange.toResourceRegions(ranges, new FileSystemResource(file));
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (regions.size() == 1) {
+            ResourceRegion region = regions.get(0);
+            long start = region.getPosition();
+            long end = start + region.getCount() - 1;
+            response.setContentType(mediaType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            writeRegion(request, response, file, start, region.getCount());
+        } else {
+            // Several ranges are sent as multipart/byteranges, which browsers rarely ask for
+            REGION_CONVERTER.write(regions, mediaType, new ServletServerHttpResponse(response));
+        }
+    }
+
+    /**
+     * Returns the ranges the request asks for, or none when the whole file should be sent: when there is no Range
+     * header, when it cannot be parsed, or when its If-Range validator does not match the current file. A weak ETag
+     * never matches, as a range may only be combined with a copy that has the same bytes.
+     *
+     * @param request      the HTTP request
+     * @param eTag         the ETag of the file
+     * @param lastModified the last modified time of the file in milliseconds
+     * @return the requested ranges, or an empty list for the whole file
+     */
+    private List<HttpRange> getRanges(HttpServletRequest request, String eTag, long lastModified) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !(ifRange.equals(eTag) && !eTag.startsWith("W/"))) {
+            long ifRangeDate;
+            try {
+                ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            } catch (IllegalArgumentException e) {
+                return List.of();
+            }
+            if (ifRangeDate == -1 || ifRangeDate / 1000 != lastModified / 1000) {
+                return List.of();
+            }
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            log.info("/************* Ignoring invalid Range header :" + range);
+            return List.of();
+        }
+    }
+
+    /**
+     * Writes a region of a file to the response body, handing the file to Tomcat's sendfile when the connector
+     * supports it.
+     *
+     * @param request  the HTTP request
+     * @param response the HTTP response
+     * @param file     the path of the file
+     * @param position the first byte of the region
+     * @param count    the number of bytes of the region
+     * @throws IOException if the file cannot be read or the response cannot be written
+     */
+    private void writeRegion(HttpServletRequest request, HttpServletResponse response, Path file, long position, long count) throws IOException {
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, position);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, position + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            while (count > 0) {
+                long transferred = channel.transferTo(position, count, target);
+                if (transferred <= 0) {
+                    throw new IOException("File " + file + " ended before the expected length");
+                }
+                position += transferred;
+                count -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Creates the ETag of a file: a strong one from the tag of its content, or else a weak one from its length and
+     * last modified time, which may stay the same when a file in a legacy upload directory is replaced.
+     *
+     * @param contentTag   the tag of the content, or null if it is not known
+     * @param length       the length of the file
+     * @param lastModified the last modified time of the file in milliseconds
+     * @return the quoted ETag
+     */
+    private static String createETag(String contentTag, long length, long lastModified) {
+        if (contentTag != null) {
+            return "\"" + contentTag + "\"";
+        }
+        return "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+}
@@ -18,9 +18,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,6 +36,9 @@ public class FileService {
     @Autowired
     private ResponseUtils responseUtils;
 
+    @Autowired
+    private FileStoreService fileStoreService;
+
     /**
      * Uploads one or more files of a given type, performs basic validation, saves the file(s) to disk, and returns a response
      * with the status of the operation and the saved file path(s).
@@ -74,8 +76,8 @@ public class FileService {
     }
 
     /**
-     * Retrieves the file name for a given document id and document type, based on the
-     * configured file locations. The file name is constructed by concatenating the file
+     * Retrieves the file name for a given document id and document type. Files saved to the file store are
+     * found by their name; older files are found in the configured file locations, by concatenating the file
      * name with the configured document or history location. If no file name is found for
      * the given document type and id, a log message is printed and null is returned.
      *
@@ -85,6 +87,10 @@ public class FileService {
      * @return the file name for the given document id and type, or null if no file is found
      */
     public String downloadFile(String id, String docName, FileType fileType) {
+        Path storedFile = fileStoreService.getFile(docName);
+        if (storedFile != null) {
+            return storedFile.toString();
+        }
         String fileName;
         switch (fileType) {
             case DOCUMENT:
@@ -132,74 +138,36 @@ public class FileService {
     }
 
     /**
-     * Saves a document file to the location specified in the application's properties file and returns the generated document name.
+     * Saves a document file to the file store and returns the generated document name.
      *
      * @param file the document file to save
      * @return the generated name of the saved document file
      * @throws IOException if an error occurs while saving the file
      */
     public String saveDocument(MultipartFile file) throws IOException {
-        String documentName = generateFileName(file);
-        String filePath = propertyConfig.getDocumentLocation().concat(File.separator).concat(documentName);
-        saveFile(file, filePath);
-        return documentName;
+        return fileStoreService.store(file, FileType.DOCUMENT);
     }
 
     /**
-     * Saves a history file to the location specified in the application's properties file and returns the generated history name.
+     * Saves a history file to the file store and returns the generated history name.
      *
      * @param file the history file to save
      * @return the generated name of the saved history file
      * @throws IOException if an error occurs while saving the file
      */
     public String saveHistory(MultipartFile file) throws IOException {
-        String historyName = generateFileName(file);
-        String filePath = propertyConfig.getHistoryLocation().concat(File.separator).concat(historyName);
-        saveFile(file, filePath);
-        return historyName;
+        return fileStoreService.store(file, FileType.HISTORY);
     }
 
     /**
-     * Saves a project file to the location specified in the application's properties file and returns the generated project name.
+     * Saves a project file to the file store and returns the generated project name.
      *
      * @param file the project file to save
      * @return the generated name of the saved project file
      * @throws IOException if an error occurs while saving the file
      */
     public String saveProject(MultipartFile file) throws IOException {
-        String projectName = generateFileName(file);
-        String filePath = propertyConfig.getProjectLocation().concat(File.separator).concat(projectName);
-        saveFile(file, filePath);
-        return projectName;
-    }
-
-    /**
-     * Generates a file name for the specified file by concatenating the original file name with a timestamp.
-     *
-     * @param file the file to generate a name for
-     * @return the generated name of the file
-     */
-    private String generateFileName(MultipartFile file) {
-        String originalFilename = file.getOriginalFilename();
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        return originalFilename.concat("_").concat(timestamp);
-    }
-
-    /**
-     * Saves a file to the specified file path.
-     *
-     * @param file     the file to save
-     * @param filePath the location to save the file to
-     * @throws IOException if an error occurs while saving the file
-     */
-    public void saveFile(MultipartFile file, String filePath) throws IOException {
-        File destination = new File(filePath);
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException e) {
-            log.warn("/**************** Exception in FileService -> saveFile()", e);
-            throw e;
-        }
+        return fileStoreService.store(file, FileType.PROJECT);
     }
 
     /**
@@ -243,7 +211,16 @@ public class FileService {
      * @return true if the file is of a valid type, false otherwise
      */
     private boolean isValidFileType(MultipartFile file) {
-        String contentType = file.getContentType();
+        return isValidContentType(file.getContentType());
+    }
+
+    /**
+     * Determines whether a content type is one of the file types that can be uploaded.
+     *
+     * @param contentType the content type to validate
+     * @return true if the content type is valid, false otherwise
+     */
+    public boolean isValidContentType(String contentType) {
         if (contentType == null) {
             return false;
         }
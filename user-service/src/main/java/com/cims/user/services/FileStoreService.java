@@ -0,0 +1,305 @@
+package com.cims.user.services;
+
+import com.cims.user.config.PropertyConfig;
+import com.cims.user.constants.enums.FileType;
+import com.cims.user.entities.StoredFile;
+import com.cims.user.repositories.FileBlobRepository;
+import com.cims.user.repositories.StoredFileRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Service class that stores uploaded files by the SHA-256 hash of their content.
+ * <p>
+ * An upload is hashed while it is written to a temporary file, and its content is kept once under
+ * {@code ab/cd/<hash>} in the store location, so no directory grows past a few thousand entries. Each upload gets
+ * a unique name mapped to the hash, and each content counts the names that refer to it. An upload whose content
+ * is already stored only adds a name: the temporary file is dropped without writing to the store.
+ * <p>
+ * The reference count of a content is changed in the transaction that moves its file, and the row stays locked
+ * until it commits. The file of a content no longer referred to is deleted once the release has committed, in a
+ * new transaction that first reads the row with a lock: a new upload of the content either has committed its row,
+ * and the file is kept, or waits for the lock and then finds no file to skip its move.
+ */
+@Service
+@Slf4j
+public class FileStoreService {
+
+    private static final String TEMP_DIRECTORY = "tmp";
+
+    private static final char NAME_SEPARATOR = '_';
+
+    private static final int MAX_FILE_NAME_LENGTH = 200;
+
+    @Autowired
+    private PropertyConfig propertyConfig;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private FileBlobRepository fileBlobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    private final Cache<String, String> contentHashes;
+
+    /**
+     * Constructor that sets up the cache of stored file names.
+     *
+     * @param maximumSize the maximum number of names kept
+     */
+    public FileStoreService(@Value("${file-store.index-cache.maximum-size:10000}") long maximumSize) {
+        this.contentHashes = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Stores an uploaded file and returns the unique name it is known by.
+     *
+     * @param file     the uploaded file
+     * @param fileType the type of the file
+     * @return the name of the stored file
+     * @throws IOException if the file cannot be read or stored
+     */
+    public String store(MultipartFile file, FileType fileType) throws IOException {
+        Path tempFile = Files.createTempFile(getTempDirectory(), "upload", null);
+        try {
+            long size;
+            MessageDigest digest = createDigest();
+            try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return storeFile(tempFile, HexFormat.of().formatHex(digest.digest()), size, file.getOriginalFilename(), fileType);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Stores a file whose content has already been hashed, e.g. an upload received in chunks, and returns the
+     * unique name it is known by. The derivatives of an image are then produced in the background. The file is moved into the store, or left for the caller to delete if its
+     * content is already stored, so it must be on the same file system as the store.
+     *
+     * @param file             the file to store
+     * @param contentHash      the hex encoded SHA-256 hash of its content
+     * @param size             the size of the file
+     * @param originalFilename the original name of the file
+     * @param fileType         the type of the file
+     * @return the name of the stored file
+     * @throws IOException if the file cannot be stored
+     */
+    public String storeFile(Path file, String contentHash, long size, String originalFilename, FileType fileType) throws IOException {
+        String name = createName(originalFilename);
+        StoredFile storedFile = new StoredFile(name, contentHash, fileType, size, Instant.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                fileBlobRepository.addReference(contentHash, size);
+                moveToStore(file, contentHash);
+                storedFileRepository.save(storedFile);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        contentHashes.put(name, contentHash);
+        imageDerivativeService.generateAsync(getContentPath(contentHash), originalFilename);
+        return name;
+    }
+
+    /**
+     * Returns the directory for temporary files, on the same file system as the store so they can be moved into it.
+     *
+     * @return the temporary directory
+     * @throws IOException if the directory cannot be created
+     */
+    public Path getTempDirectory() throws IOException {
+        return Files.createDirectories(getStoreLocation().resolve(TEMP_DIRECTORY));
+    }
+
+    /**
+     * Returns the path of the content of a stored file.
+     *
+     * @param name the name of the stored file
+     * @return the path of its content, or null if no file is stored under the name
+     */
+    public Path getFile(String name) {
+        String contentHash = getContentHash(name);
+        return contentHash != null ? getContentPath(contentHash) : null;
+    }
+
+    /**
+     * Returns the SHA-256 hash of the content of a stored file, which identifies the content, e.g. in its ETag.
+     *
+     * @param name the name of the stored file
+     * @return the hex encoded hash of its content, or null if no file is stored under the name
+     */
+    public String getContentHash(String name) {
+        if (name == null) {
+            return null;
+        }
+        String contentHash = contentHashes.getIfPresent(name);
+        if (contentHash == null) {
+            contentHash = storedFileRepository.findById(name).map(StoredFile::getContentHash).orElse(null);
+            if (contentHash != null) {
+                contentHashes.put(name, contentHash);
+            }
+        }
+        return contentHash;
+    }
+
+    /**
+     * Removes the name of a stored file, and deletes its content and image derivatives once the removal has
+     * committed if no other name refers to it.
+     *
+     * @param name the name of the stored file
+     */
+    public void release(String name) {
+        contentHashes.invalidate(name);
+        transactionTemplate.executeWithoutResult(status -> storedFileRepository.findById(name).ifPresent(storedFile -> {
+            storedFileRepository.delete(storedFile);
+            fileBlobRepository.removeReference(storedFile.getContentHash());
+            if (fileBlobRepository.deleteIfUnreferenced(storedFile.getContentHash()) > 0) {
+                deleteContentAfterCommit(storedFile.getContentHash());
+            }
+        }));
+    }
+
+    /**
+     * Deletes the file of a content once the current transaction has committed, so a rolled back release keeps it.
+     * Without a transaction the file is deleted at once.
+     *
+     * @param contentHash the hex encoded hash of the content
+     */
+    private void deleteContentAfterCommit(String contentHash) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteContentIfUnreferenced(contentHash);
+                }
+            });
+        } else {
+            deleteContentIfUnreferenced(contentHash);
+        }
+    }
+
+    /**
+     * Deletes the file and image derivatives of a content unless it has been stored again, while holding the lock
+     * on its row. A failure is only logged, as the release has already committed and the file is then left over.
+     *
+     * @param contentHash the hex encoded hash of the content
+     */
+    private void deleteContentIfUnreferenced(String contentHash) {
+        TransactionTemplate newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> {
+                if (fileBlobRepository.findLockedByContentHash(contentHash).isPresent()) {
+                    return;
+                }
+                Path contentPath = getContentPath(contentHash);
+                try {
+                    Files.deleteIfExists(contentPath);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                imageDerivativeService.deleteDerivatives(contentPath);
+            });
+        } catch (Exception e) {
+            log.warn("/**************** Exception in FileStoreService -> deleteContentIfUnreferenced()" + e);
+        }
+    }
+
+    /**
+     * Moves a temporary file into the store under the hash of its content, unless that content is already stored.
+     *
+     * @param tempFile    the temporary file
+     * @param contentHash the hex encoded hash of its content
+     */
+    private void moveToStore(Path tempFile, String contentHash) {
+        Path contentPath = getContentPath(contentHash);
+        if (Files.exists(contentPath)) {
+            return;
+        }
+        try {
+            Files.createDirectories(contentPath.getParent());
+            Files.move(tempFile, contentPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            log.info("/************* Content already stored :" + contentHash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the path of a content in the sharded directory tree, under two levels named by the first four hex
+     * digits of its hash.
+     *
+     * @param contentHash the hex encoded hash of the content
+     * @return the path of the content
+     */
+    private Path getContentPath(String contentHash) {
+        return getStoreLocation()
+                .resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash);
+    }
+
+    private Path getStoreLocation() {
+        return Path.of(propertyConfig.getStoreLocation());
+    }
+
+    /**
+     * Creates a unique name for an upload, from its original name without any path and a random suffix, so that
+     * concurrent uploads of the same name never collide.
+     *
+     * @param originalFilename the original name of the file
+     * @return the unique name
+     */
+    private static String createName(String originalFilename) {
+        String suffix = UUID.randomUUID().toString();
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(originalFilename == null ? "" : originalFilename));
+        if (fileName == null || fileName.isBlank()) {
+            return suffix;
+        }
+        if (fileName.length() > MAX_FILE_NAME_LENGTH) {
+            fileName = fileName.substring(fileName.length() - MAX_FILE_NAME_LENGTH);
+        }
+        return fileName + NAME_SEPARATOR + suffix;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.cims.user.services;
+
+import com.cims.user.config.PropertyConfig;
+import com.cims.user.constants.enums.ImageSize;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class that produces scaled down copies of uploaded images, so that a page showing an image in a list or a
+ * preview box does not download the full upload.
+ * <p>
+ * A derivative is written next to its original as {@code <original>.<size>.jpg}, or {@code .png} for images with
+ * transparency, the first time it is asked for or in the background after an upload. Originals are never changed in
+ * place, so neither are their derivatives, and browsers may cache them for good. Images are decoded with
+ * subsampling, so a large upload is never held in memory at full resolution.
+ * <p>
+ * The derivatives on disk are kept within a size budget, deleting the least recently used first. Their use is
+ * tracked in memory; after a restart the derivatives already on disk are indexed in the order they were written.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeService {
+
+    private static final String JPEG = "jpg";
+
+    private static final String PNG = "png";
+
+    private static final List<String> FORMATS = List.of(JPEG, PNG);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    private static final long MAX_UNSCALABLE = 10_000;
+
+    private static final int MAX_DEPTH = 3;
+
+    private static final String SIZES = Arrays.stream(ImageSize.values())
+            .map(size -> size.name().toLowerCase(Locale.ROOT))
+            .collect(Collectors.joining("|"));
+
+    private static final Pattern DERIVATIVE_NAME = Pattern.compile(".+\\.(" + SIZES + ")\\.(" + JPEG + "|" + PNG + ")");
+
+    private static final Pattern TEMP_NAME = Pattern.compile(".+\\.(" + SIZES + ")\\.\\d+\\.tmp");
+
+    @Autowired
+    private PropertyConfig propertyConfig;
+
+    private final long diskBudget;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Cache<Path, Boolean> unscalable;
+
+    private final ConcurrentMap<Path, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+
+    // Guarded by itself; kept in access order, so the first entry is the least recently used
+    private final LinkedHashMap<Path, Derivative> derivatives = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalSize;
+
+    /**
+     * Constructor that sets up the disk budget and the pool the derivatives of new uploads are produced on.
+     *
+     * @param diskBudget    the total size of the derivatives kept on disk
+     * @param threads       the number of threads producing derivatives after uploads
+     * @param queueCapacity the number of uploads that may wait for a thread; further uploads get their derivatives
+     *                      on first request
+     */
+    public ImageDerivativeService(@Value("${image-derivative.disk-budget:1GB}") DataSize diskBudget,
+                                  @Value("${image-derivative.threads:1}") int threads,
+                                  @Value("${image-derivative.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.diskBudget = diskBudget.toBytes();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-derivative-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.unscalable = Caffeine.newBuilder().maximumSize(MAX_UNSCALABLE).build();
+    }
+
+    /**
+     * Indexes the derivatives already on disk in the background, so they count towards the disk budget.
+     */
+    @PostConstruct
+    public void init() {
+        executor.execute(this::indexDerivatives);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns a derivative of an image, producing it if it does not exist yet. Concurrent requests for the same
+     * derivative wait for a single copy to be produced.
+     *
+     * @param original the path of the original image
+     * @param size     the size of the derivative
+     * @return the path of the derivative, or null if the original should be served instead: when it is not an image
+     * that can be decoded, or already fits the size
+     */
+    public Path getDerivative(Path original, ImageSize size) {
+        Path base = getBase(original, size);
+        Path file = touch(base);
+        if (file != null || unscalable.getIfPresent(base) != null || !Files.isRegularFile(original)) {
+            return file;
+        }
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> running = pending.putIfAbsent(base, created);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            file = findOnDisk(base);
+            if (file == null) {
+                file = createDerivative(original, size, base);
+            }
+            if (file == null) {
+                unscalable.put(base, Boolean.TRUE);
+            } else {
+                record(base, file, Files.size(file));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("/**************** Exception in ImageDerivativeService -> getDerivative()" + e);
+            unscalable.put(base, Boolean.TRUE);
+            file = null;
+        } finally {
+            created.complete(file);
+            pending.remove(base, created);
+        }
+        return file;
+    }
+
+    /**
+     * Produces the derivatives of a new upload in the background, if it is an image. When the pool is busy the
+     * upload is skipped, and its derivatives are produced on first request.
+     *
+     * @param original the path of the uploaded file
+     * @param fileName the original name of the upload, which gives its content type
+     */
+    public void generateAsync(Path original, String fileName) {
+        boolean image = fileName != null && MediaTypeFactory.getMediaType(fileName)
+                .map(mediaType -> "image".equals(mediaType.getType()))
+                .orElse(false);
+        if (!image) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                for (ImageSize size : ImageSize.values()) {
+                    getDerivative(original, size);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.info("/************* Derivatives left for first request :" + original);
+        }
+    }
+
+    /**
+     * Deletes the derivatives of an original that has been deleted.
+     *
+     * @param original the path of the original image
+     */
+    public void deleteDerivatives(Path original) {
+        for (ImageSize size : ImageSize.values()) {
+            Path base = getBase(original, size);
+            unscalable.invalidate(base);
+            synchronized (derivatives) {
+                Derivative derivative = derivatives.remove(base);
+                if (derivative != null) {
+                    totalSize -= derivative.size();
+                }
+            }
+            for (String format : FORMATS) {
+                delete(withFormat(base, format));
+            }
+        }
+    }
+
+    /**
+     * Returns the name a derivative is served with: the name of its original with the extension of the derivative,
+     * which gives its content type.
+     *
+     * @param fileName   the name of the original
+     * @param derivative the path of the derivative
+     * @return the name of the derivative
+     */
+    public static String getFileName(String fileName, Path derivative) {
+        return StringUtils.stripFilenameExtension(fileName) + "." + StringUtils.getFilenameExtension(derivative.getFileName().toString());
+    }
+
+    /**
+     * Indexes the derivatives found in the file store and the legacy upload directories, oldest first, ahead of
+     * those recorded since the service started, and deletes the temporary files of derivatives left by a crash.
+     */
+    public void indexDerivatives() {
+        Map<Path, BasicFileAttributes> found = new HashMap<>();
+        for (String location : List.of(propertyConfig.getStoreLocation(), propertyConfig.getDocumentLocation(),
+                propertyConfig.getHistoryLocation(), propertyConfig.getProjectLocation())) {
+            Path directory = Path.of(location);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory, MAX_DEPTH)) {
+                files.forEach(file -> {
+                    String name = file.getFileName().toString();
+                    if (DERIVATIVE_NAME.matcher(name).matches()) {
+                        readAttributes(file.toAbsolutePath().normalize(), found);
+                    } else if (TEMP_NAME.matcher(name).matches()) {
+                        delete(file);
+                    }
+                });
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("/**************** Exception in ImageDerivativeService -> indexDerivatives()" + e);
+            }
+        }
+        List<Path> evicted;
+        synchronized (derivatives) {
+            Map<Path, Derivative> recent = new LinkedHashMap<>(derivatives);
+            derivatives.clear();
+            totalSize = 0;
+            found.entrySet().stream()
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                    .forEach(entry -> {
+                        Path file = entry.getKey();
+                        Path base = file.resolveSibling(StringUtils.stripFilenameExtension(file.getFileName().toString()));
+                        if (!recent.containsKey(base)) {
+                            put(base, new Derivative(file, entry.getValue().size()));
+                        }
+                    });
+            recent.forEach(this::put);
+            evicted = evict();
+        }
+        evicted.forEach(ImageDerivativeService::delete);
+        log.info("/************* Indexed image derivatives :" + found.size());
+    }
+
+    /**
+     * Returns the indexed derivative for a base path and marks it as the most recently used.
+     *
+     * @param base the path of the derivative without its format extension
+     * @return the path of the derivative, or null if it is not indexed
+     */
+    private Path touch(Path base) {
+        synchronized (derivatives) {
+            Derivative derivative = derivatives.get(base);
+            return derivative == null ? null : derivative.file();
+        }
+    }
+
+    /**
+     * Indexes a derivative as the most recently used, and deletes the least recently used ones past the disk
+     * budget. The derivative just recorded is never deleted, even if it is larger than the budget on its own.
+     *
+     * @param base the path of the derivative without its format extension
+     * @param file the path of the derivative
+     * @param size the size of the derivative
+     */
+    private void record(Path base, Path file, long size) {
+        List<Path> evicted;
+        synchronized (derivatives) {
+            put(base, new Derivative(file, size));
+            evicted = evict();
+        }
+        evicted.forEach(ImageDerivativeService::delete);
+    }
+
+    private void put(Path base, Derivative derivative) {
+        Derivative previous = derivatives.put(base, derivative);
+        if (previous != null) {
+            totalSize -= previous.size();
+        }
+        totalSize += derivative.size();
+    }
+
+    private List<Path> evict() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Derivative> iterator = derivatives.values().iterator();
+        while (totalSize > diskBudget && derivatives.size() > 1) {
+            Derivative eldest = iterator.next();
+            iterator.remove();
+            totalSize -= eldest.size();
+            evicted.add(eldest.file());
+        }
+        return evicted;
+    }
+
+    private static Path findOnDisk(Path base) {
+        for (String format : FORMATS) {
+            Path file = withFormat(base, format);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scales an image down to a size and writes it next to the original, through a temporary file so a derivative
+     * is never read half written.
+     *
+     * @param original the path of the original image
+     * @param size     the size of the derivative
+     * @param base     the path of the derivative without its format extension
+     * @return the path of the derivative, or null if the original is not a supported image or already fits the size
+     * @throws IOException if the original cannot be read or the derivative cannot be written
+     */
+    private static Path createDerivative(Path original, ImageSize size, Path base) throws IOException {
+        BufferedImage image = readScaled(original, size.getMaxDimension());
+        if (image == null) {
+            return null;
+        }
+        String format = image.getColorModel().hasAlpha() ? PNG : JPEG;
+        Path file = withFormat(base, format);
+        Path tempFile = Files.createTempFile(base.getParent(), base.getFileName() + ".", ".tmp");
+        try {
+            writeImage(image, format, tempFile);
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return file;
+    }
+
+    /**
+     * Reads an image scaled to fit a number of pixels on its longest side. The image is decoded at the smallest
+     * subsampling that keeps at least twice the target size, then halved in steps, which keeps the memory used low
+     * without the aliasing of a single large step.
+     *
+     * @param original     the path of the image
+     * @param maxDimension the longest side of the scaled image
+     * @return the scaled image, or null if the file is not a supported image, is too large to decode, or already fits
+     * @throws IOException if the file cannot be read or decoded
+     */
+    private static BufferedImage readScaled(Path original, int maxDimension) throws IOException {
+        try (ImageInputStream input = new FileImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int longestSide = Math.max(width, height);
+                if (longestSide <= maxDimension || (long) width * height > MAX_SOURCE_PIXELS) {
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longestSide / (2 * maxDimension));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return scale(reader.read(0, param), maxDimension);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxDimension) {
+        double ratio = (double) maxDimension / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(scaled, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            scaled = next;
+        } while (width != targetWidth || height != targetHeight);
+        return scaled;
+    }
+
+    private static void writeImage(BufferedImage image, String format, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream output = new FileImageOutputStream(file.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (JPEG.equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static Path getBase(Path original, ImageSize size) {
+        Path path = original.toAbsolutePath().normalize();
+        return path.resolveSibling(path.getFileName() + "." + size.name().toLowerCase(Locale.ROOT));
+    }
+
+    private static Path withFormat(Path base, String format) {
+        return base.resolveSibling(base.getFileName() + "." + format);
+    }
+
+    private static void readAttributes(Path file, Map<Path, BasicFileAttributes> found) {
+        try {
+            found.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (IOException e) {
+            log.info("/************* Skipping image derivative :" + file);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("/**************** Exception in ImageDerivativeService -> delete()" + e);
+        }
+    }
+
+    private record Derivative(Path file, long size) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.cims.user.services;
+
+import com.cims.user.utils.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Service class that authorizes the page loads of the UI.
+ * <p>
+ * A page is authorized by the token in its URL alone: the token is verified locally by its signature, expiry and
+ * the deny-list, with no transaction and no database query. A page load is usually followed by others with the
+ * same token, so the user name of a verified token is cached by the hash of the token until it expires. The
+ * deny-list is checked on every page load, so a revoked token is rejected at once.
+ */
+@Service
+public class PageAuthorizationService {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private final Cache<String, AuthorizedToken> authorizedTokens;
+
+    /**
+     * Constructor that sets up the cache of verified tokens.
+     *
+     * @param maximumSize the maximum number of tokens kept
+     */
+    public PageAuthorizationService(@Value("${page-authorization.maximum-size:1000}") long maximumSize) {
+        this.authorizedTokens = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Returns the name of the user account a token was issued to, if the token is valid and has not been revoked.
+     *
+     * @param token the authentication token
+     * @return the user name, or null if the token is invalid, expired, revoked or not issued to a user account
+     */
+    public String getUserName(String token) {
+        if (token == null) {
+            return null;
+        }
+        byte[] hash = JwtUtils.hash(token);
+        if (tokenRevocationService.isRevoked(hash)) {
+            return null;
+        }
+        String tokenHash = HexFormat.of().formatHex(hash);
+        AuthorizedToken authorizedToken = authorizedTokens.getIfPresent(tokenHash);
+        if (authorizedToken != null) {
+            if (authorizedToken.expiresAt().isAfter(Instant.now())) {
+                return authorizedToken.userName();
+            }
+            authorizedTokens.invalidate(tokenHash);
+            return null;
+        }
+        Claims claims = jwtUtils.parseClaims(token);
+        String userName = claims != null ? jwtUtils.getUserName(claims) : null;
+        if (userName == null || claims.getExpiration() == null) {
+            return null;
+        }
+        authorizedTokens.put(tokenHash, new AuthorizedToken(userName, claims.getExpiration().toInstant()));
+        return userName;
+    }
+
+    /**
+     * Checks if the given token is valid for the user with the given user name.
+     *
+     * @param token    the authentication token to be checked
+     * @param userName the user name of the page URL
+     * @return true if the token is valid for the user, false otherwise
+     */
+    public boolean isAuthorized(String token, String userName) {
+        return userName != null && userName.equals(getUserName(token));
+    }
+
+    /**
+     * The user name of a verified token and the expiry of the token.
+     */
+    private record AuthorizedToken(String userName, Instant expiresAt) {
+    }
+}
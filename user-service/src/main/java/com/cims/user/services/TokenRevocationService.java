@@ -0,0 +1,201 @@
+package com.cims.user.services;
+
+import com.cims.user.dtos.RevokedTokenDTO;
+import com.cims.user.entities.RevokedToken;
+import com.cims.user.repositories.RevokedTokenRepository;
+import com.cims.user.utils.BloomFilter;
+import com.cims.user.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class that keeps the deny-list of revoked tokens, e.g. tokens of users who have logged out.
+ * <p>
+ * Tokens are valid by their signature and expiry alone unless they are on the deny-list. The deny-list is held
+ * in memory as a Bloom filter in front of an exact set of token hashes, so checking a token that was not revoked,
+ * which is nearly every token, answers from the filter without touching the set or the database. Revoked tokens
+ * are saved to the {@code revoked_token} table, and every instance reads the rows revoked since its last read
+ * on a fixed delay, so a revocation reaches all instances within the sync interval. Entries are dropped once the
+ * token has expired, as an expired token is rejected anyway.
+ * <p>
+ * The API gateway reads the same rows through {@link #getRevokedTokensSince(Instant)}, so it stops answering a
+ * revoked token from its cache of verified tokens.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Value("${token-revocation.expected-tokens:10000}")
+    private long expectedTokens;
+
+    @Value("${token-revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${token-revocation.sync-interval-ms:10000}")
+    private long syncIntervalMillis;
+
+    /**
+     * The expiry of each revoked token, keyed by the hex encoded hash of the token.
+     */
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    private final Object filterLock = new Object();
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Written by the scheduler thread only.
+     */
+    private Instant lastSync = Instant.EPOCH;
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param token the token to check
+     * @return true if the token is on the deny-list, false otherwise
+     */
+    public boolean isRevoked(String token) {
+        return isRevoked(JwtUtils.hash(token));
+    }
+
+    /**
+     * Checks whether the token with the given hash has been revoked.
+     *
+     * @param hash the hash of the token, see {@link JwtUtils#hash(String)}
+     * @return true if the token is on the deny-list, false otherwise
+     */
+    public boolean isRevoked(byte[] hash) {
+        if (!filter().mightContain(hash)) {
+            return false;
+        }
+        Instant expiresAt = revokedTokens.get(HEX.formatHex(hash));
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * Revokes a token until it expires, on this instance at once and on the other instances at their next sync.
+     * Tokens that are invalid or already expired are ignored, as they are rejected anyway.
+     *
+     * @param token the token to revoke
+     */
+    @Transactional
+    public void revokeToken(String token) {
+        Claims claims = jwtUtils.parseClaims(token);
+        if (claims == null || claims.getExpiration() == null) {
+            return;
+        }
+        byte[] hash = JwtUtils.hash(token);
+        RevokedToken revokedToken = new RevokedToken(HEX.formatHex(hash), jwtUtils.getUserName(claims),
+                claims.getExpiration().toInstant(), Instant.now());
+        revokedTokenRepository.save(revokedToken);
+        add(revokedToken.getTokenHash(), hash, revokedToken.getExpiresAt());
+    }
+
+    /**
+     * Returns the tokens revoked on any instance at or after the given time that have not expired yet.
+     *
+     * @param since the time to read from
+     * @return the revoked tokens, with the hex encoded hash of each token
+     */
+    public List<RevokedTokenDTO> getRevokedTokensSince(Instant since) {
+        return revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, Instant.now()).stream()
+                .map(revokedToken -> new RevokedTokenDTO(revokedToken.getTokenHash(), revokedToken.getExpiresAt(), revokedToken.getRevokedAt()))
+                .toList();
+    }
+
+    /**
+     * Reads the tokens revoked on any instance since the last read and drops the expired ones.
+     * The previous read is overlapped by one sync interval, so revocations committed late or by an instance with
+     * a slightly different clock are not missed.
+     */
+    @Scheduled(fixedDelayString = "${token-revocation.sync-interval-ms:10000}")
+    @Transactional
+    public void synchronize() {
+        Instant now = Instant.now();
+        try {
+            Instant since = lastSync.equals(Instant.EPOCH) ? lastSync : lastSync.minusMillis(syncIntervalMillis);
+            for (RevokedToken revokedToken : revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now)) {
+                add(revokedToken.getTokenHash(), HEX.parseHex(revokedToken.getTokenHash()), revokedToken.getExpiresAt());
+            }
+            revokedTokenRepository.deleteAllExpiredBefore(now);
+            lastSync = now;
+        } catch (Exception e) {
+            log.warn("/**************** Exception in TokenRevocationService -> synchronize()" + e);
+        }
+        dropExpired(now);
+    }
+
+    /**
+     * Adds a revoked token to the exact set and the Bloom filter.
+     *
+     * @param tokenHash the hex encoded hash of the token
+     * @param hash      the hash of the token
+     * @param expiresAt the expiry of the token
+     */
+    private void add(String tokenHash, byte[] hash, Instant expiresAt) {
+        synchronized (filterLock) {
+            revokedTokens.put(tokenHash, expiresAt);
+            filter().put(hash);
+        }
+    }
+
+    /**
+     * Drops the expired tokens from the exact set and rebuilds the Bloom filter from the remaining ones,
+     * as entries cannot be removed from a Bloom filter.
+     *
+     * @param now the current time
+     */
+    private void dropExpired(Instant now) {
+        synchronized (filterLock) {
+            if (!revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+                return;
+            }
+            BloomFilter rebuilt = newFilter();
+            revokedTokens.keySet().forEach(tokenHash -> rebuilt.put(HEX.parseHex(tokenHash)));
+            bloomFilter = rebuilt;
+        }
+    }
+
+    private BloomFilter filter() {
+        BloomFilter filter = bloomFilter;
+        if (filter == null) {
+            synchronized (filterLock) {
+                if (bloomFilter == null) {
+                    bloomFilter = newFilter();
+                }
+                filter = bloomFilter;
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Creates a Bloom filter with room for twice the current revocations, so the false positive rate holds
+     * when more tokens are revoked than expected.
+     *
+     * @return an empty Bloom filter
+     */
+    private BloomFilter newFilter() {
+        return new BloomFilter(Math.max(expectedTokens, revokedTokens.size() * 2L), falsePositiveRate);
+    }
+}
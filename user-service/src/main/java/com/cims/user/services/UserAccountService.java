@@ -1,28 +1,30 @@
 package com.cims.user.services;
 
+import com.cims.common.security.PasswordEncoderBusyException;
 import com.cims.user.constants.CommonMessages;
 import com.cims.user.constants.VarList;
 import com.cims.user.constants.enums.Status;
 import com.cims.user.constants.enums.UserRoleType;
 import com.cims.user.constants.validationMessages.CommonValidationMessages;
 import com.cims.user.constants.validationMessages.UserAccountValidationMessages;
-import com.cims.user.dtos.PageRedirectionDTO;
 import com.cims.user.dtos.UserAccountResponseDTO;
 import com.cims.user.dtos.UserAccountSendDTO;
-import com.cims.user.dtos.UserTokenDTO;
 import com.cims.user.entities.UserAccount;
 import com.cims.user.entities.UserRole;
 import com.cims.user.repositories.UserAccountRepository;
 import com.cims.user.utils.*;
+import io.jsonwebtoken.Claims;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -44,6 +46,21 @@ public class UserAccountService {
     @Autowired
     private ResponseUtils responseUtils;
 
+    @Autowired
+    private UserCacheNotifier userCacheNotifier;
+
+    @Autowired
+    private PasswordUtils passwordUtils;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserAccountCache userAccountCache;
+
     /**
      * Saves or updates a user account in the database based on the provided user account DTO and token.
      *
@@ -57,10 +74,17 @@ public class UserAccountService {
             if (!CollectionUtils.isEmpty(validations)) {
                 return responseUtils.createResponseDTO(VarList.RSP_FAIL, validations, null, HttpStatus.ACCEPTED);
             }
-            userAccountSendDTO.setPassword(PasswordUtils.getBCryptPassword(userAccountSendDTO.getPassword()));
+            userAccountSendDTO.setPassword(passwordUtils.getBCryptPassword(userAccountSendDTO.getPassword()));
             userAccountSendDTO = setBranchDetails(userAccountSendDTO, token);
             saveUserAccountToDatabase(mapperUtils.mapDTOToEntity(userAccountSendDTO, UserAccount.class));
+            userCacheNotifier.evictAfterCommit(userAccountSendDTO.getUserName());
+            userAccountCache.evictAfterCommit(userAccountSendDTO.getUserName());
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, null, HttpStatus.OK);
+        } catch (PasswordEncoderBusyException e) {
+            log.warn("/**************** Exception in UserAccountService -> saveUpdateUserAccount()" + e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(new ResponseDTO(VarList.RSP_ERROR, e.getMessage(), null));
         } catch (Exception e) {
             log.warn("/**************** Exception in UserAccountService -> saveUpdateUserAccount()" + e);
             return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -89,6 +113,8 @@ public class UserAccountService {
             userAccount.setPassword(userAccountSendDTO.getPassword());
             userAccount.setStatus(userAccountSendDTO.getStatus());
             saveUserAccountToDatabase(userAccount);
+            userCacheNotifier.evictAfterCommit(userAccount.getUserName());
+            userAccountCache.evictAfterCommit(userAccount.getUserName());
             return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.SAVED_SUCCESSFULLY, null, HttpStatus.OK);
         } catch (Exception e) {
             log.warn("/**************** Exception in UserAccountService -> saveUpdateUserAccountByAdmin()" + e);
@@ -96,23 +122,6 @@ public class UserAccountService {
         }
     }
 
-    /**
-     * Saves the authentication token of the user identified by the given user name
-     * to the database. If a user account with the specified user name does not exist,
-     * the method does nothing.
-     *
-     * @param userTokenDTO the user token data transfer object containing the user name
-     */
-    public void saveUserAccountToken(UserTokenDTO userTokenDTO) {
-        try {
-            UserAccount userAccount = getUserAccountFromDatabaseByUserName(userTokenDTO.getUserName());
-            userAccount.setToken(userTokenDTO.getToken());
-            saveUserAccountToDatabase(userAccount);
-        } catch (Exception e) {
-            log.warn("/**************** Exception in UserAccountService -> saveUpdateUserAccount()" + e);
-        }
-    }
-
     /**
      * Retrieves a list of all user accounts from the database that belong to the same branch as the user with the provided token
      * and maps them to DTOs before returning them in a ResponseEntity.
@@ -184,15 +193,32 @@ public class UserAccountService {
     }
 
     /**
-     * Retrieves a user account from the database based on the provided ID and maps it to a DTO before returning it in a ResponseEntity.
+     * Retrieves the user account a token was issued to for another service, e.g. to resolve the branch code of a request.
+     * Every service calls this on every request, so accounts are served from the {@link UserAccountCache} by the
+     * hash of the token, and the database is only queried on the first request with a token.
      *
-     * @param token the ID of the user account to be retrieved
-     * @return a ResponseEntity containing a UserAccountDTO representing the user account with the provided ID, or an error response if the user account does not exist or an error occurs
+     * @param token the authentication token of the user
+     * @return a UserAccountResponseDTO representing the user account, or null if the token is not valid or an error occurs
      */
     public UserAccountResponseDTO getUserAccountByTokenForClient(String token) {
         try {
-            UserAccount userAccount = getUserAccountFromDatabaseByToken(token);
-            return mapperUtils.mapEntityToDTOForClient(userAccount, UserAccountResponseDTO.class);
+            byte[] hash = JwtUtils.hash(token);
+            String tokenHash = HexFormat.of().formatHex(hash);
+            UserAccountResponseDTO userAccountResponseDTO = userAccountCache.get(tokenHash);
+            if (userAccountResponseDTO != null) {
+                return tokenRevocationService.isRevoked(hash) ? null : userAccountResponseDTO;
+            }
+            Claims claims = jwtUtils.parseClaims(token);
+            if (claims == null || claims.getExpiration() == null || tokenRevocationService.isRevoked(hash)) {
+                return null;
+            }
+            UserAccount userAccount = userAccountRepository.findByUserName(jwtUtils.getUserName(claims));
+            if (ValidatorUtils.entityNullValidator.test(userAccount)) {
+                return null;
+            }
+            userAccountResponseDTO = mapperUtils.mapEntityToDTOForClient(userAccount, UserAccountResponseDTO.class);
+            userAccountCache.put(tokenHash, claims.getExpiration().toInstant(), userAccountResponseDTO);
+            return userAccountResponseDTO;
         } catch (Exception e) {
             log.warn("/**************** Exception in UserAccountService -> getUserAccountByTokenForClient()" + e);
         }
@@ -208,7 +234,11 @@ public class UserAccountService {
     public ResponseEntity<ResponseDTO> deleteUserAccountById(String id) {
         try {
             if (isUserAccountExistById(id)) {
+                UserAccount userAccount = getUserAccountFromDatabaseById(id);
                 deleteUserAccountFromDatabase(id);
+                if (!ValidatorUtils.entityNullValidator.test(userAccount)) {
+                    userAccountCache.evictAfterCommit(userAccount.getUserName());
+                }
                 return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.DELETED_SUCCESSFULLY, null, HttpStatus.OK);
             } else {
                 return responseUtils.createResponseDTO(VarList.RSP_NO_DATA_FOUND, CommonMessages.NO_DATA, null, HttpStatus.ACCEPTED);
@@ -219,19 +249,6 @@ public class UserAccountService {
         }
     }
 
-    /**
-     * Retrieves the user name and authentication token associated with the given token
-     * from the database and returns them as a {@code PageRedirectionDTO} object.
-     *
-     * @param token the authentication token of the user
-     * @return a {@code PageRedirectionDTO} object containing the user name and token
-     */
-    public PageRedirectionDTO getPageRedirection(String token) {
-        UserAccount userAccount = getUserAccountFromDatabaseByToken(token);
-        PageRedirectionDTO pageRedirectionDTO = new PageRedirectionDTO(userAccount.getUserName(), userAccount.getToken());
-        return pageRedirectionDTO;
-    }
-
     /**
      * Saves a user account entity to the database.
      *
@@ -341,19 +358,53 @@ public class UserAccountService {
 
     /**
      * Retrieves a user account entity from the database based on its Token.
+     * The token is verified by its signature, expiry and the deny-list, and the account is found by the user name
+     * it was issued to, so the token column is not searched.
      *
-     * @param token the Name of the user account entity to retrieve
+     * @param token the Token of the user account entity to retrieve
      * @return a UserAccount entity representing the requested user account, or null if the Token is not valid or an error occurs
      */
     public UserAccount getUserAccountFromDatabaseByToken(String token) {
         try {
-            return userAccountRepository.findByToken(token);
-        } catch (NumberFormatException e) {
+            String userName = getUserNameFromToken(token);
+            return userName != null ? userAccountRepository.findByUserName(userName) : null;
+        } catch (Exception e) {
             log.warn("/**************** Exception in UserAccountService -> getUserAccountFromDatabaseByToken()" + e);
             return null;
         }
     }
 
+    /**
+     * Returns the name of the user account a token was issued to, if the token is valid and has not been revoked.
+     *
+     * @param token the authentication token
+     * @return the user name, or null if the token is invalid, expired, revoked or not issued to a user account
+     */
+    public String getUserNameFromToken(String token) {
+        Claims claims = jwtUtils.parseClaims(token);
+        if (claims == null || tokenRevocationService.isRevoked(token)) {
+            return null;
+        }
+        return jwtUtils.getUserName(claims);
+    }
+
+    /**
+     * Logs a user out by revoking the given token, so it is rejected until it expires.
+     *
+     * @param token the authentication token of the user
+     * @return a ResponseEntity containing a ResponseDTO with details of the operation's success or failure
+     */
+    public ResponseEntity<ResponseDTO> logout(String token) {
+        try {
+            tokenRevocationService.revokeToken(token);
+            userAccountCache.invalidate(JwtUtils.hashToHex(token));
+            return responseUtils.createResponseDTO(VarList.RSP_SUCCESS, CommonMessages.LOGGED_OUT_SUCCESSFULLY, null, HttpStatus.OK);
+        } catch (Exception e) {
+            log.warn("/**************** Exception in UserAccountService -> logout()" + e);
+            return responseUtils.createResponseDTO(VarList.RSP_ERROR, e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Deletes a user account from the database by its ID.
      *
@@ -382,33 +433,6 @@ public class UserAccountService {
         }
     }
 
-    /**
-     * Checks whether a user account exists in the database by its ID.
-     *
-     * @param token    the Token of the user account to check for existence
-     * @param userName the User Name of the user account to check for existence
-     * @return true if a user account with the specified Token and User Name exists in the database, false otherwise
-     */
-    public boolean isUserAccountExistByTokenAndUserName(String token, String userName) {
-        try {
-            return userAccountRepository.existsByTokenAndUserName(token, userName);
-        } catch (NumberFormatException e) {
-            log.warn("/**************** Exception in UserAccountService -> isUserAccountExistByTokenAndUserName()" + e);
-            return false;
-        }
-    }
-
-    /**
-     * Checks if the given authentication token is valid for the user with the given user name.
-     *
-     * @param token    the authentication token to be checked
-     * @param userName the user name of the user whose token is to be checked
-     * @return true if the token is valid for the user, false otherwise
-     */
-    public boolean isValidToken(String token, String userName) {
-        return isUserAccountExistByTokenAndUserName(token, userName);
-    }
-
     /**
      * Validates a user account DTO object and returns a list of error messages for any validation errors found.
      *
@@ -0,0 +1,85 @@
+package com.cims.user.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of SHA-256 hashes. It answers "definitely not present" without false negatives,
+ * and "maybe present" with the configured false positive rate, in constant time and a few bits per entry.
+ * Entries cannot be removed, so the filter is rebuilt when its entries expire.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    /**
+     * Creates an empty filter sized for the expected number of entries.
+     *
+     * @param expectedEntries   the number of entries the filter is sized for
+     * @param falsePositiveRate the rate of false "maybe present" answers at the expected number of entries
+     */
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long entries = Math.max(1, expectedEntries);
+        long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+    }
+
+    /**
+     * Adds a hash to the filter.
+     *
+     * @param hash the SHA-256 hash of the entry
+     */
+    public void put(byte[] hash) {
+        long first = firstHash(hash);
+        long second = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(first + i * second, bitCount);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                //another thread changed the word, so try again
+            }
+        }
+    }
+
+    /**
+     * Checks whether a hash may have been added to the filter.
+     *
+     * @param hash the SHA-256 hash of the entry
+     * @return false if the hash was definitely not added, true if it may have been
+     */
+    public boolean mightContain(byte[] hash) {
+        long first = firstHash(hash);
+        long second = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(first + i * second, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long firstHash(byte[] hash) {
+        return toLong(hash, 0);
+    }
+
+    private static long secondHash(byte[] hash) {
+        //an odd step visits different bits for every hash function
+        return toLong(hash, 8) | 1;
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
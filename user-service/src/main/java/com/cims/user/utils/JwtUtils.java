@@ -0,0 +1,109 @@
+package com.cims.user.utils;
+
+import com.cims.common.jwt.JwtKeySet;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * The JwtUtils class verifies the JSON Web Tokens issued by the AUTH-SERVICE, so a token is checked by its
+ * signature and expiry without looking it up in the database. The signature is checked with the public key
+ * named in the {@code kid} header of the token. A token naming a key that is not known yet waits a bounded time
+ * for the key set to be fetched again.
+ */
+@Component
+public class JwtUtils {
+
+    private static final String SERVICE_NAME_PREFIX = "USER_";
+
+    private static final Duration KEY_SET_WAIT = Duration.ofSeconds(2);
+
+    private final JwtParser jwtParser;
+
+    /**
+     * Constructor that sets up the parser with the public keys of the AUTH-SERVICE.
+     *
+     * @param jwtKeySet the public keys that verify tokens
+     */
+    public JwtUtils(JwtKeySet jwtKeySet) {
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = jwtKeySet.getKey(header.getKeyId(), KEY_SET_WAIT);
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Parses and verifies a JSON Web Token, returning its claims.
+     *
+     * @param token the JWT to parse
+     * @return the claims of the token, or null if the token is malformed, expired or has an invalid signature
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the name of the user account a token was issued to.
+     *
+     * @param claims the claims of a verified token
+     * @return the user name without the service name prefix, or null if the token was not issued to a user account
+     */
+    public String getUserName(Claims claims) {
+        String subject = claims.getSubject();
+        if (subject == null || !subject.startsWith(SERVICE_NAME_PREFIX)) {
+            return null;
+        }
+        return subject.substring(SERVICE_NAME_PREFIX.length());
+    }
+
+    /**
+     * Returns the SHA-256 hash of a token, so raw tokens are not kept in memory or in the database.
+     *
+     * @param token the JWT to hash
+     * @return the hash of the token
+     */
+    public static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 hash of a token, the fixed-length form tokens are stored and looked up by.
+     *
+     * @param token the JWT to hash
+     * @return the 64 character hex encoded hash of the token
+     */
+    public static String hashToHex(String token) {
+        return HexFormat.of().formatHex(hash(token));
+    }
+}
@@ -0,0 +1,93 @@
+package com.cims.user.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the page shells of the UI and keeps the rendered HTML, as a page shell only varies by its template,
+ * page name and user. The data of a page is loaded by its scripts, so a cached shell is never outdated while the
+ * templates do not change.
+ * <p>
+ * Rendered pages are only kept when template caching is on, as it is in production, so edited templates are seen
+ * at once during development.
+ */
+@Component
+public class PageRenderer {
+
+    private static final String CONTENT_TYPE = MediaType.TEXT_HTML_VALUE + ";charset=" + StandardCharsets.UTF_8.name();
+
+    private final ITemplateEngine templateEngine;
+
+    private final boolean cacheEnabled;
+
+    private final Cache<PageKey, PageView> pages;
+
+    /**
+     * Constructor that sets up the cache of rendered pages.
+     *
+     * @param templateEngine the Thymeleaf template engine
+     * @param cacheEnabled   whether templates are cached, and so whether rendered pages can be kept
+     * @param maximumSize    the maximum total size of the rendered pages kept, weighed by their length
+     */
+    public PageRenderer(ITemplateEngine templateEngine,
+                        @Value("${spring.thymeleaf.cache:true}") boolean cacheEnabled,
+                        @Value("${page-renderer.maximum-size:16MB}") DataSize maximumSize) {
+        this.templateEngine = templateEngine;
+        this.cacheEnabled = cacheEnabled;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .<PageKey, PageView>weigher((pageKey, pageView) -> pageView.html().length())
+                .build();
+    }
+
+    /**
+     * Returns the rendered page shell of a template.
+     *
+     * @param template the name of the template
+     * @param pageName the name of the page shown in its header
+     * @param user     the name of the user shown in its header
+     * @return the view that writes the rendered page
+     */
+    public View getPage(String template, String pageName, String user) {
+        PageKey pageKey = new PageKey(template, pageName, user);
+        return cacheEnabled ? pages.get(pageKey, this::render) : render(pageKey);
+    }
+
+    private PageView render(PageKey pageKey) {
+        Context context = new Context(Locale.getDefault(), Map.of("pageName", pageKey.pageName(), "user", pageKey.user()));
+        return new PageView(templateEngine.process(pageKey.template(), context));
+    }
+
+    private record PageKey(String template, String pageName, String user) {
+    }
+
+    /**
+     * A view that writes a rendered page.
+     */
+    private record PageView(String html) implements View {
+
+        @Override
+        public String getContentType() {
+            return CONTENT_TYPE;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+            response.setContentType(CONTENT_TYPE);
+            response.getWriter().write(html);
+        }
+    }
+}
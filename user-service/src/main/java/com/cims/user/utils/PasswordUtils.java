@@ -1,22 +1,29 @@
 package com.cims.user.utils;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.cims.common.security.BoundedPasswordEncoder;
+import com.cims.common.security.PasswordEncoderBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
 
 /**
  * A utility class for password-related operations, such as generating and encoding passwords
- * using the BCrypt hashing algorithm.
+ * using the BCrypt hashing algorithm. The hashing runs on the bounded pool of the {@link BoundedPasswordEncoder}.
  */
+@Component
 public class PasswordUtils {
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     /**
      * Returns a BCrypt-hashed representation of the given raw password string.
      *
      * @param rawPassword the raw password string to be encoded
      * @return a BCrypt-hashed representation of the raw password string
+     * @throws PasswordEncoderBusyException if the password encoder is busy
      */
-    public static String getBCryptPassword(String rawPassword) {
-        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
-        return bCryptPasswordEncoder.encode(rawPassword);
+    public String getBCryptPassword(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
     }
 }
-
@@ -12,7 +12,8 @@ public class StringUtils {
      * @return the file name extracted from the string
      */
     public static String extractFileName(String str) {
-        return str.split("_")[0];
+        int separator = str.lastIndexOf('_');
+        return separator > 0 ? str.substring(0, separator) : str;
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.cims.user.utils;
+
+import com.cims.user.dtos.UserAccountResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded in-process cache of the user accounts other services resolve by token, keyed by the hex encoded hash
+ * of the token, so the branch code of a user is found without a database query on every request.
+ * <p>
+ * An entry is only added for a verified token and is never returned after the token has expired. Saving an
+ * account drops the entries of that user on this instance once the transaction has committed, found through an
+ * index of the cached tokens by user name. Other instances see the change when their entries expire after the
+ * configured time to live.
+ */
+@Component
+public class UserAccountCache {
+
+    private final Cache<String, CachedUserAccount> userAccounts;
+
+    /**
+     * The hashes of the cached tokens of each user. The sets are only read and changed inside the map's
+     * compute methods, and an entry is removed with its last token.
+     */
+    private final Map<String, Set<String>> tokenHashesByUserName = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that sets up the cache.
+     *
+     * @param maximumSize the maximum number of tokens kept
+     * @param timeToLive  how long an account is kept, the longest another instance serves an outdated account
+     */
+    public UserAccountCache(@Value("${user-account-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${user-account-cache.time-to-live:60s}") Duration timeToLive) {
+        this.userAccounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    /**
+     * Returns the cached user account of a token.
+     *
+     * @param tokenHash the hex encoded hash of the token
+     * @return the user account, or null if it is not cached or the token has expired
+     */
+    public UserAccountResponseDTO get(String tokenHash) {
+        CachedUserAccount cachedUserAccount = userAccounts.getIfPresent(tokenHash);
+        if (cachedUserAccount == null) {
+            return null;
+        }
+        if (!cachedUserAccount.expiresAt().isAfter(Instant.now())) {
+            userAccounts.invalidate(tokenHash);
+            return null;
+        }
+        return cachedUserAccount.userAccount();
+    }
+
+    /**
+     * Caches the user account of a verified token until the token expires or the entry's time to live ends.
+     *
+     * @param tokenHash   the hex encoded hash of the token
+     * @param expiresAt   the expiry of the token
+     * @param userAccount the user account the token was issued to
+     */
+    public void put(String tokenHash, Instant expiresAt, UserAccountResponseDTO userAccount) {
+        tokenHashesByUserName.compute(userAccount.getUserName(), (userName, tokenHashes) -> {
+            Set<String> indexed = tokenHashes != null ? tokenHashes : new HashSet<>();
+            indexed.add(tokenHash);
+            return indexed;
+        });
+        userAccounts.put(tokenHash, new CachedUserAccount(userAccount, expiresAt));
+    }
+
+    /**
+     * Drops the cached user account of a token, e.g. when the token is revoked.
+     *
+     * @param tokenHash the hex encoded hash of the token
+     */
+    public void invalidate(String tokenHash) {
+        userAccounts.invalidate(tokenHash);
+    }
+
+    /**
+     * Drops the cached tokens of a user once the current transaction has committed, as a request served before the
+     * commit would cache the old account again. Without a transaction the tokens are dropped at once.
+     *
+     * @param userName the name of the user account
+     */
+    public void evictAfterCommit(String userName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userName);
+                }
+            });
+        } else {
+            evict(userName);
+        }
+    }
+
+    /**
+     * Drops every cached token of a user.
+     *
+     * @param userName the name of the user account
+     */
+    private void evict(String userName) {
+        Set<String> tokenHashes = tokenHashesByUserName.remove(userName);
+        if (tokenHashes != null) {
+            userAccounts.invalidateAll(tokenHashes);
+        }
+    }
+
+    /**
+     * Removes a token from the index once its entry has left the cache. A replaced entry keeps its index entry, as
+     * the token still belongs to the same user.
+     *
+     * @param tokenHash         the hex encoded hash of the token
+     * @param cachedUserAccount the removed entry
+     * @param cause             why the entry was removed
+     */
+    private void onRemoval(String tokenHash, CachedUserAccount cachedUserAccount, RemovalCause cause) {
+        if (cause == RemovalCause.REPLACED || tokenHash == null || cachedUserAccount == null) {
+            return;
+        }
+        tokenHashesByUserName.computeIfPresent(cachedUserAccount.userAccount().getUserName(), (userName, tokenHashes) -> {
+            tokenHashes.remove(tokenHash);
+            return tokenHashes.isEmpty() ? null : tokenHashes;
+        });
+    }
+
+    /**
+     * A user account and the expiry of the token it was resolved from.
+     */
+    private record CachedUserAccount(UserAccountResponseDTO userAccount, Instant expiresAt) {
+    }
+}
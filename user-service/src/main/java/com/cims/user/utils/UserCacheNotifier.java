@@ -0,0 +1,76 @@
+package com.cims.user.utils;
+
+import com.cims.common.security.ServiceCredential;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tells every instance of the AUTH-SERVICE to drop a user from its cache of loaded user details, so a changed
+ * password takes effect on the next login instead of after the cache entry expires. The AUTH-SERVICE only accepts
+ * the call with the shared {@link ServiceCredential}.
+ */
+@Component
+@Slf4j
+public class UserCacheNotifier {
+
+    private static final String AUTH_SERVICE = "AUTH-SERVICE";
+
+    private static final String SERVICE_NAME_PREFIX = "USER_";
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ServiceCredential serviceCredential;
+
+    /**
+     * Removes a user from the AUTH-SERVICE caches once the current transaction has committed, so a login racing
+     * with the change cannot cache the old password again. Without a transaction the user is removed at once.
+     *
+     * @param userName the name of the user account
+     */
+    public void evictAfterCommit(String userName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userName);
+                }
+            });
+        } else {
+            evict(userName);
+        }
+    }
+
+    /**
+     * Removes a user from the cache of each AUTH-SERVICE instance. A failure is only logged, as the cache entry
+     * expires on its own shortly after.
+     *
+     * @param userName the name of the user account
+     */
+    private void evict(String userName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ServiceCredential.HEADER, serviceCredential.value());
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        for (ServiceInstance instance : discoveryClient.getInstances(AUTH_SERVICE)) {
+            try {
+                restTemplate.exchange(instance.getUri() + "/internal/userCache/{userName}", HttpMethod.DELETE, request,
+                        Void.class, SERVICE_NAME_PREFIX + userName);
+            } catch (Exception e) {
+                log.warn("/**************** Exception in UserCacheNotifier -> evict()" + e);
+            }
+        }
+    }
+}
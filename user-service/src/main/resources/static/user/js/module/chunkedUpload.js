@@ -0,0 +1,110 @@
+// Uploads a file in chunks, so a dropped connection only sends the current chunk again
+var UPLOAD_CHUNK_SIZE = 1024 * 1024
+var UPLOAD_CHUNK_RETRIES = 5
+
+var CRC32C_TABLE = (function () {
+    var table = new Int32Array(256);
+    for (var n = 0; n < 256; n++) {
+        var c = n;
+        for (var k = 0; k < 8; k++) {
+            c = (c & 1) ? (0x82F63B78 ^ (c >>> 1)) : (c >>> 1);
+        }
+        table[n] = c;
+    }
+    return table;
+})();
+
+function crc32c(bytes) {
+    var crc = -1;
+    for (var i = 0; i < bytes.length; i++) {
+        crc = CRC32C_TABLE[(crc ^ bytes[i]) & 0xFF] ^ (crc >>> 8);
+    }
+    return ((crc ^ -1) >>> 0).toString(16);
+}
+
+function chunkedUpload(file, fileType, onSuccess) {
+    $.ajax({
+        url: BASE_URL + USER_SERVICE + '/file/chunkedUpload',
+        type: 'POST',
+        headers: {
+            'Accept': 'application/json',
+            'Content-Type': 'application/json',
+            'Authorization': 'Bearer ' + token
+        },
+        data: JSON.stringify({
+            fileType: fileType,
+            files: [{fileName: file.name, contentType: file.type, size: file.size}]
+        }),
+        success: function (data) {
+            if (data.code == "00") {
+                uploadChunk(file, data.content.sessionId, 0, 0, onSuccess);
+            } else {
+                toastr.error(data.message);
+            }
+        },
+        error: function (xhr) {
+            toastr.error(xhr.message);
+        }
+    });
+}
+
+function uploadChunk(file, sessionId, offset, attempt, onSuccess) {
+    if (offset >= file.size) {
+        completeChunkedUpload(sessionId, onSuccess);
+        return;
+    }
+    file.slice(offset, Math.min(offset + UPLOAD_CHUNK_SIZE, file.size)).arrayBuffer().then(function (chunk) {
+        $.ajax({
+            url: BASE_URL + USER_SERVICE + '/file/chunkedUpload/' + sessionId + '/0?offset=' + offset,
+            type: 'PUT',
+            headers: {
+                'Accept': 'application/json',
+                'Upload-Checksum': crc32c(new Uint8Array(chunk)),
+                'Authorization': 'Bearer ' + token
+            },
+            contentType: 'application/octet-stream',
+            processData: false,
+            data: chunk,
+            success: function (data) {
+                if (data.code == "00") {
+                    uploadChunk(file, sessionId, data.content.files[0].received, 0, onSuccess);
+                } else if (data.content && attempt < UPLOAD_CHUNK_RETRIES) {
+                    // a chunk whose response was lost may have been received, so continue from the server's offset
+                    uploadChunk(file, sessionId, data.content.files[0].received, attempt + 1, onSuccess);
+                } else {
+                    toastr.error(data.message);
+                }
+            },
+            error: function (xhr) {
+                if (attempt < UPLOAD_CHUNK_RETRIES) {
+                    setTimeout(function () {
+                        uploadChunk(file, sessionId, offset, attempt + 1, onSuccess);
+                    }, 1000 * (attempt + 1));
+                } else {
+                    toastr.error(xhr.message);
+                }
+            }
+        });
+    });
+}
+
+function completeChunkedUpload(sessionId, onSuccess) {
+    $.ajax({
+        url: BASE_URL + USER_SERVICE + '/file/chunkedUpload/' + sessionId + '/complete',
+        type: 'POST',
+        headers: {
+            'Accept': 'application/json',
+            'Authorization': 'Bearer ' + token
+        },
+        success: function (data) {
+            if (data.code == "00") {
+                onSuccess(data.content[0]);
+            } else {
+                toastr.error(data.message);
+            }
+        },
+        error: function (xhr) {
+            toastr.error(xhr.message);
+        }
+    });
+}
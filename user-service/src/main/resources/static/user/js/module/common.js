@@ -4,24 +4,111 @@ var EMPLOYEE_SERVICE = '/employee'
 var EQUIPMENT_SERVICE = '/equipment'
 var PROJECT_SERVICE = '/project'
 var CLIENT_SERVICE = '/client'
+var BATCH = '/batch'
 
 function setBaseUrl() {
     BASE_URL = window.location.origin;
     console.log("BASE_URL :" + BASE_URL);
 }
 
+function getBatch(requests) {
+    $.ajax({
+        url: BASE_URL + BATCH,
+        type: "POST",
+        headers: {
+            'Accept': 'application/json',
+            'Content-Type': 'application/json',
+            'Authorization': 'Bearer ' + sessionStorage.getItem('token')
+        },
+        data: JSON.stringify({
+            requests: $.map(requests, function (request, index) {
+                return {id: String(index), method: 'GET', path: request.path};
+            })
+        }),
+        success: function (data) {
+            $.each(data.responses, function (index, response) {
+                if (response.status == 200) {
+                    requests[index].success(response.body);
+                } else {
+                    toastr.error(response.body && response.body.message ? response.body.message : 'Request failed');
+                }
+            });
+        },
+        error: function (xhr) {
+            toastr.error(xhr.message);
+        }
+    });
+}
+
+var TOKEN_REFRESH_MARGIN = 60 * 1000
+var sessionExpiryTimer
+
+function storeToken(newToken) {
+    window.sessionStorage.setItem('token', newToken);
+    window.sessionStorage.setItem('expiresAt', new Date(getTokenExpiry(newToken)).toISOString());
+    window.token = newToken;
+    setupSessionExpiryHandler();
+}
+
+function getTokenExpiry(accessToken) {
+    var payload = accessToken.split('.')[1].replace(/-/g, '+').replace(/_/g, '/');
+    return JSON.parse(atob(payload)).exp * 1000;
+}
+
 function setupSessionExpiryHandler() {
     var expiresAt = Date.parse(window.sessionStorage.getItem('expiresAt'));
-    setTimeout(handleSessionExpiry, (expiresAt - Date.now()));
+    if (isNaN(expiresAt)) {
+        return;
+    }
+    // the access token is refreshed shortly before it expires, so the user is not asked to log in again
+    clearTimeout(sessionExpiryTimer);
+    sessionExpiryTimer = setTimeout(handleSessionExpiry, Math.max(0, expiresAt - Date.now() - TOKEN_REFRESH_MARGIN));
 }
 
-function handleSessionExpiry() {
-    logOut();
+function handleSessionExpiry(onRefreshed) {
+    $.ajax({
+        url: BASE_URL + '/auth/refresh',
+        type: "POST",
+        dataType: "text",
+        success: function (newToken) {
+            storeToken(newToken);
+            if (onRefreshed) {
+                onRefreshed(newToken);
+            }
+        },
+        error: function () {
+            logOut();
+        }
+    });
+}
+
+function withFreshToken(callback) {
+    var expiresAt = Date.parse(window.sessionStorage.getItem('expiresAt'));
+    if (isNaN(expiresAt) || expiresAt - Date.now() > TOKEN_REFRESH_MARGIN) {
+        callback(window.sessionStorage.getItem('token'));
+    } else {
+        handleSessionExpiry(callback);
+    }
 }
 
 function logOut() {
+    var accessToken = window.sessionStorage.getItem('token');
     window.sessionStorage.clear();
-    navigateToLogin();
+    var requests = [$.ajax({
+        url: BASE_URL + '/auth/logout',
+        type: "POST"
+    })];
+    if (accessToken) {
+        // the access token stays valid until it expires unless it is revoked
+        requests.push($.ajax({
+            url: BASE_URL + USER_SERVICE + '/userAccount/logout',
+            type: "POST",
+            headers: {
+                'Authorization': 'Bearer ' + accessToken
+            }
+        }));
+    }
+    $.when.apply($, requests).always(navigateToLogin);
 }
 
 function navigateToLogin() {
@@ -29,3 +116,4 @@ function navigateToLogin() {
 }
 
 setBaseUrl();
+setupSessionExpiryHandler();
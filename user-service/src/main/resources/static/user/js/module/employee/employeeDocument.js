@@ -81,31 +81,7 @@ function fileUploadValidation(input) {
 }
 
 function uploadEmployeeDocument() {
-    var formData = new FormData();
-    formData.append("file", doc_file.files[0]);
-    formData.append("fileType", 'DOCUMENT');
-
-    $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/upload',
-        type: 'POST',
-        headers: {
-            'Authorization': 'Bearer ' + token
-        },
-        data: formData,
-        cache: false,
-        contentType: false,
-        processData: false,
-        success: function (data) {
-            if (data.code == "00") {
-                saveUpdateEmployeeDocument(data.content);
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+    chunkedUpload(doc_file.files[0], 'DOCUMENT', saveUpdateEmployeeDocument);
 }
 
 function saveUpdateEmployeeDocument(fileName) {
@@ -323,40 +299,30 @@ function clearEmployeeDocumentFields() {
 
 
 function getEmployeeDocumentImage(id, employeeDocumentName) {
-    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + employeeDocumentName + '/DOCUMENT';
+    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + employeeDocumentName + '/DOCUMENT?size=PREVIEW';
     preViewEmployeeDocumentImage(url)
 }
 
 function getEmployeeDocumentPDF(id, employeeDocumentName) {
     $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/pdfDownloader/' + id + '/' + employeeDocumentName + '/DOCUMENT',
+        url: BASE_URL + USER_SERVICE + '/file/pdfDownloader/' + id + '/' + employeeDocumentName + '/DOCUMENT?stream=true',
         type: "GET",
         headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token,
+            'Accept': 'application/pdf',
+            'Authorization': 'Bearer ' + token
+        },
+        xhrFields: {
+            responseType: 'blob'
         },
-        data: {},
         success: function (data) {
-            console.log(data);
-            if (data != "" && data.length != 0) {
-                $.each(data, function (key, value) {
-                    console.log(key, value.byteArray);
-                    const byteCharacters = atob(value.byteArray);
-                    const byteNumbers = new Array(byteCharacters.length);
-                    for (let i = 0; i < byteCharacters.length; i++) {
-                        byteNumbers[i] = byteCharacters.charCodeAt(i);
-                    }
-                    const byteArray = new Uint8Array(byteNumbers);
-                    const file = new Blob([byteArray], {type: 'application/pdf'});
-                    const url = URL.createObjectURL(file);
-                    preViewEmployeeDocumentPDF(url)
-                });
+            if (data && data.size != 0) {
+                preViewEmployeeDocumentPDF(URL.createObjectURL(data));
             } else {
                 resetEmployeeDocumentPDF();
             }
         },
         error: function (xhr) {
+            resetEmployeeDocumentPDF();
             toastr.error(xhr.message);
         }
     });
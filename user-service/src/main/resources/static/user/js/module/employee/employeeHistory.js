@@ -104,31 +104,7 @@ function fileUploadValidation(input) {
 }
 
 function uploadEmployeeHistory() {
-    var formData = new FormData();
-    formData.append("file", doc_file.files[0]);
-    formData.append("fileType", 'HISTORY');
-
-    $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/upload',
-        type: 'POST',
-        headers: {
-            'Authorization': 'Bearer ' + token
-        },
-        data: formData,
-        cache: false,
-        contentType: false,
-        processData: false,
-        success: function (data) {
-            if (data.code == "00") {
-                saveUpdateEmployeeHistory(data.content);
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+    chunkedUpload(doc_file.files[0], 'HISTORY', saveUpdateEmployeeHistory);
 }
 
 function saveUpdateEmployeeHistory(fileName) {
@@ -356,40 +332,30 @@ function clearEmployeeHistoryFields() {
 
 
 function getEmployeeHistoryImage(id, employeeHistoryName) {
-    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + employeeHistoryName + '/HISTORY';
+    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + employeeHistoryName + '/HISTORY?size=PREVIEW';
     preViewEmployeeHistoryImage(url)
 }
 
 function getEmployeeHistoryPDF(id, employeeHistoryName) {
     $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/pdfDownloader/' + id + '/' + employeeHistoryName + '/HISTORY',
+        url: BASE_URL + USER_SERVICE + '/file/pdfDownloader/' + id + '/' + employeeHistoryName + '/HISTORY?stream=true',
         type: "GET",
         headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token,
+            'Accept': 'application/pdf',
+            'Authorization': 'Bearer ' + token
+        },
+        xhrFields: {
+            responseType: 'blob'
         },
-        data: {},
         success: function (data) {
-            console.log(data);
-            if (data != "" && data.length != 0) {
-                $.each(data, function (key, value) {
-                    console.log(key, value.byteArray);
-                    const byteCharacters = atob(value.byteArray);
-                    const byteNumbers = new Array(byteCharacters.length);
-                    for (let i = 0; i < byteCharacters.length; i++) {
-                        byteNumbers[i] = byteCharacters.charCodeAt(i);
-                    }
-                    const byteArray = new Uint8Array(byteNumbers);
-                    const file = new Blob([byteArray], {type: 'application/pdf'});
-                    const url = URL.createObjectURL(file);
-                    preViewEmployeeHistoryPDF(url)
-                });
+            if (data && data.size != 0) {
+                preViewEmployeeHistoryPDF(URL.createObjectURL(data));
             } else {
                 resetEmployeeHistoryPDF();
             }
         },
         error: function (xhr) {
+            resetEmployeeHistoryPDF();
             toastr.error(xhr.message);
         }
     });
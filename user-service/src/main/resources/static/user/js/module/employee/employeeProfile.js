@@ -5,111 +5,53 @@ $(document).ready(function () {
     if (token == null || token.length == 0) {
         logOut();
     }
-    getAllActiveFinancialYears();
-    getAllActiveEmployees();
-    getAllActiveEmployeeTypes();
-    getAllActiveAllowanceTypes();
-    getAllEmployeeProfiles();
+    getBatch([
+        {path: EMPLOYEE_SERVICE + '/financialYear/getAllActive', success: setFinancialYears},
+        {path: EMPLOYEE_SERVICE + '/employee/getAllActive', success: setEmployees},
+        {path: EMPLOYEE_SERVICE + '/employeeType/getAllActive', success: setEmployeeTypes},
+        {path: EMPLOYEE_SERVICE + '/allowanceType/getAllActive', success: setAllowanceTypes},
+        {path: EMPLOYEE_SERVICE + '/employeeProfile/getAll', success: setEmployeeProfiles}
+    ]);
 });
 
-function getAllActiveFinancialYears() {
-    $.ajax({
-        url: BASE_URL + EMPLOYEE_SERVICE + '/financialYear/getAllActive',
-        type: "GET",
-        headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token
-        },
-        data: {},
-        success: function (data) {
-            if (data.code == "00") {
-                $.each(data.content, function (key, value) {
-                    $('#financial_year').append('<option value="' + value.id + '">' + value.financialYear + '</option>');
-                });
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+function setFinancialYears(data) {
+    if (data.code == "00") {
+        $.each(data.content, function (key, value) {
+            $('#financial_year').append('<option value="' + value.id + '">' + value.financialYear + '</option>');
+        });
+    } else if (data.code == "10") {
+        toastr.error(data.message);
+    }
 }
 
-function getAllActiveEmployees() {
-    $.ajax({
-        url: BASE_URL + EMPLOYEE_SERVICE + '/employee/getAllActive',
-        type: "GET",
-        headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token
-        },
-        data: {},
-        success: function (data) {
-            if (data.code == "00") {
-                $.each(data.content, function (key, value) {
-                    $('#employee').append('<option value="' + value.id + '">' + value.fullName + ' - ' + value.employeeNumber + '</option>');
-                });
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+function setEmployees(data) {
+    if (data.code == "00") {
+        $.each(data.content, function (key, value) {
+            $('#employee').append('<option value="' + value.id + '">' + value.fullName + ' - ' + value.employeeNumber + '</option>');
+        });
+    } else if (data.code == "10") {
+        toastr.error(data.message);
+    }
 }
 
-function getAllActiveEmployeeTypes() {
-    $.ajax({
-        url: BASE_URL + EMPLOYEE_SERVICE + '/employeeType/getAllActive',
-        type: "GET",
-        headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token
-        },
-        data: {},
-        success: function (data) {
-            if (data.code == "00") {
-                $.each(data.content, function (key, value) {
-                    $('#employee_type').append('<option value="' + value.id + '">' + value.employeeType + '</option>');
-                });
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+function setEmployeeTypes(data) {
+    if (data.code == "00") {
+        $.each(data.content, function (key, value) {
+            $('#employee_type').append('<option value="' + value.id + '">' + value.employeeType + '</option>');
+        });
+    } else if (data.code == "10") {
+        toastr.error(data.message);
+    }
 }
 
-function getAllActiveAllowanceTypes() {
-    $.ajax({
-        url: BASE_URL + EMPLOYEE_SERVICE + '/allowanceType/getAllActive',
-        type: "GET",
-        headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token
-        },
-        data: {},
-        success: function (data) {
-            if (data.code == "00") {
-                $.each(data.content, function (key, value) {
-                    $('#allowance_type_div').append('<div class="col-md-2"><div class="form-group"><div class="form-check"><input type="checkbox" class="form-check-input" name="allowance_type" value=' + value.id + '><label class="form-check-label">' + value.allowanceType + '</label></div></div></div>');
-                });
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+function setAllowanceTypes(data) {
+    if (data.code == "00") {
+        $.each(data.content, function (key, value) {
+            $('#allowance_type_div').append('<div class="col-md-2"><div class="form-group"><div class="form-check"><input type="checkbox" class="form-check-input" name="allowance_type" value=' + value.id + '><label class="form-check-label">' + value.allowanceType + '</label></div></div></div>');
+        });
+    } else if (data.code == "10") {
+        toastr.error(data.message);
+    }
 }
 
 function saveUpdateEmployeeProfile() {
@@ -168,19 +110,21 @@ function getAllEmployeeProfiles() {
             'Authorization': 'Bearer ' + token
         },
         data: {},
-        success: function (data) {
-            if (data.code == "00") {
-                setEmployeeProfileTable(data.content);
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
+        success: setEmployeeProfiles,
         error: function (xhr) {
             toastr.error(xhr.message);
         }
     });
 }
 
+function setEmployeeProfiles(data) {
+    if (data.code == "00") {
+        setEmployeeProfileTable(data.content);
+    } else if (data.code == "10") {
+        toastr.error(data.message);
+    }
+}
+
 function employeeProfileEdit(id) {
     $("#profile_id").val(id);
     $.ajax({
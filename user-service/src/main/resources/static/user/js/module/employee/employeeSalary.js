@@ -368,32 +368,24 @@ function clearEmployeeSalaryFields() {
 
 function getPaySlip(id) {
     $.ajax({
-        url: BASE_URL + EMPLOYEE_SERVICE + '/employeeSalary/exportPaySlip/' + id,
+        url: BASE_URL + EMPLOYEE_SERVICE + '/employeeSalary/exportPaySlip/' + id + '?stream=true',
         type: "GET",
         headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
+            'Accept': 'application/pdf',
             'Authorization': 'Bearer ' + token
         },
-        data: {},
+        xhrFields: {
+            responseType: 'blob'
+        },
         success: function (data) {
-            if (data != "" && data.length != 0) {
-                $.each(data, function (key, value) {
-                    const byteCharacters = atob(value.byteArray);
-                    const byteNumbers = new Array(byteCharacters.length);
-                    for (let i = 0; i < byteCharacters.length; i++) {
-                        byteNumbers[i] = byteCharacters.charCodeAt(i);
-                    }
-                    const byteArray = new Uint8Array(byteNumbers);
-                    const file = new Blob([byteArray], {type: 'application/pdf'});
-                    const url = URL.createObjectURL(file);
-                    preViewEmployeePaySlipPDF(url);
-                });
+            if (data && data.size != 0) {
+                preViewEmployeePaySlipPDF(URL.createObjectURL(data));
             } else {
                 resetEmployeePaySlipPDF();
             }
         },
         error: function (xhr) {
+            resetEmployeePaySlipPDF();
             toastr.error(xhr.message);
         }
     });
@@ -50,7 +50,7 @@ function authRequest() {
                 return;
             }
             var authorizationHeader = data.responseText;
-            sessionStorage.setItem('token', authorizationHeader);
+            storeToken(authorizationHeader);
             pageRedirection(authorizationHeader);
         }
     });
@@ -73,6 +73,10 @@ function pageRedirection(token) {
             sessionStorage.setItem('user', user);
             $('#AjaxLoader').hide();
             window.location.href = BASE_URL + USER_SERVICE + "/dashboard/" + user + "/" + token
+        },
+        error: function () {
+            $('#AjaxLoader').hide();
+            document.getElementById("invalidCredentialsMssg").hidden = false;
         }
     });
 }
@@ -1,6 +1,12 @@
 function internalPageRedirection(pageUrl) {
-    token = sessionStorage.getItem('token');
     $('#AjaxLoader').show();
+    withFreshToken(function (freshToken) {
+        token = freshToken;
+        pageRedirectionRequest(pageUrl);
+    });
+}
+
+function pageRedirectionRequest(pageUrl) {
     $.ajax({
         url: BASE_URL + USER_SERVICE + '/userAccount/pageRedirection',
         type: "GET",
@@ -14,6 +20,9 @@ function internalPageRedirection(pageUrl) {
             $('#AjaxLoader').hide();
             var user = data.userName;
             window.location.href = BASE_URL + USER_SERVICE + "/" + pageUrl + "/" + user + "/" + token
+        },
+        error: function () {
+            $('#AjaxLoader').hide();
         }
     });
 }
\ No newline at end of file
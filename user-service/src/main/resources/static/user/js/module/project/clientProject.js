@@ -153,31 +153,7 @@ function fileUploadValidation(input) {
 }
 
 function uploadClientProjectFile() {
-    var formData = new FormData();
-    formData.append("file", doc_file.files[0]);
-    formData.append("fileType", 'PROJECT');
-
-    $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/upload',
-        type: 'POST',
-        headers: {
-            'Authorization': 'Bearer ' + token
-        },
-        data: formData,
-        cache: false,
-        contentType: false,
-        processData: false,
-        success: function (data) {
-            if (data.code == "00") {
-                saveUpdateClientProject(data.content);
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+    chunkedUpload(doc_file.files[0], 'PROJECT', saveUpdateClientProject);
 }
 
 function saveUpdateClientProject(fileName) {
@@ -553,40 +529,30 @@ function clearClientProjectEquipmentStockFields() {
 }
 
 function getClientProjectImage(id, projectImageName) {
-    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + projectImageName + '/PROJECT';
+    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + projectImageName + '/PROJECT?size=PREVIEW';
     preViewClientProjectImage(url)
 }
 
 function getClientProjectPDF(id, projectPDFName) {
     $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/pdfDownloader/' + id + '/' + projectPDFName + '/PROJECT',
+        url: BASE_URL + USER_SERVICE + '/file/pdfDownloader/' + id + '/' + projectPDFName + '/PROJECT?stream=true',
         type: "GET",
         headers: {
-            'Accept': 'application/json',
-            'Content-Type': 'application/json',
-            'Authorization': 'Bearer ' + token,
+            'Accept': 'application/pdf',
+            'Authorization': 'Bearer ' + token
+        },
+        xhrFields: {
+            responseType: 'blob'
         },
-        data: {},
         success: function (data) {
-            console.log(data);
-            if (data != "" && data.length != 0) {
-                $.each(data, function (key, value) {
-                    console.log(key, value.byteArray);
-                    const byteCharacters = atob(value.byteArray);
-                    const byteNumbers = new Array(byteCharacters.length);
-                    for (let i = 0; i < byteCharacters.length; i++) {
-                        byteNumbers[i] = byteCharacters.charCodeAt(i);
-                    }
-                    const byteArray = new Uint8Array(byteNumbers);
-                    const file = new Blob([byteArray], {type: 'application/pdf'});
-                    const url = URL.createObjectURL(file);
-                    preViewClientProjectPDF(url)
-                });
+            if (data && data.size != 0) {
+                preViewClientProjectPDF(URL.createObjectURL(data));
             } else {
                 resetClientProjectPDF();
             }
         },
         error: function (xhr) {
+            resetClientProjectPDF();
             toastr.error(xhr.message);
         }
     });
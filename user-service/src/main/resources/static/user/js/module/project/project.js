@@ -44,31 +44,7 @@ function fileUploadValidation(input) {
 }
 
 function uploadProjectImage() {
-    var formData = new FormData();
-    formData.append("file", doc_file.files[0]);
-    formData.append("fileType", 'PROJECT');
-
-    $.ajax({
-        url: BASE_URL + USER_SERVICE + '/file/upload',
-        type: 'POST',
-        headers: {
-            'Authorization': 'Bearer ' + token
-        },
-        data: formData,
-        cache: false,
-        contentType: false,
-        processData: false,
-        success: function (data) {
-            if (data.code == "00") {
-                saveUpdateProject(data.content);
-            } else if (data.code == "10") {
-                toastr.error(data.message);
-            }
-        },
-        error: function (xhr) {
-            toastr.error(xhr.message);
-        }
-    });
+    chunkedUpload(doc_file.files[0], 'PROJECT', saveUpdateProject);
 }
 
 function saveUpdateProject(fileName) {
@@ -293,7 +269,7 @@ function clearProjectFields() {
 }
 
 function getProjectDocumentImage(id, projectImageName) {
-    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + projectImageName + '/PROJECT';
+    var url = BASE_URL + USER_SERVICE + '/file/imgDownloader/' + id + '/' + projectImageName + '/PROJECT?size=PREVIEW';
     preViewProjectDocumentImage(url)
 }
 
@@ -0,0 +1,365 @@
+package com.cims.user.service;
+
+import com.cims.user.constants.VarList;
+import com.cims.user.constants.enums.FileType;
+import com.cims.user.constants.validationMessages.FileValidationMessages;
+import com.cims.user.dtos.ChunkedUploadDTO;
+import com.cims.user.dtos.ChunkedUploadFileDTO;
+import com.cims.user.entities.ChunkedUploadSession;
+import com.cims.user.entities.ChunkedUploadSessionFile;
+import com.cims.user.repositories.ChunkedUploadSessionFileRepository;
+import com.cims.user.repositories.ChunkedUploadSessionRepository;
+import com.cims.user.services.ChunkedUploadService;
+import com.cims.user.services.FileService;
+import com.cims.user.services.FileStoreService;
+import com.cims.user.services.UserAccountService;
+import com.cims.user.utils.ResponseDTO;
+import com.cims.user.utils.ResponseUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ChunkedUploadServiceTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    private static final String TOKEN = "Bearer john";
+
+    private static final String OTHER_TOKEN = "Bearer jane";
+
+    private ChunkedUploadService chunkedUploadService;
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private FileStoreService fileStoreService;
+
+    @Mock
+    private UserAccountService userAccountService;
+
+    @Mock
+    private ChunkedUploadSessionRepository chunkedUploadSessionRepository;
+
+    @Mock
+    private ChunkedUploadSessionFileRepository chunkedUploadSessionFileRepository;
+
+    @TempDir
+    private Path tempDirectory;
+
+    private final Map<String, ChunkedUploadSession> sessions = new HashMap<>();
+
+    private final Map<String, ChunkedUploadSessionFile> files = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        chunkedUploadService = createService();
+        lenient().when(fileService.isValidContentType("application/pdf")).thenReturn(true);
+        lenient().when(fileStoreService.getTempDirectory()).thenReturn(tempDirectory);
+        lenient().when(userAccountService.getUserNameFromToken(TOKEN)).thenReturn("john");
+        lenient().when(userAccountService.getUserNameFromToken(OTHER_TOKEN)).thenReturn("jane");
+
+        lenient().when(chunkedUploadSessionRepository.save(any(ChunkedUploadSession.class))).thenAnswer(invocation -> {
+            ChunkedUploadSession session = invocation.getArgument(0);
+            sessions.put(session.getSessionId(), session);
+            return session;
+        });
+        lenient().when(chunkedUploadSessionRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(sessions.get(invocation.<String>getArgument(0))));
+        lenient().when(chunkedUploadSessionRepository.findLockedBySessionId(anyString())).thenAnswer(invocation -> Optional.ofNullable(sessions.get(invocation.<String>getArgument(0))));
+        lenient().when(chunkedUploadSessionRepository.updateLastUsedAt(anyString(), any(Instant.class))).thenAnswer(invocation -> {
+            sessions.get(invocation.<String>getArgument(0)).setLastUsedAt(invocation.getArgument(1));
+            return 1;
+        });
+        lenient().when(chunkedUploadSessionRepository.findAllSessionIdsLastUsedBefore(any(Instant.class))).thenAnswer(invocation -> sessions.values().stream()
+                .filter(session -> session.getLastUsedAt().isBefore(invocation.getArgument(0)))
+                .map(ChunkedUploadSession::getSessionId)
+                .toList());
+        lenient().doAnswer(invocation -> sessions.remove(invocation.<ChunkedUploadSession>getArgument(0).getSessionId()))
+                .when(chunkedUploadSessionRepository).delete(any(ChunkedUploadSession.class));
+
+        lenient().when(chunkedUploadSessionFileRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<ChunkedUploadSessionFile>>getArgument(0).forEach(file -> files.put(file.getFileId(), file));
+            return null;
+        });
+        lenient().when(chunkedUploadSessionFileRepository.save(any(ChunkedUploadSessionFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(chunkedUploadSessionFileRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(files.get(invocation.<String>getArgument(0))));
+        lenient().when(chunkedUploadSessionFileRepository.findLockedByFileId(anyString())).thenAnswer(invocation -> Optional.ofNullable(files.get(invocation.<String>getArgument(0))));
+        lenient().when(chunkedUploadSessionFileRepository.findAllBySessionIdOrderByFileIndex(anyString())).thenAnswer(invocation -> files.values().stream()
+                .filter(file -> file.getSessionId().equals(invocation.getArgument(0)))
+                .sorted(Comparator.comparingInt(ChunkedUploadSessionFile::getFileIndex))
+                .toList());
+        lenient().when(chunkedUploadSessionFileRepository.deleteAllBySessionId(anyString())).thenAnswer(invocation -> {
+            files.values().removeIf(file -> file.getSessionId().equals(invocation.getArgument(0)));
+            return 1;
+        });
+    }
+
+    @Test
+    public void testChunkedUpload() throws Exception {
+        String sessionId = initiate(sha256(CONTENT));
+        when(fileStoreService.storeFile(any(Path.class), eq(sha256(CONTENT)), eq(20L), eq("contract.pdf"), eq(FileType.DOCUMENT)))
+                .thenReturn("contract.pdf_1");
+
+        assertEquals(10, received(writeChunk(sessionId, 0, 10)));
+        assertEquals(20, received(writeChunk(sessionId, 10, 20)));
+        ResponseDTO response = chunkedUploadService.completeUpload(TOKEN, sessionId).getBody();
+
+        assertEquals(VarList.RSP_SUCCESS, response.getCode());
+        assertEquals(List.of("contract.pdf_1"), response.getContent());
+        assertFalse(Files.exists(tempDirectory.resolve("uploads").resolve(sessionId)));
+    }
+
+    @Test
+    public void testCompleteUpload_RetriedCompletionStoresOnce() throws Exception {
+        String sessionId = initiate(null);
+        when(fileStoreService.storeFile(any(Path.class), eq(sha256(CONTENT)), eq(20L), eq("contract.pdf"), eq(FileType.DOCUMENT)))
+                .thenReturn("contract.pdf_1");
+        writeChunk(sessionId, 0, 10);
+        writeChunk(sessionId, 10, 20);
+
+        chunkedUploadService.completeUpload(TOKEN, sessionId);
+        ResponseDTO response = chunkedUploadService.completeUpload(TOKEN, sessionId).getBody();
+
+        assertEquals(VarList.RSP_SUCCESS, response.getCode());
+        assertEquals(List.of("contract.pdf_1"), response.getContent());
+        verify(fileStoreService, times(1)).storeFile(any(Path.class), anyString(), any(Long.class), anyString(), any(FileType.class));
+    }
+
+    @Test
+    public void testCompleteUpload_ContinuedOnAnotherInstance() throws Exception {
+        String sessionId = initiate(sha256(CONTENT));
+        writeChunk(sessionId, 0, 10);
+        chunkedUploadService = createService();
+        when(fileStoreService.storeFile(any(Path.class), eq(sha256(CONTENT)), eq(20L), eq("contract.pdf"), eq(FileType.DOCUMENT)))
+                .thenReturn("contract.pdf_1");
+
+        assertEquals(20, received(writeChunk(sessionId, 10, 20)));
+        ResponseDTO response = chunkedUploadService.completeUpload(TOKEN, sessionId).getBody();
+
+        assertEquals(VarList.RSP_SUCCESS, response.getCode());
+    }
+
+    @Test
+    public void testWriteChunk_ResumesFromBytesReceived() {
+        String sessionId = initiate(null);
+        writeChunk(sessionId, 0, 10);
+
+        ResponseDTO response = writeChunk(sessionId, 0, 10);
+
+        assertEquals(VarList.RSP_FAIL, response.getCode());
+        assertEquals(FileValidationMessages.INVALID_OFFSET, response.getMessage());
+        assertEquals(10, received(response));
+    }
+
+    @Test
+    public void testWriteChunk_OffsetTakenWhileReceiving() {
+        String sessionId = initiate(null);
+        InputStream chunk = new ByteArrayInputStream(CONTENT, 0, 10) {
+            private boolean otherChunkWritten;
+
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                if (!otherChunkWritten) {
+                    otherChunkWritten = true;
+                    writeChunk(sessionId, 0, 10);
+                }
+                return super.read(buffer, offset, length);
+            }
+        };
+
+        ResponseDTO response = chunkedUploadService.writeChunk(TOKEN, sessionId, 0, 0, checksum(0, 10), chunk).getBody();
+
+        assertEquals(FileValidationMessages.INVALID_OFFSET, response.getMessage());
+        assertEquals(10, received(response));
+    }
+
+    @Test
+    public void testWriteChunk_InvalidChecksumDropped() throws Exception {
+        String sessionId = initiate(sha256(CONTENT));
+        writeChunk(sessionId, 0, 10);
+
+        ResponseDTO response = chunkedUploadService.writeChunk(TOKEN, sessionId, 0, 10, "1234", chunk(10, 20)).getBody();
+
+        assertEquals(FileValidationMessages.INVALID_CHECKSUM, response.getMessage());
+        assertEquals(10, received(response));
+        assertEquals(10, Files.size(tempDirectory.resolve("uploads").resolve(sessionId).resolve("0")));
+
+        writeChunk(sessionId, 10, 20);
+        when(fileStoreService.storeFile(any(Path.class), eq(sha256(CONTENT)), eq(20L), anyString(), eq(FileType.DOCUMENT)))
+                .thenReturn("contract.pdf_1");
+        assertEquals(VarList.RSP_SUCCESS, chunkedUploadService.completeUpload(TOKEN, sessionId).getBody().getCode());
+    }
+
+    @Test
+    public void testWriteChunk_ChunkTooLarge() {
+        String sessionId = initiate(null);
+
+        ResponseDTO response = writeChunk(sessionId, 0, 20);
+
+        assertEquals(FileValidationMessages.LARGE_FILE, response.getMessage());
+        assertEquals(0, received(response));
+    }
+
+    @Test
+    public void testWriteChunk_NotOwner() {
+        String sessionId = initiate(null);
+
+        ResponseDTO response = chunkedUploadService.writeChunk(OTHER_TOKEN, sessionId, 0, 0, checksum(0, 10), chunk(0, 10)).getBody();
+
+        assertEquals(VarList.RSP_NO_DATA_FOUND, response.getCode());
+        assertEquals(0, files.get(sessionId + "/0").getReceived());
+        assertEquals(VarList.RSP_NO_DATA_FOUND, chunkedUploadService.getUpload(OTHER_TOKEN, sessionId).getBody().getCode());
+        assertEquals(VarList.RSP_NO_DATA_FOUND, chunkedUploadService.completeUpload(OTHER_TOKEN, sessionId).getBody().getCode());
+        assertEquals(VarList.RSP_NO_DATA_FOUND, chunkedUploadService.cancelUpload(OTHER_TOKEN, sessionId).getBody().getCode());
+    }
+
+    @Test
+    public void testCompleteUpload_Incomplete() throws Exception {
+        String sessionId = initiate(null);
+        writeChunk(sessionId, 0, 10);
+
+        ResponseDTO response = chunkedUploadService.completeUpload(TOKEN, sessionId).getBody();
+
+        assertEquals(FileValidationMessages.INCOMPLETE_FILE, response.getMessage());
+        verify(fileStoreService, never()).storeFile(any(Path.class), anyString(), any(Long.class), anyString(), any(FileType.class));
+    }
+
+    @Test
+    public void testCompleteUpload_HashMismatch() throws Exception {
+        String sessionId = initiate(sha256("other".getBytes(StandardCharsets.UTF_8)));
+        writeChunk(sessionId, 0, 10);
+        writeChunk(sessionId, 10, 20);
+
+        ResponseDTO response = chunkedUploadService.completeUpload(TOKEN, sessionId).getBody();
+
+        assertEquals(FileValidationMessages.INVALID_CHECKSUM, response.getMessage());
+        verify(fileStoreService, never()).storeFile(any(Path.class), anyString(), any(Long.class), anyString(), any(FileType.class));
+    }
+
+    @Test
+    public void testInitiateUpload_InvalidFiles() {
+        ChunkedUploadDTO chunkedUploadDTO = new ChunkedUploadDTO(null, FileType.DOCUMENT,
+                List.of(new ChunkedUploadFileDTO("contract.pdf", "application/pdf", 200, null, 0)));
+
+        ResponseDTO response = chunkedUploadService.initiateUpload(TOKEN, chunkedUploadDTO).getBody();
+
+        assertEquals(VarList.RSP_FAIL, response.getCode());
+        assertEquals(List.of(FileValidationMessages.LARGE_FILE), response.getMessage());
+    }
+
+    @Test
+    public void testInitiateUpload_InvalidToken() {
+        ChunkedUploadDTO chunkedUploadDTO = new ChunkedUploadDTO(null, FileType.DOCUMENT,
+                List.of(new ChunkedUploadFileDTO("contract.pdf", "application/pdf", CONTENT.length, null, 0)));
+
+        ResponseDTO response = chunkedUploadService.initiateUpload("Bearer expired", chunkedUploadDTO).getBody();
+
+        assertEquals(VarList.RSP_NOT_AUTHORISED, response.getCode());
+        assertTrue(sessions.isEmpty());
+    }
+
+    @Test
+    public void testCancelUpload() {
+        String sessionId = initiate(null);
+        writeChunk(sessionId, 0, 10);
+
+        assertEquals(VarList.RSP_SUCCESS, chunkedUploadService.cancelUpload(TOKEN, sessionId).getBody().getCode());
+        assertFalse(Files.exists(tempDirectory.resolve("uploads").resolve(sessionId)));
+        assertTrue(files.isEmpty());
+        assertEquals(VarList.RSP_NO_DATA_FOUND, chunkedUploadService.getUpload(TOKEN, sessionId).getBody().getCode());
+    }
+
+    @Test
+    public void testDeleteExpiredSessions() {
+        String expiredSessionId = initiate(null);
+        String sessionId = initiate(null);
+        sessions.get(expiredSessionId).setLastUsedAt(Instant.now().minus(Duration.ofHours(2)));
+
+        chunkedUploadService.deleteExpiredSessions();
+
+        assertFalse(sessions.containsKey(expiredSessionId));
+        assertFalse(Files.exists(tempDirectory.resolve("uploads").resolve(expiredSessionId)));
+        assertTrue(sessions.containsKey(sessionId));
+    }
+
+    private ChunkedUploadService createService() {
+        ChunkedUploadService service = new ChunkedUploadService(DataSize.ofBytes(100), DataSize.ofBytes(10), Duration.ofHours(1), 100);
+        ReflectionTestUtils.setField(service, "fileService", fileService);
+        ReflectionTestUtils.setField(service, "fileStoreService", fileStoreService);
+        ReflectionTestUtils.setField(service, "userAccountService", userAccountService);
+        ReflectionTestUtils.setField(service, "chunkedUploadSessionRepository", chunkedUploadSessionRepository);
+        ReflectionTestUtils.setField(service, "chunkedUploadSessionFileRepository", chunkedUploadSessionFileRepository);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "responseUtils", new ResponseUtils());
+        return service;
+    }
+
+    private String initiate(String sha256) {
+        ChunkedUploadDTO chunkedUploadDTO = new ChunkedUploadDTO(null, FileType.DOCUMENT,
+                List.of(new ChunkedUploadFileDTO("contract.pdf", "application/pdf", CONTENT.length, sha256, 0)));
+        ResponseDTO response = chunkedUploadService.initiateUpload(TOKEN, chunkedUploadDTO).getBody();
+        assertEquals(VarList.RSP_SUCCESS, response.getCode());
+        return ((ChunkedUploadDTO) response.getContent()).getSessionId();
+    }
+
+    private ResponseDTO writeChunk(String sessionId, int from, int to) {
+        return chunkedUploadService.writeChunk(TOKEN, sessionId, 0, from, checksum(from, to), chunk(from, to)).getBody();
+    }
+
+    private static String checksum(int from, int to) {
+        CRC32C crc = new CRC32C();
+        crc.update(CONTENT, from, to - from);
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static InputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(CONTENT, from, to - from);
+    }
+
+    private static long received(ResponseDTO response) {
+        return ((ChunkedUploadDTO) response.getContent()).getFiles().get(0).getReceived();
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
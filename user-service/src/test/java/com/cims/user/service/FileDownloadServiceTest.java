@@ -0,0 +1,148 @@
+package com.cims.user.service;
+
+import com.cims.user.services.FileDownloadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileDownloadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    private static final String CONTENT_HASH = "5f04a8ed7e3e9ebd1d10e3b1a5ea1d8b7e9e2c3d2b5c27a3b0f1e1c0d9a8b7c6";
+
+    private final FileDownloadService fileDownloadService = new FileDownloadService();
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.writeString(directory.resolve("scan.png_1700000000000"), CONTENT);
+    }
+
+    @Test
+    public void testWriteFile() throws Exception {
+        MockHttpServletResponse response = download(get());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(CONTENT.length(), response.getContentLength());
+        assertEquals("image/png", response.getContentType());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).startsWith("W/\""));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void testWriteFile_ContentTagSentAsStrongETag() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.writeFile(get(), response, file, "scan.png", CONTENT_HASH);
+
+        assertEquals("\"" + CONTENT_HASH + "\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testWriteFile_IfRangeStrongETag() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"" + CONTENT_HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        fileDownloadService.writeFile(request, response, file, "scan.png", CONTENT_HASH);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("abcdefghij", response.getContentAsString());
+    }
+
+    @Test
+    public void testWriteFile_IfRangeWeakETagIgnored() throws Exception {
+        String eTag = download(get()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+        request.addHeader(HttpHeaders.IF_RANGE, eTag);
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    public void testWriteFile_Range() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("abcdefghij", response.getContentAsString());
+        assertEquals("bytes 10-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(10, response.getContentLength());
+    }
+
+    @Test
+    public void testWriteFile_NotModified() throws Exception {
+        String eTag = download(get()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testWriteFile_IfRangeChanged() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"outdated\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    public void testWriteFile_RangeNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testWriteFile_Missing() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.writeFile(get(), response, directory.resolve("missing"), "missing.png");
+
+        assertEquals(404, response.getStatus());
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.writeFile(request, response, file, "scan.png");
+        return response;
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/user/file/imgDownloader/1/scan.png_1700000000000/DOCUMENT");
+    }
+}
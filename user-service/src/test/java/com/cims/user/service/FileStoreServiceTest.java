@@ -0,0 +1,190 @@
+package com.cims.user.service;
+
+import com.cims.user.config.PropertyConfig;
+import com.cims.user.constants.enums.FileType;
+import com.cims.user.entities.FileBlob;
+import com.cims.user.entities.StoredFile;
+import com.cims.user.repositories.FileBlobRepository;
+import com.cims.user.repositories.StoredFileRepository;
+import com.cims.user.services.FileStoreService;
+import com.cims.user.services.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FileStoreServiceTest {
+
+    private static final String CONTENT_HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    private FileStoreService fileStoreService;
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    @Mock
+    private FileBlobRepository fileBlobRepository;
+
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    @TempDir
+    private Path storeLocation;
+
+    @BeforeEach
+    public void setUp() {
+        PropertyConfig propertyConfig = new PropertyConfig();
+        propertyConfig.setStoreLocation(storeLocation.toString());
+        fileStoreService = new FileStoreService(100);
+        ReflectionTestUtils.setField(fileStoreService, "propertyConfig", propertyConfig);
+        ReflectionTestUtils.setField(fileStoreService, "storedFileRepository", storedFileRepository);
+        ReflectionTestUtils.setField(fileStoreService, "fileBlobRepository", fileBlobRepository);
+        ReflectionTestUtils.setField(fileStoreService, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(fileStoreService, "imageDerivativeService", imageDerivativeService);
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        String name = fileStoreService.store(upload("nic.png"), FileType.DOCUMENT);
+
+        Path contentPath = storeLocation.resolve("2c").resolve("f2").resolve(CONTENT_HASH);
+        assertTrue(name.startsWith("nic.png_"));
+        assertEquals("hello", Files.readString(contentPath));
+        assertEquals(contentPath, fileStoreService.getFile(name));
+        verify(fileBlobRepository).addReference(CONTENT_HASH, 5);
+        ArgumentCaptor<StoredFile> storedFile = ArgumentCaptor.forClass(StoredFile.class);
+        verify(storedFileRepository).save(storedFile.capture());
+        assertEquals(CONTENT_HASH, storedFile.getValue().getContentHash());
+        assertEquals(FileType.DOCUMENT, storedFile.getValue().getFileType());
+        assertTempDirectoryEmpty();
+    }
+
+    @Test
+    public void testStore_SameContentStoredOnce() throws Exception {
+        String name = fileStoreService.store(upload("nic.png"), FileType.DOCUMENT);
+        String otherName = fileStoreService.store(upload("nic.png"), FileType.HISTORY);
+
+        assertNotEquals(name, otherName);
+        assertEquals(fileStoreService.getFile(name), fileStoreService.getFile(otherName));
+        verify(fileBlobRepository, times(2)).addReference(CONTENT_HASH, 5);
+        try (Stream<Path> files = Files.walk(storeLocation)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void testStore_PathRemovedFromName() throws Exception {
+        String name = fileStoreService.store(upload("../../etc/nic.png"), FileType.DOCUMENT);
+
+        assertTrue(name.startsWith("nic.png_"));
+    }
+
+    @Test
+    public void testGetFile_NotStored() {
+        when(storedFileRepository.findById("nic.png_1700000000000")).thenReturn(Optional.empty());
+
+        assertNull(fileStoreService.getFile("nic.png_1700000000000"));
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        String name = fileStoreService.store(upload("nic.png"), FileType.DOCUMENT);
+        StoredFile storedFile = new StoredFile(name, CONTENT_HASH, FileType.DOCUMENT, 5, Instant.now());
+        when(storedFileRepository.findById(name)).thenReturn(Optional.of(storedFile));
+        when(fileBlobRepository.deleteIfUnreferenced(CONTENT_HASH)).thenReturn(1);
+
+        fileStoreService.release(name);
+
+        verify(storedFileRepository).delete(storedFile);
+        verify(fileBlobRepository).removeReference(CONTENT_HASH);
+        assertFalse(Files.exists(storeLocation.resolve("2c").resolve("f2").resolve(CONTENT_HASH)));
+    }
+
+    @Test
+    public void testRelease_ContentStillReferenced() throws Exception {
+        String name = fileStoreService.store(upload("nic.png"), FileType.DOCUMENT);
+        StoredFile storedFile = new StoredFile(name, CONTENT_HASH, FileType.DOCUMENT, 5, Instant.now());
+        when(storedFileRepository.findById(name)).thenReturn(Optional.of(storedFile));
+        when(fileBlobRepository.deleteIfUnreferenced(CONTENT_HASH)).thenReturn(0);
+
+        fileStoreService.release(name);
+
+        verify(fileBlobRepository).removeReference(CONTENT_HASH);
+        verify(fileBlobRepository, never()).deleteById(CONTENT_HASH);
+        assertTrue(Files.exists(storeLocation.resolve("2c").resolve("f2").resolve(CONTENT_HASH)));
+    }
+
+    @Test
+    public void testRelease_ContentDeletedAfterCommit() throws Exception {
+        String name = fileStoreService.store(upload("nic.png"), FileType.DOCUMENT);
+        StoredFile storedFile = new StoredFile(name, CONTENT_HASH, FileType.DOCUMENT, 5, Instant.now());
+        when(storedFileRepository.findById(name)).thenReturn(Optional.of(storedFile));
+        when(fileBlobRepository.deleteIfUnreferenced(CONTENT_HASH)).thenReturn(1);
+        Path contentPath = storeLocation.resolve("2c").resolve("f2").resolve(CONTENT_HASH);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fileStoreService.release(name);
+
+            assertTrue(Files.exists(contentPath));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(Files.exists(contentPath));
+        verify(imageDerivativeService).deleteDerivatives(contentPath);
+    }
+
+    @Test
+    public void testRelease_ContentStoredAgainBeforeDelete() throws Exception {
+        String name = fileStoreService.store(upload("nic.png"), FileType.DOCUMENT);
+        StoredFile storedFile = new StoredFile(name, CONTENT_HASH, FileType.DOCUMENT, 5, Instant.now());
+        when(storedFileRepository.findById(name)).thenReturn(Optional.of(storedFile));
+        when(fileBlobRepository.deleteIfUnreferenced(CONTENT_HASH)).thenReturn(1);
+        when(fileBlobRepository.findLockedByContentHash(CONTENT_HASH)).thenReturn(Optional.of(new FileBlob(CONTENT_HASH, 5, 1)));
+
+        fileStoreService.release(name);
+
+        assertTrue(Files.exists(storeLocation.resolve("2c").resolve("f2").resolve(CONTENT_HASH)));
+        verify(imageDerivativeService, never()).deleteDerivatives(any());
+    }
+
+    private static MockMultipartFile upload(String originalFilename) {
+        return new MockMultipartFile("file", originalFilename, "image/png", "hello".getBytes());
+    }
+
+    private void assertTempDirectoryEmpty() throws Exception {
+        try (Stream<Path> files = Files.list(storeLocation.resolve("tmp"))) {
+            assertEquals(0, files.count());
+        }
+    }
+}
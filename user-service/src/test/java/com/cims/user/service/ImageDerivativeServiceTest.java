@@ -0,0 +1,150 @@
+package com.cims.user.service;
+
+import com.cims.user.config.PropertyConfig;
+import com.cims.user.constants.enums.ImageSize;
+import com.cims.user.services.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageDerivativeServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private ImageDerivativeService imageDerivativeService;
+
+    @BeforeEach
+    public void setUp() {
+        imageDerivativeService = createService(DataSize.ofMegabytes(10));
+    }
+
+    @Test
+    public void testGetDerivative() throws Exception {
+        Path original = writeImage("scan.png_1", 2000, 1000, BufferedImage.TYPE_INT_RGB, "png");
+
+        Path derivative = imageDerivativeService.getDerivative(original, ImageSize.PREVIEW);
+
+        assertEquals(directory.resolve("scan.png_1.preview.jpg"), derivative);
+        BufferedImage image = ImageIO.read(derivative.toFile());
+        assertEquals(800, image.getWidth());
+        assertEquals(400, image.getHeight());
+        assertEquals(derivative, imageDerivativeService.getDerivative(original, ImageSize.PREVIEW));
+    }
+
+    @Test
+    public void testGetDerivative_TransparentImageKeptAsPng() throws Exception {
+        Path original = writeImage("logo.png_1", 1000, 1000, BufferedImage.TYPE_INT_ARGB, "png");
+
+        Path derivative = imageDerivativeService.getDerivative(original, ImageSize.THUMBNAIL);
+
+        assertEquals(directory.resolve("logo.png_1.thumbnail.png"), derivative);
+        BufferedImage image = ImageIO.read(derivative.toFile());
+        assertEquals(160, image.getWidth());
+        assertTrue(image.getColorModel().hasAlpha());
+    }
+
+    @Test
+    public void testGetDerivative_SmallImageServedAsOriginal() throws Exception {
+        Path original = writeImage("icon.png_1", 100, 100, BufferedImage.TYPE_INT_RGB, "png");
+
+        assertNull(imageDerivativeService.getDerivative(original, ImageSize.THUMBNAIL));
+        assertFalse(Files.exists(directory.resolve("icon.png_1.thumbnail.jpg")));
+    }
+
+    @Test
+    public void testGetDerivative_NotAnImage() throws Exception {
+        Path original = Files.writeString(directory.resolve("contract.pdf_1"), "%PDF-1.4");
+
+        assertNull(imageDerivativeService.getDerivative(original, ImageSize.THUMBNAIL));
+    }
+
+    @Test
+    public void testGetDerivative_LeastRecentlyUsedDeletedOverBudget() throws Exception {
+        Path first = writeImage("first.png_1", 1000, 1000, BufferedImage.TYPE_INT_RGB, "png");
+        Path second = writeImage("second.png_1", 1000, 1000, BufferedImage.TYPE_INT_RGB, "png");
+        Path third = writeImage("third.png_1", 1000, 1000, BufferedImage.TYPE_INT_RGB, "png");
+        long size = Files.size(imageDerivativeService.getDerivative(first, ImageSize.THUMBNAIL));
+        imageDerivativeService = createService(DataSize.ofBytes(size * 2 + size / 2));
+
+        Path firstDerivative = imageDerivativeService.getDerivative(first, ImageSize.THUMBNAIL);
+        Path secondDerivative = imageDerivativeService.getDerivative(second, ImageSize.THUMBNAIL);
+        imageDerivativeService.getDerivative(first, ImageSize.THUMBNAIL);
+        Path thirdDerivative = imageDerivativeService.getDerivative(third, ImageSize.THUMBNAIL);
+
+        assertTrue(Files.exists(firstDerivative));
+        assertFalse(Files.exists(secondDerivative));
+        assertTrue(Files.exists(thirdDerivative));
+    }
+
+    @Test
+    public void testIndexDerivatives() throws Exception {
+        Path older = Files.write(directory.resolve("older.png_1.thumbnail.jpg"), new byte[600]);
+        Path newer = Files.write(directory.resolve("newer.png_1.thumbnail.jpg"), new byte[600]);
+        Path tempFile = Files.write(directory.resolve("newer.png_1.thumbnail.123.tmp"), new byte[10]);
+        Files.setLastModifiedTime(older, FileTime.from(Instant.now().minusSeconds(60)));
+        imageDerivativeService = createService(DataSize.ofBytes(1000));
+
+        imageDerivativeService.indexDerivatives();
+
+        assertFalse(Files.exists(older));
+        assertTrue(Files.exists(newer));
+        assertFalse(Files.exists(tempFile));
+    }
+
+    @Test
+    public void testDeleteDerivatives() throws Exception {
+        Path original = writeImage("scan.png_1", 2000, 1000, BufferedImage.TYPE_INT_RGB, "png");
+        Path derivative = imageDerivativeService.getDerivative(original, ImageSize.PREVIEW);
+
+        imageDerivativeService.deleteDerivatives(original);
+
+        assertFalse(Files.exists(derivative));
+    }
+
+    @Test
+    public void testGetFileName() {
+        assertEquals("scan.jpg", ImageDerivativeService.getFileName("scan.png", directory.resolve("scan.png_1.preview.jpg")));
+    }
+
+    private ImageDerivativeService createService(DataSize diskBudget) {
+        PropertyConfig propertyConfig = new PropertyConfig();
+        propertyConfig.setStoreLocation(directory.toString());
+        propertyConfig.setDocumentLocation(directory.toString());
+        propertyConfig.setHistoryLocation(directory.toString());
+        propertyConfig.setProjectLocation(directory.toString());
+        ImageDerivativeService service = new ImageDerivativeService(diskBudget, 1, 10);
+        ReflectionTestUtils.setField(service, "propertyConfig", propertyConfig);
+        return service;
+    }
+
+    private Path writeImage(String name, int width, int height, int type, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(new Color(40, 120, 200, 128));
+            graphics.fillRect(0, 0, width / 2, height / 2);
+        } finally {
+            graphics.dispose();
+        }
+        Path file = directory.resolve(name);
+        ImageIO.write(image, format, file.toFile());
+        return file;
+    }
+}
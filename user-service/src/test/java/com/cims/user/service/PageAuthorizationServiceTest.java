@@ -0,0 +1,111 @@
+package com.cims.user.service;
+
+import com.cims.common.jwt.JwtKeySet;
+import com.cims.user.services.PageAuthorizationService;
+import com.cims.user.services.TokenRevocationService;
+import com.cims.user.utils.JwtUtils;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PageAuthorizationServiceTest {
+
+    private static final String KEY_ID = "test-key";
+
+    private static final KeyPair KEY_PAIR = generateKeyPair();
+
+    private PageAuthorizationService pageAuthorizationService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private JwtKeySet jwtKeySet;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(jwtKeySet.getKey(eq(KEY_ID), any())).thenReturn(KEY_PAIR.getPublic());
+        pageAuthorizationService = new PageAuthorizationService(100);
+        ReflectionTestUtils.setField(pageAuthorizationService, "jwtUtils", new JwtUtils(jwtKeySet));
+        ReflectionTestUtils.setField(pageAuthorizationService, "tokenRevocationService", tokenRevocationService);
+    }
+
+    @Test
+    public void testIsAuthorized() {
+        String token = createToken("USER_john", 60000);
+
+        assertTrue(pageAuthorizationService.isAuthorized(token, "john"));
+        assertFalse(pageAuthorizationService.isAuthorized(token, "jane"));
+        assertFalse(pageAuthorizationService.isAuthorized(token, null));
+    }
+
+    @Test
+    public void testGetUserName_VerifiedTokenCached() {
+        String token = createToken("USER_john", 60000);
+
+        assertEquals("john", pageAuthorizationService.getUserName(token));
+        assertEquals("john", pageAuthorizationService.getUserName(token));
+
+        verify(jwtKeySet, times(1)).getKey(eq(KEY_ID), any());
+    }
+
+    @Test
+    public void testGetUserName_RevokedTokenRejected() {
+        String token = createToken("USER_john", 60000);
+        assertEquals("john", pageAuthorizationService.getUserName(token));
+
+        when(tokenRevocationService.isRevoked(any(byte[].class))).thenReturn(true);
+
+        assertNull(pageAuthorizationService.getUserName(token));
+    }
+
+    @Test
+    public void testGetUserName_InvalidToken() {
+        assertNull(pageAuthorizationService.getUserName("invalid"));
+        assertNull(pageAuthorizationService.getUserName(createToken("USER_john", -1000)));
+        assertNull(pageAuthorizationService.getUserName(null));
+    }
+
+    private static String createToken(String subject, long lifetimeMillis) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, KEY_ID)
+                .setSubject(subject)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + lifetimeMillis))
+                .signWith(KEY_PAIR.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
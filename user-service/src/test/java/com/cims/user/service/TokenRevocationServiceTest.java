@@ -0,0 +1,143 @@
+package com.cims.user.service;
+
+import com.cims.common.jwt.JwtKeySet;
+import com.cims.user.dtos.RevokedTokenDTO;
+import com.cims.user.entities.RevokedToken;
+import com.cims.user.repositories.RevokedTokenRepository;
+import com.cims.user.services.TokenRevocationService;
+import com.cims.user.utils.JwtUtils;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    private static final String KEY_ID = "test-key";
+
+    private static final KeyPair KEY_PAIR = generateKeyPair();
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private JwtKeySet jwtKeySet;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(jwtKeySet.getKey(eq(KEY_ID), any())).thenReturn(KEY_PAIR.getPublic());
+        ReflectionTestUtils.setField(tokenRevocationService, "jwtUtils", new JwtUtils(jwtKeySet));
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedTokens", 100L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(tokenRevocationService, "syncIntervalMillis", 10000L);
+    }
+
+    @Test
+    public void testRevokeToken() {
+        String token = createToken("USER_john");
+        String otherToken = createToken("USER_jane");
+
+        tokenRevocationService.revokeToken(token);
+
+        assertTrue(tokenRevocationService.isRevoked(token));
+        assertFalse(tokenRevocationService.isRevoked(otherToken));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    public void testRevokeToken_InvalidToken() {
+        tokenRevocationService.revokeToken("invalid");
+
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    public void testSynchronize_ReadsTokensRevokedByOtherInstances() {
+        String token = createToken("USER_john");
+        RevokedToken revokedToken = new RevokedToken(HexFormat.of().formatHex(JwtUtils.hash(token)), "john",
+                Instant.now().plusSeconds(60), Instant.now());
+        when(revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(revokedToken));
+
+        assertFalse(tokenRevocationService.isRevoked(token));
+        tokenRevocationService.synchronize();
+
+        assertTrue(tokenRevocationService.isRevoked(token));
+        verify(revokedTokenRepository).deleteAllExpiredBefore(any(Instant.class));
+    }
+
+    @Test
+    public void testSynchronize_DropsExpiredTokens() {
+        String token = createToken("USER_john");
+        RevokedToken revokedToken = new RevokedToken(HexFormat.of().formatHex(JwtUtils.hash(token)), "john",
+                Instant.now().minusSeconds(1), Instant.now().minusSeconds(60));
+        when(revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(revokedToken));
+
+        tokenRevocationService.synchronize();
+
+        assertFalse(tokenRevocationService.isRevoked(token));
+        assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(tokenRevocationService, "revokedTokens")).size());
+    }
+
+    @Test
+    public void testGetRevokedTokensSince() {
+        Instant since = Instant.now().minusSeconds(10);
+        RevokedToken revokedToken = new RevokedToken("ab12", "john", Instant.now().plusSeconds(60), Instant.now());
+        when(revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(eq(since), any(Instant.class)))
+                .thenReturn(List.of(revokedToken));
+
+        List<RevokedTokenDTO> revokedTokens = tokenRevocationService.getRevokedTokensSince(since);
+
+        assertEquals(List.of(new RevokedTokenDTO("ab12", revokedToken.getExpiresAt(), revokedToken.getRevokedAt())), revokedTokens);
+    }
+
+    private static String createToken(String subject) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, KEY_ID)
+                .setSubject(subject)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(KEY_PAIR.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cims.user.service;
+
+import com.cims.user.constants.enums.Status;
+import com.cims.user.dtos.UserAccountResponseDTO;
+import com.cims.user.utils.UserAccountCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserAccountCacheTest {
+
+    private static final UserAccountResponseDTO ADMIN = new UserAccountResponseDTO("1", "ADMIN", "CM", "1", Status.ACTIVE);
+
+    private static final UserAccountResponseDTO CLERK = new UserAccountResponseDTO("2", "CLERK", "CM", "2", Status.ACTIVE);
+
+    private final UserAccountCache userAccountCache = new UserAccountCache(100, Duration.ofMinutes(1));
+
+    @Test
+    public void testGet() {
+        userAccountCache.put("hash", Instant.now().plusSeconds(60), ADMIN);
+
+        assertSame(ADMIN, userAccountCache.get("hash"));
+        assertNull(userAccountCache.get("other"));
+    }
+
+    @Test
+    public void testGet_ExpiredTokenDropped() {
+        userAccountCache.put("hash", Instant.now().minusSeconds(1), ADMIN);
+
+        assertNull(userAccountCache.get("hash"));
+        assertTrue(index().isEmpty());
+    }
+
+    @Test
+    public void testEvictAfterCommit_DropsOnlyTokensOfUser() {
+        userAccountCache.put("first", Instant.now().plusSeconds(60), ADMIN);
+        userAccountCache.put("second", Instant.now().plusSeconds(60), ADMIN);
+        userAccountCache.put("third", Instant.now().plusSeconds(60), CLERK);
+
+        userAccountCache.evictAfterCommit("ADMIN");
+
+        assertNull(userAccountCache.get("first"));
+        assertNull(userAccountCache.get("second"));
+        assertSame(CLERK, userAccountCache.get("third"));
+        assertEquals(Map.of("CLERK", Set.of("third")), index());
+    }
+
+    @Test
+    public void testInvalidate_RemovesTokenFromIndex() {
+        userAccountCache.put("first", Instant.now().plusSeconds(60), ADMIN);
+        userAccountCache.put("second", Instant.now().plusSeconds(60), ADMIN);
+
+        userAccountCache.invalidate("first");
+
+        assertEquals(Map.of("ADMIN", Set.of("second")), index());
+        userAccountCache.invalidate("second");
+        assertTrue(index().isEmpty());
+    }
+
+    @Test
+    public void testPut_ReplacedTokenStaysIndexed() {
+        userAccountCache.put("hash", Instant.now().plusSeconds(60), ADMIN);
+        userAccountCache.put("hash", Instant.now().plusSeconds(60), ADMIN);
+
+        userAccountCache.evictAfterCommit("ADMIN");
+
+        assertNull(userAccountCache.get("hash"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> index() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(userAccountCache, "tokenHashesByUserName");
+    }
+}